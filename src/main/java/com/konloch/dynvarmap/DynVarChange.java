@@ -0,0 +1,160 @@
+package com.konloch.dynvarmap;
+
+/**
+ * Describes a single change to a variable, delivered to any DynVarListener.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+public class DynVarChange
+{
+	private final DynVarMap map;
+	private final String key;
+	private final Type type;
+	private final DynVarField field;
+	private final DynVarField previousField;
+	private final Object oldValue;
+	private final Object newValue;
+	
+	/**
+	 * Constructs a new DynVarChange.
+	 *
+	 * @param map the DynVarMap the variable belongs to, or null
+	 * @param key the variable name, or null for a map clear
+	 * @param type the Type of change
+	 * @param field the DynVarField after the change
+	 * @param previousField the DynVarField before the change
+	 * @param oldValue the variable value before the change
+	 * @param newValue the variable value after the change
+	 */
+	public DynVarChange(DynVarMap map, String key, Type type, DynVarField field, DynVarField previousField, Object oldValue, Object newValue)
+	{
+		this.map = map;
+		this.key = key;
+		this.type = type;
+		this.field = field;
+		this.previousField = previousField;
+		this.oldValue = oldValue;
+		this.newValue = newValue;
+	}
+	
+	/**
+	 * Combine this change with a later change to the same variable, keeping the original previous state.
+	 *
+	 * @param later the later DynVarChange
+	 * @return the coalesced DynVarChange
+	 */
+	DynVarChange coalesce(DynVarChange later)
+	{
+		return new DynVarChange(later.map, later.key, later.type, later.field, previousField, oldValue, later.newValue);
+	}
+	
+	/**
+	 * Returns the DynVarMap the variable belongs to.
+	 *
+	 * @return the DynVarMap, or null if the field is not stored in a map
+	 */
+	public DynVarMap getMap()
+	{
+		return map;
+	}
+	
+	/**
+	 * Returns the variable name.
+	 *
+	 * @return the variable name, or null for a map clear
+	 */
+	public String getKey()
+	{
+		return key;
+	}
+	
+	/**
+	 * Returns the type of change.
+	 *
+	 * @return the change Type
+	 */
+	public Type getType()
+	{
+		return type;
+	}
+	
+	/**
+	 * Returns the field after the change.
+	 *
+	 * @return the DynVarField, or null if it was removed
+	 */
+	public DynVarField getField()
+	{
+		return field;
+	}
+	
+	/**
+	 * Returns the field that was stored before a put, retype or remove.
+	 *
+	 * @return the previous DynVarField, or null if there was none
+	 */
+	public DynVarField getPreviousField()
+	{
+		return previousField;
+	}
+	
+	/**
+	 * Returns the variable value before the change.
+	 *
+	 * @param <T> the variable value Type
+	 * @return the old variable value
+	 */
+	public <T> T getOldValue()
+	{
+		return (T) oldValue;
+	}
+	
+	/**
+	 * Returns the variable value after the change.
+	 *
+	 * @param <T> the variable value Type
+	 * @return the new variable value
+	 */
+	public <T> T getNewValue()
+	{
+		return (T) newValue;
+	}
+	
+	@Override
+	public String toString()
+	{
+		return type + " " + key + ": " + oldValue + " -> " + newValue;
+	}
+	
+	/**
+	 * The kind of change that happened.
+	 */
+	public enum Type
+	{
+		/**
+		 * The value was set on an existing field.
+		 */
+		SET,
+		/**
+		 * The value was changed by add, subtract, multiply, divide or bitwiseXor.
+		 */
+		ARITHMETIC,
+		/**
+		 * A field was inserted, or replaced by a field of the same type.
+		 */
+		PUT,
+		/**
+		 * A field was removed.
+		 */
+		REMOVE,
+		/**
+		 * A field was replaced by a field of a different vars type.
+		 */
+		RETYPE,
+		/**
+		 * The whole map was cleared.
+		 */
+		CLEAR
+	}
+}
@@ -0,0 +1,78 @@
+package com.konloch.dynvarmap;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * Defines the classes generated by DynVarMap in its own package.
+ *
+ * This is the Java 8 implementation which defines anonymous classes through sun.misc.Unsafe, on Java 11+ the
+ * multi-release variant of this class is loaded instead which uses hidden classes where the JVM supports them.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+final class DynVarClassDefiner
+{
+	private static final Object DEFINER;
+	private static final Method DEFINE;
+	private static final boolean ANONYMOUS;
+	
+	static
+	{
+		Object definer;
+		Method define;
+		boolean anonymous;
+		
+		try
+		{
+			//looked up reflectively since newer JDKs compiling this release no longer declare the method
+			Class<?> unsafe = Class.forName("sun.misc.Unsafe");
+			Field field = unsafe.getDeclaredField("theUnsafe");
+			field.setAccessible(true);
+			definer = field.get(null);
+			define = unsafe.getMethod("defineAnonymousClass", Class.class, byte[].class, Object[].class);
+			anonymous = true;
+		}
+		catch (ReflectiveOperationException e)
+		{
+			//only reached when the classes are used outside of the multi-release jar on Java 17+
+			try
+			{
+				definer = MethodHandles.lookup();
+				define = MethodHandles.Lookup.class.getMethod("defineClass", byte[].class);
+				anonymous = false;
+			}
+			catch (ReflectiveOperationException e2)
+			{
+				throw new ExceptionInInitializerError(e2);
+			}
+		}
+		
+		DEFINER = definer;
+		DEFINE = define;
+		ANONYMOUS = anonymous;
+	}
+	
+	/**
+	 * Define a class in the com.konloch.dynvarmap package, anonymous classes are unloaded once no longer used.
+	 *
+	 * @param bytes the class file
+	 * @return the defined Class
+	 */
+	static Class<?> define(byte[] bytes)
+	{
+		try
+		{
+			if(ANONYMOUS)
+				return (Class<?>) DEFINE.invoke(DEFINER, DynVarClassDefiner.class, bytes, null);
+			
+			return (Class<?>) DEFINE.invoke(DEFINER, (Object) bytes);
+		}
+		catch (ReflectiveOperationException e)
+		{
+			throw new IllegalStateException("Unable to define a generated class", e);
+		}
+	}
+}
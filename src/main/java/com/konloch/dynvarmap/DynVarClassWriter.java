@@ -0,0 +1,331 @@
+package com.konloch.dynvarmap;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A minimal class file writer, just enough to generate the frozen key classes without a bytecode library.
+ *
+ * Classes are written as version 49 (Java 5), which needs no stack map frames, so methods are plain bytecode
+ * with their max stack and locals. Constants are pooled and deduplicated.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+final class DynVarClassWriter
+{
+	static final int ACC_PUBLIC = 0x0001;
+	static final int ACC_PRIVATE = 0x0002;
+	static final int ACC_FINAL = 0x0010;
+	static final int ACC_SUPER = 0x0020;
+	
+	static final int ACONST_NULL = 0x01;
+	static final int SIPUSH = 0x11;
+	static final int LDC_W = 0x13;
+	static final int ILOAD_2 = 0x1C;
+	static final int ALOAD_0 = 0x2A;
+	static final int ALOAD_1 = 0x2B;
+	static final int AALOAD = 0x32;
+	static final int ISTORE_2 = 0x3D;
+	static final int IFEQ = 0x99;
+	static final int IF_ICMPLT = 0xA1;
+	static final int LOOKUPSWITCH = 0xAB;
+	static final int ARETURN = 0xB0;
+	static final int RETURN = 0xB1;
+	static final int GETFIELD = 0xB4;
+	static final int PUTFIELD = 0xB5;
+	static final int INVOKEVIRTUAL = 0xB6;
+	static final int INVOKESPECIAL = 0xB7;
+	
+	private static final int VERSION = 49;
+	private static final int CONSTANT_UTF8 = 1;
+	private static final int CONSTANT_INTEGER = 3;
+	private static final int CONSTANT_CLASS = 7;
+	private static final int CONSTANT_STRING = 8;
+	private static final int CONSTANT_FIELDREF = 9;
+	private static final int CONSTANT_METHODREF = 10;
+	private static final int CONSTANT_NAME_AND_TYPE = 12;
+	
+	private final ByteArrayOutputStream poolBytes = new ByteArrayOutputStream();
+	private final DataOutputStream pool = new DataOutputStream(poolBytes);
+	private final Map<String, Integer> constants = new HashMap<>();
+	private int poolCount = 1;
+	
+	private final ByteArrayOutputStream fieldBytes = new ByteArrayOutputStream();
+	private final DataOutputStream fields = new DataOutputStream(fieldBytes);
+	private int fieldCount;
+	
+	private final ByteArrayOutputStream methodBytes = new ByteArrayOutputStream();
+	private final DataOutputStream methods = new DataOutputStream(methodBytes);
+	private int methodCount;
+	
+	private final int access;
+	private final int thisClass;
+	private final int superClass;
+	
+	/**
+	 * Constructs a new DynVarClassWriter.
+	 *
+	 * @param access the class access flags
+	 * @param name the internal name of the class, such as com/konloch/dynvarmap/DynVarFrozen$1
+	 * @param superName the internal name of the super class
+	 */
+	DynVarClassWriter(int access, String name, String superName)
+	{
+		this.access = access | ACC_SUPER;
+		this.thisClass = classRef(name);
+		this.superClass = classRef(superName);
+	}
+	
+	/**
+	 * Add a field without attributes.
+	 */
+	void field(int access, String name, String descriptor)
+	{
+		write(fields, access, utf8(name), utf8(descriptor), 0);
+		fieldCount++;
+	}
+	
+	/**
+	 * Add a method with a Code attribute and no exception handlers.
+	 */
+	void method(int access, String name, String descriptor, int maxStack, int maxLocals, Code code)
+	{
+		byte[] bytecode = code.toByteArray();
+		write(methods, access, utf8(name), utf8(descriptor), 1, utf8("Code"));
+		
+		try
+		{
+			methods.writeInt(12 + bytecode.length);
+			methods.writeShort(maxStack);
+			methods.writeShort(maxLocals);
+			methods.writeInt(bytecode.length);
+			methods.write(bytecode);
+			methods.writeShort(0);
+			methods.writeShort(0);
+		}
+		catch (IOException e)
+		{
+			throw new IllegalStateException(e);
+		}
+		
+		methodCount++;
+	}
+	
+	/**
+	 * Returns the class file bytes.
+	 *
+	 * @return the class file
+	 */
+	byte[] toByteArray()
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(32 + poolBytes.size() + fieldBytes.size() + methodBytes.size());
+		DataOutputStream out = new DataOutputStream(bytes);
+		
+		try
+		{
+			out.writeInt(0xCAFEBABE);
+			out.writeShort(0);
+			out.writeShort(VERSION);
+			out.writeShort(poolCount);
+			poolBytes.writeTo(out);
+			out.writeShort(access);
+			out.writeShort(thisClass);
+			out.writeShort(superClass);
+			out.writeShort(0);
+			out.writeShort(fieldCount);
+			fieldBytes.writeTo(out);
+			out.writeShort(methodCount);
+			methodBytes.writeTo(out);
+			out.writeShort(0);
+		}
+		catch (IOException e)
+		{
+			throw new IllegalStateException(e);
+		}
+		
+		return bytes.toByteArray();
+	}
+	
+	int utf8(String value)
+	{
+		return constant("U" + value, CONSTANT_UTF8, out -> out.writeUTF(value));
+	}
+	
+	int integer(int value)
+	{
+		return constant("I" + value, CONSTANT_INTEGER, out -> out.writeInt(value));
+	}
+	
+	int classRef(String internalName)
+	{
+		int name = utf8(internalName);
+		return constant("C" + internalName, CONSTANT_CLASS, out -> out.writeShort(name));
+	}
+	
+	int string(String value)
+	{
+		int utf8 = utf8(value);
+		return constant("S" + value, CONSTANT_STRING, out -> out.writeShort(utf8));
+	}
+	
+	int fieldRef(String owner, String name, String descriptor)
+	{
+		return memberRef(CONSTANT_FIELDREF, owner, name, descriptor);
+	}
+	
+	int methodRef(String owner, String name, String descriptor)
+	{
+		return memberRef(CONSTANT_METHODREF, owner, name, descriptor);
+	}
+	
+	private int memberRef(int tag, String owner, String name, String descriptor)
+	{
+		int ownerIndex = classRef(owner);
+		int nameIndex = utf8(name);
+		int descriptorIndex = utf8(descriptor);
+		int nameAndType = constant("N" + name + ' ' + descriptor, CONSTANT_NAME_AND_TYPE, out ->
+		{
+			out.writeShort(nameIndex);
+			out.writeShort(descriptorIndex);
+		});
+		
+		return constant(tag + owner + '.' + name + ' ' + descriptor, tag, out ->
+		{
+			out.writeShort(ownerIndex);
+			out.writeShort(nameAndType);
+		});
+	}
+	
+	private int constant(String key, int tag, Entry entry)
+	{
+		Integer index = constants.get(key);
+		if(index != null)
+			return index;
+		
+		if(poolCount >= 0xFFFF)
+			throw new IllegalStateException("The constant pool is full");
+		
+		try
+		{
+			pool.writeByte(tag);
+			entry.write(pool);
+		}
+		catch (IOException e)
+		{
+			throw new IllegalStateException(e);
+		}
+		
+		constants.put(key, poolCount);
+		return poolCount++;
+	}
+	
+	private static void write(DataOutputStream out, int... shorts)
+	{
+		try
+		{
+			for (int value : shorts)
+				out.writeShort(value);
+		}
+		catch (IOException e)
+		{
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	private interface Entry
+	{
+		void write(DataOutputStream out) throws IOException;
+	}
+	
+	/**
+	 * A growable bytecode buffer for a single method.
+	 */
+	static final class Code
+	{
+		private byte[] bytes = new byte[64];
+		private int length;
+		
+		Code op(int opcode)
+		{
+			return u1(opcode);
+		}
+		
+		Code op(int opcode, int operand)
+		{
+			return u1(opcode).u2(operand);
+		}
+		
+		Code u1(int value)
+		{
+			ensure(1);
+			bytes[length++] = (byte) value;
+			return this;
+		}
+		
+		Code u2(int value)
+		{
+			ensure(2);
+			bytes[length++] = (byte) (value >> 8);
+			bytes[length++] = (byte) value;
+			return this;
+		}
+		
+		Code u4(int value)
+		{
+			return u2(value >>> 16).u2(value & 0xFFFF);
+		}
+		
+		/**
+		 * Pad with zeros until the position is a multiple of four, as the switch instructions require.
+		 */
+		Code align()
+		{
+			while ((length & 3) != 0)
+				u1(0);
+			
+			return this;
+		}
+		
+		int position()
+		{
+			return length;
+		}
+		
+		/**
+		 * Overwrite a previously written two byte operand, used to patch branch offsets.
+		 */
+		void patch2(int position, int value)
+		{
+			bytes[position] = (byte) (value >> 8);
+			bytes[position + 1] = (byte) value;
+		}
+		
+		/**
+		 * Overwrite a previously written four byte operand, used to patch switch offsets.
+		 */
+		void patch4(int position, int value)
+		{
+			patch2(position, value >>> 16);
+			patch2(position + 2, value & 0xFFFF);
+		}
+		
+		byte[] toByteArray()
+		{
+			if(length > 0xFFFF)
+				throw new IllegalStateException("The method is too large, " + length + " bytes");
+			
+			return Arrays.copyOf(bytes, length);
+		}
+		
+		private void ensure(int extra)
+		{
+			if(length + extra > bytes.length)
+				bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+		}
+	}
+}
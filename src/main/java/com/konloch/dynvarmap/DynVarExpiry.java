@@ -0,0 +1,31 @@
+package com.konloch.dynvarmap;
+
+/**
+ * The time-to-live of a single variable, only allocated for fields that have a TTL.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+class DynVarExpiry
+{
+	DynVarField field;
+	long ttl;
+	long expiresAt;
+	
+	DynVarExpiry(DynVarField field, long ttl, long now)
+	{
+		this.field = field;
+		this.ttl = ttl;
+		this.expiresAt = now + ttl;
+	}
+	
+	void touch(long now)
+	{
+		expiresAt = now + ttl;
+	}
+	
+	boolean isExpired(long now)
+	{
+		return now >= expiresAt;
+	}
+}
@@ -1,6 +1,9 @@
 package com.konloch.dynvarmap;
 
+import com.konloch.dynvarmap.vars.DynVarTime;
+
 import java.util.Objects;
+import java.util.concurrent.Executor;
 
 /**
  * A VarMap field contains an object value.
@@ -12,6 +15,11 @@ public class DynVarField
 {
     protected Object value;
     
+    //the map and variable name this field is stored under, assigned by the owning DynVarMap
+    //listeners and time-to-live are rare, so they are kept in side tables instead of on every field
+    DynVarMap owner;
+    String key;
+    
     /**
      * Constructs a new DynVarField with a supplied variable value.
      */
@@ -38,7 +46,10 @@ public class DynVarField
      */
     public DynVarField set(Object value)
     {
+        Object oldValue = this.value;
         this.value = value;
+        
+        changed(DynVarChange.Type.SET, oldValue);
         return this;
     }
     
@@ -242,6 +253,8 @@ public class DynVarField
      */
     public DynVarField add(Object value)
     {
+        Object oldValue = this.value;
+        
         //handle null case
         if(this.value == null)
         {
@@ -373,6 +386,8 @@ public class DynVarField
             else //SHOTGUN (this will most likely fail so when it does replace it with something that does not)
                 this.value = ((short) this.value + (short) value);
         }
+        
+        changed(DynVarChange.Type.ARITHMETIC, oldValue);
         return this;
     }
     
@@ -384,6 +399,8 @@ public class DynVarField
      */
     public DynVarField subtract(Object value)
     {
+        Object oldValue = this.value;
+        
         //subtract on integer
         if(this.value instanceof Integer)
         {
@@ -504,6 +521,7 @@ public class DynVarField
                 this.value = ((short) this.value - (short) value);
         }
         
+        changed(DynVarChange.Type.ARITHMETIC, oldValue);
         return this;
     }
     
@@ -515,6 +533,8 @@ public class DynVarField
      */
     public DynVarField multiply(Object value)
     {
+        Object oldValue = this.value;
+        
         //multiply on integer
         if(this.value instanceof Integer)
         {
@@ -635,6 +655,7 @@ public class DynVarField
                 this.value = ((float) this.value * (float) value);
         }
         
+        changed(DynVarChange.Type.ARITHMETIC, oldValue);
         return this;
     }
     
@@ -646,6 +667,8 @@ public class DynVarField
      */
     public DynVarField divide(Object value)
     {
+        Object oldValue = this.value;
+        
         //divide on integer
         if(this.value instanceof Integer)
         {
@@ -766,6 +789,7 @@ public class DynVarField
                 this.value = ((short) this.value / (short) value);
         }
         
+        changed(DynVarChange.Type.ARITHMETIC, oldValue);
         return this;
     }
     
@@ -777,14 +801,169 @@ public class DynVarField
      */
     public DynVarField bitwiseXor(Object value)
     {
+        Object oldValue = this.value;
+        
         if(this.value instanceof Integer)
             this.value = ((int)this.value ^ (int)value);
         else if(this.value instanceof Long)
             this.value = ((long)this.value ^ (long)value);
         
+        changed(DynVarChange.Type.ARITHMETIC, oldValue);
+        return this;
+    }
+    
+    /**
+     * Register a listener that is called every time this variable changes.
+     *
+     * @param listener any DynVarListener
+     * @return this instance for method chaining
+     */
+    public DynVarField addListener(DynVarListener listener)
+    {
+        return addListener(listener, null);
+    }
+    
+    /**
+     * Register a listener that is called on the supplied Executor, changes made before
+     * the Executor runs are coalesced into a single change.
+     *
+     * @param listener any DynVarListener
+     * @param executor any Executor, or null to call the listener directly
+     * @return this instance for method chaining
+     */
+    public DynVarField addListener(DynVarListener listener, Executor executor)
+    {
+        DynVarListenerRegistration registration = new DynVarListenerRegistration(listener, executor);
+        DynVarMap map = owner;
+        
+        if(map != null)
+            map.listeners().addField(this, registration);
+        else
+            DynVarFieldListeners.add(this, registration);
+        
         return this;
     }
     
+    /**
+     * Remove a previously registered listener.
+     *
+     * @param listener any DynVarListener
+     * @return this instance for method chaining
+     */
+    public DynVarField removeListener(DynVarListener listener)
+    {
+        DynVarMap map = owner;
+        
+        if(map != null)
+            map.listeners().removeField(this, listener);
+        else
+            DynVarFieldListeners.remove(this, listener);
+        
+        return this;
+    }
+    
+    /**
+     * Returns the DynVarMap this field is stored in.
+     *
+     * @return the DynVarMap, or null if the field is not stored in a map
+     */
+    public DynVarMap getMap()
+    {
+        return owner;
+    }
+    
+    /**
+     * Returns the variable name this field is stored under.
+     *
+     * @return the variable name, or null if the field is not stored in a map
+     */
+    public String getKey()
+    {
+        return key;
+    }
+    
+    /**
+     * Returns the current variable value for code that reads it without calling get, such as transactions,
+     * stats and the hash tree. Fields whose value lives outside of the heap refresh the cached value first.
+     *
+     * @return the current variable value
+     */
+    protected Object read()
+    {
+        return value;
+    }
+    
+    /**
+     * Store a value without notifying listeners, used by a committing transaction which notifies them once
+     * every write is published. Fields whose value lives outside of the heap write it through.
+     *
+     * @param value any Object as the variable value
+     */
+    protected void publish(Object value)
+    {
+        this.value = value;
+    }
+    
+    /**
+     * Notify the field and map listeners that the value has changed.
+     *
+     * @param type the Type of change
+     * @param oldValue the variable value before the change
+     */
+    protected void changed(DynVarChange.Type type, Object oldValue)
+    {
+        DynVarMap map = owner;
+        
+        //writes outside of a transaction still advance the version transactions validate against
+        if(map != null && map.transactions != null)
+            map.transactions.touch(this);
+        
+        fire(type, oldValue);
+    }
+    
+    /**
+     * Notify the field and map listeners of a change without touching the transaction versions, used once a
+     * transaction has published its writes.
+     *
+     * @param type the Type of change
+     * @param oldValue the variable value before the change
+     */
+    void fire(DynVarChange.Type type, Object oldValue)
+    {
+        DynVarMap map = owner;
+        
+        //fields outside of a map can still have listeners of their own
+        if(map == null)
+        {
+            DynVarListenerRegistration[] local = DynVarFieldListeners.get(this);
+            if(local != null)
+            {
+                DynVarChange change = new DynVarChange(null, null, type, this, this, oldValue, value);
+                for (DynVarListenerRegistration registration : local)
+                    registration.deliver(change);
+            }
+            
+            return;
+        }
+        
+        if(map.merkleTree != null)
+            map.merkleTree.update(key, this);
+        
+        if(map.timeIndex != null && this instanceof DynVarTime)
+            map.timeIndex.index(key, this);
+        
+        if(map.persistent != null)
+            map.persistent.update(key, this);
+        
+        //nothing is listening, keep the cost of a change to a couple of reads
+        if(map.isObserved())
+            map.dispatch(new DynVarChange(map, key, type, this, this, oldValue, value));
+        
+        //weighing the new value may evict variables, so it runs after the change was delivered
+        if(map.bounded != null)
+            map.bounded.update(key, this);
+    }
+    
     /**
      * Returns the variable value as a String.
      *
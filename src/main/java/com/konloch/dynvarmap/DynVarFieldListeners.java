@@ -0,0 +1,133 @@
+package com.konloch.dynvarmap;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The listeners registered on fields that are not stored in a DynVarMap, such as a standalone DynVarTime.
+ *
+ * Fields stored in a map keep their listeners in the listener registry of that map, the listeners found here are
+ * moved over once the field is stored and moved back once it is removed. Fields are held weakly and by identity, so a standalone field that is no
+ * longer used is collected along with its listeners.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+final class DynVarFieldListeners
+{
+	private static final Map<Key, DynVarListenerRegistration[]> TABLE = new HashMap<>();
+	private static final ReferenceQueue<DynVarField> COLLECTED = new ReferenceQueue<>();
+	
+	//read without locking, so fields pay nothing while no standalone field has listeners
+	private static volatile int size;
+	
+	private DynVarFieldListeners()
+	{
+	}
+	
+	static synchronized void add(DynVarField field, DynVarListenerRegistration registration)
+	{
+		expunge();
+		Key key = new Key(field, COLLECTED);
+		TABLE.put(key, DynVarListenerRegistration.add(TABLE.get(key), registration));
+		size = TABLE.size();
+	}
+	
+	static synchronized void add(DynVarField field, DynVarListenerRegistration[] registrations)
+	{
+		for (DynVarListenerRegistration registration : registrations)
+			add(field, registration);
+	}
+	
+	static synchronized void remove(DynVarField field, DynVarListener listener)
+	{
+		expunge();
+		Key key = new Key(field, null);
+		DynVarListenerRegistration[] kept = DynVarListenerRegistration.remove(TABLE.get(key), listener);
+		
+		if(kept == null)
+			TABLE.remove(key);
+		else
+			TABLE.put(new Key(field, COLLECTED), kept);
+		
+		size = TABLE.size();
+	}
+	
+	/**
+	 * Returns the listeners of a standalone field.
+	 *
+	 * @param field any DynVarField
+	 * @return the registrations, or null if the field has none
+	 */
+	static DynVarListenerRegistration[] get(DynVarField field)
+	{
+		if(size == 0)
+			return null;
+		
+		synchronized (DynVarFieldListeners.class)
+		{
+			return TABLE.get(new Key(field, null));
+		}
+	}
+	
+	/**
+	 * Remove and return the listeners of a field that is about to be stored in a map.
+	 *
+	 * @param field any DynVarField
+	 * @return the registrations, or null if the field has none
+	 */
+	static DynVarListenerRegistration[] take(DynVarField field)
+	{
+		if(size == 0)
+			return null;
+		
+		synchronized (DynVarFieldListeners.class)
+		{
+			DynVarListenerRegistration[] registrations = TABLE.remove(new Key(field, null));
+			size = TABLE.size();
+			return registrations;
+		}
+	}
+	
+	private static void expunge()
+	{
+		Object collected;
+		while ((collected = COLLECTED.poll()) != null)
+			TABLE.remove(collected);
+	}
+	
+	/**
+	 * A weak identity key, collected keys only equal themselves so they can still be expunged.
+	 */
+	private static final class Key extends WeakReference<DynVarField>
+	{
+		private final int hash;
+		
+		private Key(DynVarField field, ReferenceQueue<DynVarField> queue)
+		{
+			super(field, queue);
+			this.hash = System.identityHashCode(field);
+		}
+		
+		@Override
+		public int hashCode()
+		{
+			return hash;
+		}
+		
+		@Override
+		public boolean equals(Object o)
+		{
+			if(this == o)
+				return true;
+			
+			if(!(o instanceof Key))
+				return false;
+			
+			DynVarField field = get();
+			return field != null && field == ((Key) o).get();
+		}
+	}
+}
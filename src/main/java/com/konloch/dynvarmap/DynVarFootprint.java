@@ -0,0 +1,433 @@
+package com.konloch.dynvarmap;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An estimate of the heap memory held by a DynVarMap, computed from the known HotSpot object layouts.
+ *
+ * No agent or instrumentation is used, object sizes are derived from the declared instance fields of each
+ * class, the reference size (compressed oops aware) and the object alignment. Class sizes are cached so
+ * estimating a map only costs a single pass over its variables.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+public class DynVarFootprint
+{
+	private static final boolean COMPRESSED_OOPS = readBooleanOption("UseCompressedOops", defaultCompressedOops());
+	private static final boolean COMPRESSED_CLASS_POINTERS = readBooleanOption("UseCompressedClassPointers", COMPRESSED_OOPS);
+	private static final int REFERENCE_SIZE = COMPRESSED_OOPS ? 4 : 8;
+	private static final int OBJECT_HEADER = COMPRESSED_CLASS_POINTERS ? 12 : 16;
+	private static final int ARRAY_HEADER = OBJECT_HEADER + 4;
+	private static final int ALIGNMENT = 8;
+	private static final boolean COMPACT_STRINGS = hasField(String.class, "coder");
+
+	private static final ClassValue<Long> SHALLOW_SIZES = new ClassValue<Long>()
+	{
+		@Override
+		protected Long computeValue(Class<?> type)
+		{
+			return computeShallowSize(type);
+		}
+	};
+
+	private final int entries;
+	private final long tableBytes;
+	private final long entryBytes;
+	private final long keyBytes;
+	private final long fieldBytes;
+	private final long boxedValueBytes;
+	private final long stringValueBytes;
+	private final long otherValueBytes;
+	private final Map<Class<? extends DynVarField>, Long> bytesByType;
+
+	private DynVarFootprint(int entries, long tableBytes, long entryBytes, long keyBytes, long fieldBytes,
+	                        long boxedValueBytes, long stringValueBytes, long otherValueBytes,
+	                        Map<Class<? extends DynVarField>, Long> bytesByType)
+	{
+		this.entries = entries;
+		this.tableBytes = tableBytes;
+		this.entryBytes = entryBytes;
+		this.keyBytes = keyBytes;
+		this.fieldBytes = fieldBytes;
+		this.boxedValueBytes = boxedValueBytes;
+		this.stringValueBytes = stringValueBytes;
+		this.otherValueBytes = otherValueBytes;
+		this.bytesByType = Collections.unmodifiableMap(bytesByType);
+	}
+
+	/**
+	 * Estimate the footprint of the supplied fields.
+	 *
+	 * @param fields the field map of a DynVarMap
+	 * @param capacity the table capacity of the field map
+	 * @return the estimated footprint
+	 */
+	static DynVarFootprint estimate(Map<String, DynVarField> fields, int capacity)
+	{
+		//custom storages report their own bookkeeping overhead
+		boolean storage = fields instanceof DynVarStorage;
+		long tableBytes = storage ? ((DynVarStorage) fields).estimateOverhead() : shallowSize(fields.getClass()) + arraySize(capacity, REFERENCE_SIZE);
+		long entrySize = storage ? 0 : hashEntrySize(fields);
+		long entryBytes = 0;
+		long keyBytes = 0;
+		long fieldBytes = 0;
+		long boxedValueBytes = 0;
+		long stringValueBytes = 0;
+		long otherValueBytes = 0;
+		Map<Class<? extends DynVarField>, Long> bytesByType = new LinkedHashMap<>();
+
+		for (Map.Entry<String, DynVarField> entry : fields.entrySet())
+		{
+			DynVarField field = entry.getValue();
+			Object value = field == null ? null : field.read();
+
+			entryBytes += entrySize;
+			keyBytes += stringSize(entry.getKey());
+
+			if(field == null)
+				continue;
+
+			long fieldSize = shallowSize(field.getClass());
+			long valueSize = valueSize(value);
+
+			fieldBytes += fieldSize;
+
+			if(value instanceof String)
+				stringValueBytes += valueSize;
+			else if(isBoxed(value))
+				boxedValueBytes += valueSize;
+			else
+				otherValueBytes += valueSize;
+
+			bytesByType.merge(field.getClass(), fieldSize + valueSize, Long::sum);
+		}
+
+		return new DynVarFootprint(fields.size(), tableBytes, entryBytes, keyBytes, fieldBytes,
+				boxedValueBytes, stringValueBytes, otherValueBytes, bytesByType);
+	}
+
+	/**
+	 * Estimate how many bytes a single variable holds, not including the table it is stored in.
+	 *
+	 * @param key any String as the variable name
+	 * @param field any DynVarField
+	 * @return the estimated size in bytes
+	 */
+	public static long estimateEntry(String key, DynVarField field)
+	{
+		long size = stringSize(key);
+
+		if(field != null)
+			size += shallowSize(field.getClass()) + valueSize(field.read());
+
+		return size;
+	}
+
+	/**
+	 * Estimate the shallow size of any object of the supplied class.
+	 *
+	 * @param type any Class
+	 * @return the estimated shallow size in bytes
+	 */
+	public static long shallowSize(Class<?> type)
+	{
+		return SHALLOW_SIZES.get(type);
+	}
+
+	/**
+	 * Estimate the retained size of a variable value, shared JVM cached boxes count as zero.
+	 *
+	 * @param value any Object as the variable value
+	 * @return the estimated size in bytes
+	 */
+	public static long valueSize(Object value)
+	{
+		if(value == null || value instanceof Boolean)
+			return 0;
+
+		if(value instanceof String)
+			return stringSize((String) value);
+
+		//Byte, Short, Integer & Long values from -128 to 127 are shared by the JVM box caches
+		if(value instanceof Byte || value instanceof Short || value instanceof Integer || value instanceof Long)
+		{
+			long l = ((Number) value).longValue();
+			if(l >= -128 && l <= 127)
+				return 0;
+		}
+
+		return shallowSize(value.getClass());
+	}
+
+	/**
+	 * Estimate the retained size of a String, including its backing array.
+	 *
+	 * @param s any String
+	 * @return the estimated size in bytes
+	 */
+	public static long stringSize(String s)
+	{
+		if(s == null)
+			return 0;
+
+		long size = shallowSize(String.class);
+
+		if(!COMPACT_STRINGS)
+			return size + arraySize(s.length(), 2);
+
+		for (int i = 0; i < s.length(); i++)
+			if(s.charAt(i) > 0xFF)
+				return size + arraySize(s.length(), 2);
+
+		return size + arraySize(s.length(), 1);
+	}
+
+	/**
+	 * Estimate the size of an array.
+	 *
+	 * @param length the array length
+	 * @param elementSize the size of each array element in bytes
+	 * @return the estimated size in bytes
+	 */
+	public static long arraySize(int length, int elementSize)
+	{
+		return align(ARRAY_HEADER + (long) length * elementSize);
+	}
+
+	/**
+	 * Returns true if the JVM is using compressed object references.
+	 *
+	 * @return true if compressed oops are enabled
+	 */
+	public static boolean isCompressedOops()
+	{
+		return COMPRESSED_OOPS;
+	}
+
+	/**
+	 * Returns the amount of variables that were measured.
+	 *
+	 * @return the variable count
+	 */
+	public int getEntries()
+	{
+		return entries;
+	}
+
+	/**
+	 * Returns the bytes held by the map object and its hash table array.
+	 *
+	 * @return the table bytes
+	 */
+	public long getTableBytes()
+	{
+		return tableBytes;
+	}
+
+	/**
+	 * Returns the bytes held by the hash table entry nodes.
+	 *
+	 * @return the entry bytes
+	 */
+	public long getEntryBytes()
+	{
+		return entryBytes;
+	}
+
+	/**
+	 * Returns the bytes held by the variable names.
+	 *
+	 * @return the key bytes
+	 */
+	public long getKeyBytes()
+	{
+		return keyBytes;
+	}
+
+	/**
+	 * Returns the bytes held by the DynVarField objects themselves.
+	 *
+	 * @return the field bytes
+	 */
+	public long getFieldBytes()
+	{
+		return fieldBytes;
+	}
+
+	/**
+	 * Returns the bytes held by boxed primitive values.
+	 *
+	 * @return the boxed value bytes
+	 */
+	public long getBoxedValueBytes()
+	{
+		return boxedValueBytes;
+	}
+
+	/**
+	 * Returns the bytes held by String values.
+	 *
+	 * @return the String value bytes
+	 */
+	public long getStringValueBytes()
+	{
+		return stringValueBytes;
+	}
+
+	/**
+	 * Returns the shallow bytes held by any other value objects.
+	 *
+	 * @return the other value bytes
+	 */
+	public long getOtherValueBytes()
+	{
+		return otherValueBytes;
+	}
+
+	/**
+	 * Returns the field and value bytes grouped by the vars type.
+	 *
+	 * @return an unmodifiable Map of vars type to bytes
+	 */
+	public Map<Class<? extends DynVarField>, Long> getBytesByType()
+	{
+		return bytesByType;
+	}
+
+	/**
+	 * Returns the total estimated bytes.
+	 *
+	 * @return the total bytes
+	 */
+	public long getTotalBytes()
+	{
+		return tableBytes + entryBytes + keyBytes + fieldBytes + boxedValueBytes + stringValueBytes + otherValueBytes;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "DynVarFootprint{" +
+				"entries=" + entries +
+				", total=" + getTotalBytes() +
+				", table=" + tableBytes +
+				", entry=" + entryBytes +
+				", keys=" + keyBytes +
+				", fields=" + fieldBytes +
+				", boxed=" + boxedValueBytes +
+				", strings=" + stringValueBytes +
+				", other=" + otherValueBytes +
+				", byType=" + bytesByType +
+				'}';
+	}
+
+	private static boolean isBoxed(Object value)
+	{
+		return value instanceof Number || value instanceof Boolean || value instanceof Character;
+	}
+
+	private static long hashEntrySize(Map<?, ?> fields)
+	{
+		try
+		{
+			if(fields instanceof LinkedHashMap)
+				return shallowSize(Class.forName("java.util.LinkedHashMap$Entry"));
+
+			return shallowSize(Class.forName("java.util.HashMap$Node"));
+		}
+		catch (ClassNotFoundException e)
+		{
+			//header + hash + key, value, next, before & after
+			return align(OBJECT_HEADER + 4 + 5L * REFERENCE_SIZE);
+		}
+	}
+
+	private static long computeShallowSize(Class<?> type)
+	{
+		long size = OBJECT_HEADER;
+
+		for (Class<?> c = type; c != null; c = c.getSuperclass())
+		{
+			Field[] declared;
+
+			try
+			{
+				declared = c.getDeclaredFields();
+			}
+			catch (SecurityException e)
+			{
+				continue;
+			}
+
+			for (Field field : declared)
+			{
+				if(Modifier.isStatic(field.getModifiers()))
+					continue;
+
+				size += primitiveSize(field.getType());
+			}
+		}
+
+		return align(size);
+	}
+
+	private static int primitiveSize(Class<?> type)
+	{
+		if(type == long.class || type == double.class)
+			return 8;
+		else if(type == int.class || type == float.class)
+			return 4;
+		else if(type == short.class || type == char.class)
+			return 2;
+		else if(type == byte.class || type == boolean.class)
+			return 1;
+
+		return REFERENCE_SIZE;
+	}
+
+	private static long align(long size)
+	{
+		return (size + ALIGNMENT - 1) & -ALIGNMENT;
+	}
+
+	private static boolean hasField(Class<?> type, String name)
+	{
+		try
+		{
+			type.getDeclaredField(name);
+			return true;
+		}
+		catch (Exception e)
+		{
+			return false;
+		}
+	}
+
+	private static boolean defaultCompressedOops()
+	{
+		//compressed oops are the default on 64-bit JVMs with heaps smaller than 32GB
+		return "32".equals(System.getProperty("sun.arch.data.model"))
+				|| Runtime.getRuntime().maxMemory() < 32L * 1024 * 1024 * 1024;
+	}
+
+	private static boolean readBooleanOption(String option, boolean defaultValue)
+	{
+		try
+		{
+			com.sun.management.HotSpotDiagnosticMXBean bean =
+					ManagementFactory.getPlatformMXBean(com.sun.management.HotSpotDiagnosticMXBean.class);
+
+			return Boolean.parseBoolean(bean.getVMOption(option).getValue());
+		}
+		catch (Throwable e)
+		{
+			return defaultValue;
+		}
+	}
+}
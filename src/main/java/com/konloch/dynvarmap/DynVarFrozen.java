@@ -0,0 +1,258 @@
+package com.konloch.dynvarmap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.konloch.dynvarmap.DynVarClassWriter.*;
+
+/**
+ * A lookup compiled for the keys of a frozen DynVarMap.
+ *
+ * The generated subclass holds one final field per key referencing its DynVarField. The keys are sorted by
+ * hash and split into leaf methods of a few keys each, which switch on the hash and compare the key against
+ * each constant. find hashes the key once and walks a tree of dispatch methods comparing the hash against the
+ * lowest hash of each child. Every generated method stays below the default FreqInlineSize of 325 bytes, so
+ * once find is inlined into a caller passing a constant key the JIT can inline the whole path and fold the
+ * hash, the comparisons, the switch and the equals, leaving a single field load. On Java 15+ the class is
+ * hidden, so its final fields are trusted as constants as well.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+abstract class DynVarFrozen
+{
+	/**
+	 * The maximum amount of keys, keeping the constant pool and the constructor well below the class file limits.
+	 */
+	static final int MAX_KEYS = 2048;
+	
+	/**
+	 * The keys per leaf method and the children per dispatch method, both around 220 bytes of bytecode.
+	 */
+	static final int LEAF_KEYS = 8;
+	static final int FANOUT = 16;
+	
+	private static final String NAME = "com/konloch/dynvarmap/DynVarFrozen";
+	private static final String FIELD = "Lcom/konloch/dynvarmap/DynVarField;";
+	private static final String NODE = "(Ljava/lang/String;I)" + FIELD;
+	private static final AtomicInteger COUNTER = new AtomicInteger();
+	
+	/**
+	 * Returns the field the key was frozen with, or null if the key was not frozen.
+	 *
+	 * @param key any String as the variable name
+	 * @return the frozen DynVarField, or null
+	 */
+	abstract DynVarField find(String key);
+	
+	/**
+	 * Generate, define and construct the lookup for the supplied keys.
+	 *
+	 * @param fields the frozen variable names and their DynVarField
+	 * @return the generated DynVarFrozen
+	 */
+	static DynVarFrozen compile(Map<String, DynVarField> fields)
+	{
+		if(fields.size() > MAX_KEYS)
+			throw new IllegalArgumentException("At most " + MAX_KEYS + " keys can be frozen, got " + fields.size());
+		
+		//unique names are only needed before Java 15, hidden classes get a unique suffix of their own
+		byte[] bytes = generate(NAME + "$" + COUNTER.incrementAndGet(), new ArrayList<>(fields.keySet()));
+		
+		try
+		{
+			Class<?> type = DynVarClassDefiner.define(bytes);
+			return (DynVarFrozen) type.getConstructor(DynVarField[].class).newInstance((Object) fields.values().toArray(new DynVarField[0]));
+		}
+		catch (ReflectiveOperationException e)
+		{
+			throw new IllegalStateException("Unable to construct the frozen lookup", e);
+		}
+	}
+	
+	/**
+	 * Generate the class file of a lookup, the constructor takes the fields in the order of the keys.
+	 *
+	 * @param name the internal class name
+	 * @param keys the frozen variable names
+	 * @return the class file
+	 */
+	static byte[] generate(String name, List<String> keys)
+	{
+		DynVarClassWriter writer = new DynVarClassWriter(ACC_FINAL, name, NAME);
+		
+		for (int i = 0; i < keys.size(); i++)
+			writer.field(ACC_PRIVATE | ACC_FINAL, "f" + i, FIELD);
+		
+		writer.method(ACC_PUBLIC, "<init>", "([" + FIELD + ")V", 3, 2, constructor(writer, name, keys.size()));
+		
+		List<Node> level = leaves(writer, name, keys);
+		int methods = level.size();
+		while (level.size() > FANOUT)
+		{
+			List<Node> parents = new ArrayList<>();
+			for (int from = 0; from < level.size(); from += FANOUT)
+			{
+				List<Node> children = level.subList(from, Math.min(from + FANOUT, level.size()));
+				Node parent = new Node(children.get(0).low, "n" + methods++);
+				writer.method(ACC_PRIVATE, parent.method, NODE, 3, 3, dispatch(new Code(), writer, name, children, 0, children.size()));
+				parents.add(parent);
+			}
+			
+			level = parents;
+		}
+		
+		//find hashes the key once, every method below it takes the hash as a parameter
+		Code find = new Code()
+				.op(ALOAD_1)
+				.op(INVOKEVIRTUAL, writer.methodRef("java/lang/String", "hashCode", "()I"))
+				.op(ISTORE_2);
+		
+		writer.method(0, "find", "(Ljava/lang/String;)" + FIELD, 3, 3, dispatch(find, writer, name, level, 0, level.size()));
+		return writer.toByteArray();
+	}
+	
+	/**
+	 * The constructor stores each element of the field array in its own final field.
+	 */
+	private static Code constructor(DynVarClassWriter writer, String name, int size)
+	{
+		Code code = new Code()
+				.op(ALOAD_0)
+				.op(INVOKESPECIAL, writer.methodRef(NAME, "<init>", "()V"));
+		
+		for (int i = 0; i < size; i++)
+			code.op(ALOAD_0)
+					.op(ALOAD_1)
+					.op(SIPUSH, i)
+					.op(AALOAD)
+					.op(PUTFIELD, writer.fieldRef(name, "f" + i, FIELD));
+		
+		return code.op(RETURN);
+	}
+	
+	/**
+	 * Split the keys sorted by hash into leaf methods of at most LEAF_KEYS keys, keys sharing a hash are kept
+	 * in the same leaf.
+	 */
+	private static List<Node> leaves(DynVarClassWriter writer, String name, List<String> keys)
+	{
+		Map<Integer, List<Integer>> buckets = new TreeMap<>();
+		for (int i = 0; i < keys.size(); i++)
+			buckets.computeIfAbsent(keys.get(i).hashCode(), hash -> new ArrayList<>()).add(i);
+		
+		List<Node> leaves = new ArrayList<>();
+		Map<Integer, List<Integer>> leaf = new TreeMap<>();
+		int size = 0;
+		
+		for (Map.Entry<Integer, List<Integer>> bucket : buckets.entrySet())
+		{
+			if(size > 0 && size + bucket.getValue().size() > LEAF_KEYS)
+			{
+				leaves.add(leaf(writer, name, keys, leaf, leaves.size()));
+				leaf = new TreeMap<>();
+				size = 0;
+			}
+			
+			leaf.put(bucket.getKey(), bucket.getValue());
+			size += bucket.getValue().size();
+		}
+		
+		leaves.add(leaf(writer, name, keys, leaf, leaves.size()));
+		return leaves;
+	}
+	
+	/**
+	 * A leaf method switches on the hash, then compares the key against each constant with that hash.
+	 */
+	private static Node leaf(DynVarClassWriter writer, String name, List<String> keys, Map<Integer, List<Integer>> buckets, int index)
+	{
+		int equals = writer.methodRef("java/lang/String", "equals", "(Ljava/lang/Object;)Z");
+		Code code = new Code().op(ILOAD_2);
+		
+		//lookupswitch offsets are relative to the opcode, the pairs are sorted by hash
+		int switchStart = code.position();
+		code.op(LOOKUPSWITCH).align();
+		int defaultOffset = code.position();
+		code.u4(0).u4(buckets.size());
+		
+		int[] caseOffsets = new int[buckets.size()];
+		int bucketIndex = 0;
+		for (int hash : buckets.keySet())
+		{
+			code.u4(hash);
+			caseOffsets[bucketIndex++] = code.position();
+			code.u4(0);
+		}
+		
+		bucketIndex = 0;
+		for (List<Integer> bucket : buckets.values())
+		{
+			code.patch4(caseOffsets[bucketIndex++], code.position() - switchStart);
+			
+			for (int i : bucket)
+			{
+				code.op(ALOAD_1)
+						.op(LDC_W, writer.string(keys.get(i)))
+						.op(INVOKEVIRTUAL, equals);
+				
+				int branch = code.position();
+				code.op(IFEQ, 0)
+						.op(ALOAD_0)
+						.op(GETFIELD, writer.fieldRef(name, "f" + i, FIELD))
+						.op(ARETURN);
+				code.patch2(branch + 1, code.position() - branch);
+			}
+			
+			code.op(ACONST_NULL).op(ARETURN);
+		}
+		
+		code.patch4(defaultOffset, code.position() - switchStart);
+		code.op(ACONST_NULL).op(ARETURN);
+		
+		Node node = new Node(buckets.keySet().iterator().next(), "n" + index);
+		writer.method(ACC_PRIVATE, node.method, NODE, 2, 3, code);
+		return node;
+	}
+	
+	/**
+	 * A dispatch compares the hash against the lowest hash of the middle child and recurses into either half,
+	 * calling the child once a single one is left. Hashes below every child go to the first, which misses.
+	 */
+	private static Code dispatch(Code code, DynVarClassWriter writer, String name, List<Node> children, int from, int to)
+	{
+		if(to - from == 1)
+			return code.op(ALOAD_0)
+					.op(ALOAD_1)
+					.op(ILOAD_2)
+					.op(INVOKESPECIAL, writer.methodRef(name, children.get(from).method, NODE))
+					.op(ARETURN);
+		
+		int middle = (from + to) >>> 1;
+		code.op(ILOAD_2).op(LDC_W, writer.integer(children.get(middle).low));
+		
+		int branch = code.position();
+		code.op(IF_ICMPLT, 0);
+		dispatch(code, writer, name, children, middle, to);
+		code.patch2(branch + 1, code.position() - branch);
+		return dispatch(code, writer, name, children, from, middle);
+	}
+	
+	/**
+	 * A generated leaf or dispatch method and the lowest key hash it covers.
+	 */
+	private static final class Node
+	{
+		private final int low;
+		private final String method;
+		
+		private Node(int low, String method)
+		{
+			this.low = low;
+			this.method = method;
+		}
+	}
+}
@@ -0,0 +1,242 @@
+package com.konloch.dynvarmap;
+
+import java.util.Collection;
+
+/**
+ * A hash table of the keys stored in a DynVarMap, probed with a CharSequence or a (prefix, id, suffix) tuple.
+ *
+ * Hashes are computed over the characters with the same algorithm as String.hashCode, so a composite key
+ * finds its stored String without ever being turned into a String itself.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+class DynVarKeyTable
+{
+	private static final long[] POWERS_OF_TEN = new long[19];
+	
+	static
+	{
+		POWERS_OF_TEN[0] = 1;
+		for (int i = 1; i < POWERS_OF_TEN.length; i++)
+			POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+	}
+	
+	private Node[] table;
+	private int size;
+	
+	/**
+	 * Constructs a new DynVarKeyTable containing the supplied keys.
+	 *
+	 * @param keys the keys already stored in the map
+	 */
+	DynVarKeyTable(Collection<String> keys)
+	{
+		int capacity = 16;
+		while (capacity * 0.75F < keys.size())
+			capacity <<= 1;
+		
+		table = new Node[capacity];
+		
+		for (String key : keys)
+			add(key);
+	}
+	
+	void add(String key)
+	{
+		int hash = key.hashCode();
+		int index = hash & (table.length - 1);
+		
+		for (Node node = table[index]; node != null; node = node.next)
+			if(node.hash == hash && node.key.equals(key))
+				return;
+		
+		table[index] = new Node(hash, key, table[index]);
+		
+		if(++size > table.length * 0.75F)
+			resize();
+	}
+	
+	void remove(String key)
+	{
+		int hash = key.hashCode();
+		int index = hash & (table.length - 1);
+		Node previous = null;
+		
+		for (Node node = table[index]; node != null; previous = node, node = node.next)
+		{
+			if(node.hash == hash && node.key.equals(key))
+			{
+				if(previous == null)
+					table[index] = node.next;
+				else
+					previous.next = node.next;
+				
+				size--;
+				return;
+			}
+		}
+	}
+	
+	void clear()
+	{
+		table = new Node[16];
+		size = 0;
+	}
+	
+	/**
+	 * Returns the stored key equal to the supplied characters.
+	 *
+	 * @param key any CharSequence
+	 * @return the stored String, or null if the key is not stored
+	 */
+	String find(CharSequence key)
+	{
+		return find("", key);
+	}
+	
+	/**
+	 * Returns the stored key equal to head + key, such as the prefix of a view followed by a relative key.
+	 *
+	 * @param head any String, or an empty String
+	 * @param key any CharSequence
+	 * @return the stored String, or null if the key is not stored
+	 */
+	String find(String head, CharSequence key)
+	{
+		int length = head.length() + key.length();
+		int hash = head.hashCode();
+		
+		for (int i = 0; i < key.length(); i++)
+			hash = 31 * hash + key.charAt(i);
+		
+		for (Node node = table[hash & (table.length - 1)]; node != null; node = node.next)
+			if(node.hash == hash && node.key.length() == length && node.key.startsWith(head) && contentEquals(node.key, head.length(), key))
+				return node.key;
+		
+		return null;
+	}
+	
+	/**
+	 * Returns the stored key equal to prefix + id + suffix.
+	 *
+	 * @param prefix any String, or an empty String
+	 * @param id any long, written in decimal
+	 * @param suffix any String, or an empty String
+	 * @return the stored String, or null if the key is not stored
+	 */
+	String find(String prefix, long id, String suffix)
+	{
+		return find("", prefix, id, suffix);
+	}
+	
+	/**
+	 * Returns the stored key equal to head + prefix + id + suffix.
+	 *
+	 * @param head any String, or an empty String
+	 * @param prefix any String, or an empty String
+	 * @param id any long, written in decimal
+	 * @param suffix any String, or an empty String
+	 * @return the stored String, or null if the key is not stored
+	 */
+	String find(String head, String prefix, long id, String suffix)
+	{
+		//the magnitude of Long.MIN_VALUE does not fit in a long
+		if(id == Long.MIN_VALUE)
+			return find(head + prefix + id + suffix);
+		
+		boolean negative = id < 0;
+		long magnitude = negative ? -id : id;
+		int digits = digits(magnitude);
+		int length = head.length() + prefix.length() + (negative ? 1 : 0) + digits + suffix.length();
+		
+		int hash = head.hashCode();
+		
+		for (int i = 0; i < prefix.length(); i++)
+			hash = 31 * hash + prefix.charAt(i);
+		
+		if(negative)
+			hash = 31 * hash + '-';
+		
+		for (int i = digits - 1; i >= 0; i--)
+			hash = 31 * hash + (char) ('0' + magnitude / POWERS_OF_TEN[i] % 10);
+		
+		for (int i = 0; i < suffix.length(); i++)
+			hash = 31 * hash + suffix.charAt(i);
+		
+		for (Node node = table[hash & (table.length - 1)]; node != null; node = node.next)
+			if(node.hash == hash && node.key.length() == length && node.key.startsWith(head)
+					&& matches(node.key, head.length(), prefix, negative, magnitude, digits, suffix))
+				return node.key;
+		
+		return null;
+	}
+	
+	private void resize()
+	{
+		Node[] old = table;
+		table = new Node[old.length << 1];
+		
+		for (Node head : old)
+		{
+			for (Node node = head; node != null; )
+			{
+				Node next = node.next;
+				int index = node.hash & (table.length - 1);
+				node.next = table[index];
+				table[index] = node;
+				node = next;
+			}
+		}
+	}
+	
+	private static boolean contentEquals(String stored, int offset, CharSequence key)
+	{
+		for (int i = 0; i < key.length(); i++)
+			if(stored.charAt(offset + i) != key.charAt(i))
+				return false;
+		
+		return true;
+	}
+	
+	private static boolean matches(String stored, int offset, String prefix, boolean negative, long magnitude, int digits, String suffix)
+	{
+		if(!stored.startsWith(prefix, offset) || !stored.endsWith(suffix))
+			return false;
+		
+		offset += prefix.length();
+		
+		if(negative && stored.charAt(offset++) != '-')
+			return false;
+		
+		for (int i = digits - 1; i >= 0; i--)
+			if(stored.charAt(offset++) != (char) ('0' + magnitude / POWERS_OF_TEN[i] % 10))
+				return false;
+		
+		return true;
+	}
+	
+	private static int digits(long magnitude)
+	{
+		int digits = 1;
+		
+		while (digits < POWERS_OF_TEN.length && magnitude >= POWERS_OF_TEN[digits])
+			digits++;
+		
+		return digits;
+	}
+	
+	private static class Node
+	{
+		private final int hash;
+		private final String key;
+		private Node next;
+		
+		private Node(int hash, String key, Node next)
+		{
+			this.hash = hash;
+			this.key = key;
+			this.next = next;
+		}
+	}
+}
@@ -0,0 +1,18 @@
+package com.konloch.dynvarmap;
+
+/**
+ * Receives DynVarChange notifications from a DynVarMap or DynVarField.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+@FunctionalInterface
+public interface DynVarListener
+{
+	/**
+	 * Called after a variable has changed.
+	 *
+	 * @param change the DynVarChange describing what happened
+	 */
+	void onChange(DynVarChange change);
+}
@@ -0,0 +1,130 @@
+package com.konloch.dynvarmap;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * A registered DynVarListener, either called directly or batched onto an Executor.
+ *
+ * Batched changes are coalesced per variable, so a variable that changes many times before the
+ * Executor runs is only delivered once with the original old value and the latest new value.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+class DynVarListenerRegistration
+{
+	final DynVarListener listener;
+	final String prefix;
+	private final Executor executor;
+	private final Map<String, DynVarChange> pending;
+	//changes without a variable name, such as a map clear, are kept apart so they never collide with a "" key
+	private DynVarChange pendingUnkeyed;
+	private boolean scheduled;
+	
+	DynVarListenerRegistration(DynVarListener listener, Executor executor)
+	{
+		this(listener, null, executor);
+	}
+	
+	DynVarListenerRegistration(DynVarListener listener, String prefix, Executor executor)
+	{
+		this.listener = listener;
+		this.prefix = prefix;
+		this.executor = executor;
+		this.pending = executor == null ? null : new LinkedHashMap<>();
+	}
+	
+	void deliver(DynVarChange change)
+	{
+		if(executor == null)
+		{
+			listener.onChange(change);
+			return;
+		}
+		
+		boolean schedule = false;
+		
+		synchronized (pending)
+		{
+			//a clear supersedes anything still waiting to be delivered
+			if(change.getType() == DynVarChange.Type.CLEAR)
+			{
+				pending.clear();
+				pendingUnkeyed = null;
+			}
+			
+			String key = change.getKey();
+			if(key == null)
+			{
+				pendingUnkeyed = pendingUnkeyed == null ? change : pendingUnkeyed.coalesce(change);
+			}
+			else
+			{
+				DynVarChange earlier = pending.get(key);
+				pending.put(key, earlier == null ? change : earlier.coalesce(change));
+			}
+			
+			if(!scheduled)
+			{
+				scheduled = true;
+				schedule = true;
+			}
+		}
+		
+		if(schedule)
+			executor.execute(this::drain);
+	}
+	
+	private void drain()
+	{
+		List<DynVarChange> batch;
+		
+		synchronized (pending)
+		{
+			batch = new ArrayList<>(pending.size() + 1);
+			
+			//the unkeyed change was queued first if it is a clear, everything kept after it followed it
+			if(pendingUnkeyed != null)
+				batch.add(pendingUnkeyed);
+			
+			batch.addAll(pending.values());
+			pending.clear();
+			pendingUnkeyed = null;
+			scheduled = false;
+		}
+		
+		for (DynVarChange change : batch)
+			listener.onChange(change);
+	}
+	
+	static DynVarListenerRegistration[] add(DynVarListenerRegistration[] registrations, DynVarListenerRegistration registration)
+	{
+		if(registrations == null)
+			return new DynVarListenerRegistration[]{registration};
+		
+		DynVarListenerRegistration[] copy = new DynVarListenerRegistration[registrations.length + 1];
+		System.arraycopy(registrations, 0, copy, 0, registrations.length);
+		copy[registrations.length] = registration;
+		return copy;
+	}
+	
+	static DynVarListenerRegistration[] remove(DynVarListenerRegistration[] registrations, DynVarListener listener)
+	{
+		if(registrations == null)
+			return null;
+		
+		List<DynVarListenerRegistration> kept = new ArrayList<>(registrations.length);
+		for (DynVarListenerRegistration registration : registrations)
+			if(registration.listener != listener)
+				kept.add(registration);
+		
+		if(kept.isEmpty())
+			return null;
+		
+		return kept.toArray(new DynVarListenerRegistration[0]);
+	}
+}
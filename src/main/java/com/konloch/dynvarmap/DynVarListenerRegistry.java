@@ -0,0 +1,220 @@
+package com.konloch.dynvarmap;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * The listeners registered on a DynVarMap, grouped as global, per key, per dotted prefix and per stored field.
+ *
+ * Registration is copy-on-write so dispatching never locks.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+class DynVarListenerRegistry
+{
+	private volatile DynVarListenerRegistration[] global;
+	private volatile Map<String, DynVarListenerRegistration[]> byKey;
+	private volatile DynVarListenerRegistration[] prefixed;
+	private volatile Map<DynVarField, DynVarListenerRegistration[]> byField;
+	
+	synchronized void addGlobal(DynVarListener listener, Executor executor)
+	{
+		global = DynVarListenerRegistration.add(global, new DynVarListenerRegistration(listener, executor));
+	}
+	
+	synchronized void addKey(String key, DynVarListener listener, Executor executor)
+	{
+		Map<String, DynVarListenerRegistration[]> copy = byKey == null ? new HashMap<>() : new HashMap<>(byKey);
+		copy.put(key, DynVarListenerRegistration.add(copy.get(key), new DynVarListenerRegistration(listener, executor)));
+		byKey = copy;
+	}
+	
+	synchronized void addPrefix(String prefix, DynVarListener listener, Executor executor)
+	{
+		//dotted prefixes match the prefix itself and anything below it
+		if(prefix.endsWith("."))
+			prefix = prefix.substring(0, prefix.length() - 1);
+		
+		prefixed = DynVarListenerRegistration.add(prefixed, new DynVarListenerRegistration(listener, prefix, executor));
+	}
+	
+	synchronized void addField(DynVarField field, DynVarListenerRegistration registration)
+	{
+		addField(field, new DynVarListenerRegistration[]{registration});
+	}
+	
+	synchronized void addField(DynVarField field, DynVarListenerRegistration[] registrations)
+	{
+		Map<DynVarField, DynVarListenerRegistration[]> copy = byField == null ? new IdentityHashMap<>() : new IdentityHashMap<>(byField);
+		DynVarListenerRegistration[] merged = copy.get(field);
+		for (DynVarListenerRegistration registration : registrations)
+			merged = DynVarListenerRegistration.add(merged, registration);
+		
+		copy.put(field, merged);
+		byField = copy;
+	}
+	
+	synchronized void removeField(DynVarField field, DynVarListener listener)
+	{
+		if(byField == null || !byField.containsKey(field))
+			return;
+		
+		Map<DynVarField, DynVarListenerRegistration[]> copy = new IdentityHashMap<>(byField);
+		DynVarListenerRegistration[] kept = DynVarListenerRegistration.remove(copy.get(field), listener);
+		if(kept == null)
+			copy.remove(field);
+		else
+			copy.put(field, kept);
+		
+		byField = copy.isEmpty() ? null : copy;
+	}
+	
+	/**
+	 * Drop every listener of a field, used once the field is removed from the map.
+	 *
+	 * @param field any DynVarField
+	 * @return the dropped registrations, or null if the field had none
+	 */
+	synchronized DynVarListenerRegistration[] removeField(DynVarField field)
+	{
+		if(byField == null || !byField.containsKey(field))
+			return null;
+		
+		Map<DynVarField, DynVarListenerRegistration[]> copy = new IdentityHashMap<>(byField);
+		DynVarListenerRegistration[] removed = copy.remove(field);
+		byField = copy.isEmpty() ? null : copy;
+		return removed;
+	}
+	
+	/**
+	 * Move the listeners of a replaced field onto the field replacing it, such as when a variable is retyped.
+	 *
+	 * @param from the replaced DynVarField
+	 * @param to the replacing DynVarField
+	 */
+	synchronized void transferField(DynVarField from, DynVarField to)
+	{
+		DynVarListenerRegistration[] registrations = removeField(from);
+		if(registrations != null)
+			addField(to, registrations);
+	}
+	
+	boolean hasField(DynVarField field)
+	{
+		Map<DynVarField, DynVarListenerRegistration[]> byField = this.byField;
+		return byField != null && byField.containsKey(field);
+	}
+	
+	void dispatchField(DynVarField field, DynVarChange change)
+	{
+		Map<DynVarField, DynVarListenerRegistration[]> byField = this.byField;
+		if(byField == null)
+			return;
+		
+		DynVarListenerRegistration[] registrations = byField.get(field);
+		if(registrations != null)
+			for (DynVarListenerRegistration registration : registrations)
+				registration.deliver(change);
+	}
+	
+	synchronized void remove(DynVarListener listener)
+	{
+		global = DynVarListenerRegistration.remove(global, listener);
+		
+		if(byKey != null)
+		{
+			Map<String, DynVarListenerRegistration[]> copy = new HashMap<>();
+			for (Map.Entry<String, DynVarListenerRegistration[]> entry : byKey.entrySet())
+			{
+				DynVarListenerRegistration[] kept = DynVarListenerRegistration.remove(entry.getValue(), listener);
+				if(kept != null)
+					copy.put(entry.getKey(), kept);
+			}
+			
+			byKey = copy.isEmpty() ? null : copy;
+		}
+		
+		prefixed = DynVarListenerRegistration.remove(prefixed, listener);
+		
+		if(byField != null)
+		{
+			Map<DynVarField, DynVarListenerRegistration[]> copy = new IdentityHashMap<>();
+			for (Map.Entry<DynVarField, DynVarListenerRegistration[]> entry : byField.entrySet())
+			{
+				DynVarListenerRegistration[] kept = DynVarListenerRegistration.remove(entry.getValue(), listener);
+				if(kept != null)
+					copy.put(entry.getKey(), kept);
+			}
+			
+			byField = copy.isEmpty() ? null : copy;
+		}
+	}
+	
+	boolean isEmpty()
+	{
+		return global == null && byKey == null && prefixed == null && byField == null;
+	}
+	
+	/**
+	 * Returns true if any listeners are interested in specific keys.
+	 *
+	 * @return true if there are key or prefix listeners
+	 */
+	boolean hasKeyed()
+	{
+		return byKey != null || prefixed != null;
+	}
+	
+	void dispatch(DynVarChange change)
+	{
+		//field listeners first, a retyped or removed variable also notifies the listeners of the field it replaced
+		if(byField != null)
+		{
+			DynVarField field = change.getField();
+			if(field != null)
+				dispatchField(field, change);
+			
+			DynVarField previous = change.getPreviousField();
+			if(previous != null && previous != field)
+				dispatchField(previous, change);
+		}
+		
+		DynVarListenerRegistration[] global = this.global;
+		if(global != null)
+			for (DynVarListenerRegistration registration : global)
+				registration.deliver(change);
+		
+		String key = change.getKey();
+		if(key != null)
+			dispatchKeyed(key, change);
+	}
+	
+	void dispatchKeyed(String key, DynVarChange change)
+	{
+		Map<String, DynVarListenerRegistration[]> byKey = this.byKey;
+		if(byKey != null)
+		{
+			DynVarListenerRegistration[] registrations = byKey.get(key);
+			if(registrations != null)
+				for (DynVarListenerRegistration registration : registrations)
+					registration.deliver(change);
+		}
+		
+		DynVarListenerRegistration[] prefixed = this.prefixed;
+		if(prefixed != null)
+			for (DynVarListenerRegistration registration : prefixed)
+				if(matchesPrefix(key, registration.prefix))
+					registration.deliver(change);
+	}
+	
+	private static boolean matchesPrefix(String key, String prefix)
+	{
+		if(!key.startsWith(prefix))
+			return false;
+		
+		return key.length() == prefix.length() || prefix.isEmpty() || key.charAt(prefix.length()) == '.';
+	}
+}
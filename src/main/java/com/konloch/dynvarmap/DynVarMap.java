@@ -1,11 +1,38 @@
 package com.konloch.dynvarmap;
 
+import com.konloch.dynvarmap.jfr.DynVarEvents;
+import com.konloch.dynvarmap.schema.DynVarSchemaStorage;
+import com.konloch.dynvarmap.storage.DynVarBoundedStorage;
+import com.konloch.dynvarmap.storage.DynVarPersistentStorage;
+import com.konloch.dynvarmap.storage.DynVarRadixStorage;
+import com.konloch.dynvarmap.storage.DynVarSnapshot;
+import com.konloch.dynvarmap.time.DynVarClock;
+import com.konloch.dynvarmap.time.DynVarClocks;
+import com.konloch.dynvarmap.time.DynVarTimeIndex;
 import com.konloch.dynvarmap.vars.*;
 
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A Dynamic Variable System with null safety built by design. We've removed any form
@@ -25,11 +52,80 @@ public class DynVarMap
     private static final double defaultDoubleValue = 0D;
     private static final float defaultFloatValue = 0F;
     
-    private final Map<String, DynVarField> fields;
+    private Map<String, DynVarField> fields;
+    private final boolean ownsStorage;
+    
+    //mirrors the table growth of the backing hash map so resizes can be reported
+    private int capacity = 16;
+    private int resizeThreshold = 12;
+    
+    private volatile DynVarListenerRegistry listeners;
+    private volatile DynVarClock clock;
+    DynVarTimeIndex timeIndex;
+    private DynVarTypeIndex typeIndex;
+    private DynVarKeyTable keyTable;
+    private DynVarSymbolIndex symbolIndex;
+    DynVarMerkleTree merkleTree;
+    DynVarPersistentStorage persistent;
+    DynVarBoundedStorage bounded;
+    private ArrayDeque<DynVarExpiry> expiries;
+    //only the variables with a time-to-live have an entry, fields carry no expiry of their own
+    private IdentityHashMap<DynVarField, DynVarExpiry> ttls;
+    private DynVarFrozen frozen;
+    
+    //created by the first transaction, fields read it on every change
+    volatile DynVarTransactions transactions;
 
     public DynVarMap()
     {
-        fields = new LinkedHashMap<>();
+        this(new LinkedHashMap<>(), true);
+    }
+    
+    /**
+     * Construct a DynVarMap backed by a custom storage, such as a DynVarBoundedStorage.
+     * The storage should be empty and must not be shared with another DynVarMap.
+     *
+     * @param storage any Map to store the variables in
+     */
+    public DynVarMap(Map<String, DynVarField> storage)
+    {
+        this(storage, false);
+    }
+    
+    /**
+     * Construct a DynVarMap, a map that owns its storage may replace it with a larger table during bulk inserts.
+     *
+     * @param storage any Map to store the variables in
+     * @param ownsStorage true if the storage was created by this map
+     */
+    private DynVarMap(Map<String, DynVarField> storage, boolean ownsStorage)
+    {
+        this.fields = storage;
+        this.ownsStorage = ownsStorage;
+        
+        //evicted variables are detached and reported the same way as a removal, bounded storages are also told
+        //about value changes directly so they can weigh the new value
+        if(storage instanceof DynVarBoundedStorage)
+        {
+            bounded = (DynVarBoundedStorage) storage;
+            bounded.addEvictionListener((key, field) ->
+            {
+                //a field evicted while it is being stored was never part of this map, putDirect handles it
+                if(field.owner != this)
+                    return;
+                
+                detach(field);
+                fireStructural(key, DynVarChange.Type.REMOVE, null, field);
+            });
+        }
+        
+        //persistent storages are told about value changes directly, so writing them through needs no listener
+        if(storage instanceof DynVarPersistentStorage)
+            persistent = (DynVarPersistentStorage) storage;
+        
+        //shared storages attach the fields they create
+        if(storage instanceof DynVarStorage)
+            ((DynVarStorage) storage).bind(this);
     }
     
     /**
@@ -63,8 +159,7 @@ public class DynVarMap
             if(defaultValue != null)
                 newField.set(defaultValue);
             
-            putDirect(key, newField);
-            return newField;
+            return insert(key, newField);
         }
 
         return field;
@@ -78,7 +173,15 @@ public class DynVarMap
      */
     public DynVarField remove(String key)
     {
-        return fields.remove(key);
+        DynVarField field = fields.remove(key);
+        
+        if(field != null)
+        {
+            detach(field);
+            fireStructural(key, DynVarChange.Type.REMOVE, null, field);
+        }
+        
+        return field;
     }
     
     /**
@@ -133,8 +236,7 @@ public class DynVarMap
             else
                 integer.set(defaultValue);
 
-            fields.put(key, integer);
-            return integer;
+            return insert(key, integer);
         }
 
         return (DynVarInteger) field;
@@ -199,8 +301,7 @@ public class DynVarMap
             else
                 longInteger.set(defaultValue);
 
-            fields.put(key, longInteger);
-            return longInteger;
+            return insert(key, longInteger);
         }
 
         return (DynVarLong) field;
@@ -265,8 +366,7 @@ public class DynVarMap
             else
                 b.set(defaultValue);
             
-            fields.put(key, b);
-            return b;
+            return insert(key, b);
         }
         
         return (DynVarByte) field;
@@ -331,8 +431,7 @@ public class DynVarMap
             else
                 b.set(defaultValue);
             
-            fields.put(key, b);
-            return b;
+            return insert(key, b);
         }
         
         return (DynVarShort) field;
@@ -397,8 +496,7 @@ public class DynVarMap
             else
                 d.set(defaultValue);
             
-            fields.put(key, d);
-            return d;
+            return insert(key, d);
         }
         
         return (DynVarDouble) field;
@@ -463,8 +561,7 @@ public class DynVarMap
             else
                 f.set(defaultValue);
             
-            fields.put(key, f);
-            return f;
+            return insert(key, f);
         }
         
         return (DynVarFloat) field;
@@ -502,7 +599,12 @@ public class DynVarMap
      */
     public DynVarTime getVarTime(String key)
     {
-        return getVarTime(key, System.currentTimeMillis());
+        //only read the clock when the default value is actually needed
+        DynVarField field = getDirect(key);
+        if(field instanceof DynVarTime)
+            return (DynVarTime) field;
+        
+        return getVarTime(key, getClock().millis());
     }
     
     /**
@@ -529,8 +631,7 @@ public class DynVarMap
             else
                 time.set(defaultValue);
 
-            fields.put(key, time);
-            return time;
+            return insert(key, time);
         }
 
         return (DynVarTime) field;
@@ -544,7 +645,7 @@ public class DynVarMap
      */
     public long getTime(String key)
     {
-        return getTime(key, System.currentTimeMillis());
+        return getVarTime(key).getTime();
     }
     
     /**
@@ -595,8 +696,7 @@ public class DynVarMap
             else
                 bool.set(defaultValue);
 
-            fields.put(key, bool);
-            return bool;
+            return insert(key, bool);
         }
 
         return (DynVarBoolean) field;
@@ -689,8 +789,7 @@ public class DynVarMap
             else
                 string.set(defaultValue);
             
-            fields.put(key, string);
-            return string;
+            return insert(key, string);
         }
         
         return (DynVarString) field;
@@ -728,7 +827,28 @@ public class DynVarMap
      */
     protected DynVarField getDirect(String key)
     {
-        return fields.get(key);
+        //frozen fields that were removed or retyped are detached and fall through to the table
+        if(frozen != null)
+        {
+            DynVarField field = frozen.find(key);
+            if(field != null && field.owner == this && expiryOf(field) == null)
+                return field;
+        }
+        
+        DynVarField field = fields.get(key);
+        
+        //expired variables are invisible and removed lazily on access
+        if(field != null && ttls != null)
+        {
+            DynVarExpiry expiry = ttls.get(field);
+            if(expiry == null || !expiry.isExpired(getClock().millis()))
+                return field;
+            
+            remove(key);
+            return null;
+        }
+        
+        return field;
     }
     
     /**
@@ -773,6 +893,293 @@ public class DynVarMap
         return this;
     }
     
+    /**
+     * Store many variables at once from parallel key and value arrays, the same as calling put for each pair.
+     * Existing variables of the right type are set in place and the table is grown at most once for the new ones.
+     *
+     * @param keys any String array as the variable names
+     * @param values any Object array as the variable values, the same length as keys
+     * @return the map instance for method chaining
+     */
+    public DynVarMap putAll(String[] keys, Object[] values)
+    {
+        checkLength(keys.length, values.length);
+        boolean grown = false;
+        
+        for (int i = 0; i < keys.length; i++)
+        {
+            Object value = values[i];
+            Class<? extends DynVarField> type = typeOf(value);
+            DynVarField field = getDirect(keys[i]);
+            
+            //values without a dedicated vars type are set on whatever field already exists, like put
+            if(field != null && (type == DynVarField.class || type.isInstance(field)))
+                field.set(value);
+            else if(field == null)
+            {
+                if(!grown)
+                    grown = ensureCapacity(keys, i);
+                
+                putDirect(keys[i], newField(type).set(value));
+            }
+            else
+                put(keys[i], value);
+        }
+        
+        return this;
+    }
+    
+    /**
+     * Store many variables at once, the same as calling put for each entry.
+     *
+     * @param values any Map of variable names to values
+     * @return the map instance for method chaining
+     */
+    public DynVarMap putAll(Map<String, ?> values)
+    {
+        String[] keys = new String[values.size()];
+        Object[] array = new Object[keys.length];
+        int i = 0;
+        
+        for (Map.Entry<String, ?> entry : values.entrySet())
+        {
+            keys[i] = entry.getKey();
+            array[i++] = entry.getValue();
+        }
+        
+        return putAll(keys, array);
+    }
+    
+    /**
+     * Store many int variables at once, the same as calling getVarInt(key).set(value) for each pair.
+     *
+     * @param keys any String array as the variable names
+     * @param values any int array as the variable values, the same length as keys
+     * @return the map instance for method chaining
+     */
+    public DynVarMap putInts(String[] keys, int[] values)
+    {
+        checkLength(keys.length, values.length);
+        boolean grown = false;
+        
+        for (int i = 0; i < keys.length; i++)
+        {
+            DynVarField field = getDirect(keys[i]);
+            
+            if(field instanceof DynVarInteger)
+                field.set(values[i]);
+            else if(field == null)
+            {
+                if(!grown)
+                    grown = ensureCapacity(keys, i);
+                
+                putDirect(keys[i], new DynVarInteger().set(values[i]));
+            }
+            else
+                getVarInt(keys[i]).set(values[i]);
+        }
+        
+        return this;
+    }
+    
+    /**
+     * Store many long variables at once, the same as calling getVarLong(key).set(value) for each pair.
+     *
+     * @param keys any String array as the variable names
+     * @param values any long array as the variable values, the same length as keys
+     * @return the map instance for method chaining
+     */
+    public DynVarMap putLongs(String[] keys, long[] values)
+    {
+        checkLength(keys.length, values.length);
+        boolean grown = false;
+        
+        for (int i = 0; i < keys.length; i++)
+        {
+            DynVarField field = getDirect(keys[i]);
+            
+            if(field instanceof DynVarLong)
+                field.set(values[i]);
+            else if(field == null)
+            {
+                if(!grown)
+                    grown = ensureCapacity(keys, i);
+                
+                putDirect(keys[i], new DynVarLong().set(values[i]));
+            }
+            else
+                getVarLong(keys[i]).set(values[i]);
+        }
+        
+        return this;
+    }
+    
+    /**
+     * Read many int variables at once into the supplied array, the same as calling getInt for each key.
+     *
+     * @param keys any String array as the variable names
+     * @param out any int array to store the values in, at least as long as keys
+     * @return the out array
+     */
+    public int[] getInts(String[] keys, int[] out)
+    {
+        checkLength(keys.length, out.length);
+        
+        for (int i = 0; i < keys.length; i++)
+        {
+            DynVarField field = getDirect(keys[i]);
+            out[i] = field instanceof DynVarInteger ? ((DynVarInteger) field).getInt() : getInt(keys[i]);
+        }
+        
+        return out;
+    }
+    
+    /**
+     * Read many long variables at once into the supplied array, the same as calling getLong for each key.
+     *
+     * @param keys any String array as the variable names
+     * @param out any long array to store the values in, at least as long as keys
+     * @return the out array
+     */
+    public long[] getLongs(String[] keys, long[] out)
+    {
+        checkLength(keys.length, out.length);
+        
+        for (int i = 0; i < keys.length; i++)
+        {
+            DynVarField field = getDirect(keys[i]);
+            out[i] = field instanceof DynVarLong ? ((DynVarLong) field).getLong() : getLong(keys[i]);
+        }
+        
+        return out;
+    }
+    
+    /**
+     * Add the same delta to many variables at once, missing variables are created as DynVarInteger.
+     *
+     * @param keys any String array as the variable names
+     * @param delta any int to add
+     * @return the map instance for method chaining
+     */
+    public DynVarMap addAll(String[] keys, int delta)
+    {
+        return addAll(keys, Integer.valueOf(delta));
+    }
+    
+    /**
+     * Add the same delta to many variables at once, missing variables are created as DynVarLong.
+     *
+     * @param keys any String array as the variable names
+     * @param delta any long to add
+     * @return the map instance for method chaining
+     */
+    public DynVarMap addAll(String[] keys, long delta)
+    {
+        return addAll(keys, Long.valueOf(delta));
+    }
+    
+    private DynVarMap addAll(String[] keys, Number delta)
+    {
+        boolean grown = false;
+        
+        for (int i = 0; i < keys.length; i++)
+        {
+            DynVarField field = getDirect(keys[i]);
+            
+            if(field != null)
+                field.add(delta);
+            else
+            {
+                if(!grown)
+                    grown = ensureCapacity(keys, i);
+                
+                putDirect(keys[i], (delta instanceof Integer ? new DynVarInteger() : new DynVarLong()).set(delta));
+            }
+        }
+        
+        return this;
+    }
+    
+    /**
+     * Grow the default storage once so the missing keys of a bulk operation fit without further resizes.
+     * Only called when the first missing key is found, the remaining keys are only counted when they could overflow.
+     *
+     * @param keys the variable names of the bulk operation
+     * @param from the index of the first missing key
+     * @return true, so callers only grow once per bulk operation
+     */
+    private boolean ensureCapacity(String[] keys, int from)
+    {
+        int size = fields.size();
+        if(!ownsStorage || size + keys.length - from <= resizeThreshold)
+            return true;
+        
+        //keys that already exist are updated in place, so only the missing ones need room
+        int additional = 1;
+        for (int i = from + 1; i < keys.length; i++)
+            if(!fields.containsKey(keys[i]))
+                additional++;
+        
+        if(size + additional <= resizeThreshold)
+            return true;
+        
+        int oldCapacity = capacity;
+        while (capacity * 0.75F < size + additional)
+            capacity <<= 1;
+        
+        resizeThreshold = (int) (capacity * 0.75F);
+        
+        Object event = DynVarEvents.beginResize(size);
+        Map<String, DynVarField> grown = new LinkedHashMap<>(capacity);
+        grown.putAll(fields);
+        fields = grown;
+        DynVarEvents.commitResize(event, size, oldCapacity, capacity);
+        return true;
+    }
+    
+    private static Class<? extends DynVarField> typeOf(Object value)
+    {
+        //mirrors the type dispatch of put
+        if(value instanceof Integer)
+            return DynVarInteger.class;
+        else if(value instanceof Byte || value instanceof Short)
+            return DynVarLong.class;
+        else if(value instanceof Double)
+            return DynVarDouble.class;
+        else if(value instanceof Float)
+            return DynVarFloat.class;
+        else if(value instanceof Boolean)
+            return DynVarBoolean.class;
+        else if(value instanceof String)
+            return DynVarString.class;
+        
+        return DynVarField.class;
+    }
+    
+    private static DynVarField newField(Class<? extends DynVarField> type)
+    {
+        if(type == DynVarInteger.class)
+            return new DynVarInteger();
+        else if(type == DynVarLong.class)
+            return new DynVarLong();
+        else if(type == DynVarDouble.class)
+            return new DynVarDouble();
+        else if(type == DynVarFloat.class)
+            return new DynVarFloat();
+        else if(type == DynVarBoolean.class)
+            return new DynVarBoolean();
+        else if(type == DynVarString.class)
+            return new DynVarString();
+        
+        return new DynVarField();
+    }
+    
+    private static void checkLength(int keys, int values)
+    {
+        if(values < keys)
+            throw new IllegalArgumentException("Expected " + keys + " values but got " + values);
+    }
+    
     /**
      * Returns the object value you have just set, also adds directly bypassing the
      * automatic null check. To access this function use DynVarUnsafe.
@@ -784,77 +1191,1499 @@ public class DynVarMap
      */
     protected <T> T putDirect(String key, Object value)
     {
-        return (T) fields.put(key, (DynVarField) value);
+        //maps using symbols share a single instance of each key name
+        if(symbolIndex != null)
+            key = DynVarSymbols.canonical(key);
+        
+        DynVarField field = (DynVarField) value;
+        
+        //storages may keep the value somewhere else, such as a memory-mapped file
+        if(field != null && fields instanceof DynVarStorage)
+            field = ((DynVarStorage) fields).adopt(key, field);
+        
+        DynVarField previous = store(key, field);
+        
+        //a bounded storage may evict the variable it was just given, it never joins the map
+        if(field != null && bounded != null && !fields.containsKey(key))
+        {
+            if(previous != null && previous != field)
+            {
+                detach(previous);
+                fireStructural(key, DynVarChange.Type.REMOVE, null, previous);
+            }
+            
+            return (T) previous;
+        }
+        
+        if(field != null && previous != field)
+        {
+            boolean retype = previous != null && previous.getClass() != field.getClass();
+            
+            //a retyped variable keeps its listeners and time-to-live
+            if(retype)
+            {
+                if(listeners != null)
+                    listeners.transferField(previous, field);
+                
+                DynVarExpiry expiry = ttls == null ? null : ttls.remove(previous);
+                if(expiry != null && !ttls.containsKey(field))
+                {
+                    expiry.field = field;
+                    ttls.put(field, expiry);
+                }
+            }
+            
+            if(previous != null)
+                detach(previous);
+            
+            attach(key, field);
+            
+            fireStructural(key, retype ? DynVarChange.Type.RETYPE : DynVarChange.Type.PUT, field, previous);
+        }
+        
+        return (T) previous;
     }
     
     /**
-     * Iterate through the fields inside the map
-     * @param action any BiConsumer to process
-     * @return the map instance for method chaining
+     * Insert a new field and return the field that was stored, which is a different instance when the storage adopted it.
+     *
+     * @param key any String as the variable name
+     * @param field the new DynVarField
+     * @param <F> the vars type
+     * @return the stored DynVarField
      */
-    public DynVarMap forEach(BiConsumer<String, Object> action)
+    private <F extends DynVarField> F insert(String key, F field)
     {
-        fields.forEach(action);
-        return this;
+        putDirect(key, field);
+        
+        if(field.owner != null)
+            return field;
+        
+        //a field evicted as soon as it was stored is handed back detached
+        DynVarField stored = getDirect(key);
+        return stored != null ? (F) stored : field;
+    }
+    
+    private DynVarField store(String key, DynVarField field)
+    {
+        int size = fields.size();
+        
+        //the backing table is about to grow, report it if the map is large enough
+        if(size >= resizeThreshold && fields instanceof HashMap && !fields.containsKey(key))
+        {
+            Object event = DynVarEvents.beginResize(size);
+            DynVarField previous = fields.put(key, field);
+            
+            int oldCapacity = capacity;
+            capacity <<= 1;
+            resizeThreshold = (int) (capacity * 0.75F);
+            
+            DynVarEvents.commitResize(event, fields.size(), oldCapacity, capacity);
+            return previous;
+        }
+        
+        return fields.put(key, field);
     }
     
     /**
-     * Get the current count of variables in the map.
+     * Make this map the owner of a field a custom storage has created, to access this function use DynVarUnsafe.
      *
-     * @return the current count of variables in the map.
+     * @param key any String as the variable name
+     * @param field any DynVarField stored in this map
      */
-    public int getSize()
+    protected void attach(String key, DynVarField field)
     {
-        return fields.size();
+        field.owner = this;
+        field.key = key;
+        
+        //listeners added while the field was standalone move into this map
+        DynVarListenerRegistration[] registrations = DynVarFieldListeners.take(field);
+        if(registrations != null)
+            listeners().addField(field, registrations);
+    }
+    
+    private void detach(DynVarField field)
+    {
+        if(field.owner == this)
+        {
+            field.owner = null;
+            field.key = null;
+            
+            if(ttls != null)
+                ttls.remove(field);
+        }
     }
     
     /**
-     * Get the current count of variables in the map.
+     * Hand the listeners of a field that left this map back to the field, so they follow it if it is stored again.
      *
-     * @return the current count of variables in the map.
+     * @param field the removed or replaced DynVarField
      */
-    public int getLength()
+    private void release(DynVarField field)
     {
-        return fields.size();
+        DynVarListenerRegistration[] registrations = listeners.removeField(field);
+        if(registrations != null)
+            DynVarFieldListeners.add(field, registrations);
     }
     
     /**
-     * Check if the map contains an existing variable key.
+     * Returns the time-to-live of a variable in this map.
      *
-     * @param key any String as the variable name
-     * @return true if the map contains the the variable key
+     * @param field any DynVarField stored in this map
+     * @return the DynVarExpiry, or null if the variable has no time-to-live
      */
-    public boolean containsKey(String key)
+    DynVarExpiry expiryOf(DynVarField field)
     {
-        return fields.containsKey(key);
+        IdentityHashMap<DynVarField, DynVarExpiry> ttls = this.ttls;
+        return ttls == null ? null : ttls.get(field);
     }
     
     /**
-     * Returns true if the map is empty.
+     * Notify listeners of an insert, retype or remove.
      *
-     * @return true if the map is empty.
+     * @param key any String as the variable name
+     * @param type the Type of change
+     * @param field the DynVarField now stored, or null
+     * @param previous the DynVarField previously stored, or null
      */
-    public boolean isEmpty()
+    private void fireStructural(String key, DynVarChange.Type type, DynVarField field, DynVarField previous)
     {
-        return fields.isEmpty();
+        if(typeIndex != null)
+        {
+            typeIndex.remove(key, previous);
+            typeIndex.add(key, field);
+        }
+        
+        if(timeIndex != null)
+        {
+            if(type == DynVarChange.Type.REMOVE)
+                timeIndex.remove(key);
+            else
+                timeIndex.index(key, field);
+        }
+        
+        if(symbolIndex != null)
+        {
+            if(type == DynVarChange.Type.REMOVE)
+                symbolIndex.remove(DynVarSymbols.find(key));
+            else
+                symbolIndex.put(DynVarSymbols.intern(key), field);
+        }
+        
+        if(merkleTree != null)
+        {
+            merkleTree.remove(key, previous);
+            merkleTree.add(key, field);
+        }
+        
+        if(keyTable != null)
+        {
+            if(type == DynVarChange.Type.PUT && previous == null)
+                keyTable.add(key);
+            else if(type == DynVarChange.Type.REMOVE)
+                keyTable.remove(key);
+        }
+        
+        if(!isObserved())
+            return;
+        
+        DynVarChange change = new DynVarChange(this, key, type, field, previous,
+                previous == null ? null : previous.value, field == null ? null : field.value);
+        
+        dispatch(change);
+        
+        if(previous != null && previous != field)
+            release(previous);
     }
     
     /**
-     * Clear the map
+     * Returns true if any listeners are registered on this map.
+     *
+     * @return true if the map has listeners
      */
-    public void clear()
+    boolean isObserved()
     {
-        fields.clear();
+        DynVarListenerRegistry registry = listeners;
+        return registry != null && !registry.isEmpty();
     }
     
     /**
-     * Returns a String Set of the keys contained in the map.
+     * Deliver a change to the listeners registered on this map.
      *
-     * @return String Set of the keys contained in the map.
+     * @param change any DynVarChange
      */
-    public Set<String> keySet()
+    void dispatch(DynVarChange change)
     {
-        return fields.keySet();
+        DynVarListenerRegistry registry = listeners;
+        if(registry != null)
+            registry.dispatch(change);
+    }
+    
+    DynVarListenerRegistry listeners()
+    {
+        DynVarListenerRegistry registry = listeners;
+        if(registry == null)
+        {
+            synchronized (this)
+            {
+                registry = listeners;
+                if(registry == null)
+                    listeners = registry = new DynVarListenerRegistry();
+            }
+        }
+        
+        return registry;
+    }
+    
+    /**
+     * Register a listener that is called for every change in this map.
+     *
+     * @param listener any DynVarListener
+     * @return the map instance for method chaining
+     */
+    public DynVarMap addListener(DynVarListener listener)
+    {
+        return addListener(listener, null);
+    }
+    
+    /**
+     * Register a listener for every change in this map that is called on the supplied Executor,
+     * changes to the same variable made before the Executor runs are coalesced into a single change.
+     *
+     * @param listener any DynVarListener
+     * @param executor any Executor, or null to call the listener directly
+     * @return the map instance for method chaining
+     */
+    public DynVarMap addListener(DynVarListener listener, Executor executor)
+    {
+        listeners().addGlobal(listener, executor);
+        return this;
+    }
+    
+    /**
+     * Register a listener that is called when the supplied variable changes.
+     *
+     * @param key any String as the variable name
+     * @param listener any DynVarListener
+     * @return the map instance for method chaining
+     */
+    public DynVarMap addListener(String key, DynVarListener listener)
+    {
+        return addListener(key, listener, null);
+    }
+    
+    /**
+     * Register a listener for the supplied variable that is called on the supplied Executor,
+     * changes made before the Executor runs are coalesced into a single change.
+     *
+     * @param key any String as the variable name
+     * @param listener any DynVarListener
+     * @param executor any Executor, or null to call the listener directly
+     * @return the map instance for method chaining
+     */
+    public DynVarMap addListener(String key, DynVarListener listener, Executor executor)
+    {
+        listeners().addKey(key, listener, executor);
+        return this;
+    }
+    
+    /**
+     * Register a listener that is called when any variable under the supplied dotted prefix changes,
+     * for example the prefix "player.123" matches "player.123" and "player.123.hp" but not "player.1234".
+     *
+     * @param prefix any String as the dotted variable name prefix
+     * @param listener any DynVarListener
+     * @return the map instance for method chaining
+     */
+    public DynVarMap addPrefixListener(String prefix, DynVarListener listener)
+    {
+        return addPrefixListener(prefix, listener, null);
+    }
+    
+    /**
+     * Register a listener for any variable under the supplied dotted prefix that is called on the supplied Executor,
+     * changes to the same variable made before the Executor runs are coalesced into a single change.
+     *
+     * @param prefix any String as the dotted variable name prefix
+     * @param listener any DynVarListener
+     * @param executor any Executor, or null to call the listener directly
+     * @return the map instance for method chaining
+     */
+    public DynVarMap addPrefixListener(String prefix, DynVarListener listener, Executor executor)
+    {
+        listeners().addPrefix(prefix, listener, executor);
+        return this;
+    }
+    
+    /**
+     * Remove a listener from every global, key and prefix registration on this map.
+     *
+     * @param listener any DynVarListener
+     * @return the map instance for method chaining
+     */
+    public DynVarMap removeListener(DynVarListener listener)
+    {
+        DynVarListenerRegistry registry = listeners;
+        if(registry != null)
+            registry.remove(listener);
+        
+        return this;
+    }
+    
+    /**
+     * Iterate through the fields inside the map
+     * @param action any BiConsumer to process
+     * @return the map instance for method chaining
+     */
+    public DynVarMap forEach(BiConsumer<String, Object> action)
+    {
+        fields.forEach(action);
+        return this;
+    }
+    
+    /**
+     * Returns a sequential stream of every variable, call parallel() to process it on the fork-join pool.
+     * The stream is backed by the storage spliterator, so it is sized. Only the hash and radix storages, and the
+     * bounded storage on top of its hash table, split without copying the keys, other storages split by copying
+     * batches of entries out of their iterator. Inserting or removing variables while the stream runs fails fast
+     * with a ConcurrentModificationException, changing the values of existing variables does not. Persistent
+     * storages stream the version they started with instead of failing. Lookups on a bounded storage record the
+     * access, so they must not be made from a parallel stream.
+     *
+     * @return a Stream of immutable entries of variable name to DynVarField
+     */
+    public Stream<Map.Entry<String, DynVarField>> entries()
+    {
+        return StreamSupport.stream(fields.entrySet().spliterator(), false)
+                .map(entry -> new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue()));
+    }
+    
+    /**
+     * Returns a sequential stream of every variable name, see entries.
+     *
+     * @return a Stream of variable names
+     */
+    public Stream<String> keys()
+    {
+        return StreamSupport.stream(fields.entrySet().spliterator(), false).map(Map.Entry::getKey);
+    }
+    
+    /**
+     * Returns a sequential stream of every DynVarField, see entries.
+     *
+     * @return a Stream of DynVarField instances
+     */
+    public Stream<DynVarField> fields()
+    {
+        return StreamSupport.stream(fields.entrySet().spliterator(), false).map(Map.Entry::getValue);
+    }
+    
+    /**
+     * Get the current count of variables in the map.
+     *
+     * @return the current count of variables in the map.
+     */
+    public int getSize()
+    {
+        return fields.size();
+    }
+    
+    /**
+     * Get the current count of variables in the map.
+     *
+     * @return the current count of variables in the map.
+     */
+    public int getLength()
+    {
+        return fields.size();
+    }
+    
+    /**
+     * Check if the map contains an existing variable key.
+     *
+     * @param key any String as the variable name
+     * @return true if the map contains the the variable key
+     */
+    public boolean containsKey(String key)
+    {
+        return getDirect(key) != null;
+    }
+    
+    /**
+     * Returns true if the map is empty.
+     *
+     * @return true if the map is empty.
+     */
+    public boolean isEmpty()
+    {
+        return fields.isEmpty();
+    }
+    
+    /**
+     * Clear the map
+     */
+    public void clear()
+    {
+        int size = fields.size();
+        Object event = DynVarEvents.beginClear(size);
+        
+        DynVarListenerRegistry registry = isObserved() ? listeners : null;
+        boolean keyed = registry != null && registry.hasKeyed();
+        
+        for (Map.Entry<String, DynVarField> entry : fields.entrySet())
+        {
+            DynVarField field = entry.getValue();
+            detach(field);
+            
+            //key, prefix and field listeners are told about each variable they were watching
+            boolean watched = registry != null && registry.hasField(field);
+            if(keyed || watched)
+            {
+                DynVarChange change = new DynVarChange(this, entry.getKey(), DynVarChange.Type.REMOVE, null, field, field.value, null);
+                
+                if(watched)
+                {
+                    registry.dispatchField(field, change);
+                    release(field);
+                }
+                
+                if(keyed)
+                    registry.dispatchKeyed(entry.getKey(), change);
+            }
+        }
+        
+        fields.clear();
+        
+        if(expiries != null)
+            expiries.clear();
+        
+        ttls = null;
+        
+        if(typeIndex != null)
+            typeIndex.clear();
+        
+        if(timeIndex != null)
+            timeIndex.clear();
+        
+        if(keyTable != null)
+            keyTable.clear();
+        
+        if(symbolIndex != null)
+            symbolIndex.clear();
+        
+        frozen = null;
+        
+        if(merkleTree != null)
+            merkleTree.clear();
+        
+        if(registry != null)
+            registry.dispatch(new DynVarChange(this, null, DynVarChange.Type.CLEAR, null, null, null, null));
+        
+        DynVarEvents.commitClear(event, size);
+    }
+    
+    /**
+     * Returns a String Set of the keys contained in the map.
+     *
+     * @return String Set of the keys contained in the map.
+     */
+    public Set<String> keySet()
+    {
+        return fields.keySet();
+    }
+    
+    /**
+     * Returns the clock used by the DynVarTime variables in this map.
+     *
+     * @return the map DynVarClock, or the global default clock if none has been set
+     */
+    public DynVarClock getClock()
+    {
+        DynVarClock local = clock;
+        return local == null ? DynVarClocks.getDefault() : local;
+    }
+    
+    /**
+     * Set the clock used by the DynVarTime variables in this map.
+     *
+     * @param clock any DynVarClock, or null to use the global default clock
+     * @return the map instance for method chaining
+     */
+    public DynVarMap setClock(DynVarClock clock)
+    {
+        this.clock = clock;
+        return this;
+    }
+    
+    /**
+     * Store a field and variable that expires after the supplied time-to-live.
+     *
+     * @param key any String as the variable name
+     * @param value any Object as the variable value
+     * @param ttlMillis how many milliseconds the variable lives for
+     * @return the map instance for method chaining
+     */
+    public DynVarMap put(String key, Object value, long ttlMillis)
+    {
+        put(key, value);
+        setTTL(key, ttlMillis);
+        return this;
+    }
+    
+    /**
+     * Set the time-to-live of an existing variable, counting from now. Once expired the variable is
+     * invisible to get and containsKey, and is removed on access or by sweepExpired.
+     *
+     * @param key any String as the variable name
+     * @param ttlMillis how many milliseconds the variable lives for, or 0 to remove the time-to-live
+     * @return true if the variable exists
+     */
+    public boolean setTTL(String key, long ttlMillis)
+    {
+        DynVarField field = getDirect(key);
+        if(field == null)
+            return false;
+        
+        if(ttlMillis <= 0)
+        {
+            if(ttls != null)
+                ttls.remove(field);
+            
+            return true;
+        }
+        
+        long now = getClock().millis();
+        DynVarExpiry expiry = expiryOf(field);
+        if(expiry != null)
+        {
+            expiry.ttl = ttlMillis;
+            expiry.touch(now);
+            return true;
+        }
+        
+        expiry = new DynVarExpiry(field, ttlMillis, now);
+        
+        if(ttls == null)
+        {
+            ttls = new IdentityHashMap<>();
+            expiries = new ArrayDeque<>();
+        }
+        
+        ttls.put(field, expiry);
+        expiries.add(expiry);
+        return true;
+    }
+    
+    /**
+     * Restart the time-to-live of a variable from now.
+     *
+     * @param key any String as the variable name
+     * @return true if the variable exists and has a time-to-live
+     */
+    public boolean touch(String key)
+    {
+        DynVarExpiry expiry = expiryOf(getDirect(key));
+        if(expiry == null)
+            return false;
+        
+        expiry.touch(getClock().millis());
+        return true;
+    }
+    
+    /**
+     * Returns how many milliseconds a variable has left to live.
+     *
+     * @param key any String as the variable name
+     * @return the remaining milliseconds, or -1 if the variable does not exist or has no time-to-live
+     */
+    public long getRemainingTTL(String key)
+    {
+        DynVarExpiry expiry = expiryOf(getDirect(key));
+        if(expiry == null)
+            return -1;
+        
+        return Math.max(0, expiry.expiresAt - getClock().millis());
+    }
+    
+    /**
+     * Incrementally remove expired variables, checking at most the supplied amount of variables with a
+     * time-to-live per call. Each call continues where the last one stopped, so repeated small passes
+     * eventually visit every variable without a latency spike on large maps.
+     *
+     * @param maxChecks the maximum amount of variables to check
+     * @return how many variables were removed
+     */
+    public int sweepExpired(int maxChecks)
+    {
+        if(expiries == null || expiries.isEmpty())
+            return 0;
+        
+        long now = getClock().millis();
+        int removed = 0;
+        
+        for (int i = Math.min(maxChecks, expiries.size()); i > 0; i--)
+        {
+            DynVarExpiry expiry = expiries.poll();
+            DynVarField field = expiry.field;
+            
+            //skip anything that was removed, replaced or had its time-to-live cleared
+            if(expiryOf(field) != expiry || field.owner != this || fields.get(field.key) != field)
+                continue;
+            
+            if(expiry.isExpired(now))
+            {
+                remove(field.key);
+                removed++;
+            }
+            else
+                expiries.add(expiry);
+        }
+        
+        return removed;
+    }
+    
+    /**
+     * Run sweepExpired on the supplied scheduler, each pass synchronizes on this map so any other
+     * thread using the map should synchronize on it as well.
+     *
+     * @param scheduler any ScheduledExecutorService
+     * @param periodMillis how often to sweep
+     * @param maxChecks the maximum amount of variables to check per pass
+     * @return the ScheduledFuture of the sweep, cancel it to stop sweeping
+     */
+    public ScheduledFuture<?> scheduleExpirySweep(ScheduledExecutorService scheduler, long periodMillis, int maxChecks)
+    {
+        return scheduler.scheduleWithFixedDelay(() ->
+        {
+            synchronized (this)
+            {
+                sweepExpired(maxChecks);
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Keep an index of the DynVarTime variables ordered by timestamp, so expiredSince and pollExpired
+     * only visit the expired variables instead of scanning the whole map.
+     *
+     * @return the map instance for method chaining
+     */
+    public DynVarMap enableTimeIndex()
+    {
+        if(timeIndex == null)
+        {
+            timeIndex = new DynVarTimeIndex(this);
+        }
+        
+        return this;
+    }
+    
+    /**
+     * Returns true if the DynVarTime index has been enabled.
+     *
+     * @return true if DynVarTime variables are indexed
+     */
+    public boolean isTimeIndexed()
+    {
+        return timeIndex != null;
+    }
+    
+    /**
+     * Returns the stored key equal to the supplied characters, such as a reused StringBuilder.
+     * No String is created unless the key is not stored yet, so map.getVarInt(map.key(builder))
+     * does not allocate for existing variables.
+     *
+     * @param key any CharSequence as the variable name
+     * @return the stored key String, or a new String if the key is not stored
+     */
+    public String key(CharSequence key)
+    {
+        if(key instanceof String)
+            return (String) key;
+        
+        String stored = keyTable().find(key);
+        return stored != null ? stored : key.toString();
+    }
+    
+    /**
+     * Returns the stored key equal to prefix + id + suffix, for example key("player.", 123, ".hp").
+     * No String is created unless the key is not stored yet.
+     *
+     * @param prefix any String as the start of the variable name
+     * @param id any long, written in decimal
+     * @param suffix any String as the end of the variable name
+     * @return the stored key String, or a new String if the key is not stored
+     */
+    public String key(String prefix, long id, String suffix)
+    {
+        String stored = keyTable().find(prefix, id, suffix);
+        return stored != null ? stored : prefix + id + suffix;
+    }
+    
+    /**
+     * Returns the DynVarField associated with the provided key, creating it if it doesn't exist.
+     *
+     * @param key any CharSequence as the variable name
+     * @return the DynVarField instance
+     */
+    public DynVarField get(CharSequence key)
+    {
+        return get(key(key));
+    }
+    
+    /**
+     * Returns the DynVarField associated with prefix + id + suffix, creating it if it doesn't exist.
+     *
+     * @param prefix any String as the start of the variable name
+     * @param id any long, written in decimal
+     * @param suffix any String as the end of the variable name
+     * @return the DynVarField instance
+     */
+    public DynVarField get(String prefix, long id, String suffix)
+    {
+        return get(key(prefix, id, suffix));
+    }
+    
+    /**
+     * Check if the map contains an existing variable key, without creating a String.
+     *
+     * @param key any CharSequence as the variable name
+     * @return true if the map contains the variable key
+     */
+    public boolean containsKey(CharSequence key)
+    {
+        String stored = key instanceof String ? (String) key : keyTable().find(key);
+        return stored != null && containsKey(stored);
+    }
+    
+    /**
+     * Check if the map contains the variable key prefix + id + suffix, without creating a String.
+     *
+     * @param prefix any String as the start of the variable name
+     * @param id any long, written in decimal
+     * @param suffix any String as the end of the variable name
+     * @return true if the map contains the variable key
+     */
+    public boolean containsKey(String prefix, long id, String suffix)
+    {
+        String stored = keyTable().find(prefix, id, suffix);
+        return stored != null && containsKey(stored);
+    }
+    
+    /**
+     * Returns the stored key equal to head + key without creating a String, used by views to resolve relative keys.
+     *
+     * @param head the start of the variable name, such as the prefix of a view
+     * @param key any CharSequence as the rest of the variable name
+     * @return the stored key String, or null if the key is not stored
+     */
+    String findKey(String head, CharSequence key)
+    {
+        return keyTable().find(head, key);
+    }
+    
+    /**
+     * Returns the stored key equal to head + prefix + id + suffix without creating a String.
+     *
+     * @param head the start of the variable name, such as the prefix of a view
+     * @param prefix any String following the head
+     * @param id any long, written in decimal
+     * @param suffix any String as the end of the variable name
+     * @return the stored key String, or null if the key is not stored
+     */
+    String findKey(String head, String prefix, long id, String suffix)
+    {
+        return keyTable().find(head, prefix, id, suffix);
+    }
+    
+    /**
+     * The key table is only built once a CharSequence or composite key is used.
+     */
+    private DynVarKeyTable keyTable()
+    {
+        if(keyTable == null)
+            keyTable = new DynVarKeyTable(fields.keySet());
+        
+        return keyTable;
+    }
+    
+    /**
+     * Store keys as interned DynVarSymbols names and index the variables by symbol id. Maps loaded with
+     * the same schema then share a single instance of each key name, enable this before loading.
+     *
+     * @return the map instance for method chaining
+     */
+    public DynVarMap enableSymbols()
+    {
+        if(symbolIndex == null)
+            symbolIndex = new DynVarSymbolIndex(fields);
+        
+        return this;
+    }
+    
+    /**
+     * Returns true if symbols have been enabled.
+     *
+     * @return true if keys are interned and indexed by symbol id
+     */
+    public boolean isSymbolic()
+    {
+        return symbolIndex != null;
+    }
+    
+    /**
+     * Compile every current key into a generated class, see freeze(Collection).
+     *
+     * @return the map instance for method chaining
+     */
+    public DynVarMap freeze()
+    {
+        return freeze(new ArrayList<>(fields.keySet()));
+    }
+    
+    /**
+     * Compile the provided keys into a generated class holding a final field per variable. Lookups of frozen
+     * keys are resolved by the generated class before the table, once the key set of a map stops changing this
+     * lets the JIT reduce a lookup with a constant key to a single field load.
+     *
+     * Keys that don't exist are skipped and freezing replaces any earlier freeze. Frozen variables that are
+     * removed, replaced by another type or given a time-to-live are looked up in the table again, freeze after
+     * such changes to bring them back on the fast path.
+     *
+     * @param keys the variable names to freeze, at most 2048
+     * @return the map instance for method chaining
+     */
+    public DynVarMap freeze(Collection<String> keys)
+    {
+        if(fields instanceof DynVarBoundedStorage)
+            throw new UnsupportedOperationException("Bounded storages have to see every lookup to track access");
+        
+        Map<String, DynVarField> frozenFields = new LinkedHashMap<>();
+        
+        for (String key : keys)
+        {
+            DynVarField field = fields.get(key);
+            if(field != null)
+                frozenFields.put(key, field);
+        }
+        
+        frozen = frozenFields.isEmpty() ? null : DynVarFrozen.compile(frozenFields);
+        return this;
+    }
+    
+    /**
+     * Returns true if keys have been frozen.
+     *
+     * @return true if lookups go through a generated class first
+     */
+    public boolean isFrozen()
+    {
+        return frozen != null;
+    }
+    
+    /**
+     * Returns the symbol id of a variable name, see DynVarSymbols.intern.
+     *
+     * @param key any String as the variable name
+     * @return the symbol id
+     */
+    public int symbol(String key)
+    {
+        return DynVarSymbols.intern(key);
+    }
+    
+    /**
+     * Returns the DynVarField associated with the provided symbol id, without hashing the name.
+     *
+     * @param symbol any symbol id from DynVarSymbols.intern
+     * @return the DynVarField instance if the variable exists, or null
+     */
+    public DynVarField find(int symbol)
+    {
+        enableSymbols();
+        DynVarField field = symbolIndex.get(symbol);
+        
+        //time-to-live and access ordered storages still have to see the lookup
+        if(field != null && (expiryOf(field) != null || fields instanceof DynVarBoundedStorage))
+            return getDirect(field.key);
+        
+        return field;
+    }
+    
+    /**
+     * Returns the DynVarField associated with the provided symbol id, creating it if it doesn't exist.
+     *
+     * @param symbol any symbol id from DynVarSymbols.intern
+     * @return the DynVarField instance
+     */
+    public DynVarField get(int symbol)
+    {
+        DynVarField field = find(symbol);
+        return field != null ? field : get(DynVarSymbols.name(symbol));
+    }
+    
+    /**
+     * Check if the map contains the variable of the provided symbol id.
+     *
+     * @param symbol any symbol id from DynVarSymbols.intern
+     * @return true if the map contains the variable
+     */
+    public boolean containsKey(int symbol)
+    {
+        return find(symbol) != null;
+    }
+    
+    /**
+     * Remove the variable of the provided symbol id.
+     *
+     * @param symbol any symbol id from DynVarSymbols.intern
+     * @return the DynVarField instance that was removed
+     */
+    public DynVarField remove(int symbol)
+    {
+        return remove(DynVarSymbols.name(symbol));
+    }
+    
+    /**
+     * Run a transaction that reads and changes several variables atomically, for example
+     * map.transaction(tx -> { if(tx.getLong("a.gold") >= 10) { tx.subtract("a.gold", 10); tx.add("b.gold", 10); } })
+     *
+     * Concurrency is optimistic, reads see a consistent snapshot and writes are published together when the
+     * body returns. If a variable that was read has been changed meanwhile the body runs again, transactions
+     * on different variables run in parallel and read-only transactions never block. Variables must exist
+     * before the transaction starts and the storage must not be structurally changed while it runs.
+     *
+     * @param body any Consumer of the DynVarTransaction, it may run more than once
+     * @return this instance for method chaining
+     */
+    public DynVarMap transaction(Consumer<DynVarTransaction> body)
+    {
+        transactions().run(this, "", tx ->
+        {
+            body.accept(tx);
+            return null;
+        });
+        
+        return this;
+    }
+    
+    /**
+     * Run a transaction that reads and changes several variables atomically, then return the result of the
+     * body that committed.
+     *
+     * @param body any Function of the DynVarTransaction, it may run more than once
+     * @param <T> the result Type
+     * @return the result of the committed body, or null if the transaction was aborted
+     */
+    public <T> T transactionThenGet(Function<DynVarTransaction, T> body)
+    {
+        return transactions().run(this, "", body);
+    }
+    
+    DynVarTransactions transactions()
+    {
+        DynVarTransactions local = transactions;
+        if(local == null)
+        {
+            synchronized (this)
+            {
+                local = transactions;
+                if(local == null)
+                    transactions = local = new DynVarTransactions();
+            }
+        }
+        
+        return local;
+    }
+    
+    /**
+     * Enable the hash tree, after this every change updates the hash of its variable and the path above it.
+     * It is enabled automatically by getRootHash and diff.
+     *
+     * @return this instance for method chaining
+     */
+    public DynVarMap enableMerkleTree()
+    {
+        if(merkleTree == null)
+            merkleTree = new DynVarMerkleTree(fields);
+        
+        return this;
+    }
+    
+    /**
+     * Returns true if the hash tree is enabled.
+     *
+     * @return true if the hash tree is enabled
+     */
+    public boolean isMerkleTreeEnabled()
+    {
+        return merkleTree != null;
+    }
+    
+    /**
+     * Returns a 64-bit hash of every variable name, type and value. Two maps holding the same variables have
+     * the same root hash, so it doubles as a cheap equality check, including against a map loaded elsewhere.
+     *
+     * @return the root hash
+     */
+    public long getRootHash()
+    {
+        return merkleTree().root();
+    }
+    
+    /**
+     * Returns the name of every variable that only exists in one of the maps, or exists in both with a
+     * different type or value. Only the parts of the hash trees that differ are visited, so the cost is
+     * proportional to the amount of differences instead of the map size.
+     *
+     * @param other any DynVarMap
+     * @return a new Set of differing variable names
+     */
+    public Set<String> diff(DynVarMap other)
+    {
+        Set<String> keys = new LinkedHashSet<>();
+        DynVarMerkleTree.diff(merkleTree(), other.merkleTree(), keys);
+        return keys;
+    }
+    
+    DynVarMerkleTree merkleTree()
+    {
+        enableMerkleTree();
+        
+        //the generated fields of a schema can be written without a change event, rehash its few variables first
+        if(fields instanceof DynVarSchemaStorage)
+            for (Map.Entry<String, DynVarField> entry : fields.entrySet())
+                merkleTree.update(entry.getKey(), entry.getValue());
+        
+        return merkleTree;
+    }
+    
+    /**
+     * Returns a consistent point-in-time view of every variable. With a DynVarPersistentStorage this is O(1)
+     * and shares structure with the map, otherwise the current values are copied.
+     *
+     * @return a read-only DynVarSnapshot
+     */
+    public DynVarSnapshot snapshot()
+    {
+        if(fields instanceof DynVarPersistentStorage)
+            return ((DynVarPersistentStorage) fields).snapshot();
+        
+        return new DynVarPersistentStorage(fields).snapshot();
+    }
+    
+    /**
+     * Returns an independent copy of this map that can be changed without affecting it, such as for a
+     * what-if simulation. With a DynVarPersistentStorage this is O(1), otherwise the current values are
+     * copied. Variables are copied into fields of the fork the first time they are accessed, listeners
+     * and time-to-live are not carried over.
+     *
+     * @return a new DynVarMap backed by a DynVarPersistentStorage
+     */
+    public DynVarMap fork()
+    {
+        DynVarPersistentStorage storage = fields instanceof DynVarPersistentStorage
+                ? ((DynVarPersistentStorage) fields).fork() : new DynVarPersistentStorage(fields);
+        
+        DynVarMap fork = new DynVarMap(storage);
+        fork.clock = clock;
+        return fork;
+    }
+    
+    /**
+     * Returns a view of the variables under the supplied dotted prefix, for example view("player.123")
+     * resolves getVarInt("hp") to player.123.hp. The view shares this map's storage, so writes are
+     * visible both ways, and caches the resolved fields so repeated access does not build new keys.
+     *
+     * @param prefix any String as the dotted variable name prefix
+     * @return a DynVarView of this map
+     */
+    public DynVarView view(String prefix)
+    {
+        return new DynVarView(this, prefix);
+    }
+    
+    /**
+     * Returns every key that starts with the supplied prefix. With a DynVarRadixStorage this only visits
+     * the matching keys, otherwise every key is scanned.
+     *
+     * @param prefix any String such as player.123.
+     * @return the matching keys
+     */
+    public List<String> keysWithPrefix(String prefix)
+    {
+        if(fields instanceof DynVarRadixStorage)
+            return ((DynVarRadixStorage) fields).keysWithPrefix(prefix);
+        
+        List<String> keys = new ArrayList<>();
+        for (String key : fields.keySet())
+            if(key.startsWith(prefix))
+                keys.add(key);
+        
+        return keys;
+    }
+    
+    /**
+     * Iterate through the variables whose key starts with the supplied prefix.
+     *
+     * @param prefix any String such as player.123.
+     * @param action any BiConsumer to process
+     * @return the map instance for method chaining
+     */
+    public DynVarMap forEachWithPrefix(String prefix, BiConsumer<String, DynVarField> action)
+    {
+        if(fields instanceof DynVarRadixStorage)
+            ((DynVarRadixStorage) fields).forEachWithPrefix(prefix, action);
+        else
+            fields.forEach((key, field) ->
+            {
+                if(key.startsWith(prefix))
+                    action.accept(key, field);
+            });
+        
+        return this;
+    }
+    
+    /**
+     * Returns how many keys start with the supplied prefix.
+     *
+     * @param prefix any String such as player.123.
+     * @return the amount of matching keys
+     */
+    public int countWithPrefix(String prefix)
+    {
+        if(fields instanceof DynVarRadixStorage)
+            return ((DynVarRadixStorage) fields).countWithPrefix(prefix);
+        
+        int count = 0;
+        for (String key : fields.keySet())
+            if(key.startsWith(prefix))
+                count++;
+        
+        return count;
+    }
+    
+    /**
+     * Remove every variable whose key starts with the supplied prefix, each removal is reported to listeners.
+     *
+     * @param prefix any String such as player.123.
+     * @return how many variables were removed
+     */
+    public int removePrefix(String prefix)
+    {
+        if(fields instanceof DynVarRadixStorage)
+            return ((DynVarRadixStorage) fields).removePrefix(prefix, (key, field) ->
+            {
+                detach(field);
+                fireStructural(key, DynVarChange.Type.REMOVE, null, field);
+            });
+        
+        List<String> keys = keysWithPrefix(prefix);
+        for (String key : keys)
+            remove(key);
+        
+        return keys.size();
+    }
+    
+    /**
+     * Keep the keys grouped by vars type, so forEachOfType and countOfType only visit the matching variables
+     * instead of scanning the whole map.
+     *
+     * @return the map instance for method chaining
+     */
+    public DynVarMap enableTypeIndex()
+    {
+        if(typeIndex == null)
+            typeIndex = new DynVarTypeIndex(fields);
+        
+        return this;
+    }
+    
+    /**
+     * Returns true if the vars type index has been enabled.
+     *
+     * @return true if variables are indexed by type
+     */
+    public boolean isTypeIndexed()
+    {
+        return typeIndex != null;
+    }
+    
+    /**
+     * Iterate through the variables that are an instance of the supplied vars type, such as DynVarLong.class.
+     * Without enableTypeIndex this falls back to scanning every variable.
+     *
+     * @param type any vars type, subclasses are included
+     * @param action any BiConsumer to process
+     * @param <T> the vars type
+     * @return the map instance for method chaining
+     */
+    public <T extends DynVarField> DynVarMap forEachOfType(Class<T> type, BiConsumer<String, T> action)
+    {
+        if(typeIndex != null)
+            typeIndex.forEach(type, action);
+        else
+            fields.forEach((key, field) ->
+            {
+                if(type.isInstance(field))
+                    action.accept(key, type.cast(field));
+            });
+        
+        return this;
+    }
+    
+    /**
+     * Returns how many variables are an instance of the supplied vars type.
+     *
+     * @param type any vars type, subclasses are included
+     * @return the amount of matching variables
+     */
+    public int countOfType(Class<? extends DynVarField> type)
+    {
+        if(typeIndex != null)
+            return typeIndex.count(type);
+        
+        int count = 0;
+        for (DynVarField field : fields.values())
+            if(type.isInstance(field))
+                count++;
+        
+        return count;
+    }
+    
+    /**
+     * Aggregate the count, sum, min, max and average of every variable of the supplied vars type.
+     * Large aggregations are run in parallel, see DynVarStats.setParallelThreshold.
+     *
+     * @param type any vars type such as DynVarLong.class, subclasses are included
+     * @return the aggregated DynVarStats
+     */
+    public DynVarStats stats(Class<? extends DynVarField> type)
+    {
+        return aggregate(type, null, null);
+    }
+    
+    /**
+     * Aggregate the count, sum, min, max and average of the variables of the supplied vars type under a key prefix.
+     *
+     * @param type any vars type such as DynVarLong.class, subclasses are included
+     * @param prefix any String such as player.123.
+     * @return the aggregated DynVarStats
+     */
+    public DynVarStats stats(Class<? extends DynVarField> type, String prefix)
+    {
+        return aggregate(type, prefix, null);
+    }
+    
+    /**
+     * Aggregate the count, sum, min, max and average of the variables of the supplied vars type whose key matches a filter.
+     *
+     * @param type any vars type such as DynVarLong.class, subclasses are included
+     * @param filter any Predicate to test each key
+     * @return the aggregated DynVarStats
+     */
+    public DynVarStats stats(Class<? extends DynVarField> type, Predicate<String> filter)
+    {
+        return aggregate(type, null, filter);
+    }
+    
+    /**
+     * Returns the sum of the variables of the supplied vars type under a key prefix.
+     *
+     * @param type any vars type such as DynVarLong.class
+     * @param prefix any String such as player.123., or null for every variable
+     * @return the sum
+     */
+    public double sum(Class<? extends DynVarField> type, String prefix)
+    {
+        return stats(type, prefix).getSum();
+    }
+    
+    /**
+     * Returns the smallest variable of the supplied vars type under a key prefix.
+     *
+     * @param type any vars type such as DynVarLong.class
+     * @param prefix any String such as player.123., or null for every variable
+     * @return the min, or positive infinity if there were no values
+     */
+    public double min(Class<? extends DynVarField> type, String prefix)
+    {
+        return stats(type, prefix).getMin();
+    }
+    
+    /**
+     * Returns the largest variable of the supplied vars type under a key prefix.
+     *
+     * @param type any vars type such as DynVarLong.class
+     * @param prefix any String such as player.123., or null for every variable
+     * @return the max, or negative infinity if there were no values
+     */
+    public double max(Class<? extends DynVarField> type, String prefix)
+    {
+        return stats(type, prefix).getMax();
+    }
+    
+    /**
+     * Returns the average of the variables of the supplied vars type under a key prefix.
+     *
+     * @param type any vars type such as DynVarLong.class
+     * @param prefix any String such as player.123., or null for every variable
+     * @return the average, or 0 if there were no values
+     */
+    public double average(Class<? extends DynVarField> type, String prefix)
+    {
+        return stats(type, prefix).getAverage();
+    }
+    
+    /**
+     * Returns how many numeric variables of the supplied vars type are under a key prefix.
+     *
+     * @param type any vars type such as DynVarLong.class
+     * @param prefix any String such as player.123., or null for every variable
+     * @return the count
+     */
+    public long count(Class<? extends DynVarField> type, String prefix)
+    {
+        return stats(type, prefix).getCount();
+    }
+    
+    /**
+     * Count the variables of the supplied vars type under a key prefix into equal width buckets between
+     * min and max, values outside the range are counted in the first or last bucket.
+     *
+     * @param type any vars type such as DynVarLong.class
+     * @param prefix any String such as player.123., or null for every variable
+     * @param min the lower bound of the first bucket
+     * @param max the upper bound of the last bucket
+     * @param buckets the amount of buckets
+     * @return the count of each bucket
+     */
+    public long[] histogram(Class<? extends DynVarField> type, String prefix, double min, double max, int buckets)
+    {
+        BiPredicate<String, DynVarField> test = scanTest(type, prefix, null);
+        if(test != null)
+            return DynVarStats.histogram(fields.entrySet().spliterator(), test, min, max, buckets);
+        
+        return DynVarStats.histogram(collect(type, prefix, null), min, max, buckets);
+    }
+    
+    private DynVarStats aggregate(Class<? extends DynVarField> type, String prefix, Predicate<String> filter)
+    {
+        BiPredicate<String, DynVarField> test = scanTest(type, prefix, filter);
+        if(test != null)
+            return DynVarStats.of(fields.entrySet().spliterator(), test);
+        
+        return DynVarStats.of(collect(type, prefix, filter));
+    }
+    
+    /**
+     * Returns the test of a large aggregation that has to scan the whole storage, so it can be gathered and reduced
+     * in parallel straight from the storage spliterator. Returns null when an index narrows the candidates or the
+     * storage is below the parallel threshold, those are gathered on the calling thread by collect.
+     */
+    private BiPredicate<String, DynVarField> scanTest(Class<? extends DynVarField> type, String prefix, Predicate<String> filter)
+    {
+        boolean indexed = prefix == null ? typeIndex != null : fields instanceof DynVarRadixStorage;
+        if(indexed || fields.size() < DynVarStats.getParallelThreshold())
+            return null;
+        
+        return (key, field) -> type.isInstance(field) && (prefix == null || key.startsWith(prefix))
+                && (filter == null || filter.test(key));
+    }
+    
+    /**
+     * Gather the matching fields, using the prefix or type index when available so only candidates are visited.
+     */
+    private DynVarField[] collect(Class<? extends DynVarField> type, String prefix, Predicate<String> filter)
+    {
+        List<DynVarField> matched = new ArrayList<>();
+        BiConsumer<String, DynVarField> action = (key, field) ->
+        {
+            if(type.isInstance(field) && (filter == null || filter.test(key)))
+                matched.add(field);
+        };
+        
+        if(prefix != null)
+            forEachWithPrefix(prefix, action);
+        else
+            forEachOfType(type, action::accept);
+        
+        return matched.toArray(new DynVarField[0]);
+    }
+    
+    /**
+     * Returns the keys of every DynVarTime variable where hasPassed(durationMs) is true, oldest first.
+     *
+     * @param durationMs any long as the duration in milliseconds
+     * @return the keys of the expired variables
+     */
+    public List<String> expiredSince(long durationMs)
+    {
+        long cutoff = getClock().millis() - durationMs;
+        
+        if(timeIndex != null)
+            return timeIndex.before(cutoff);
+        
+        //read each time once, sorting on the key would look every variable up again per comparison
+        List<Map.Entry<String, Long>> expired = new ArrayList<>();
+        fields.forEach((key, field) ->
+        {
+            if(!(field instanceof DynVarTime))
+                return;
+            
+            long time = ((DynVarTime) field).getTime();
+            
+            if(time < cutoff)
+                expired.add(new AbstractMap.SimpleImmutableEntry<>(key, time));
+        });
+        
+        expired.sort(Map.Entry.comparingByValue());
+        
+        List<String> keys = new ArrayList<>(expired.size());
+        for (Map.Entry<String, Long> entry : expired)
+            keys.add(entry.getKey());
+        
+        return keys;
+    }
+    
+    /**
+     * Reset every DynVarTime variable where hasPassed(durationMs) is true back to now, the same as
+     * calling hasPassedReset on each, then pass each one to the supplied action.
+     *
+     * @param durationMs any long as the duration in milliseconds
+     * @param action any BiConsumer to process each expired variable
+     * @return how many variables had expired
+     */
+    public int pollExpired(long durationMs, BiConsumer<String, DynVarTime> action)
+    {
+        int polled = 0;
+        
+        for (String key : expiredSince(durationMs))
+        {
+            //the variable may have been removed or replaced since the expired keys were gathered
+            DynVarField field = getDirect(key);
+            
+            if(!(field instanceof DynVarTime))
+                continue;
+            
+            DynVarTime time = (DynVarTime) field;
+            time.setNow();
+            action.accept(key, time);
+            polled++;
+        }
+        
+        return polled;
+    }
+    
+    /**
+     * Estimate how many bytes of heap memory this map holds, broken down by table, keys, fields and values.
+     * This walks every variable once and is cheap enough to be called periodically.
+     *
+     * @return the estimated DynVarFootprint
+     */
+    public DynVarFootprint estimateFootprint()
+    {
+        return DynVarFootprint.estimate(fields, capacity);
     }
     
     /**
@@ -0,0 +1,300 @@
+package com.konloch.dynvarmap;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A hash tree over the variables of a DynVarMap, used to find the differences between two maps.
+ *
+ * Every variable has a 64-bit entry hash of its name, vars type and value, and is placed in a bucket by the
+ * top bits of its name hash. The tree is a complete binary tree over the buckets where each node is the sum
+ * of the entry hashes below it, so a change only updates the path above one bucket, and a node describes the
+ * same range of name hashes no matter how deep the tree is. Two trees of different depths can therefore be
+ * compared level by level, and only the buckets under differing nodes are visited.
+ *
+ * Node sums are not tamper-proof, they detect accidental differences only.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+class DynVarMerkleTree
+{
+	private static final int MIN_DEPTH = 4;
+	private static final int MAX_DEPTH = 24;
+	
+	//grow once buckets hold eight variables on average
+	private static final int LOAD = 8;
+	
+	private int depth;
+	private long[] tree;
+	private String[][] keys;
+	private long[][] hashes;
+	private int[] counts;
+	private int size;
+	
+	/**
+	 * Constructs a new DynVarMerkleTree and hashes every variable already in the map.
+	 *
+	 * @param fields the field map of a DynVarMap
+	 */
+	DynVarMerkleTree(Map<String, DynVarField> fields)
+	{
+		int depth = MIN_DEPTH;
+		while (depth < MAX_DEPTH && fields.size() > LOAD << depth)
+			depth++;
+		
+		init(depth);
+		fields.forEach(this::add);
+	}
+	
+	void add(String key, DynVarField field)
+	{
+		if(field == null)
+			return;
+		
+		if(size >= LOAD << depth && depth < MAX_DEPTH)
+			resize(depth + 1);
+		
+		long keyHash = keyHash(key);
+		long hash = entryHash(keyHash, field);
+		int bucket = bucket(keyHash, depth);
+		int count = counts[bucket];
+		
+		if(keys[bucket] == null)
+		{
+			keys[bucket] = new String[4];
+			hashes[bucket] = new long[4];
+		}
+		else if(count == keys[bucket].length)
+		{
+			keys[bucket] = Arrays.copyOf(keys[bucket], count << 1);
+			hashes[bucket] = Arrays.copyOf(hashes[bucket], count << 1);
+		}
+		
+		keys[bucket][count] = key;
+		hashes[bucket][count] = hash;
+		counts[bucket]++;
+		size++;
+		
+		propagate(bucket, hash);
+	}
+	
+	void remove(String key, DynVarField field)
+	{
+		if(field == null)
+			return;
+		
+		int bucket = bucket(keyHash(key), depth);
+		int index = indexOf(bucket, key);
+		if(index < 0)
+			return;
+		
+		long hash = hashes[bucket][index];
+		int last = --counts[bucket];
+		
+		//swap the last entry into the removed slot
+		keys[bucket][index] = keys[bucket][last];
+		hashes[bucket][index] = hashes[bucket][last];
+		keys[bucket][last] = null;
+		size--;
+		
+		propagate(bucket, -hash);
+	}
+	
+	/**
+	 * Rehash a variable after its value has changed.
+	 *
+	 * @param key the variable name
+	 * @param field the DynVarField that changed
+	 */
+	void update(String key, DynVarField field)
+	{
+		long keyHash = keyHash(key);
+		int bucket = bucket(keyHash, depth);
+		int index = indexOf(bucket, key);
+		if(index < 0)
+			return;
+		
+		long hash = entryHash(keyHash, field);
+		long delta = hash - hashes[bucket][index];
+		hashes[bucket][index] = hash;
+		
+		if(delta != 0)
+			propagate(bucket, delta);
+	}
+	
+	void clear()
+	{
+		init(MIN_DEPTH);
+	}
+	
+	/**
+	 * Returns the root hash, equal for two maps holding the same variables.
+	 *
+	 * @return the sum of every entry hash
+	 */
+	long root()
+	{
+		return tree[1];
+	}
+	
+	/**
+	 * Collect the name of every variable that is missing from one of the trees or has a different type or value.
+	 *
+	 * @param a any DynVarMerkleTree
+	 * @param b any DynVarMerkleTree
+	 * @param out the Collection the differing names are added to
+	 */
+	static void diff(DynVarMerkleTree a, DynVarMerkleTree b, Collection<String> out)
+	{
+		diff(a, b, Math.min(a.depth, b.depth), 0, 0, out);
+	}
+	
+	private static void diff(DynVarMerkleTree a, DynVarMerkleTree b, int depth, int level, int index, Collection<String> out)
+	{
+		int node = (1 << level) + index;
+		if(a.tree[node] == b.tree[node])
+			return;
+		
+		if(level < depth)
+		{
+			diff(a, b, depth, level + 1, index << 1, out);
+			diff(a, b, depth, level + 1, (index << 1) | 1, out);
+			return;
+		}
+		
+		//the shallower tree ends here, compare every variable under this node in both trees
+		a.collectDifferent(b, level, index, out);
+		b.collectMissing(a, level, index, out);
+	}
+	
+	private void collectDifferent(DynVarMerkleTree other, int level, int index, Collection<String> out)
+	{
+		int shift = depth - level;
+		for (int bucket = index << shift, end = (index + 1) << shift; bucket < end; bucket++)
+			for (int i = 0; i < counts[bucket]; i++)
+			{
+				String key = keys[bucket][i];
+				int otherBucket = bucket(keyHash(key), other.depth);
+				int otherIndex = other.indexOf(otherBucket, key);
+				
+				if(otherIndex < 0 || other.hashes[otherBucket][otherIndex] != hashes[bucket][i])
+					out.add(key);
+			}
+	}
+	
+	private void collectMissing(DynVarMerkleTree other, int level, int index, Collection<String> out)
+	{
+		int shift = depth - level;
+		for (int bucket = index << shift, end = (index + 1) << shift; bucket < end; bucket++)
+			for (int i = 0; i < counts[bucket]; i++)
+			{
+				String key = keys[bucket][i];
+				
+				if(other.indexOf(bucket(keyHash(key), other.depth), key) < 0)
+					out.add(key);
+			}
+	}
+	
+	private void propagate(int bucket, long delta)
+	{
+		for (int node = (1 << depth) + bucket; node > 0; node >>>= 1)
+			tree[node] += delta;
+	}
+	
+	private int indexOf(int bucket, String key)
+	{
+		String[] local = keys[bucket];
+		for (int i = 0, count = counts[bucket]; i < count; i++)
+			if(local[i].equals(key))
+				return i;
+		
+		return -1;
+	}
+	
+	private void init(int depth)
+	{
+		this.depth = depth;
+		this.tree = new long[2 << depth];
+		this.keys = new String[1 << depth][];
+		this.hashes = new long[1 << depth][];
+		this.counts = new int[1 << depth];
+		this.size = 0;
+	}
+	
+	private void resize(int depth)
+	{
+		String[][] oldKeys = keys;
+		long[][] oldHashes = hashes;
+		int[] oldCounts = counts;
+		
+		init(depth);
+		
+		//entry hashes do not depend on the depth, only the buckets are redistributed
+		for (int bucket = 0; bucket < oldKeys.length; bucket++)
+			for (int i = 0; i < oldCounts[bucket]; i++)
+			{
+				String key = oldKeys[bucket][i];
+				int target = bucket(keyHash(key), depth);
+				int count = counts[target];
+				
+				if(keys[target] == null)
+				{
+					keys[target] = new String[4];
+					hashes[target] = new long[4];
+				}
+				else if(count == keys[target].length)
+				{
+					keys[target] = Arrays.copyOf(keys[target], count << 1);
+					hashes[target] = Arrays.copyOf(hashes[target], count << 1);
+				}
+				
+				keys[target][count] = key;
+				hashes[target][count] = oldHashes[bucket][i];
+				counts[target]++;
+				size++;
+				tree[(1 << depth) + target] += oldHashes[bucket][i];
+			}
+		
+		for (int node = (1 << depth) - 1; node > 0; node--)
+			tree[node] = tree[node << 1] + tree[(node << 1) | 1];
+	}
+	
+	private static int bucket(long keyHash, int depth)
+	{
+		return (int) (keyHash >>> (64 - depth));
+	}
+	
+	/**
+	 * FNV-1a over the characters of the name, finished with a mix so the top bits are well distributed.
+	 */
+	private static long keyHash(String key)
+	{
+		long h = 0xcbf29ce484222325L;
+		for (int i = 0; i < key.length(); i++)
+		{
+			h ^= key.charAt(i);
+			h *= 0x100000001b3L;
+		}
+		
+		return mix(h);
+	}
+	
+	/**
+	 * The entry hash only uses hashes that are stable across JVMs, so root hashes of saved maps can be compared.
+	 */
+	private static long entryHash(long keyHash, DynVarField field)
+	{
+		long value = ((long) field.getClass().getName().hashCode() << 32) ^ (Objects.hashCode(field.read()) & 0xFFFFFFFFL);
+		return mix(keyHash ^ mix(value));
+	}
+	
+	private static long mix(long h)
+	{
+		h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+		h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+		return h ^ (h >>> 31);
+	}
+}
@@ -0,0 +1,393 @@
+package com.konloch.dynvarmap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiPredicate;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+/**
+ * The count, sum, min, max and average of a set of numeric variables.
+ *
+ * Values are read straight from each field as a Number, so aggregating never boxes. Integral values are
+ * summed as a long and floating point values as a double. Above the parallel threshold the fields are
+ * split into ranges and reduced on the common fork-join pool. Aggregations that scan a whole storage
+ * split its spliterator instead, so the matching fields are also gathered in parallel.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+public class DynVarStats
+{
+	private static volatile int parallelThreshold = 10_000;
+	
+	private final long count;
+	private final long longSum;
+	private final double doubleSum;
+	private final double min;
+	private final double max;
+	
+	private DynVarStats(long count, long longSum, double doubleSum, double min, double max)
+	{
+		this.count = count;
+		this.longSum = longSum;
+		this.doubleSum = doubleSum;
+		this.min = min;
+		this.max = max;
+	}
+	
+	/**
+	 * Aggregate the numeric values of the supplied fields, fields without a numeric value are skipped.
+	 *
+	 * @param fields any DynVarField array
+	 * @return the aggregated DynVarStats
+	 */
+	static DynVarStats of(DynVarField[] fields)
+	{
+		if(fields.length >= parallelThreshold)
+			return ForkJoinPool.commonPool().invoke(new StatsTask(fields, 0, fields.length, leafSize(fields.length)));
+		
+		return collect(fields, 0, fields.length);
+	}
+	
+	/**
+	 * Aggregate the numeric values of the storage entries that pass the test, gathering and reducing each split
+	 * of the spliterator on the common fork-join pool.
+	 *
+	 * @param entries the entry spliterator of a storage
+	 * @param test any BiPredicate to select the variables by key and field
+	 * @return the aggregated DynVarStats
+	 */
+	static DynVarStats of(Spliterator<Map.Entry<String, DynVarField>> entries, BiPredicate<String, DynVarField> test)
+	{
+		return ForkJoinPool.commonPool().invoke(new GatherTask<>(entries, test, leafSize(entries.estimateSize()),
+				fields -> collect(fields, 0, fields.length), DynVarStats::combine));
+	}
+	
+	/**
+	 * Count the numeric values of the supplied fields into equal width buckets between min and max,
+	 * values outside the range are counted in the first or last bucket.
+	 *
+	 * @param fields any DynVarField array
+	 * @param min the lower bound of the first bucket
+	 * @param max the upper bound of the last bucket
+	 * @param buckets the amount of buckets
+	 * @return the count of each bucket
+	 */
+	static long[] histogram(DynVarField[] fields, double min, double max, int buckets)
+	{
+		if(buckets <= 0 || !(max > min))
+			throw new IllegalArgumentException("Expected at least one bucket and max > min");
+		
+		if(fields.length >= parallelThreshold)
+			return ForkJoinPool.commonPool().invoke(new HistogramTask(fields, 0, fields.length, leafSize(fields.length), min, max, buckets));
+		
+		return histogram(fields, 0, fields.length, min, max, buckets);
+	}
+	
+	/**
+	 * Count the numeric values of the storage entries that pass the test into equal width buckets, gathering and
+	 * counting each split of the spliterator on the common fork-join pool.
+	 *
+	 * @param entries the entry spliterator of a storage
+	 * @param test any BiPredicate to select the variables by key and field
+	 * @param min the lower bound of the first bucket
+	 * @param max the upper bound of the last bucket
+	 * @param buckets the amount of buckets
+	 * @return the count of each bucket
+	 */
+	static long[] histogram(Spliterator<Map.Entry<String, DynVarField>> entries, BiPredicate<String, DynVarField> test,
+	                        double min, double max, int buckets)
+	{
+		if(buckets <= 0 || !(max > min))
+			throw new IllegalArgumentException("Expected at least one bucket and max > min");
+		
+		return ForkJoinPool.commonPool().invoke(new GatherTask<>(entries, test, leafSize(entries.estimateSize()),
+				fields -> histogram(fields, 0, fields.length, min, max, buckets), DynVarStats::add));
+	}
+	
+	/**
+	 * Returns how many fields an aggregation must cover before it is run in parallel.
+	 *
+	 * @return the parallel threshold
+	 */
+	public static int getParallelThreshold()
+	{
+		return parallelThreshold;
+	}
+	
+	/**
+	 * Set how many fields an aggregation must cover before it is run in parallel.
+	 *
+	 * @param threshold the parallel threshold, Integer.MAX_VALUE to always run on the calling thread
+	 */
+	public static void setParallelThreshold(int threshold)
+	{
+		parallelThreshold = Math.max(1, threshold);
+	}
+	
+	/**
+	 * Returns how many numeric values were aggregated.
+	 *
+	 * @return the count
+	 */
+	public long getCount()
+	{
+		return count;
+	}
+	
+	/**
+	 * Returns the sum of every value.
+	 *
+	 * @return the sum
+	 */
+	public double getSum()
+	{
+		return longSum + doubleSum;
+	}
+	
+	/**
+	 * Returns the exact sum of the integral values, floating point values are not included.
+	 *
+	 * @return the integral sum
+	 */
+	public long getLongSum()
+	{
+		return longSum;
+	}
+	
+	/**
+	 * Returns the smallest value.
+	 *
+	 * @return the min, or positive infinity if there were no values
+	 */
+	public double getMin()
+	{
+		return min;
+	}
+	
+	/**
+	 * Returns the largest value.
+	 *
+	 * @return the max, or negative infinity if there were no values
+	 */
+	public double getMax()
+	{
+		return max;
+	}
+	
+	/**
+	 * Returns the average of every value.
+	 *
+	 * @return the average, or 0 if there were no values
+	 */
+	public double getAverage()
+	{
+		return count == 0 ? 0 : getSum() / count;
+	}
+	
+	@Override
+	public String toString()
+	{
+		return "DynVarStats{" +
+				"count=" + count +
+				", sum=" + getSum() +
+				", min=" + min +
+				", max=" + max +
+				", average=" + getAverage() +
+				'}';
+	}
+	
+	private static int leafSize(long length)
+	{
+		//a few ranges per worker keeps the pool balanced without splitting into tiny tasks
+		return (int) Math.max(1024, Math.min(Integer.MAX_VALUE, length / (ForkJoinPool.getCommonPoolParallelism() * 4)));
+	}
+	
+	private static long[] add(long[] counts, long[] other)
+	{
+		for (int i = 0; i < counts.length; i++)
+			counts[i] += other[i];
+		
+		return counts;
+	}
+	
+	private DynVarStats combine(DynVarStats other)
+	{
+		return new DynVarStats(count + other.count, longSum + other.longSum, doubleSum + other.doubleSum,
+				Math.min(min, other.min), Math.max(max, other.max));
+	}
+	
+	private static DynVarStats collect(DynVarField[] fields, int from, int to)
+	{
+		long count = 0;
+		long longSum = 0;
+		double doubleSum = 0;
+		double min = Double.POSITIVE_INFINITY;
+		double max = Double.NEGATIVE_INFINITY;
+		
+		for (int i = from; i < to; i++)
+		{
+			Object value = fields[i].read();
+			double d;
+			
+			if(value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte)
+			{
+				long l = ((Number) value).longValue();
+				longSum += l;
+				d = l;
+			}
+			else if(value instanceof Number)
+			{
+				d = ((Number) value).doubleValue();
+				doubleSum += d;
+			}
+			else
+				continue;
+			
+			count++;
+			
+			if(d < min)
+				min = d;
+			
+			if(d > max)
+				max = d;
+		}
+		
+		return new DynVarStats(count, longSum, doubleSum, min, max);
+	}
+	
+	private static long[] histogram(DynVarField[] fields, int from, int to, double min, double max, int buckets)
+	{
+		long[] counts = new long[buckets];
+		double scale = buckets / (max - min);
+		
+		for (int i = from; i < to; i++)
+		{
+			Object value = fields[i].read();
+			if(!(value instanceof Number))
+				continue;
+			
+			int bucket = (int) ((((Number) value).doubleValue() - min) * scale);
+			counts[Math.max(0, Math.min(buckets - 1, bucket))]++;
+		}
+		
+		return counts;
+	}
+	
+	private static class StatsTask extends RecursiveTask<DynVarStats>
+	{
+		private final DynVarField[] fields;
+		private final int from;
+		private final int to;
+		private final int leaf;
+		
+		private StatsTask(DynVarField[] fields, int from, int to, int leaf)
+		{
+			this.fields = fields;
+			this.from = from;
+			this.to = to;
+			this.leaf = leaf;
+		}
+		
+		@Override
+		protected DynVarStats compute()
+		{
+			if(to - from <= leaf)
+				return collect(fields, from, to);
+			
+			int middle = (from + to) >>> 1;
+			StatsTask left = new StatsTask(fields, from, middle, leaf);
+			left.fork();
+			
+			DynVarStats right = new StatsTask(fields, middle, to, leaf).compute();
+			return left.join().combine(right);
+		}
+	}
+	
+	private static class HistogramTask extends RecursiveTask<long[]>
+	{
+		private final DynVarField[] fields;
+		private final int from;
+		private final int to;
+		private final int leaf;
+		private final double min;
+		private final double max;
+		private final int buckets;
+		
+		private HistogramTask(DynVarField[] fields, int from, int to, int leaf, double min, double max, int buckets)
+		{
+			this.fields = fields;
+			this.from = from;
+			this.to = to;
+			this.leaf = leaf;
+			this.min = min;
+			this.max = max;
+			this.buckets = buckets;
+		}
+		
+		@Override
+		protected long[] compute()
+		{
+			if(to - from <= leaf)
+				return histogram(fields, from, to, min, max, buckets);
+			
+			int middle = (from + to) >>> 1;
+			HistogramTask left = new HistogramTask(fields, from, middle, leaf, min, max, buckets);
+			left.fork();
+			
+			long[] counts = new HistogramTask(fields, middle, to, leaf, min, max, buckets).compute();
+			return add(counts, left.join());
+		}
+	}
+	
+	/**
+	 * Splits a storage spliterator down to leaf sized parts, gathers the fields that pass the test in each
+	 * part and reduces them, then combines the results.
+	 */
+	private static class GatherTask<R> extends RecursiveTask<R>
+	{
+		private final Spliterator<Map.Entry<String, DynVarField>> entries;
+		private final BiPredicate<String, DynVarField> test;
+		private final int leaf;
+		private final Function<DynVarField[], R> reduce;
+		private final BinaryOperator<R> combine;
+		
+		private GatherTask(Spliterator<Map.Entry<String, DynVarField>> entries, BiPredicate<String, DynVarField> test,
+		                   int leaf, Function<DynVarField[], R> reduce, BinaryOperator<R> combine)
+		{
+			this.entries = entries;
+			this.test = test;
+			this.leaf = leaf;
+			this.reduce = reduce;
+			this.combine = combine;
+		}
+		
+		@Override
+		protected R compute()
+		{
+			Spliterator<Map.Entry<String, DynVarField>> split;
+			if(entries.estimateSize() > leaf && (split = entries.trySplit()) != null)
+			{
+				GatherTask<R> left = new GatherTask<>(split, test, leaf, reduce, combine);
+				left.fork();
+				
+				R right = new GatherTask<>(entries, test, leaf, reduce, combine).compute();
+				return combine.apply(left.join(), right);
+			}
+			
+			List<DynVarField> matched = new ArrayList<>();
+			entries.forEachRemaining(entry ->
+			{
+				if(test.test(entry.getKey(), entry.getValue()))
+					matched.add(entry.getValue());
+			});
+			
+			return reduce.apply(matched.toArray(new DynVarField[0]));
+		}
+	}
+}
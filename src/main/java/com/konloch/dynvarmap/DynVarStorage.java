@@ -0,0 +1,42 @@
+package com.konloch.dynvarmap;
+
+import java.util.Map;
+
+/**
+ * A custom field storage for a DynVarMap, any Map can be used as storage but implementing this interface
+ * lets the storage report its own memory overhead to estimateFootprint and take part in creating fields.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+public interface DynVarStorage extends Map<String, DynVarField>
+{
+	/**
+	 * Estimate how many bytes the storage structure holds, not including the keys, fields and values.
+	 *
+	 * @return the estimated overhead in bytes
+	 */
+	long estimateOverhead();
+	
+	/**
+	 * Bind the storage to the map that uses it, called by the DynVarMap constructor.
+	 *
+	 * @param map the DynVarMap using this storage
+	 */
+	default void bind(DynVarMap map)
+	{
+	}
+	
+	/**
+	 * Called before a field is stored, the storage may return a different field of the same vars type to store
+	 * instead, such as one whose value lives outside of the heap.
+	 *
+	 * @param key any String as the variable name
+	 * @param field the DynVarField about to be stored
+	 * @return the DynVarField to store
+	 */
+	default DynVarField adopt(String key, DynVarField field)
+	{
+		return field;
+	}
+}
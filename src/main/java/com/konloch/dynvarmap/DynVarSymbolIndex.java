@@ -0,0 +1,137 @@
+package com.konloch.dynvarmap;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * The variables of a DynVarMap keyed by symbol id, stored in an open addressing int hash table.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+class DynVarSymbolIndex
+{
+	private static final int EMPTY = -1;
+	
+	private int[] symbols;
+	private DynVarField[] fields;
+	private int size;
+	
+	/**
+	 * Constructs a new DynVarSymbolIndex and interns every key already in the map.
+	 *
+	 * @param fields the field map of a DynVarMap
+	 */
+	DynVarSymbolIndex(Map<String, DynVarField> fields)
+	{
+		int capacity = 16;
+		while (capacity * 0.5F < fields.size())
+			capacity <<= 1;
+		
+		allocate(capacity);
+		fields.forEach((key, field) -> put(DynVarSymbols.intern(key), field));
+	}
+	
+	DynVarField get(int symbol)
+	{
+		int mask = symbols.length - 1;
+		
+		for (int i = mix(symbol) & mask; ; i = (i + 1) & mask)
+		{
+			int stored = symbols[i];
+			if(stored == symbol)
+				return fields[i];
+			
+			if(stored == EMPTY)
+				return null;
+		}
+	}
+	
+	void put(int symbol, DynVarField field)
+	{
+		int mask = symbols.length - 1;
+		int i = mix(symbol) & mask;
+		
+		while (symbols[i] != EMPTY && symbols[i] != symbol)
+			i = (i + 1) & mask;
+		
+		if(symbols[i] == EMPTY)
+		{
+			symbols[i] = symbol;
+			
+			if(++size > symbols.length * 0.5F)
+			{
+				fields[i] = field;
+				resize();
+				return;
+			}
+		}
+		
+		fields[i] = field;
+	}
+	
+	void remove(int symbol)
+	{
+		if(symbol == EMPTY)
+			return;
+		
+		int mask = symbols.length - 1;
+		int i = mix(symbol) & mask;
+		
+		while (symbols[i] != symbol)
+		{
+			if(symbols[i] == EMPTY)
+				return;
+			
+			i = (i + 1) & mask;
+		}
+		
+		//shift the following entries back so lookups never need tombstones
+		for (int j = (i + 1) & mask; symbols[j] != EMPTY; j = (j + 1) & mask)
+		{
+			int home = mix(symbols[j]) & mask;
+			
+			if(((j - home) & mask) >= ((j - i) & mask))
+			{
+				symbols[i] = symbols[j];
+				fields[i] = fields[j];
+				i = j;
+			}
+		}
+		
+		symbols[i] = EMPTY;
+		fields[i] = null;
+		size--;
+	}
+	
+	void clear()
+	{
+		allocate(16);
+	}
+	
+	private void resize()
+	{
+		int[] oldSymbols = symbols;
+		DynVarField[] oldFields = fields;
+		allocate(oldSymbols.length << 1);
+		
+		for (int i = 0; i < oldSymbols.length; i++)
+			if(oldSymbols[i] != EMPTY)
+				put(oldSymbols[i], oldFields[i]);
+	}
+	
+	private void allocate(int capacity)
+	{
+		symbols = new int[capacity];
+		fields = new DynVarField[capacity];
+		size = 0;
+		Arrays.fill(symbols, EMPTY);
+	}
+	
+	private static int mix(int symbol)
+	{
+		//symbol ids are sequential, spread them over the table
+		int hash = symbol * 0x9E3779B9;
+		return hash ^ (hash >>> 16);
+	}
+}
@@ -0,0 +1,101 @@
+package com.konloch.dynvarmap;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A process wide symbol table that interns variable names to compact int ids.
+ *
+ * Maps with symbols enabled store the interned name instead of their own copy, so loading many maps
+ * with the same schema keeps each name once, and variables can be looked up by id with a single int probe.
+ * Symbols are never released, so this is meant for the bounded set of names a program uses, not for
+ * names built from unbounded data.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+public class DynVarSymbols
+{
+	private static final ConcurrentHashMap<String, Integer> IDS = new ConcurrentHashMap<>();
+	private static volatile String[] names = new String[256];
+	private static volatile int count;
+	
+	/**
+	 * Returns the symbol id of a name, interning it if it has not been seen before.
+	 *
+	 * @param name any String as the variable name
+	 * @return the symbol id
+	 */
+	public static int intern(String name)
+	{
+		Integer id = IDS.get(name);
+		if(id != null)
+			return id;
+		
+		synchronized (IDS)
+		{
+			id = IDS.get(name);
+			if(id != null)
+				return id;
+			
+			int symbol = count;
+			String[] names = DynVarSymbols.names;
+			if(symbol == names.length)
+				DynVarSymbols.names = names = Arrays.copyOf(names, names.length << 1);
+			
+			names[symbol] = name;
+			count = symbol + 1;
+			IDS.put(name, symbol);
+			return symbol;
+		}
+	}
+	
+	/**
+	 * Returns the symbol id of a name without interning it.
+	 *
+	 * @param name any String as the variable name
+	 * @return the symbol id, or -1 if the name has not been interned
+	 */
+	public static int find(String name)
+	{
+		Integer id = IDS.get(name);
+		return id == null ? -1 : id;
+	}
+	
+	/**
+	 * Returns the name of a symbol id.
+	 *
+	 * @param symbol any symbol id returned by intern
+	 * @return the interned name
+	 */
+	public static String name(int symbol)
+	{
+		if(symbol < 0 || symbol >= count)
+			throw new IllegalArgumentException("Unknown symbol " + symbol);
+		
+		return names[symbol];
+	}
+	
+	/**
+	 * Returns the single shared instance of a name, interning it if it has not been seen before.
+	 *
+	 * @param name any String as the variable name
+	 * @return the interned String
+	 */
+	public static String canonical(String name)
+	{
+		//intern first, it may grow the names array
+		int symbol = intern(name);
+		return names[symbol];
+	}
+	
+	/**
+	 * Returns how many names have been interned.
+	 *
+	 * @return the symbol count
+	 */
+	public static int size()
+	{
+		return count;
+	}
+}
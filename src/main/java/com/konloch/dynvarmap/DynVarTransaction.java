@@ -0,0 +1,347 @@
+package com.konloch.dynvarmap;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * A multi-variable transaction against a DynVarMap, created by DynVarMap.transaction.
+ *
+ * Reads see a consistent snapshot of the map, writes are buffered and published atomically when the body
+ * returns. If another write to a variable that was read is seen, the body is run again, so it should not
+ * have side effects outside of the transaction. Variables must exist before the transaction starts,
+ * creating and removing variables is not transactional.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+public class DynVarTransaction
+{
+	private final DynVarTransactions versions;
+	private final DynVarMap map;
+	private final String prefix;
+	private final long readVersion;
+	private int[] reads = new int[8];
+	private int readCount;
+	private Map<DynVarField, Write> writes;
+	
+	DynVarTransaction(DynVarTransactions versions, DynVarMap map, String prefix, long readVersion)
+	{
+		this.versions = versions;
+		this.map = map;
+		this.prefix = prefix;
+		this.readVersion = readVersion;
+	}
+	
+	/**
+	 * Returns the variable value as seen by this transaction.
+	 *
+	 * @param key any String as the variable name
+	 * @param <T> the variable value Type
+	 * @return the variable value, or null if the variable does not exist
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T get(String key)
+	{
+		DynVarField field = field(key);
+		return field == null ? null : (T) read(field);
+	}
+	
+	/**
+	 * Returns the variable value as an int.
+	 *
+	 * @param key any String as the variable name
+	 * @return the variable value, or 0 if the variable does not exist
+	 */
+	public int getInt(String key)
+	{
+		Object value = get(key);
+		return value instanceof Number ? ((Number) value).intValue() : 0;
+	}
+	
+	/**
+	 * Returns the variable value as a long.
+	 *
+	 * @param key any String as the variable name
+	 * @return the variable value, or 0 if the variable does not exist
+	 */
+	public long getLong(String key)
+	{
+		Object value = get(key);
+		return value instanceof Number ? ((Number) value).longValue() : 0L;
+	}
+	
+	/**
+	 * Returns the variable value as a double.
+	 *
+	 * @param key any String as the variable name
+	 * @return the variable value, or 0 if the variable does not exist
+	 */
+	public double getDouble(String key)
+	{
+		Object value = get(key);
+		return value instanceof Number ? ((Number) value).doubleValue() : 0D;
+	}
+	
+	/**
+	 * Set the variable value when the transaction commits.
+	 *
+	 * @param key any String as the variable name
+	 * @param value any Object as the variable value
+	 * @return this instance for method chaining
+	 */
+	public DynVarTransaction set(String key, Object value)
+	{
+		write(existing(key), DynVarChange.Type.SET, value);
+		return this;
+	}
+	
+	/**
+	 * Preforms an addition when the transaction commits, using the same rules as DynVarField.add.
+	 *
+	 * @param key any String as the variable name
+	 * @param value the value to add with
+	 * @return this instance for method chaining
+	 */
+	public DynVarTransaction add(String key, Object value)
+	{
+		DynVarField field = existing(key);
+		write(field, DynVarChange.Type.ARITHMETIC, new DynVarField(read(field)).add(value).value);
+		return this;
+	}
+	
+	/**
+	 * Preforms a mathematics subtraction when the transaction commits, using the same rules as
+	 * DynVarField.subtract.
+	 *
+	 * @param key any String as the variable name
+	 * @param value the value to subtract with
+	 * @return this instance for method chaining
+	 */
+	public DynVarTransaction subtract(String key, Object value)
+	{
+		DynVarField field = existing(key);
+		write(field, DynVarChange.Type.ARITHMETIC, new DynVarField(read(field)).subtract(value).value);
+		return this;
+	}
+	
+	/**
+	 * Check if the variable exists.
+	 *
+	 * @param key any String as the variable name
+	 * @return true if the variable exists
+	 */
+	public boolean containsKey(String key)
+	{
+		return field(key) != null;
+	}
+	
+	/**
+	 * Discard every write and end the transaction without retrying, DynVarMap.transaction then returns null.
+	 */
+	public void abort()
+	{
+		throw Abort.INSTANCE;
+	}
+	
+	/**
+	 * Returns the version of the map this transaction is reading.
+	 *
+	 * @return the read version
+	 */
+	public long getReadVersion()
+	{
+		return readVersion;
+	}
+	
+	/**
+	 * Validate and publish the buffered writes.
+	 *
+	 * @return true if the transaction committed, false if it has to run again
+	 */
+	boolean commit()
+	{
+		//every read was validated against the read version, nothing is left to do
+		if(writes == null)
+			return true;
+		
+		int[] stripes = new int[writes.size()];
+		int count = 0;
+		for (DynVarField field : writes.keySet())
+			stripes[count++] = DynVarTransactions.stripe(field);
+		
+		//locking in ascending order keeps transactions on overlapping stripes from starving each other
+		Arrays.sort(stripes);
+		count = distinct(stripes);
+		
+		int locked = 0;
+		while (locked < count && versions.tryLock(stripes[locked]))
+			locked++;
+		
+		if(locked < count || !validate(stripes, count))
+		{
+			for (int i = 0; i < locked; i++)
+				versions.unlock(stripes[i], -1);
+			
+			return false;
+		}
+		
+		long writeVersion = versions.nextVersion();
+		
+		//publish goes through the field, so shared and schema fields write their backing value too
+		try
+		{
+			for (Map.Entry<DynVarField, Write> entry : writes.entrySet())
+			{
+				Write write = entry.getValue();
+				write.previous = entry.getKey().read();
+				entry.getKey().publish(write.value);
+			}
+		}
+		finally
+		{
+			for (int i = 0; i < count; i++)
+				versions.unlock(stripes[i], writeVersion);
+		}
+		
+		//listeners are notified once every stripe is released, so they may start transactions of their own
+		for (Map.Entry<DynVarField, Write> entry : writes.entrySet())
+			entry.getKey().fire(entry.getValue().type, entry.getValue().previous);
+		
+		return true;
+	}
+	
+	private boolean validate(int[] locked, int lockedCount)
+	{
+		for (int i = 0; i < readCount; i++)
+		{
+			long word = versions.lockWord(reads[i]);
+			
+			if((word >>> 1) > readVersion)
+				return false;
+			
+			if((word & 1) != 0 && Arrays.binarySearch(locked, 0, lockedCount, reads[i]) < 0)
+				return false;
+		}
+		
+		return true;
+	}
+	
+	private Object read(DynVarField field)
+	{
+		if(writes != null)
+		{
+			Write write = writes.get(field);
+			if(write != null)
+				return write.value;
+		}
+		
+		int stripe = DynVarTransactions.stripe(field);
+		long before = versions.lockWord(stripe);
+		Object value = field.read();
+		
+		//the value is only accepted if its stripe was unchanged and no newer than the snapshot around the read
+		if((before & 1) != 0 || (before >>> 1) > readVersion || versions.lockWord(stripe) != before)
+			throw Retry.INSTANCE;
+		
+		if(readCount == reads.length)
+			reads = Arrays.copyOf(reads, readCount << 1);
+		
+		reads[readCount++] = stripe;
+		return value;
+	}
+	
+	private void write(DynVarField field, DynVarChange.Type type, Object value)
+	{
+		if(writes == null)
+			writes = new IdentityHashMap<>();
+		
+		Write write = writes.get(field);
+		
+		//an arithmetic write followed by a set is reported as a set
+		if(write == null)
+			writes.put(field, new Write(type, value));
+		else
+		{
+			write.value = value;
+			if(type == DynVarChange.Type.SET)
+				write.type = type;
+		}
+	}
+	
+	private DynVarField field(String key)
+	{
+		DynVarField field = map.getFields().get(prefix.isEmpty() ? key : prefix + key);
+		
+		//expired variables are treated as missing, the map removes them outside of the transaction
+		if(field != null)
+		{
+			DynVarExpiry expiry = map.expiryOf(field);
+			if(expiry != null && expiry.isExpired(map.getClock().millis()))
+				return null;
+		}
+		
+		return field;
+	}
+	
+	private DynVarField existing(String key)
+	{
+		DynVarField field = field(key);
+		if(field == null)
+			throw new IllegalArgumentException("The variable " + prefix + key + " does not exist, transactions only change existing variables");
+		
+		return field;
+	}
+	
+	private static int distinct(int[] sorted)
+	{
+		if(sorted.length == 0)
+			return 0;
+		
+		int count = 1;
+		for (int i = 1; i < sorted.length; i++)
+			if(sorted[i] != sorted[count - 1])
+				sorted[count++] = sorted[i];
+		
+		return count;
+	}
+	
+	private static class Write
+	{
+		private DynVarChange.Type type;
+		private Object value;
+		private Object previous;
+		
+		private Write(DynVarChange.Type type, Object value)
+		{
+			this.type = type;
+			this.value = value;
+		}
+	}
+	
+	/**
+	 * Thrown to run the transaction body again after a conflicting write, never seen outside DynVarMap.
+	 */
+	static final class Retry extends RuntimeException
+	{
+		static final Retry INSTANCE = new Retry();
+		
+		private Retry()
+		{
+			super("transaction conflict", null, false, false);
+		}
+	}
+	
+	/**
+	 * Thrown by abort to end the transaction without committing, never seen outside DynVarMap.
+	 */
+	static final class Abort extends RuntimeException
+	{
+		static final Abort INSTANCE = new Abort();
+		
+		private Abort()
+		{
+			super("transaction aborted", null, false, false);
+		}
+	}
+}
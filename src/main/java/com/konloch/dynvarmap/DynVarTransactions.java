@@ -0,0 +1,162 @@
+package com.konloch.dynvarmap;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * The versioned locks a DynVarMap uses to run optimistic transactions, following TL2.
+ *
+ * Fields are hashed onto a fixed table of lock words, each holding the version of the last write to any of
+ * its fields shifted left by one, with the low bit set while a transaction is publishing. A transaction
+ * reads the global clock when it starts and only accepts reads from stripes that are unlocked and not newer,
+ * so it always sees a consistent snapshot. Writes are buffered, then the written stripes are locked in
+ * ascending order, the read stripes are validated and the values are published under a new version.
+ *
+ * Transactions on disjoint fields only share the clock, and read-only transactions never lock anything.
+ *
+ * This is the Java 8 implementation, on Java 11+ the multi-release variant of this class is loaded instead
+ * which uses acquire and release modes on the lock words.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+class DynVarTransactions
+{
+	private static final int STRIPES = 1 << 12;
+	private static final int SPINS = 64;
+	
+	private final AtomicLong clock = new AtomicLong();
+	private final AtomicLongArray locks = new AtomicLongArray(STRIPES);
+	
+	/**
+	 * Run a transaction body until it commits.
+	 *
+	 * @param map the DynVarMap the transaction runs against
+	 * @param prefix the key prefix of the view running the transaction, or an empty String
+	 * @param body the transaction body
+	 * @param <T> the result Type
+	 * @return the result of the committed body, or null if the body aborted
+	 */
+	<T> T run(DynVarMap map, String prefix, Function<DynVarTransaction, T> body)
+	{
+		for (int attempt = 0; ; attempt++)
+		{
+			DynVarTransaction tx = new DynVarTransaction(this, map, prefix, clock.get());
+			
+			try
+			{
+				T result = body.apply(tx);
+				
+				if(tx.commit())
+					return result;
+			}
+			catch (DynVarTransaction.Retry e)
+			{
+				//a conflicting write was seen, run the body again against a newer snapshot
+			}
+			catch (DynVarTransaction.Abort e)
+			{
+				return null;
+			}
+			
+			//writes outside of transactions don't advance the clock, the next attempt has to read past them
+			clock.compareAndSet(tx.getReadVersion(), tx.getReadVersion() + 1);
+			backoff(attempt);
+		}
+	}
+	
+	/**
+	 * Returns the lock stripe of a field.
+	 *
+	 * @param field any DynVarField
+	 * @return the stripe index
+	 */
+	static int stripe(DynVarField field)
+	{
+		int h = System.identityHashCode(field);
+		return (h ^ (h >>> 16)) & (STRIPES - 1);
+	}
+	
+	/**
+	 * Returns the lock word of a stripe.
+	 *
+	 * @param stripe the stripe index
+	 * @return the version shifted left by one, with the low bit set when locked
+	 */
+	long lockWord(int stripe)
+	{
+		return locks.get(stripe);
+	}
+	
+	/**
+	 * Try to lock a stripe for publishing, spinning briefly if another transaction holds it.
+	 *
+	 * @param stripe the stripe index
+	 * @return true if the stripe was locked
+	 */
+	boolean tryLock(int stripe)
+	{
+		for (int i = 0; i < SPINS; i++)
+		{
+			long word = locks.get(stripe);
+			
+			if((word & 1) == 0 && locks.compareAndSet(stripe, word, word | 1))
+				return true;
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Release a stripe locked by tryLock.
+	 *
+	 * @param stripe the stripe index
+	 * @param version the version to publish, or -1 to restore the previous version
+	 */
+	void unlock(int stripe, long version)
+	{
+		if(version < 0)
+			locks.set(stripe, locks.get(stripe) & ~1L);
+		else
+			locks.set(stripe, version << 1);
+	}
+	
+	/**
+	 * Returns a new write version.
+	 *
+	 * @return the next clock value
+	 */
+	long nextVersion()
+	{
+		return clock.incrementAndGet();
+	}
+	
+	/**
+	 * Advance the version of a field changed outside of a transaction, so running transactions that read it
+	 * will retry. Only the stripe is written, the clock is read but not incremented, so plain writes don't
+	 * contend on it. A transaction that retries because of such a version advances the clock itself.
+	 *
+	 * @param field any DynVarField
+	 */
+	void touch(DynVarField field)
+	{
+		int stripe = stripe(field);
+		long version = (clock.get() + 1) << 1;
+		
+		for (;;)
+		{
+			long word = locks.get(stripe);
+			
+			//a transaction publishing this stripe will release it with a new version
+			if((word & 1) != 0 || word >= version || locks.compareAndSet(stripe, word, version))
+				return;
+		}
+	}
+	
+	private static void backoff(int attempt)
+	{
+		if(attempt > 2)
+			Thread.yield();
+	}
+}
@@ -0,0 +1,91 @@
+package com.konloch.dynvarmap;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * The variables of a DynVarMap grouped by their vars type.
+ *
+ * The map updates the index on every insert, retype, remove and clear, so iterating a single type
+ * only visits the variables of that type instead of running an instanceof check on the whole map.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+class DynVarTypeIndex
+{
+	private final Map<Class<?>, LinkedHashMap<String, DynVarField>> byType = new HashMap<>();
+	
+	/**
+	 * Constructs a new DynVarTypeIndex and indexes every variable already in the map.
+	 *
+	 * @param fields the field map of a DynVarMap
+	 */
+	DynVarTypeIndex(Map<String, DynVarField> fields)
+	{
+		fields.forEach(this::add);
+	}
+	
+	void add(String key, DynVarField field)
+	{
+		if(field != null)
+			byType.computeIfAbsent(field.getClass(), type -> new LinkedHashMap<>()).put(key, field);
+	}
+	
+	void remove(String key, DynVarField field)
+	{
+		if(field == null)
+			return;
+		
+		LinkedHashMap<String, DynVarField> keys = byType.get(field.getClass());
+		
+		//only drop the key if it still points at this field
+		if(keys != null && keys.remove(key, field) && keys.isEmpty())
+			byType.remove(field.getClass());
+	}
+	
+	void clear()
+	{
+		byType.clear();
+	}
+	
+	/**
+	 * Pass every variable that is an instance of the supplied type to the action.
+	 *
+	 * @param type any vars type, subclasses are included
+	 * @param action any BiConsumer to process
+	 * @param <T> the vars type
+	 */
+	<T extends DynVarField> void forEach(Class<T> type, BiConsumer<String, T> action)
+	{
+		//there are only a handful of vars types, so the groups themselves are cheap to scan
+		for (Map.Entry<Class<?>, LinkedHashMap<String, DynVarField>> entry : byType.entrySet())
+			if(type.isAssignableFrom(entry.getKey()))
+				forEach(entry.getValue(), type, action);
+	}
+	
+	/**
+	 * Returns how many variables are an instance of the supplied type.
+	 *
+	 * @param type any vars type, subclasses are included
+	 * @return the amount of matching variables
+	 */
+	int count(Class<? extends DynVarField> type)
+	{
+		int count = 0;
+		
+		for (Map.Entry<Class<?>, LinkedHashMap<String, DynVarField>> entry : byType.entrySet())
+			if(type.isAssignableFrom(entry.getKey()))
+				count += entry.getValue().size();
+		
+		return count;
+	}
+	
+	private static <T extends DynVarField> void forEach(Map<String, DynVarField> fields, Class<T> type, BiConsumer<String, T> action)
+	{
+		for (Map.Entry<String, DynVarField> entry : fields.entrySet())
+			action.accept(entry.getKey(), type.cast(entry.getValue()));
+	}
+}
@@ -46,4 +46,27 @@ public class DynVarUnsafe
 	{
 		return map.getDirect(key);
 	}
-}
\ No newline at end of file
+	
+	/**
+	 * Used to attach a field to a DynVarMap as if the map had inserted it, for custom storages that create fields.
+	 *
+	 * @param map any DynVarMap
+	 * @param key any String as the variable name
+	 * @param field any DynVarField stored in the map
+	 */
+	public static void attach(DynVarMap map, String key, DynVarField field)
+	{
+		map.attach(key, field);
+	}
+	
+	/**
+	 * Used to read the raw value of a DynVarField without any type conversion.
+	 *
+	 * @param field any DynVarField
+	 * @return the raw variable value
+	 */
+	public static Object getValue(DynVarField field)
+	{
+		return field.read();
+	}
+}
@@ -0,0 +1,585 @@
+package com.konloch.dynvarmap;
+
+import com.konloch.dynvarmap.storage.DynVarBoundedStorage;
+import com.konloch.dynvarmap.storage.DynVarSnapshot;
+import com.konloch.dynvarmap.time.DynVarClock;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * A namespaced view of a DynVarMap, every key is relative to a dotted prefix such as player.123.
+ *
+ * The view has no storage of its own, reads and writes go straight to the parent map so changes are visible
+ * both ways and the parent can be serialized as usual. Each relative key is resolved against the prefix once,
+ * after that the resolved field is cached and validated by identity, so repeated access neither concatenates
+ * nor re-hashes the full key. Only keys that exist are cached and the cache is bounded, so looking up missing
+ * or removed keys does not grow it. Keep the view around instead of creating one per access.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+public class DynVarView extends DynVarMap
+{
+	/**
+	 * The maximum amount of resolved keys cached per view, the oldest are dropped first.
+	 */
+	static final int MAX_SLOTS = 1024;
+	
+	private final DynVarMap parent;
+	private final String prefix;
+	private final String keyPrefix;
+	private final boolean tracksAccess;
+	private final Map<String, Slot> slots = new LinkedHashMap<String, Slot>()
+	{
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Slot> eldest)
+		{
+			return size() > MAX_SLOTS;
+		}
+	};
+	
+	/**
+	 * Constructs a new DynVarView, use DynVarMap.view to create one.
+	 *
+	 * @param parent the DynVarMap that stores the variables
+	 * @param prefix the dotted prefix of the view
+	 */
+	DynVarView(DynVarMap parent, String prefix)
+	{
+		super(Collections.emptyMap());
+		
+		if(prefix.endsWith("."))
+			prefix = prefix.substring(0, prefix.length() - 1);
+		
+		this.parent = parent;
+		this.prefix = prefix;
+		this.keyPrefix = prefix + ".";
+		
+		//storages that record access order have to see every read
+		this.tracksAccess = parent.getFields() instanceof DynVarBoundedStorage;
+	}
+	
+	/**
+	 * Returns the full key in the parent map for a key relative to this view.
+	 *
+	 * @param key any String as the relative variable name
+	 * @return the full variable name
+	 */
+	public String resolve(String key)
+	{
+		Slot slot = slots.get(key);
+		return slot != null ? slot.key : keyPrefix + key;
+	}
+	
+	@Override
+	protected DynVarField getDirect(String key)
+	{
+		Slot slot = slots.get(key);
+		if(slot == null)
+		{
+			String resolved = keyPrefix + key;
+			DynVarField field = parent.getDirect(resolved);
+			
+			//misses are not cached, so probing for keys that do not exist leaves nothing behind
+			if(field != null)
+				slots.put(key, new Slot(resolved, field));
+			
+			return field;
+		}
+		
+		DynVarField field = slot.field;
+		
+		//still stored under the same key and without a time-to-live that has to be checked by the parent
+		if(field.owner == parent && field.key == slot.key && parent.expiryOf(field) == null && !tracksAccess)
+			return field;
+		
+		field = parent.getDirect(slot.key);
+		if(field == null)
+			slots.remove(key);
+		else
+			slot.update(field);
+		
+		return field;
+	}
+	
+	@Override
+	protected <T> T putDirect(String key, Object value)
+	{
+		Slot slot = slots.get(key);
+		String resolved = slot != null ? slot.key : keyPrefix + key;
+		T previous = parent.putDirect(resolved, value);
+		
+		//storages may adopt the field, cache whatever the parent ended up storing
+		DynVarField field = (DynVarField) value;
+		if(field != null && field.owner != parent)
+			field = parent.getFields().get(resolved);
+		if(field == null)
+			slots.remove(key);
+		else if(slot == null)
+			slots.put(key, new Slot(resolved, field));
+		else
+			slot.update(field);
+		
+		return previous;
+	}
+	
+	@Override
+	public DynVarField remove(String key)
+	{
+		Slot slot = slots.remove(key);
+		return parent.remove(slot != null ? slot.key : keyPrefix + key);
+	}
+	
+	@Override
+	public DynVarField find(int symbol)
+	{
+		return getDirect(DynVarSymbols.name(symbol));
+	}
+	
+	/**
+	 * Returns the relative key equal to the supplied characters, resolved against the key table of the parent.
+	 * The relative key is a new String, prefer get and containsKey with the CharSequence directly.
+	 *
+	 * @param key any CharSequence as the relative variable name
+	 * @return the relative key String
+	 */
+	@Override
+	public String key(CharSequence key)
+	{
+		String stored = parent.findKey(keyPrefix, key);
+		return stored != null ? relativize(stored) : key.toString();
+	}
+	
+	@Override
+	public String key(String prefix, long id, String suffix)
+	{
+		String stored = parent.findKey(keyPrefix, prefix, id, suffix);
+		return stored != null ? relativize(stored) : prefix + id + suffix;
+	}
+	
+	@Override
+	public DynVarField get(CharSequence key)
+	{
+		//the view has no storage of its own, so existing keys are found in the key table of the parent
+		String stored = parent.findKey(keyPrefix, key);
+		return stored != null ? parent.get(stored) : get(key.toString());
+	}
+	
+	@Override
+	public DynVarField get(String prefix, long id, String suffix)
+	{
+		String stored = parent.findKey(keyPrefix, prefix, id, suffix);
+		return stored != null ? parent.get(stored) : get(prefix + id + suffix);
+	}
+	
+	@Override
+	public boolean containsKey(CharSequence key)
+	{
+		String stored = parent.findKey(keyPrefix, key);
+		return stored != null && parent.containsKey(stored);
+	}
+	
+	@Override
+	public boolean containsKey(String prefix, long id, String suffix)
+	{
+		String stored = parent.findKey(keyPrefix, prefix, id, suffix);
+		return stored != null && parent.containsKey(stored);
+	}
+	
+	@Override
+	public DynVarMap forEach(BiConsumer<String, Object> action)
+	{
+		parent.forEachWithPrefix(keyPrefix, (key, field) -> action.accept(relativize(key), field));
+		return this;
+	}
+	
+	@Override
+	public Stream<Map.Entry<String, DynVarField>> entries()
+	{
+		return parent.entries()
+				.filter(entry -> entry.getKey().startsWith(keyPrefix))
+				.map(entry -> new AbstractMap.SimpleImmutableEntry<>(relativize(entry.getKey()), entry.getValue()));
+	}
+	
+	@Override
+	public Stream<String> keys()
+	{
+		return parent.keys().filter(key -> key.startsWith(keyPrefix)).map(this::relativize);
+	}
+	
+	@Override
+	public Stream<DynVarField> fields()
+	{
+		return entries().map(Map.Entry::getValue);
+	}
+	
+	@Override
+	public int getSize()
+	{
+		return parent.countWithPrefix(keyPrefix);
+	}
+	
+	@Override
+	public int getLength()
+	{
+		return getSize();
+	}
+	
+	@Override
+	public boolean isEmpty()
+	{
+		return getSize() == 0;
+	}
+	
+	@Override
+	public void clear()
+	{
+		parent.removePrefix(keyPrefix);
+		slots.clear();
+	}
+	
+	@Override
+	public Set<String> keySet()
+	{
+		Set<String> keys = new LinkedHashSet<>();
+		parent.forEachWithPrefix(keyPrefix, (key, field) -> keys.add(relativize(key)));
+		return keys;
+	}
+	
+	@Override
+	public DynVarView view(String prefix)
+	{
+		return new DynVarView(parent, keyPrefix + prefix);
+	}
+	
+	@Override
+	public List<String> keysWithPrefix(String prefix)
+	{
+		List<String> keys = parent.keysWithPrefix(keyPrefix + prefix);
+		keys.replaceAll(this::relativize);
+		return keys;
+	}
+	
+	@Override
+	public DynVarMap forEachWithPrefix(String prefix, BiConsumer<String, DynVarField> action)
+	{
+		parent.forEachWithPrefix(keyPrefix + prefix, (key, field) -> action.accept(relativize(key), field));
+		return this;
+	}
+	
+	@Override
+	public int countWithPrefix(String prefix)
+	{
+		return parent.countWithPrefix(keyPrefix + prefix);
+	}
+	
+	@Override
+	public int removePrefix(String prefix)
+	{
+		slots.clear();
+		return parent.removePrefix(keyPrefix + prefix);
+	}
+	
+	@Override
+	public <T extends DynVarField> DynVarMap forEachOfType(Class<T> type, BiConsumer<String, T> action)
+	{
+		parent.forEachWithPrefix(keyPrefix, (key, field) ->
+		{
+			if(type.isInstance(field))
+				action.accept(relativize(key), type.cast(field));
+		});
+		
+		return this;
+	}
+	
+	@Override
+	public int countOfType(Class<? extends DynVarField> type)
+	{
+		int[] count = new int[1];
+		parent.forEachWithPrefix(keyPrefix, (key, field) ->
+		{
+			if(type.isInstance(field))
+				count[0]++;
+		});
+		
+		return count[0];
+	}
+	
+	@Override
+	public boolean setTTL(String key, long ttlMillis)
+	{
+		return parent.setTTL(resolve(key), ttlMillis);
+	}
+	
+	@Override
+	public int sweepExpired(int maxChecks)
+	{
+		return parent.sweepExpired(maxChecks);
+	}
+	
+	@Override
+	public DynVarMap enableTimeIndex()
+	{
+		parent.enableTimeIndex();
+		return this;
+	}
+	
+	@Override
+	public boolean isTimeIndexed()
+	{
+		return parent.isTimeIndexed();
+	}
+	
+	@Override
+	public DynVarMap enableSymbols()
+	{
+		parent.enableSymbols();
+		return this;
+	}
+	
+	@Override
+	public boolean isSymbolic()
+	{
+		return parent.isSymbolic();
+	}
+	
+	@Override
+	public DynVarMap freeze()
+	{
+		parent.freeze();
+		return this;
+	}
+	
+	@Override
+	public DynVarMap freeze(Collection<String> keys)
+	{
+		List<String> resolved = new ArrayList<>(keys.size());
+		for (String key : keys)
+			resolved.add(resolve(key));
+		
+		parent.freeze(resolved);
+		return this;
+	}
+	
+	@Override
+	public boolean isFrozen()
+	{
+		return parent.isFrozen();
+	}
+	
+	@Override
+	public DynVarMap enableTypeIndex()
+	{
+		parent.enableTypeIndex();
+		return this;
+	}
+	
+	@Override
+	public boolean isTypeIndexed()
+	{
+		return parent.isTypeIndexed();
+	}
+	
+	@Override
+	public DynVarMap enableMerkleTree()
+	{
+		parent.enableMerkleTree();
+		return this;
+	}
+	
+	@Override
+	public boolean isMerkleTreeEnabled()
+	{
+		return parent.isMerkleTreeEnabled();
+	}
+	
+	/**
+	 * The view shares the storage of its parent, so root hashes and diffs cover the whole parent map using full keys.
+	 *
+	 * @return the DynVarMerkleTree of the parent map
+	 */
+	@Override
+	DynVarMerkleTree merkleTree()
+	{
+		return parent.merkleTree();
+	}
+	
+	@Override
+	public List<String> expiredSince(long durationMs)
+	{
+		List<String> keys = new ArrayList<>();
+		
+		for (String key : parent.expiredSince(durationMs))
+			if(key.startsWith(keyPrefix))
+				keys.add(relativize(key));
+		
+		return keys;
+	}
+	
+	@Override
+	public DynVarClock getClock()
+	{
+		return parent.getClock();
+	}
+	
+	@Override
+	public DynVarMap setClock(DynVarClock clock)
+	{
+		parent.setClock(clock);
+		return this;
+	}
+	
+	/**
+	 * Register a listener that is called for every change under this view, the change keys are the full parent keys.
+	 *
+	 * @param listener any DynVarListener
+	 * @param executor any Executor, or null to call the listener directly
+	 * @return the view instance for method chaining
+	 */
+	@Override
+	public DynVarMap addListener(DynVarListener listener, Executor executor)
+	{
+		parent.addPrefixListener(prefix, listener, executor);
+		return this;
+	}
+	
+	@Override
+	public DynVarMap addListener(String key, DynVarListener listener, Executor executor)
+	{
+		parent.addListener(resolve(key), listener, executor);
+		return this;
+	}
+	
+	@Override
+	public DynVarMap addPrefixListener(String prefix, DynVarListener listener, Executor executor)
+	{
+		parent.addPrefixListener(keyPrefix + prefix, listener, executor);
+		return this;
+	}
+	
+	@Override
+	public DynVarMap removeListener(DynVarListener listener)
+	{
+		parent.removeListener(listener);
+		return this;
+	}
+	
+	/**
+	 * The view shares the storage of its parent, so this is the footprint of the whole parent map.
+	 *
+	 * @return the estimated DynVarFootprint of the parent map
+	 */
+	@Override
+	public DynVarFootprint estimateFootprint()
+	{
+		return parent.estimateFootprint();
+	}
+	
+	@Override
+	public DynVarMap transaction(Consumer<DynVarTransaction> body)
+	{
+		parent.transactions().run(parent, keyPrefix, tx ->
+		{
+			body.accept(tx);
+			return null;
+		});
+		
+		return this;
+	}
+	
+	@Override
+	public <T> T transactionThenGet(Function<DynVarTransaction, T> body)
+	{
+		return parent.transactions().run(parent, keyPrefix, body);
+	}
+	
+	/**
+	 * The view shares the storage of its parent, so this is a snapshot of the whole parent map using full keys.
+	 *
+	 * @return a DynVarSnapshot of the parent map
+	 */
+	@Override
+	public DynVarSnapshot snapshot()
+	{
+		return parent.snapshot();
+	}
+	
+	/**
+	 * Forks the parent map and returns the same view of the fork.
+	 *
+	 * @return a DynVarView of the forked parent map
+	 */
+	@Override
+	public DynVarView fork()
+	{
+		return parent.fork().view(prefix);
+	}
+	
+	@Override
+	protected Map<String, DynVarField> getFields()
+	{
+		return parent.getFields();
+	}
+	
+	/**
+	 * Returns the map this view stores its variables in.
+	 *
+	 * @return the parent DynVarMap
+	 */
+	public DynVarMap getParent()
+	{
+		return parent;
+	}
+	
+	/**
+	 * Returns the dotted prefix of this view.
+	 *
+	 * @return the prefix without the trailing dot
+	 */
+	public String getPrefix()
+	{
+		return prefix;
+	}
+	
+	private String relativize(String key)
+	{
+		return key.substring(keyPrefix.length());
+	}
+	
+	/**
+	 * A resolved full key and the field it pointed at when last seen.
+	 */
+	private static class Slot
+	{
+		private String key;
+		private DynVarField field;
+		
+		private Slot(String key, DynVarField field)
+		{
+			this.key = key;
+			update(field);
+		}
+		
+		private void update(DynVarField field)
+		{
+			this.field = field;
+			
+			//adopt the key instance the parent stored the field under, so the identity check holds
+			if(field != null && field.key != null && field.key.equals(key))
+				key = field.key;
+		}
+	}
+}
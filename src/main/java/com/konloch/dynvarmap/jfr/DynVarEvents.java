@@ -0,0 +1,140 @@
+package com.konloch.dynvarmap.jfr;
+
+import java.io.File;
+
+/**
+ * Java Flight Recorder hooks for DynVarMap and DynVarSerializer.
+ *
+ * This is the Java 8 implementation which never records anything, on Java 11+ the multi-release
+ * variant of this class is loaded instead and commits real JFR events.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+public class DynVarEvents
+{
+	private static volatile int mapEventThreshold = 10_000;
+	
+	/**
+	 * Returns true if the running JVM is able to record DynVarMap events.
+	 *
+	 * @return true if JFR events are supported
+	 */
+	public static boolean isSupported()
+	{
+		return false;
+	}
+	
+	/**
+	 * Returns the minimum map size required before clear and resize events are recorded.
+	 *
+	 * @return the minimum map size for map events
+	 */
+	public static int getMapEventThreshold()
+	{
+		return mapEventThreshold;
+	}
+	
+	/**
+	 * Set the minimum map size required before clear and resize events are recorded.
+	 *
+	 * @param threshold any int as the minimum map size
+	 */
+	public static void setMapEventThreshold(int threshold)
+	{
+		mapEventThreshold = threshold;
+	}
+	
+	/**
+	 * Begin timing a serializer load.
+	 *
+	 * @return the event handle, or null if the event is disabled
+	 */
+	public static Object beginLoad()
+	{
+		return null;
+	}
+	
+	/**
+	 * Commit a serializer load event.
+	 *
+	 * @param event the event handle returned by beginLoad
+	 * @param file the File that was read
+	 * @param format the serialization format
+	 * @param gzip true if the file was GZip compressed
+	 * @param keys how many variables were parsed
+	 * @param bytes how many bytes were read
+	 * @param parseErrors how many lines failed to parse
+	 */
+	public static void commitLoad(Object event, File file, String format, boolean gzip, int keys, long bytes, int parseErrors)
+	{
+	}
+	
+	/**
+	 * Begin timing a serializer save.
+	 *
+	 * @return the event handle, or null if the event is disabled
+	 */
+	public static Object beginSave()
+	{
+		return null;
+	}
+	
+	/**
+	 * Commit a serializer save event.
+	 *
+	 * @param event the event handle returned by beginSave
+	 * @param file the File that was written
+	 * @param format the serialization format
+	 * @param gzip true if the file was GZip compressed
+	 * @param keys how many variables were written
+	 * @param bytes how many bytes were written
+	 */
+	public static void commitSave(Object event, File file, String format, boolean gzip, int keys, long bytes)
+	{
+	}
+	
+	/**
+	 * Begin timing a map clear, only if the map is above the map event threshold.
+	 *
+	 * @param size the current size of the map
+	 * @return the event handle, or null if the event is disabled
+	 */
+	public static Object beginClear(int size)
+	{
+		return null;
+	}
+	
+	/**
+	 * Commit a map clear event.
+	 *
+	 * @param event the event handle returned by beginClear
+	 * @param size how many variables were removed
+	 */
+	public static void commitClear(Object event, int size)
+	{
+	}
+	
+	/**
+	 * Begin timing a map table resize, only if the map is above the map event threshold.
+	 *
+	 * @param size the current size of the map
+	 * @return the event handle, or null if the event is disabled
+	 */
+	public static Object beginResize(int size)
+	{
+		return null;
+	}
+	
+	/**
+	 * Commit a map table resize event.
+	 *
+	 * @param event the event handle returned by beginResize
+	 * @param size the size of the map after the resize
+	 * @param oldCapacity the table capacity before the resize
+	 * @param newCapacity the table capacity after the resize
+	 */
+	public static void commitResize(Object event, int size, int oldCapacity, int newCapacity)
+	{
+	}
+}
@@ -0,0 +1,432 @@
+package com.konloch.dynvarmap.net;
+
+import com.konloch.dynvarmap.serializer.DynVarBinaryCodec;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A client for DynVarServer.
+ *
+ * Every operation has an asynchronous variant returning a CompletableFuture, calling several of them before
+ * waiting pipelines the requests over the single connection. The blocking variants wait for their own
+ * response. Requests are written by a background thread that only flushes once nothing else is queued, so
+ * pipelined requests share packets. The client is thread-safe.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+public class DynVarClient implements Closeable
+{
+	private final Socket socket;
+	private final DataOutputStream out;
+	private final DataInputStream in;
+	private final Thread reader;
+	private final Thread writer;
+	private final BlockingQueue<byte[]> outgoing = new LinkedBlockingQueue<>();
+	private final AtomicInteger ids = new AtomicInteger();
+	private final Map<Integer, Pending> pending = new ConcurrentHashMap<>();
+	private volatile IOException error;
+	
+	/**
+	 * Constructs a new DynVarClient connected to a server on this machine.
+	 *
+	 * @param port the port the server is listening on
+	 * @throws IOException if the connection fails
+	 */
+	public DynVarClient(int port) throws IOException
+	{
+		this(new Socket(InetAddress.getLoopbackAddress(), port));
+	}
+	
+	/**
+	 * Constructs a new DynVarClient.
+	 *
+	 * @param host the host the server is running on
+	 * @param port the port the server is listening on
+	 * @throws IOException if the connection fails
+	 */
+	public DynVarClient(String host, int port) throws IOException
+	{
+		this(new Socket(host, port));
+	}
+	
+	private DynVarClient(Socket socket) throws IOException
+	{
+		this.socket = socket;
+		socket.setTcpNoDelay(true);
+		this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 1 << 16));
+		this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 1 << 16));
+		this.reader = new Thread(this::read, "DynVarClient-" + socket.getPort());
+		this.reader.setDaemon(true);
+		this.reader.start();
+		this.writer = new Thread(this::write, "DynVarClient-writer-" + socket.getPort());
+		this.writer.setDaemon(true);
+		this.writer.start();
+	}
+	
+	/**
+	 * Returns a variable value.
+	 *
+	 * @param key any String as the variable name
+	 * @param <T> the variable value Type
+	 * @return the variable value, or null if the variable does not exist
+	 */
+	public <T> T get(String key)
+	{
+		return await(this.<T>getAsync(key));
+	}
+	
+	/**
+	 * Returns a variable value.
+	 *
+	 * @param key any String as the variable name
+	 * @param <T> the variable value Type
+	 * @return a CompletableFuture of the variable value, or null if the variable does not exist
+	 */
+	public <T> CompletableFuture<T> getAsync(String key)
+	{
+		return send(DynVarProtocol.GET, out -> DynVarBinaryCodec.writeString(out, key), (status, in) ->
+				status == DynVarProtocol.NOT_FOUND ? null : readFieldValue(in));
+	}
+	
+	/**
+	 * Set a variable value, variables that do not exist are created with the vars type DynVarMap.put would use.
+	 *
+	 * @param key any String as the variable name
+	 * @param value any Object as the variable value
+	 */
+	public void set(String key, Object value)
+	{
+		await(setAsync(key, value));
+	}
+	
+	/**
+	 * Set a variable value, variables that do not exist are created with the vars type DynVarMap.put would use.
+	 *
+	 * @param key any String as the variable name
+	 * @param value any Object as the variable value
+	 * @return a CompletableFuture completed once the value is set
+	 */
+	public CompletableFuture<Void> setAsync(String key, Object value)
+	{
+		return send(DynVarProtocol.SET, out ->
+		{
+			DynVarBinaryCodec.writeString(out, key);
+			DynVarBinaryCodec.writeValue(out, value);
+		}, (status, in) -> null);
+	}
+	
+	/**
+	 * Preforms an addition on an existing variable.
+	 *
+	 * @param key any String as the variable name
+	 * @param value the value to add with
+	 * @param <T> the variable value Type
+	 * @return the variable value after the addition, or null if the variable does not exist
+	 */
+	public <T> T add(String key, Object value)
+	{
+		return await(this.<T>addAsync(key, value));
+	}
+	
+	/**
+	 * Preforms an addition on an existing variable.
+	 *
+	 * @param key any String as the variable name
+	 * @param value the value to add with
+	 * @param <T> the variable value Type
+	 * @return a CompletableFuture of the variable value after the addition, or null if the variable does not exist
+	 */
+	public <T> CompletableFuture<T> addAsync(String key, Object value)
+	{
+		return send(DynVarProtocol.ADD, out ->
+		{
+			DynVarBinaryCodec.writeString(out, key);
+			DynVarBinaryCodec.writeValue(out, value);
+		}, (status, in) -> status == DynVarProtocol.NOT_FOUND ? null : readFieldValue(in));
+	}
+	
+	/**
+	 * Returns several variable values with a single request.
+	 *
+	 * @param keys the variable names
+	 * @return the variable values in the same order, null for variables that do not exist
+	 */
+	public Object[] getAll(String... keys)
+	{
+		return await(getAllAsync(keys));
+	}
+	
+	/**
+	 * Returns several variable values with a single request.
+	 *
+	 * @param keys the variable names
+	 * @return a CompletableFuture of the variable values in the same order, null for variables that do not exist
+	 */
+	public CompletableFuture<Object[]> getAllAsync(String... keys)
+	{
+		return send(DynVarProtocol.GET_ALL, out ->
+		{
+			out.writeInt(keys.length);
+			for (String key : keys)
+				DynVarBinaryCodec.writeString(out, key);
+		}, (status, in) ->
+		{
+			Object[] values = new Object[in.readInt()];
+			for (int i = 0; i < values.length; i++)
+				if(in.readBoolean())
+					values[i] = readFieldValue(in);
+			
+			return values;
+		});
+	}
+	
+	/**
+	 * Returns every variable that starts with the supplied prefix.
+	 *
+	 * @param prefix any String such as player.123.
+	 * @return a new Map of variable names to values
+	 */
+	public Map<String, Object> scan(String prefix)
+	{
+		return await(scanAsync(prefix));
+	}
+	
+	/**
+	 * Returns every variable that starts with the supplied prefix.
+	 *
+	 * @param prefix any String such as player.123.
+	 * @return a CompletableFuture of a new Map of variable names to values
+	 */
+	public CompletableFuture<Map<String, Object>> scanAsync(String prefix)
+	{
+		return send(DynVarProtocol.SCAN, out -> DynVarBinaryCodec.writeString(out, prefix), (status, in) -> readEntries(in));
+	}
+	
+	/**
+	 * Returns every variable of the map.
+	 *
+	 * @return a new Map of variable names to values
+	 */
+	public Map<String, Object> dump()
+	{
+		return await(dumpAsync());
+	}
+	
+	/**
+	 * Returns every variable of the map.
+	 *
+	 * @return a CompletableFuture of a new Map of variable names to values
+	 */
+	public CompletableFuture<Map<String, Object>> dumpAsync()
+	{
+		return send(DynVarProtocol.DUMP, out -> {}, (status, in) -> readEntries(in));
+	}
+	
+	@Override
+	public void close() throws IOException
+	{
+		writer.interrupt();
+		socket.close();
+		
+		try
+		{
+			reader.join();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	private <T> CompletableFuture<T> send(byte op, Writer payload, Reader<T> decoder)
+	{
+		CompletableFuture<T> future = new CompletableFuture<>();
+		
+		try
+		{
+			if(error != null)
+				throw error;
+			
+			int id = ids.incrementAndGet();
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream frame = new DataOutputStream(bytes);
+			
+			//the length is filled in once the payload is written
+			frame.writeInt(0);
+			frame.writeInt(id);
+			frame.writeByte(op);
+			payload.write(frame);
+			
+			byte[] encoded = bytes.toByteArray();
+			int length = encoded.length - 4;
+			encoded[0] = (byte) (length >>> 24);
+			encoded[1] = (byte) (length >>> 16);
+			encoded[2] = (byte) (length >>> 8);
+			encoded[3] = (byte) length;
+			
+			pending.put(id, new Pending(future, decoder));
+			outgoing.add(encoded);
+		}
+		catch (IOException e)
+		{
+			future.completeExceptionally(e);
+		}
+		
+		return future;
+	}
+	
+	private void write()
+	{
+		List<byte[]> batch = new ArrayList<>();
+		
+		try
+		{
+			for (;;)
+			{
+				batch.add(outgoing.take());
+				outgoing.drainTo(batch);
+				
+				for (byte[] frame : batch)
+					out.write(frame);
+				
+				batch.clear();
+				
+				if(outgoing.isEmpty())
+					out.flush();
+			}
+		}
+		catch (IOException e)
+		{
+			fail(e);
+		}
+		catch (InterruptedException e)
+		{
+			//closed
+		}
+	}
+	
+	private void read()
+	{
+		try
+		{
+			for (;;)
+			{
+				in.readInt();
+				int id = in.readInt();
+				byte status = in.readByte();
+				
+				Pending request = pending.remove(id);
+				if(request == null)
+					throw new IOException("Unexpected response " + id);
+				
+				if(status == DynVarProtocol.ERROR)
+					request.future.completeExceptionally(new IllegalStateException(DynVarBinaryCodec.readString(in)));
+				else
+					request.complete(status, in);
+			}
+		}
+		catch (IOException e)
+		{
+			fail(e instanceof EOFException ? new IOException("Connection closed") : e);
+		}
+	}
+	
+	private void fail(IOException e)
+	{
+		if(error == null)
+			error = e;
+		
+		for (Pending request : pending.values())
+			request.future.completeExceptionally(error);
+		
+		pending.clear();
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static <T> T readFieldValue(DataInputStream in) throws IOException
+	{
+		//the vars type is not needed on the client
+		in.readByte();
+		return (T) DynVarBinaryCodec.readValue(in);
+	}
+	
+	private static Map<String, Object> readEntries(DataInputStream in) throws IOException
+	{
+		int count = in.readInt();
+		Map<String, Object> entries = new LinkedHashMap<>();
+		
+		for (int i = 0; i < count; i++)
+			entries.put(DynVarBinaryCodec.readString(in), readFieldValue(in));
+		
+		return entries;
+	}
+	
+	private static <T> T await(CompletableFuture<T> future)
+	{
+		try
+		{
+			return future.join();
+		}
+		catch (CompletionException e)
+		{
+			if(e.getCause() instanceof IOException)
+				throw new UncheckedIOException((IOException) e.getCause());
+			
+			if(e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			
+			throw e;
+		}
+	}
+	
+	@FunctionalInterface
+	private interface Writer
+	{
+		void write(DataOutputStream out) throws IOException;
+	}
+	
+	@FunctionalInterface
+	private interface Reader<T>
+	{
+		T read(byte status, DataInputStream in) throws IOException;
+	}
+	
+	private static class Pending
+	{
+		private final CompletableFuture<Object> future;
+		private final Reader<?> decoder;
+		
+		@SuppressWarnings("unchecked")
+		private Pending(CompletableFuture<?> future, Reader<?> decoder)
+		{
+			this.future = (CompletableFuture<Object>) future;
+			this.decoder = decoder;
+		}
+		
+		private void complete(byte status, DataInputStream in) throws IOException
+		{
+			future.complete(decoder.read(status, in));
+		}
+	}
+}
@@ -0,0 +1,42 @@
+package com.konloch.dynvarmap.net;
+
+/**
+ * The constants of the DynVarServer wire protocol.
+ *
+ * Every request and response is a frame of a 4 byte length, counting the bytes after it, a 4 byte request id
+ * chosen by the client, then an operation code for requests or a status code for responses, followed by the
+ * payload. Values are encoded with DynVarBinaryCodec. A client may send any amount of requests before reading,
+ * the responses of a connection are written in request order.
+ *
+ * GET key : field
+ * SET key value : nothing
+ * ADD key value : field after the addition
+ * GET_ALL count key... : count (found field)...
+ * SCAN prefix : count (key field)...
+ * DUMP : count (key field)...
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+final class DynVarProtocol
+{
+	static final byte GET = 1;
+	static final byte SET = 2;
+	static final byte ADD = 3;
+	static final byte GET_ALL = 4;
+	static final byte SCAN = 5;
+	static final byte DUMP = 6;
+	
+	static final byte OK = 0;
+	static final byte NOT_FOUND = 1;
+	static final byte ERROR = 2;
+	
+	//the request id and the operation or status code
+	static final int HEADER = 5;
+	
+	static final int MAX_FRAME = 64 << 20;
+	
+	private DynVarProtocol()
+	{
+	}
+}
@@ -0,0 +1,674 @@
+package com.konloch.dynvarmap.net;
+
+import com.konloch.dynvarmap.DynVarField;
+import com.konloch.dynvarmap.DynVarListener;
+import com.konloch.dynvarmap.DynVarMap;
+import com.konloch.dynvarmap.DynVarUnsafe;
+import com.konloch.dynvarmap.serializer.DynVarBinaryCodec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * An embeddable TCP server exposing a DynVarMap to remote tools through a compact binary protocol, see
+ * DynVarClient.
+ *
+ * A single thread runs a non-blocking selector loop. By default it also executes every request, so SET and ADD
+ * change the map from the selector thread and the host must not change the map from other threads meanwhile.
+ * Hosts that own the map on a thread of their own, such as a game loop, pass an executor instead: the requests
+ * read from a connection in one go are handed to it as a single task and the responses are written once it
+ * completes. Pipelined requests are answered with a single gathering write. Dumps are encoded once from a
+ * snapshot into a direct buffer that is reused, without copying, for every client until the map changes.
+ *
+ * A client that sends requests faster than it reads the responses stops being read once the responses waiting
+ * for it exceed the pending limit, so the server never buffers more than about that much per connection.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+public class DynVarServer implements Closeable
+{
+	private final DynVarMap map;
+	private final Executor executor;
+	private final Selector selector;
+	private final ServerSocketChannel server;
+	private final ConcurrentLinkedQueue<Completion> completed = new ConcurrentLinkedQueue<>();
+	private Thread thread;
+	private volatile boolean running;
+	private volatile int maxPending = 1 << 20;
+	
+	private ByteBuffer dump;
+	private volatile boolean dumpStale = true;
+	private DynVarListener dumpListener;
+	
+	/**
+	 * Constructs a new DynVarServer listening on the loopback address.
+	 *
+	 * @param map the DynVarMap to expose
+	 * @param port the port to listen on, or 0 for any free port
+	 * @throws IOException if the port cannot be bound
+	 */
+	public DynVarServer(DynVarMap map, int port) throws IOException
+	{
+		this(map, new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+	}
+	
+	/**
+	 * Constructs a new DynVarServer listening on the loopback address, executing requests on the supplied executor.
+	 *
+	 * @param map the DynVarMap to expose
+	 * @param port the port to listen on, or 0 for any free port
+	 * @param executor the Executor of the thread that owns the map, such as the queue of a game loop
+	 * @throws IOException if the port cannot be bound
+	 */
+	public DynVarServer(DynVarMap map, int port, Executor executor) throws IOException
+	{
+		this(map, new InetSocketAddress(InetAddress.getLoopbackAddress(), port), executor);
+	}
+	
+	/**
+	 * Constructs a new DynVarServer.
+	 *
+	 * @param map the DynVarMap to expose
+	 * @param address the address to listen on
+	 * @throws IOException if the address cannot be bound
+	 */
+	public DynVarServer(DynVarMap map, InetSocketAddress address) throws IOException
+	{
+		this(map, address, null);
+	}
+	
+	/**
+	 * Constructs a new DynVarServer executing requests on the supplied executor. Each connection has at most one
+	 * task in flight, so its requests run in order, but tasks of different connections may be queued together.
+	 *
+	 * @param map the DynVarMap to expose
+	 * @param address the address to listen on
+	 * @param executor the Executor of the thread that owns the map, or null to execute on the selector thread
+	 * @throws IOException if the address cannot be bound
+	 */
+	public DynVarServer(DynVarMap map, InetSocketAddress address, Executor executor) throws IOException
+	{
+		this.map = map;
+		this.executor = executor;
+		this.selector = Selector.open();
+		this.server = ServerSocketChannel.open();
+		
+		try
+		{
+			server.bind(address);
+			server.configureBlocking(false);
+			server.register(selector, SelectionKey.OP_ACCEPT);
+		}
+		catch (IOException e)
+		{
+			server.close();
+			selector.close();
+			throw e;
+		}
+	}
+	
+	/**
+	 * Start the selector loop on a daemon thread.
+	 *
+	 * @return this instance for method chaining
+	 */
+	public synchronized DynVarServer start()
+	{
+		if(thread != null)
+			throw new IllegalStateException("The server is already started");
+		
+		running = true;
+		thread = new Thread(this::run, "DynVarServer-" + getPort());
+		thread.setDaemon(true);
+		thread.start();
+		return this;
+	}
+	
+	/**
+	 * Stop the server and close every connection.
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		running = false;
+		selector.wakeup();
+		
+		Thread local;
+		synchronized (this)
+		{
+			local = thread;
+		}
+		
+		if(local != null && local != Thread.currentThread())
+		{
+			try
+			{
+				local.join();
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+		}
+		
+		for (SelectionKey key : selector.keys())
+			key.channel().close();
+		
+		selector.close();
+		
+		synchronized (this)
+		{
+			if(dumpListener != null)
+			{
+				map.removeListener(dumpListener);
+				dumpListener = null;
+			}
+		}
+	}
+	
+	/**
+	 * Set how many response bytes may wait for a client before its requests stop being read.
+	 *
+	 * @param bytes the pending limit, 1 MiB by default
+	 * @return this instance for method chaining
+	 */
+	public DynVarServer setMaxPending(int bytes)
+	{
+		if(bytes <= 0)
+			throw new IllegalArgumentException("The pending limit must be positive");
+		
+		maxPending = bytes;
+		return this;
+	}
+	
+	/**
+	 * Returns the port the server is listening on.
+	 *
+	 * @return the local port
+	 */
+	public int getPort()
+	{
+		return server.socket().getLocalPort();
+	}
+	
+	/**
+	 * Returns the map the server exposes.
+	 *
+	 * @return the DynVarMap
+	 */
+	public DynVarMap getMap()
+	{
+		return map;
+	}
+	
+	private void run()
+	{
+		while (running)
+		{
+			try
+			{
+				selector.select();
+			}
+			catch (IOException e)
+			{
+				e.printStackTrace();
+				return;
+			}
+			
+			//responses of requests the executor has finished
+			Completion completion;
+			while ((completion = completed.poll()) != null)
+			{
+				try
+				{
+					completion.connection.complete(completion.responses);
+				}
+				catch (IOException e)
+				{
+					close(completion.connection.key);
+				}
+			}
+			
+			Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+			while (keys.hasNext())
+			{
+				SelectionKey key = keys.next();
+				keys.remove();
+				
+				try
+				{
+					if(!key.isValid())
+						continue;
+					
+					if(key.isAcceptable())
+						accept();
+					else
+					{
+						Connection connection = (Connection) key.attachment();
+						
+						if(key.isReadable())
+							connection.read();
+						
+						if(key.isValid() && key.isWritable())
+							connection.write();
+					}
+				}
+				catch (IOException e)
+				{
+					//the client went away or sent a malformed frame
+					close(key);
+				}
+			}
+		}
+	}
+	
+	private void accept() throws IOException
+	{
+		SocketChannel channel = server.accept();
+		if(channel == null)
+			return;
+		
+		channel.configureBlocking(false);
+		channel.socket().setTcpNoDelay(true);
+		
+		Connection connection = new Connection(channel);
+		connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+	}
+	
+	private static void close(SelectionKey key)
+	{
+		key.cancel();
+		
+		try
+		{
+			key.channel().close();
+		}
+		catch (IOException e)
+		{
+			//already closed
+		}
+	}
+	
+	/**
+	 * Execute the requests read from a connection in one go and return their responses.
+	 */
+	private List<ByteBuffer> handle(List<byte[]> frames)
+	{
+		List<ByteBuffer> responses = new ArrayList<>(frames.size());
+		
+		for (byte[] frame : frames)
+		{
+			DataInputStream in = new DataInputStream(new ByteArrayInputStream(frame));
+			
+			try
+			{
+				handle(responses, in.readInt(), in.readByte(), in);
+			}
+			catch (IOException e)
+			{
+				//a frame shorter than its request, the connection is closed once the responses are queued
+				responses.add(null);
+				break;
+			}
+		}
+		
+		return responses;
+	}
+	
+	/**
+	 * Execute a single request and add its response.
+	 */
+	private void handle(List<ByteBuffer> responses, int id, byte op, DataInputStream in) throws IOException
+	{
+		Response response = new Response(id);
+		DataOutputStream out = response.data;
+		
+		try
+		{
+			switch (op)
+			{
+				case DynVarProtocol.GET:
+				{
+					DynVarField field = DynVarUnsafe.getDirect(map, DynVarBinaryCodec.readString(in));
+					
+					if(field == null)
+						response.status(DynVarProtocol.NOT_FOUND);
+					else
+						DynVarBinaryCodec.writeField(out, field);
+					break;
+				}
+				
+				case DynVarProtocol.SET:
+				{
+					String key = DynVarBinaryCodec.readString(in);
+					Object value = DynVarBinaryCodec.readValue(in);
+					DynVarField field = DynVarUnsafe.getDirect(map, key);
+					
+					//existing variables keep their vars type, like DynVarMap.set
+					if(field != null)
+						field.set(value);
+					else
+						map.put(key, value);
+					break;
+				}
+				
+				case DynVarProtocol.ADD:
+				{
+					DynVarField field = DynVarUnsafe.getDirect(map, DynVarBinaryCodec.readString(in));
+					Object value = DynVarBinaryCodec.readValue(in);
+					
+					if(field == null)
+						response.status(DynVarProtocol.NOT_FOUND);
+					else
+						DynVarBinaryCodec.writeField(out, field.add(value));
+					break;
+				}
+				
+				case DynVarProtocol.GET_ALL:
+				{
+					int count = in.readInt();
+					out.writeInt(count);
+					
+					for (int i = 0; i < count; i++)
+					{
+						DynVarField field = DynVarUnsafe.getDirect(map, DynVarBinaryCodec.readString(in));
+						out.writeBoolean(field != null);
+						
+						if(field != null)
+							DynVarBinaryCodec.writeField(out, field);
+					}
+					break;
+				}
+				
+				case DynVarProtocol.SCAN:
+				{
+					String prefix = DynVarBinaryCodec.readString(in);
+					out.writeInt(map.countWithPrefix(prefix));
+					
+					IOException[] error = new IOException[1];
+					map.forEachWithPrefix(prefix, (key, field) ->
+					{
+						try
+						{
+							DynVarBinaryCodec.writeString(out, key);
+							DynVarBinaryCodec.writeField(out, field);
+						}
+						catch (IOException e)
+						{
+							error[0] = e;
+						}
+					});
+					
+					if(error[0] != null)
+						throw error[0];
+					break;
+				}
+				
+				case DynVarProtocol.DUMP:
+				{
+					ByteBuffer encoded = dump();
+					responses.add(response.header(encoded.remaining()));
+					responses.add(encoded);
+					return;
+				}
+				
+				default:
+					throw new IllegalArgumentException("Unknown operation " + op);
+			}
+		}
+		catch (RuntimeException e)
+		{
+			response = new Response(id);
+			response.status(DynVarProtocol.ERROR);
+			DynVarBinaryCodec.writeString(response.data, String.valueOf(e));
+		}
+		
+		responses.add(response.toBuffer());
+	}
+	
+	/**
+	 * Returns a view of the encoded variables, encoding them again from a snapshot if the map changed since.
+	 */
+	private synchronized ByteBuffer dump() throws IOException
+	{
+		if(dumpListener == null)
+		{
+			dumpListener = change -> dumpStale = true;
+			map.addListener(dumpListener);
+		}
+		
+		if(!dumpStale && dump != null)
+			return dump.duplicate();
+		
+		dumpStale = false;
+		
+		DynVarMap snapshot = map.snapshot().toMap();
+		Map<String, DynVarField> fields = DynVarUnsafe.getFields(snapshot);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		
+		out.writeInt(fields.size());
+		for (Map.Entry<String, DynVarField> entry : fields.entrySet())
+		{
+			DynVarBinaryCodec.writeString(out, entry.getKey());
+			DynVarBinaryCodec.writeField(out, entry.getValue());
+		}
+		
+		byte[] encoded = bytes.toByteArray();
+		dump = ByteBuffer.allocateDirect(encoded.length);
+		dump.put(encoded).flip();
+		return dump.duplicate();
+	}
+	
+	private class Connection
+	{
+		private final SocketChannel channel;
+		private final ArrayDeque<ByteBuffer> pending = new ArrayDeque<>();
+		private ByteBuffer in = ByteBuffer.allocate(8192);
+		private SelectionKey key;
+		private long pendingBytes;
+		
+		//frames are left in the buffer while a batch is with the executor or too many responses are waiting
+		private boolean executing;
+		private boolean throttled;
+		
+		private Connection(SocketChannel channel)
+		{
+			this.channel = channel;
+		}
+		
+		private void read() throws IOException
+		{
+			if(channel.read(in) < 0)
+				throw new IOException("Connection closed");
+			
+			process();
+			write();
+		}
+		
+		/**
+		 * Handle the complete frames in the buffer, or hand them to the executor as a single task.
+		 */
+		private void process() throws IOException
+		{
+			if(executing)
+				return;
+			
+			in.flip();
+			List<byte[]> frames = new ArrayList<>();
+			
+			while (in.remaining() >= 4)
+			{
+				if(pendingBytes >= maxPending)
+				{
+					throttled = true;
+					break;
+				}
+				
+				int length = in.getInt(in.position());
+				if(length < DynVarProtocol.HEADER || length > DynVarProtocol.MAX_FRAME)
+					throw new IOException("Invalid frame length " + length);
+				
+				if(in.remaining() < 4 + length)
+				{
+					//make room for a frame larger than the buffer
+					if(in.capacity() < 4 + length)
+					{
+						ByteBuffer larger = ByteBuffer.allocate(Integer.highestOneBit(4 + length) << 1);
+						larger.put(in).flip();
+						in = larger;
+					}
+					
+					break;
+				}
+				
+				byte[] frame = new byte[length];
+				in.position(in.position() + 4);
+				in.get(frame);
+				frames.add(frame);
+				
+				if(executor == null)
+				{
+					queue(handle(frames));
+					frames.clear();
+				}
+			}
+			
+			in.compact();
+			
+			if(frames.isEmpty())
+				return;
+			
+			executing = true;
+			
+			try
+			{
+				executor.execute(() ->
+				{
+					completed.add(new Completion(this, handle(frames)));
+					selector.wakeup();
+				});
+			}
+			catch (RejectedExecutionException e)
+			{
+				throw new IOException("The executor rejected the requests", e);
+			}
+		}
+		
+		/**
+		 * Queue the responses of the task handed to the executor, then continue with any buffered frames.
+		 */
+		private void complete(List<ByteBuffer> responses) throws IOException
+		{
+			executing = false;
+			
+			if(!key.isValid())
+				return;
+			
+			queue(responses);
+			process();
+			write();
+		}
+		
+		private void queue(List<ByteBuffer> responses) throws IOException
+		{
+			for (ByteBuffer response : responses)
+			{
+				if(response == null)
+					throw new IOException("Malformed request");
+				
+				pending.add(response);
+				pendingBytes += response.remaining();
+			}
+		}
+		
+		private void write() throws IOException
+		{
+			for (;;)
+			{
+				if(!pending.isEmpty())
+				{
+					pendingBytes -= channel.write(pending.toArray(new ByteBuffer[0]));
+					
+					while (!pending.isEmpty() && !pending.peek().hasRemaining())
+						pending.poll();
+				}
+				
+				//the client read enough to let the requests left in the buffer through
+				if(!throttled || executing || pendingBytes >= maxPending)
+					break;
+				
+				throttled = false;
+				process();
+			}
+			
+			//only read while responses can be taken, and only wait for the socket while something is left to write
+			int ops = executing || pendingBytes >= maxPending ? 0 : SelectionKey.OP_READ;
+			key.interestOps(pending.isEmpty() ? ops : ops | SelectionKey.OP_WRITE);
+		}
+	}
+	
+	private static class Completion
+	{
+		private final Connection connection;
+		private final List<ByteBuffer> responses;
+		
+		private Completion(Connection connection, List<ByteBuffer> responses)
+		{
+			this.connection = connection;
+			this.responses = responses;
+		}
+	}
+	
+	private static class Response
+	{
+		private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		private final DataOutputStream data = new DataOutputStream(bytes);
+		private final int id;
+		private byte status = DynVarProtocol.OK;
+		
+		private Response(int id)
+		{
+			this.id = id;
+		}
+		
+		private void status(byte status)
+		{
+			this.status = status;
+		}
+		
+		private ByteBuffer header(int payload)
+		{
+			ByteBuffer header = ByteBuffer.allocate(4 + DynVarProtocol.HEADER);
+			header.putInt(DynVarProtocol.HEADER + payload).putInt(id).put(status).flip();
+			return header;
+		}
+		
+		private ByteBuffer toBuffer()
+		{
+			ByteBuffer buffer = ByteBuffer.allocate(4 + DynVarProtocol.HEADER + bytes.size());
+			buffer.putInt(DynVarProtocol.HEADER + bytes.size()).putInt(id).put(status).put(bytes.toByteArray()).flip();
+			return buffer;
+		}
+	}
+}
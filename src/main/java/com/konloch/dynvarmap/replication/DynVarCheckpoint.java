@@ -0,0 +1,85 @@
+package com.konloch.dynvarmap.replication;
+
+import com.konloch.dynvarmap.DynVarField;
+import com.konloch.dynvarmap.DynVarMap;
+import com.konloch.dynvarmap.DynVarUnsafe;
+import com.konloch.dynvarmap.serializer.DynVarBinaryCodec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * The variables of a replicated DynVarMap together with the sequence number of the last mutation they include.
+ * A follower restores the checkpoint, then applies every mutation after that sequence number.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+public class DynVarCheckpoint
+{
+	private final long sequence;
+	private final DynVarMap map;
+	
+	/**
+	 * Constructs a new DynVarCheckpoint.
+	 *
+	 * @param sequence the sequence number of the last included mutation
+	 * @param map a DynVarMap holding the variables, it must not be changed afterwards
+	 */
+	public DynVarCheckpoint(long sequence, DynVarMap map)
+	{
+		this.sequence = sequence;
+		this.map = map;
+	}
+	
+	/**
+	 * Returns the sequence number of the last mutation included in the checkpoint.
+	 *
+	 * @return the sequence number, or 0 if no mutation is included
+	 */
+	public long getSequence()
+	{
+		return sequence;
+	}
+	
+	/**
+	 * Returns the variables of the checkpoint.
+	 *
+	 * @return the DynVarMap holding the variables
+	 */
+	public DynVarMap getMap()
+	{
+		return map;
+	}
+	
+	void write(DataOutput out) throws IOException
+	{
+		Map<String, DynVarField> fields = DynVarUnsafe.getFields(map);
+		
+		out.writeLong(sequence);
+		out.writeInt(fields.size());
+		
+		for (Map.Entry<String, DynVarField> entry : fields.entrySet())
+		{
+			DynVarBinaryCodec.writeString(out, entry.getKey());
+			DynVarBinaryCodec.writeField(out, entry.getValue());
+		}
+	}
+	
+	static DynVarCheckpoint read(DataInput in) throws IOException
+	{
+		long sequence = in.readLong();
+		int size = in.readInt();
+		DynVarMap map = new DynVarMap();
+		
+		for (int i = 0; i < size; i++)
+		{
+			String key = DynVarBinaryCodec.readString(in);
+			DynVarUnsafe.putDirect(map, key, DynVarBinaryCodec.readField(in));
+		}
+		
+		return new DynVarCheckpoint(sequence, map);
+	}
+}
@@ -0,0 +1,181 @@
+package com.konloch.dynvarmap.replication;
+
+import com.konloch.dynvarmap.DynVarField;
+import com.konloch.dynvarmap.DynVarMap;
+import com.konloch.dynvarmap.DynVarUnsafe;
+import com.konloch.dynvarmap.serializer.DynVarBinaryCodec;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * Applies the checkpoints and mutations of a DynVarReplicator to a follower DynVarMap.
+ *
+ * Mutations at or before the last applied sequence number are skipped, so overlapping replays are harmless,
+ * while a missing sequence number means the follower has to be restored from a new checkpoint.
+ * Like the map it writes to, a follower is used from a single thread.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+public class DynVarFollower
+{
+	static final byte CHECKPOINT = 1;
+	static final byte MUTATION = 2;
+	
+	private final DynVarMap map;
+	private long sequence;
+	
+	/**
+	 * Constructs a new DynVarFollower.
+	 *
+	 * @param map the DynVarMap the mutations are applied to
+	 */
+	public DynVarFollower(DynVarMap map)
+	{
+		this.map = map;
+	}
+	
+	/**
+	 * Replace every variable with the variables of a checkpoint.
+	 *
+	 * @param checkpoint any DynVarCheckpoint
+	 * @return this instance for method chaining
+	 */
+	public DynVarFollower restore(DynVarCheckpoint checkpoint)
+	{
+		map.clear();
+		
+		for (Map.Entry<String, DynVarField> entry : DynVarUnsafe.getFields(checkpoint.getMap()).entrySet())
+		{
+			DynVarField source = entry.getValue();
+			DynVarField field = DynVarBinaryCodec.newField(DynVarBinaryCodec.typeOf(source));
+			field.set(DynVarUnsafe.getValue(source));
+			DynVarUnsafe.putDirect(map, entry.getKey(), field);
+		}
+		
+		sequence = checkpoint.getSequence();
+		return this;
+	}
+	
+	/**
+	 * Apply a single mutation.
+	 *
+	 * @param mutation any DynVarMutation
+	 * @return true if it was applied, false if it was already applied before
+	 * @throws IllegalStateException if earlier mutations are missing
+	 */
+	public boolean apply(DynVarMutation mutation)
+	{
+		long next = mutation.getSequence();
+		if(next <= sequence)
+			return false;
+		
+		if(next != sequence + 1)
+			throw new IllegalStateException("Missing mutations " + (sequence + 1) + " to " + (next - 1) + ", restore from a new checkpoint");
+		
+		switch (mutation.getType())
+		{
+			case REMOVE:
+				map.remove(mutation.getKey());
+				break;
+			
+			case CLEAR:
+				map.clear();
+				break;
+			
+			default:
+				DynVarField field = DynVarUnsafe.getDirect(map, mutation.getKey());
+				Class<? extends DynVarField> type = DynVarBinaryCodec.classOf(mutation.getFieldType());
+				
+				if(field != null && field.getClass() == type)
+					field.set(mutation.getValue());
+				else
+				{
+					field = DynVarBinaryCodec.newField(mutation.getFieldType());
+					field.set(mutation.getValue());
+					DynVarUnsafe.putDirect(map, mutation.getKey(), field);
+				}
+		}
+		
+		sequence = next;
+		return true;
+	}
+	
+	/**
+	 * Apply everything a DynVarQueueSink receives, until the thread is interrupted.
+	 *
+	 * @param sink any DynVarQueueSink
+	 * @throws InterruptedException when the thread is interrupted
+	 */
+	public void follow(DynVarQueueSink sink) throws InterruptedException
+	{
+		for (;;)
+			applyFrame(sink.take());
+	}
+	
+	/**
+	 * Apply everything a DynVarStreamSink writes, until the stream ends.
+	 *
+	 * @param in the InputStream a DynVarStreamSink writes to, such as a socket input stream
+	 * @throws IOException if the stream fails or is malformed
+	 */
+	public void follow(InputStream in) throws IOException
+	{
+		DataInputStream data = new DataInputStream(new BufferedInputStream(in, 1 << 16));
+		
+		for (;;)
+		{
+			int frame = data.read();
+			if(frame < 0)
+				return;
+			
+			try
+			{
+				if(frame == CHECKPOINT)
+					restore(DynVarCheckpoint.read(data));
+				else if(frame == MUTATION)
+					apply(DynVarMutation.read(data));
+				else
+					throw new IOException("Unknown replication frame " + frame);
+			}
+			catch (EOFException e)
+			{
+				//the stream ended part way through a frame, such as when the leader was closed
+				return;
+			}
+		}
+	}
+	
+	/**
+	 * Returns the sequence number of the last applied mutation, the offset to catch up from.
+	 *
+	 * @return the sequence number
+	 */
+	public long getSequence()
+	{
+		return sequence;
+	}
+	
+	/**
+	 * Returns the map the mutations are applied to.
+	 *
+	 * @return the follower DynVarMap
+	 */
+	public DynVarMap getMap()
+	{
+		return map;
+	}
+	
+	private void applyFrame(Object frame)
+	{
+		if(frame instanceof DynVarCheckpoint)
+			restore((DynVarCheckpoint) frame);
+		else
+			apply((DynVarMutation) frame);
+	}
+}
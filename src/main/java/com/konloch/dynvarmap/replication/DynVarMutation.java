@@ -0,0 +1,174 @@
+package com.konloch.dynvarmap.replication;
+
+import com.konloch.dynvarmap.DynVarChange;
+import com.konloch.dynvarmap.DynVarField;
+import com.konloch.dynvarmap.serializer.DynVarBinaryCodec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A single replicated change to a DynVarMap, numbered by the DynVarReplicator that recorded it.
+ *
+ * Sets and arithmetic carry the resulting value, so applying a mutation twice has the same effect as
+ * applying it once.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+public class DynVarMutation
+{
+	private static final DynVarChange.Type[] TYPES = DynVarChange.Type.values();
+	
+	private final long sequence;
+	private final DynVarChange.Type type;
+	private final String key;
+	private final byte fieldType;
+	private final Object value;
+	
+	/**
+	 * Constructs a new DynVarMutation.
+	 *
+	 * @param sequence the sequence number, starting at 1
+	 * @param type the Type of change
+	 * @param key the variable name, or null for a clear
+	 * @param fieldType the DynVarBinaryCodec vars type tag
+	 * @param value the variable value after the change
+	 */
+	public DynVarMutation(long sequence, DynVarChange.Type type, String key, byte fieldType, Object value)
+	{
+		this.sequence = sequence;
+		this.type = type;
+		this.key = key;
+		this.fieldType = fieldType;
+		this.value = value;
+	}
+	
+	/**
+	 * Returns the sequence number.
+	 *
+	 * @return the sequence number, starting at 1
+	 */
+	public long getSequence()
+	{
+		return sequence;
+	}
+	
+	/**
+	 * Returns the kind of change.
+	 *
+	 * @return the Type of change
+	 */
+	public DynVarChange.Type getType()
+	{
+		return type;
+	}
+	
+	/**
+	 * Returns the variable name.
+	 *
+	 * @return the variable name, or null for a clear
+	 */
+	public String getKey()
+	{
+		return key;
+	}
+	
+	/**
+	 * Returns the vars type of the variable after the change.
+	 *
+	 * @return the DynVarBinaryCodec vars type tag
+	 */
+	public byte getFieldType()
+	{
+		return fieldType;
+	}
+	
+	/**
+	 * Returns the variable value after the change.
+	 *
+	 * @param <T> the variable value Type
+	 * @return the variable value, or null for a remove or clear
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T getValue()
+	{
+		return (T) value;
+	}
+	
+	/**
+	 * Returns true if the mutation carries a value.
+	 *
+	 * @return true for a set, arithmetic, put or retype
+	 */
+	public boolean hasValue()
+	{
+		return hasValue(type);
+	}
+	
+	/**
+	 * Create a mutation from a change.
+	 *
+	 * @param sequence the sequence number
+	 * @param change any DynVarChange
+	 * @return a new DynVarMutation
+	 */
+	static DynVarMutation of(long sequence, DynVarChange change)
+	{
+		DynVarField field = change.getField();
+		
+		if(!hasValue(change.getType()) || field == null)
+			return new DynVarMutation(sequence, change.getType(), change.getKey(), DynVarBinaryCodec.FIELD, null);
+		
+		return new DynVarMutation(sequence, change.getType(), change.getKey(), DynVarBinaryCodec.typeOf(field), change.getNewValue());
+	}
+	
+	void write(DataOutput out) throws IOException
+	{
+		out.writeLong(sequence);
+		out.writeByte(type.ordinal());
+		
+		if(type == DynVarChange.Type.CLEAR)
+			return;
+		
+		DynVarBinaryCodec.writeString(out, key);
+		
+		if(hasValue(type))
+		{
+			out.writeByte(fieldType);
+			DynVarBinaryCodec.writeValue(out, value);
+		}
+	}
+	
+	static DynVarMutation read(DataInput in) throws IOException
+	{
+		long sequence = in.readLong();
+		int ordinal = in.readUnsignedByte();
+		if(ordinal >= TYPES.length)
+			throw new IOException("Unknown mutation type " + ordinal);
+		
+		DynVarChange.Type type = TYPES[ordinal];
+		if(type == DynVarChange.Type.CLEAR)
+			return new DynVarMutation(sequence, type, null, DynVarBinaryCodec.FIELD, null);
+		
+		String key = DynVarBinaryCodec.readString(in);
+		
+		if(!hasValue(type))
+			return new DynVarMutation(sequence, type, key, DynVarBinaryCodec.FIELD, null);
+		
+		byte fieldType = in.readByte();
+		return new DynVarMutation(sequence, type, key, fieldType, DynVarBinaryCodec.readValue(in));
+	}
+	
+	private static boolean hasValue(DynVarChange.Type type)
+	{
+		return type != DynVarChange.Type.REMOVE && type != DynVarChange.Type.CLEAR;
+	}
+	
+	@Override
+	public String toString()
+	{
+		return sequence + " " + type + " " + key + (hasValue() ? "=" + value : "");
+	}
+}
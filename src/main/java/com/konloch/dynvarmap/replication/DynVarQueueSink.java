@@ -0,0 +1,76 @@
+package com.konloch.dynvarmap.replication;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * An in-process DynVarReplicationSink, the leader thread queues the checkpoint and mutations and a follower
+ * thread applies them with DynVarFollower.follow.
+ *
+ * The queue is bounded, a leader that gets too far ahead of its follower waits for it.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+public class DynVarQueueSink implements DynVarReplicationSink
+{
+	private final BlockingQueue<Object> queue;
+	
+	/**
+	 * Constructs a new DynVarQueueSink holding up to 65536 pending mutations.
+	 */
+	public DynVarQueueSink()
+	{
+		this(1 << 16);
+	}
+	
+	/**
+	 * Constructs a new DynVarQueueSink.
+	 *
+	 * @param capacity the maximum amount of pending mutations
+	 */
+	public DynVarQueueSink(int capacity)
+	{
+		this.queue = new ArrayBlockingQueue<>(capacity);
+	}
+	
+	@Override
+	public void checkpoint(DynVarCheckpoint checkpoint)
+	{
+		offer(checkpoint);
+	}
+	
+	@Override
+	public void accept(DynVarMutation mutation)
+	{
+		offer(mutation);
+	}
+	
+	/**
+	 * Returns the amount of checkpoints and mutations that have not been applied yet.
+	 *
+	 * @return the pending count
+	 */
+	public int getPending()
+	{
+		return queue.size();
+	}
+	
+	Object take() throws InterruptedException
+	{
+		return queue.take();
+	}
+	
+	private void offer(Object frame)
+	{
+		try
+		{
+			queue.put(frame);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for the follower", e);
+		}
+	}
+}
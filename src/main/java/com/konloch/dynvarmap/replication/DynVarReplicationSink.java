@@ -0,0 +1,29 @@
+package com.konloch.dynvarmap.replication;
+
+/**
+ * Receives the ordered mutations of a DynVarReplicator.
+ *
+ * Sinks are called on the thread that changed the map, in sequence order, so they should hand the mutation
+ * off instead of doing slow work.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+public interface DynVarReplicationSink
+{
+	/**
+	 * Called once when the sink is added, before any mutation, with the state the mutations follow on from.
+	 *
+	 * @param checkpoint the DynVarCheckpoint the sink starts from
+	 */
+	default void checkpoint(DynVarCheckpoint checkpoint)
+	{
+	}
+	
+	/**
+	 * Called for every mutation after the checkpoint.
+	 *
+	 * @param mutation the DynVarMutation
+	 */
+	void accept(DynVarMutation mutation);
+}
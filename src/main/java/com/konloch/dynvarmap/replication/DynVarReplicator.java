@@ -0,0 +1,169 @@
+package com.konloch.dynvarmap.replication;
+
+import com.konloch.dynvarmap.DynVarChange;
+import com.konloch.dynvarmap.DynVarListener;
+import com.konloch.dynvarmap.DynVarMap;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records every change to a DynVarMap as an ordered stream of numbered DynVarMutations and hands them to sinks,
+ * so follower maps in other threads, processes or services can be kept current without shipping full dumps.
+ *
+ * A sink first receives a DynVarCheckpoint of the current variables, then every mutation after it. With a
+ * DynVarPersistentStorage taking the checkpoint is O(1). The most recent mutations can be kept in memory so a
+ * follower that fell behind can catch up from its last sequence number instead of a new checkpoint.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+public class DynVarReplicator implements DynVarListener
+{
+	private final DynVarMap map;
+	private final CopyOnWriteArrayList<DynVarReplicationSink> sinks = new CopyOnWriteArrayList<>();
+	private long sequence;
+	private DynVarMutation[] log;
+	
+	/**
+	 * Constructs a new DynVarReplicator and starts recording the changes of the map.
+	 *
+	 * @param map the DynVarMap to replicate
+	 */
+	public DynVarReplicator(DynVarMap map)
+	{
+		this.map = map;
+		map.addListener(this);
+	}
+	
+	@Override
+	public synchronized void onChange(DynVarChange change)
+	{
+		DynVarMutation mutation = DynVarMutation.of(++sequence, change);
+		
+		if(log != null)
+			log[(int) (mutation.getSequence() % log.length)] = mutation;
+		
+		for (DynVarReplicationSink sink : sinks)
+			sink.accept(mutation);
+	}
+	
+	/**
+	 * Add a sink, it receives a checkpoint of the current variables followed by every later mutation.
+	 *
+	 * @param sink any DynVarReplicationSink
+	 * @return this instance for method chaining
+	 */
+	public synchronized DynVarReplicator addSink(DynVarReplicationSink sink)
+	{
+		sink.checkpoint(checkpoint());
+		sinks.add(sink);
+		return this;
+	}
+	
+	/**
+	 * Add a sink that already holds the variables up to a sequence number, it receives the retained mutations
+	 * after that sequence number followed by every later mutation.
+	 *
+	 * @param sink any DynVarReplicationSink
+	 * @param fromSequence the sequence number of the last mutation the sink has applied
+	 * @return true if the retained mutations covered the gap, false if the sink was given a checkpoint instead
+	 */
+	public synchronized boolean addSink(DynVarReplicationSink sink, long fromSequence)
+	{
+		if(!replay(fromSequence, sink))
+		{
+			addSink(sink);
+			return false;
+		}
+		
+		sinks.add(sink);
+		return true;
+	}
+	
+	/**
+	 * Remove a sink.
+	 *
+	 * @param sink any DynVarReplicationSink
+	 * @return this instance for method chaining
+	 */
+	public DynVarReplicator removeSink(DynVarReplicationSink sink)
+	{
+		sinks.remove(sink);
+		return this;
+	}
+	
+	/**
+	 * Returns the current variables together with the sequence number of the last mutation.
+	 * Like the map itself, it should be called from the thread that changes the map.
+	 *
+	 * @return a new DynVarCheckpoint
+	 */
+	public synchronized DynVarCheckpoint checkpoint()
+	{
+		return new DynVarCheckpoint(sequence, map.snapshot().toMap());
+	}
+	
+	/**
+	 * Keep the most recent mutations in memory, so followers can catch up with addSink(sink, fromSequence).
+	 *
+	 * @param mutations the amount of mutations to keep, 0 to keep none
+	 * @return this instance for method chaining
+	 */
+	public synchronized DynVarReplicator setRetention(int mutations)
+	{
+		if(mutations < 0)
+			throw new IllegalArgumentException("Retention must not be negative");
+		
+		DynVarMutation[] old = log;
+		log = mutations == 0 ? null : new DynVarMutation[mutations];
+		
+		//keep whatever still fits
+		if(old != null && log != null)
+			for (long s = Math.max(1, sequence - Math.min(old.length, log.length) + 1); s <= sequence; s++)
+				log[(int) (s % log.length)] = old[(int) (s % old.length)];
+		
+		return this;
+	}
+	
+	/**
+	 * Pass the retained mutations after a sequence number to a sink.
+	 *
+	 * @param fromSequence the sequence number of the last mutation the sink has applied
+	 * @param sink any DynVarReplicationSink
+	 * @return false if some of the mutations are no longer retained, nothing is passed in that case
+	 */
+	public synchronized boolean replay(long fromSequence, DynVarReplicationSink sink)
+	{
+		if(fromSequence > sequence || fromSequence < 0)
+			return false;
+		
+		if(fromSequence < sequence)
+		{
+			if(log == null || sequence - fromSequence > log.length)
+				return false;
+			
+			for (long s = fromSequence + 1; s <= sequence; s++)
+				sink.accept(log[(int) (s % log.length)]);
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Returns the sequence number of the last mutation.
+	 *
+	 * @return the sequence number, or 0 if nothing has changed yet
+	 */
+	public synchronized long getSequence()
+	{
+		return sequence;
+	}
+	
+	/**
+	 * Stop recording changes, sinks are left as they are.
+	 */
+	public void close()
+	{
+		map.removeListener(this);
+	}
+}
@@ -0,0 +1,72 @@
+package com.konloch.dynvarmap.replication;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+
+/**
+ * A DynVarStreamSink connected to a follower over a socket, the follower accepts the connection and passes the
+ * socket input stream to DynVarFollower.follow.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+public class DynVarSocketSink extends DynVarStreamSink
+{
+	private final Socket socket;
+	
+	/**
+	 * Constructs a new DynVarSocketSink connected to a follower on this machine.
+	 *
+	 * @param port the port the follower is listening on
+	 * @throws IOException if the connection fails
+	 */
+	public DynVarSocketSink(int port) throws IOException
+	{
+		this(new Socket(InetAddress.getLoopbackAddress(), port));
+	}
+	
+	/**
+	 * Constructs a new DynVarSocketSink connected to a follower.
+	 *
+	 * @param host the host the follower is running on
+	 * @param port the port the follower is listening on
+	 * @throws IOException if the connection fails
+	 */
+	public DynVarSocketSink(String host, int port) throws IOException
+	{
+		this(new Socket(host, port));
+	}
+	
+	/**
+	 * Constructs a new DynVarSocketSink over a connected socket.
+	 *
+	 * @param socket any connected Socket
+	 * @throws IOException if the socket output stream cannot be opened
+	 */
+	public DynVarSocketSink(Socket socket) throws IOException
+	{
+		super(configure(socket).getOutputStream());
+		this.socket = socket;
+	}
+	
+	@Override
+	public void close() throws IOException
+	{
+		try
+		{
+			super.close();
+		}
+		finally
+		{
+			socket.close();
+		}
+	}
+	
+	private static Socket configure(Socket socket) throws IOException
+	{
+		//batches are already flushed only when the queue is empty, so don't delay them further
+		socket.setTcpNoDelay(true);
+		return socket;
+	}
+}
@@ -0,0 +1,170 @@
+package com.konloch.dynvarmap.replication;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A DynVarReplicationSink that writes the checkpoint and mutations to an OutputStream in a compact binary
+ * format, read back by DynVarFollower.follow(InputStream).
+ *
+ * Encoding and writing happen on a background thread, which writes whatever is pending as one batch and
+ * only flushes once the queue is empty, so a busy leader is not slowed down by a flush per mutation.
+ * If the stream fails the sink stops, the error is kept and later mutations are dropped.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+public class DynVarStreamSink implements DynVarReplicationSink, Closeable
+{
+	private static final int BATCH = 4096;
+	
+	private final DataOutputStream out;
+	private final BlockingQueue<Object> queue;
+	private final Thread writer;
+	private volatile boolean closed;
+	private volatile IOException error;
+	
+	/**
+	 * Constructs a new DynVarStreamSink holding up to 65536 pending mutations.
+	 *
+	 * @param out any OutputStream
+	 */
+	public DynVarStreamSink(OutputStream out)
+	{
+		this(out, 1 << 16);
+	}
+	
+	/**
+	 * Constructs a new DynVarStreamSink.
+	 *
+	 * @param out any OutputStream
+	 * @param capacity the maximum amount of pending mutations, a leader that gets further ahead waits
+	 */
+	public DynVarStreamSink(OutputStream out, int capacity)
+	{
+		this.out = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+		this.queue = new ArrayBlockingQueue<>(capacity);
+		this.writer = new Thread(this::write, "DynVarStreamSink");
+		this.writer.setDaemon(true);
+		this.writer.start();
+	}
+	
+	@Override
+	public void checkpoint(DynVarCheckpoint checkpoint)
+	{
+		offer(checkpoint);
+	}
+	
+	@Override
+	public void accept(DynVarMutation mutation)
+	{
+		offer(mutation);
+	}
+	
+	/**
+	 * Write everything that is pending, then close the stream.
+	 *
+	 * @throws IOException if the stream failed
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		closed = true;
+		
+		try
+		{
+			writer.join();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		
+		out.close();
+		
+		if(error != null)
+			throw error;
+	}
+	
+	/**
+	 * Returns the error that stopped the sink.
+	 *
+	 * @return the IOException, or null if the sink is still writing
+	 */
+	public IOException getError()
+	{
+		return error;
+	}
+	
+	private void offer(Object frame)
+	{
+		if(closed || error != null)
+			return;
+		
+		try
+		{
+			queue.put(frame);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for the stream", e);
+		}
+	}
+	
+	private void write()
+	{
+		List<Object> batch = new ArrayList<>(BATCH);
+		
+		try
+		{
+			while (!closed || !queue.isEmpty())
+			{
+				Object first = queue.poll(50, TimeUnit.MILLISECONDS);
+				if(first == null)
+					continue;
+				
+				batch.add(first);
+				queue.drainTo(batch, BATCH - 1);
+				
+				for (Object frame : batch)
+				{
+					if(frame instanceof DynVarCheckpoint)
+					{
+						out.writeByte(DynVarFollower.CHECKPOINT);
+						((DynVarCheckpoint) frame).write(out);
+					}
+					else
+					{
+						out.writeByte(DynVarFollower.MUTATION);
+						((DynVarMutation) frame).write(out);
+					}
+				}
+				
+				batch.clear();
+				
+				if(queue.isEmpty())
+					out.flush();
+			}
+			
+			out.flush();
+		}
+		catch (IOException e)
+		{
+			error = e;
+			queue.clear();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+}
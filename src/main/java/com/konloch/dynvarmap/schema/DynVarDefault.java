@@ -0,0 +1,26 @@
+package com.konloch.dynvarmap.schema;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The default value of a DynVarSchema variable, parsed as the type of the variable at compile time.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.METHOD)
+public @interface DynVarDefault
+{
+	/**
+	 * The default value, such as 100, 0.5, true or any String.
+	 *
+	 * @return the default value
+	 */
+	String value();
+}
@@ -0,0 +1,38 @@
+package com.konloch.dynvarmap.schema;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an interface of typed variables, DynVarSchemaProcessor generates a class implementing it with one
+ * primitive field per variable and a DynVarMap adapter over those fields.
+ *
+ * Each abstract method without parameters declares a variable of type boolean, int, long, float, double or
+ * String named after the method, getHp() and isAlive() declare hp and alive. The default value is set with
+ * DynVarDefault.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface DynVarSchema
+{
+	/**
+	 * The simple name of the generated class, by default the interface name followed by Schema.
+	 *
+	 * @return the generated class name
+	 */
+	String name() default "";
+	
+	/**
+	 * A prefix added to every variable name in the DynVarMap adapter, such as player.
+	 *
+	 * @return the key prefix
+	 */
+	String prefix() default "";
+}
@@ -0,0 +1,27 @@
+package com.konloch.dynvarmap.schema;
+
+/**
+ * Reads and writes the fields of a generated schema class by index, implemented by the generated code so the
+ * DynVarMap adapter can reach the fields without reflection.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+public interface DynVarSchemaAccessor
+{
+	/**
+	 * Returns the boxed value of a schema field.
+	 *
+	 * @param index the index of the variable in the schema
+	 * @return the field value
+	 */
+	Object get(int index);
+	
+	/**
+	 * Set a schema field, numbers are converted to the type of the field.
+	 *
+	 * @param index the index of the variable in the schema
+	 * @param value the new value
+	 */
+	void set(int index, Object value);
+}
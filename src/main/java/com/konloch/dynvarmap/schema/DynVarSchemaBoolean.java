@@ -0,0 +1,90 @@
+package com.konloch.dynvarmap.schema;
+
+import com.konloch.dynvarmap.DynVarChange;
+import com.konloch.dynvarmap.vars.DynVarBoolean;
+
+/**
+ * A DynVarBoolean backed by a field of a generated schema class, reads see the field and every change is written back.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+public class DynVarSchemaBoolean extends DynVarBoolean implements DynVarSchemaField
+{
+	private final DynVarSchemaAccessor accessor;
+	private final int index;
+	
+	DynVarSchemaBoolean(DynVarSchemaAccessor accessor, int index)
+	{
+		this.accessor = accessor;
+		this.index = index;
+		refresh();
+	}
+	
+	/**
+	 * Get the variable value as an Object
+	 *
+	 * @return the variable value as an Object.
+	 */
+	@Override
+	public Boolean get()
+	{
+		refresh();
+		return super.get();
+	}
+	
+	/**
+	 * Set the value supplied.
+	 *
+	 * @param value any Object as the variable value
+	 * @return this instance for method chaining
+	 */
+	@Override
+	public DynVarSchemaBoolean set(Object value)
+	{
+		refresh();
+		super.set(value);
+		return this;
+	}
+	
+	@Override
+	public String toString()
+	{
+		return String.valueOf(get());
+	}
+	
+	/**
+	 * Write the changed value back to the schema field before notifying listeners.
+	 *
+	 * @param type the Type of change
+	 * @param oldValue the variable value before the change
+	 */
+	@Override
+	protected void changed(DynVarChange.Type type, Object oldValue)
+	{
+		accessor.set(index, value);
+		super.changed(type, oldValue);
+	}
+	
+	@Override
+	protected Object read()
+	{
+		refresh();
+		return value;
+	}
+	
+	@Override
+	protected void publish(Object value)
+	{
+		accessor.set(index, value);
+		refresh();
+	}
+	
+	/**
+	 * Hot code writes the schema field directly, so the cached value is read again before it is used.
+	 */
+	private void refresh()
+	{
+		value = accessor.get(index);
+	}
+}
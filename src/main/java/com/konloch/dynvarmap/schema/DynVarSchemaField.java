@@ -0,0 +1,11 @@
+package com.konloch.dynvarmap.schema;
+
+/**
+ * A field whose value lives in a primitive field of a generated schema class.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+interface DynVarSchemaField
+{
+}
@@ -0,0 +1,160 @@
+package com.konloch.dynvarmap.schema;
+
+import com.konloch.dynvarmap.DynVarChange;
+import com.konloch.dynvarmap.vars.DynVarInteger;
+
+/**
+ * A DynVarInteger backed by a field of a generated schema class, reads see the field and every change is written back.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+public class DynVarSchemaInteger extends DynVarInteger implements DynVarSchemaField
+{
+	private final DynVarSchemaAccessor accessor;
+	private final int index;
+	
+	DynVarSchemaInteger(DynVarSchemaAccessor accessor, int index)
+	{
+		this.accessor = accessor;
+		this.index = index;
+		refresh();
+	}
+	
+	/**
+	 * Get the variable value as an Object
+	 *
+	 * @return the variable value as an Object.
+	 */
+	@Override
+	public Integer get()
+	{
+		refresh();
+		return super.get();
+	}
+	
+	/**
+	 * Set the value supplied.
+	 *
+	 * @param value any Object as the variable value
+	 * @return this instance for method chaining
+	 */
+	@Override
+	public DynVarSchemaInteger set(Object value)
+	{
+		refresh();
+		super.set(value);
+		return this;
+	}
+	
+	/**
+	 * Preforms an addition.
+	 *
+	 * @param value the value to add with
+	 * @return this instance for method chaining
+	 */
+	@Override
+	public DynVarSchemaInteger add(Object value)
+	{
+		refresh();
+		super.add(value);
+		return this;
+	}
+	
+	/**
+	 * Preforms a mathematics subtraction.
+	 *
+	 * @param value the value to subtract with
+	 * @return this instance for method chaining
+	 */
+	@Override
+	public DynVarSchemaInteger subtract(Object value)
+	{
+		refresh();
+		super.subtract(value);
+		return this;
+	}
+	
+	/**
+	 * Preforms a mathematics multiplication.
+	 *
+	 * @param value the value to multiply against
+	 * @return this instance for method chaining
+	 */
+	@Override
+	public DynVarSchemaInteger multiply(Object value)
+	{
+		refresh();
+		super.multiply(value);
+		return this;
+	}
+	
+	/**
+	 * Preforms a mathematics division.
+	 *
+	 * @param value the value to divide against
+	 * @return this instance for method chaining
+	 */
+	@Override
+	public DynVarSchemaInteger divide(Object value)
+	{
+		refresh();
+		super.divide(value);
+		return this;
+	}
+	
+	/**
+	 * Preforms a bitwise xor operation.
+	 *
+	 * @param value the value to xor against
+	 * @return this instance for method chaining
+	 */
+	@Override
+	public DynVarSchemaInteger bitwiseXor(Object value)
+	{
+		refresh();
+		super.bitwiseXor(value);
+		return this;
+	}
+	
+	@Override
+	public String toString()
+	{
+		return String.valueOf(get());
+	}
+	
+	/**
+	 * Write the changed value back to the schema field before notifying listeners.
+	 *
+	 * @param type the Type of change
+	 * @param oldValue the variable value before the change
+	 */
+	@Override
+	protected void changed(DynVarChange.Type type, Object oldValue)
+	{
+		accessor.set(index, value);
+		super.changed(type, oldValue);
+	}
+	
+	@Override
+	protected Object read()
+	{
+		refresh();
+		return value;
+	}
+	
+	@Override
+	protected void publish(Object value)
+	{
+		accessor.set(index, value);
+		refresh();
+	}
+	
+	/**
+	 * Hot code writes the schema field directly, so the cached value is read again before it is used.
+	 */
+	private void refresh()
+	{
+		value = accessor.get(index);
+	}
+}
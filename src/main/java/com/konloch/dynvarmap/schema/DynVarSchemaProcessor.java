@@ -0,0 +1,364 @@
+package com.konloch.dynvarmap.schema;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Generates the classes of DynVarSchema interfaces, registered as an annotation processor so it runs as part
+ * of javac whenever DynVarMap is on the compile classpath.
+ *
+ * For an interface PlayerVars declaring int getHp() the generated PlayerVarsSchema has a public int hp field,
+ * getHp() and setHp(int) accessors and asMap(), a DynVarMap where hp is a DynVarInteger reading and writing the
+ * field. Hot code uses the fields directly, cold code such as DynVarSerializer uses the map.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+@SupportedAnnotationTypes("com.konloch.dynvarmap.schema.DynVarSchema")
+public class DynVarSchemaProcessor extends AbstractProcessor
+{
+	@Override
+	public SourceVersion getSupportedSourceVersion()
+	{
+		return SourceVersion.latestSupported();
+	}
+	
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round)
+	{
+		for (Element element : round.getElementsAnnotatedWith(DynVarSchema.class))
+		{
+			if(element.getKind() != ElementKind.INTERFACE)
+			{
+				error(element, "@DynVarSchema can only be used on interfaces");
+				continue;
+			}
+			
+			try
+			{
+				generate((TypeElement) element);
+			}
+			catch (IOException e)
+			{
+				error(element, "Unable to write the schema class: " + e);
+			}
+		}
+		
+		return true;
+	}
+	
+	private void generate(TypeElement type) throws IOException
+	{
+		DynVarSchema schema = type.getAnnotation(DynVarSchema.class);
+		List<Variable> variables = new ArrayList<>();
+		Set<String> names = new LinkedHashSet<>();
+		boolean valid = true;
+		
+		for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type)))
+		{
+			//default, static and Object methods are not variables
+			if(!method.getModifiers().contains(Modifier.ABSTRACT) || method.getEnclosingElement().getKind() != ElementKind.INTERFACE)
+				continue;
+			
+			Variable variable = variable(method, schema.prefix());
+			
+			if(variable == null)
+				valid = false;
+			else if(!names.add(variable.key))
+			{
+				error(method, "The variable " + variable.key + " is declared twice");
+				valid = false;
+			}
+			else
+				variables.add(variable);
+		}
+		
+		if(!valid)
+			return;
+		
+		PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+		String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+		String className = schema.name().isEmpty() ? type.getSimpleName() + "Schema" : schema.name();
+		String qualifiedName = packageName.isEmpty() ? className : packageName + "." + className;
+		
+		try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter())
+		{
+			writer.write(source(packageName, className, type.getQualifiedName().toString(), variables));
+		}
+	}
+	
+	private Variable variable(ExecutableElement method, String prefix)
+	{
+		String methodName = method.getSimpleName().toString();
+		TypeMirror returnType = method.getReturnType();
+		String javaType = javaType(returnType);
+		
+		if(!method.getParameters().isEmpty() || javaType == null)
+		{
+			error(method, "Schema variables are declared as methods without parameters returning boolean, int, long, float, double or String");
+			return null;
+		}
+		
+		//bean style getters declare the variable without the get or is prefix
+		String name = methodName;
+		String setter = methodName;
+		String property = property(methodName, returnType.getKind() == TypeKind.BOOLEAN);
+		if(property != null)
+		{
+			name = property;
+			setter = "set" + Character.toUpperCase(property.charAt(0)) + property.substring(1);
+		}
+		
+		String defaultValue = null;
+		DynVarDefault annotation = method.getAnnotation(DynVarDefault.class);
+		if(annotation != null)
+		{
+			defaultValue = literal(javaType, annotation.value());
+			
+			if(defaultValue == null)
+			{
+				error(method, "The default value " + annotation.value() + " is not a valid " + javaType);
+				return null;
+			}
+		}
+		
+		return new Variable(prefix + name, name, methodName, setter, javaType, defaultValue);
+	}
+	
+	private String source(String packageName, String className, String interfaceName, List<Variable> variables)
+	{
+		StringBuilder sb = new StringBuilder();
+		
+		if(!packageName.isEmpty())
+			sb.append("package ").append(packageName).append(";\n\n");
+		
+		sb.append("import com.konloch.dynvarmap.DynVarMap;\n");
+		sb.append("import com.konloch.dynvarmap.schema.DynVarSchemaAccessor;\n");
+		sb.append("import com.konloch.dynvarmap.schema.DynVarSchemaStorage;\n\n");
+		sb.append("/**\n * Generated by DynVarSchemaProcessor from ").append(interfaceName).append(", do not edit.\n */\n");
+		sb.append("public class ").append(className).append(" implements ").append(interfaceName).append("\n{\n");
+		
+		sb.append("\tprivate static final String[] $KEYS = {");
+		for (int i = 0; i < variables.size(); i++)
+			sb.append(i == 0 ? "" : ", ").append(stringLiteral(variables.get(i).key));
+		sb.append("};\n");
+		
+		sb.append("\tprivate static final Class<?>[] $TYPES = {");
+		for (int i = 0; i < variables.size(); i++)
+			sb.append(i == 0 ? "" : ", ").append(variables.get(i).type).append(".class");
+		sb.append("};\n\t\n");
+		
+		for (Variable variable : variables)
+		{
+			sb.append("\tpublic ").append(variable.type).append(' ').append(variable.field);
+			if(variable.defaultValue != null)
+				sb.append(" = ").append(variable.defaultValue);
+			sb.append(";\n");
+		}
+		
+		sb.append("\tprivate DynVarMap $map;\n");
+		
+		for (Variable variable : variables)
+		{
+			sb.append("\t\n\t@Override\n\tpublic ").append(variable.type).append(' ').append(variable.getter).append("()\n\t{\n");
+			sb.append("\t\treturn ").append(variable.field).append(";\n\t}\n");
+			sb.append("\t\n\tpublic ").append(className).append(' ').append(variable.setter).append('(').append(variable.type).append(" value)\n\t{\n");
+			sb.append("\t\tthis.").append(variable.field).append(" = value;\n\t\treturn this;\n\t}\n");
+		}
+		
+		sb.append("\t\n\t/**\n\t * Returns a DynVarMap whose schema variables read and write the fields of this object.\n\t *\n");
+		sb.append("\t * @return the DynVarMap adapter\n\t */\n");
+		sb.append("\tpublic DynVarMap asMap()\n\t{\n\t\tif($map == null)\n");
+		sb.append("\t\t\t$map = new DynVarMap(new DynVarSchemaStorage($KEYS, $TYPES, new Accessor(this)));\n\t\t\n\t\treturn $map;\n\t}\n");
+		
+		sb.append("\t\n\tprivate static final class Accessor implements DynVarSchemaAccessor\n\t{\n");
+		sb.append("\t\tprivate final ").append(className).append(" vars;\n\t\t\n");
+		sb.append("\t\tprivate Accessor(").append(className).append(" vars)\n\t\t{\n\t\t\tthis.vars = vars;\n\t\t}\n\t\t\n");
+		
+		sb.append("\t\t@Override\n\t\tpublic Object get(int index)\n\t\t{\n\t\t\tswitch (index)\n\t\t\t{\n");
+		for (int i = 0; i < variables.size(); i++)
+			sb.append("\t\t\t\tcase ").append(i).append(":\n\t\t\t\t\treturn vars.").append(variables.get(i).field).append(";\n");
+		sb.append("\t\t\t\tdefault:\n\t\t\t\t\tthrow new IndexOutOfBoundsException(String.valueOf(index));\n\t\t\t}\n\t\t}\n\t\t\n");
+		
+		sb.append("\t\t@Override\n\t\tpublic void set(int index, Object value)\n\t\t{\n\t\t\tswitch (index)\n\t\t\t{\n");
+		for (int i = 0; i < variables.size(); i++)
+		{
+			Variable variable = variables.get(i);
+			sb.append("\t\t\t\tcase ").append(i).append(":\n\t\t\t\t\tvars.").append(variable.field).append(" = ")
+					.append(conversion(variable.type)).append(";\n\t\t\t\t\tbreak;\n");
+		}
+		sb.append("\t\t\t\tdefault:\n\t\t\t\t\tthrow new IndexOutOfBoundsException(String.valueOf(index));\n\t\t\t}\n\t\t}\n\t}\n}\n");
+		
+		return sb.toString();
+	}
+	
+	private void error(Element element, String message)
+	{
+		processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+	}
+	
+	private String javaType(TypeMirror type)
+	{
+		switch (type.getKind())
+		{
+			case BOOLEAN:
+				return "boolean";
+			case INT:
+				return "int";
+			case LONG:
+				return "long";
+			case FLOAT:
+				return "float";
+			case DOUBLE:
+				return "double";
+			case DECLARED:
+				return type.toString().equals("java.lang.String") ? "String" : null;
+			default:
+				return null;
+		}
+	}
+	
+	/**
+	 * Returns the property name of a bean style getter, or null if the method is not one.
+	 */
+	private static String property(String methodName, boolean isBoolean)
+	{
+		int start;
+		
+		if(methodName.startsWith("get"))
+			start = 3;
+		else if(isBoolean && methodName.startsWith("is"))
+			start = 2;
+		else
+			return null;
+		
+		if(methodName.length() == start || !Character.isUpperCase(methodName.charAt(start)))
+			return null;
+		
+		String property = Character.toLowerCase(methodName.charAt(start)) + methodName.substring(start + 1);
+		return SourceVersion.isKeyword(property) ? null : property;
+	}
+	
+	/**
+	 * Converts the boxed value handed to the accessor into the field type.
+	 */
+	private static String conversion(String type)
+	{
+		switch (type)
+		{
+			case "boolean":
+				return "(Boolean) value";
+			case "String":
+				return "value == null ? null : String.valueOf(value)";
+			default:
+				return "((Number) value)." + type + "Value()";
+		}
+	}
+	
+	/**
+	 * Parse a default value and return it as a Java literal, or null if it is not valid for the type.
+	 */
+	private static String literal(String type, String value)
+	{
+		if(type.equals("String"))
+			return stringLiteral(value);
+		
+		String trimmed = value.trim();
+		
+		try
+		{
+			switch (type)
+			{
+				case "boolean":
+					if(!trimmed.equalsIgnoreCase("true") && !trimmed.equalsIgnoreCase("false"))
+						return null;
+					
+					return trimmed.toLowerCase();
+				case "int":
+					return String.valueOf(Integer.parseInt(trimmed));
+				case "long":
+					return Long.parseLong(trimmed) + "L";
+				case "float":
+					float f = Float.parseFloat(trimmed);
+					return Float.isNaN(f) ? "Float.NaN" : Float.isInfinite(f)
+							? (f > 0 ? "Float.POSITIVE_INFINITY" : "Float.NEGATIVE_INFINITY") : f + "F";
+				case "double":
+					double d = Double.parseDouble(trimmed);
+					return Double.isNaN(d) ? "Double.NaN" : Double.isInfinite(d)
+							? (d > 0 ? "Double.POSITIVE_INFINITY" : "Double.NEGATIVE_INFINITY") : d + "D";
+				default:
+					return null;
+			}
+		}
+		catch (NumberFormatException e)
+		{
+			return null;
+		}
+	}
+	
+	private static String stringLiteral(String value)
+	{
+		StringBuilder sb = new StringBuilder("\"");
+		
+		for (int i = 0; i < value.length(); i++)
+		{
+			char c = value.charAt(i);
+			
+			if(c == '"' || c == '\\')
+				sb.append('\\').append(c);
+			else if(c == '\n')
+				sb.append("\\n");
+			else if(c == '\r')
+				sb.append("\\r");
+			else if(c == '\t')
+				sb.append("\\t");
+			else if(c < 0x20 || c > 0x7E)
+				sb.append(String.format("\\u%04x", (int) c));
+			else
+				sb.append(c);
+		}
+		
+		return sb.append('"').toString();
+	}
+	
+	/**
+	 * A variable declared by a schema method.
+	 */
+	private static class Variable
+	{
+		private final String key;
+		private final String field;
+		private final String getter;
+		private final String setter;
+		private final String type;
+		private final String defaultValue;
+		
+		private Variable(String key, String field, String getter, String setter, String type, String defaultValue)
+		{
+			this.key = key;
+			this.field = field;
+			this.getter = getter;
+			this.setter = setter;
+			this.type = type;
+			this.defaultValue = defaultValue;
+		}
+	}
+}
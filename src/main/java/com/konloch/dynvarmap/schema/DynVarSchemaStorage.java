@@ -0,0 +1,212 @@
+package com.konloch.dynvarmap.schema;
+
+import com.konloch.dynvarmap.DynVarField;
+import com.konloch.dynvarmap.DynVarFootprint;
+import com.konloch.dynvarmap.DynVarMap;
+import com.konloch.dynvarmap.DynVarStorage;
+import com.konloch.dynvarmap.DynVarUnsafe;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The storage behind the DynVarMap adapter of a generated schema class, the schema variables are fields backed
+ * by the primitive fields of the schema object and any other key is stored as usual.
+ *
+ * Schema variables always exist, can't be removed and keep their type, clear only removes the other keys.
+ * Reads through the map see writes made directly to the schema fields, but indexes that are maintained on
+ * change, such as the hash tree, only see the changes made through the map.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+public class DynVarSchemaStorage extends AbstractMap<String, DynVarField> implements DynVarStorage
+{
+	private final Map<String, DynVarField> fields = new LinkedHashMap<>();
+	private final int schemaSize;
+	
+	/**
+	 * Constructs a new DynVarSchemaStorage, called by the generated schema classes.
+	 *
+	 * @param keys the variable names of the schema
+	 * @param types the field types of the schema, boolean, int, long, float, double or String
+	 * @param accessor the accessor of the schema object
+	 */
+	public DynVarSchemaStorage(String[] keys, Class<?>[] types, DynVarSchemaAccessor accessor)
+	{
+		if(keys.length != types.length)
+			throw new IllegalArgumentException("Expected " + keys.length + " types, got " + types.length);
+		
+		for (int i = 0; i < keys.length; i++)
+			fields.put(keys[i], newField(types[i], accessor, i));
+		
+		this.schemaSize = keys.length;
+	}
+	
+	/**
+	 * Attach the schema variables to the map that uses this storage, called by the DynVarMap constructor.
+	 *
+	 * @param map the DynVarMap using this storage
+	 */
+	@Override
+	public void bind(DynVarMap map)
+	{
+		for (Map.Entry<String, DynVarField> entry : fields.entrySet())
+			if(entry.getValue() instanceof DynVarSchemaField)
+				DynVarUnsafe.attach(map, entry.getKey(), entry.getValue());
+	}
+	
+	/**
+	 * Storing a value under a schema key sets the schema field, as long as it is of the same vars type.
+	 *
+	 * @param key any String as the variable name
+	 * @param field the DynVarField about to be stored
+	 * @return the schema field, or the supplied field for any other key
+	 */
+	@Override
+	public DynVarField adopt(String key, DynVarField field)
+	{
+		DynVarField schema = fields.get(key);
+		
+		if(!(schema instanceof DynVarSchemaField) || schema == field)
+			return field;
+		
+		if(!schema.getClass().getSuperclass().isInstance(field))
+			throw new IllegalArgumentException("The schema variable " + key + " is a "
+					+ schema.getClass().getSuperclass().getSimpleName() + ", got " + field.getClass().getSimpleName());
+		
+		schema.set(DynVarUnsafe.getValue(field));
+		return schema;
+	}
+	
+	@Override
+	public DynVarField get(Object key)
+	{
+		return fields.get(key);
+	}
+	
+	@Override
+	public boolean containsKey(Object key)
+	{
+		return fields.containsKey(key);
+	}
+	
+	@Override
+	public DynVarField put(String key, DynVarField field)
+	{
+		if(fields.get(key) instanceof DynVarSchemaField)
+			return adopt(key, field);
+		
+		return fields.put(key, field);
+	}
+	
+	@Override
+	public DynVarField remove(Object key)
+	{
+		if(fields.get(key) instanceof DynVarSchemaField)
+			throw new UnsupportedOperationException("The schema variable " + key + " can't be removed");
+		
+		return fields.remove(key);
+	}
+	
+	@Override
+	public void clear()
+	{
+		fields.values().removeIf(field -> !(field instanceof DynVarSchemaField));
+	}
+	
+	@Override
+	public int size()
+	{
+		return fields.size();
+	}
+	
+	@Override
+	public Set<Map.Entry<String, DynVarField>> entrySet()
+	{
+		return new AbstractSet<Map.Entry<String, DynVarField>>()
+		{
+			@Override
+			public Iterator<Map.Entry<String, DynVarField>> iterator()
+			{
+				Iterator<Map.Entry<String, DynVarField>> iterator = fields.entrySet().iterator();
+				
+				return new Iterator<Map.Entry<String, DynVarField>>()
+				{
+					private Map.Entry<String, DynVarField> last;
+					
+					@Override
+					public boolean hasNext()
+					{
+						return iterator.hasNext();
+					}
+					
+					@Override
+					public Map.Entry<String, DynVarField> next()
+					{
+						return last = iterator.next();
+					}
+					
+					@Override
+					public void remove()
+					{
+						if(last != null && last.getValue() instanceof DynVarSchemaField)
+							throw new UnsupportedOperationException("The schema variable " + last.getKey() + " can't be removed");
+						
+						iterator.remove();
+					}
+				};
+			}
+			
+			@Override
+			public int size()
+			{
+				return fields.size();
+			}
+		};
+	}
+	
+	/**
+	 * Returns the amount of variables declared by the schema.
+	 *
+	 * @return the schema size
+	 */
+	public int getSchemaSize()
+	{
+		return schemaSize;
+	}
+	
+	@Override
+	public long estimateOverhead()
+	{
+		int reference = DynVarFootprint.isCompressedOops() ? 4 : 8;
+		
+		//entries are counted as the size of a SimpleEntry
+		return DynVarFootprint.shallowSize(getClass())
+				+ DynVarFootprint.shallowSize(LinkedHashMap.class)
+				+ DynVarFootprint.arraySize(Integer.highestOneBit(Math.max(fields.size(), 8) * 2), reference)
+				+ fields.size() * DynVarFootprint.shallowSize(SimpleEntry.class);
+	}
+	
+	private static DynVarField newField(Class<?> type, DynVarSchemaAccessor accessor, int index)
+	{
+		if(type == boolean.class)
+			return new DynVarSchemaBoolean(accessor, index);
+		else if(type == int.class)
+			return new DynVarSchemaInteger(accessor, index);
+		else if(type == long.class)
+			return new DynVarSchemaLong(accessor, index);
+		else if(type == float.class)
+			return new DynVarSchemaFloat(accessor, index);
+		else if(type == double.class)
+			return new DynVarSchemaDouble(accessor, index);
+		else if(type == String.class)
+			return new DynVarSchemaString(accessor, index);
+		
+		throw new IllegalArgumentException("Schema variables can't be of type " + type.getName());
+	}
+}
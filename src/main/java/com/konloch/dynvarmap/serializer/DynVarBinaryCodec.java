@@ -0,0 +1,319 @@
+package com.konloch.dynvarmap.serializer;
+
+import com.konloch.dynvarmap.DynVarField;
+import com.konloch.dynvarmap.DynVarUnsafe;
+import com.konloch.dynvarmap.vars.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A compact binary encoding of variables, used where the text format of DynVarSerializer is too slow or too
+ * large, such as replication and network access.
+ *
+ * A variable is written as a vars type tag followed by a value tag and the value in big-endian order, so the
+ * vars type survives the round trip even when it does not follow from the value, for example a DynVarTime.
+ * Values other than booleans, numbers, characters and Strings are written as their String value.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+public class DynVarBinaryCodec
+{
+	/**
+	 * The vars type tag of a plain DynVarField, or of any vars type without a tag of its own.
+	 */
+	public static final byte FIELD = 0;
+	
+	/**
+	 * The tag of a DynVarBoolean, and of a boolean value.
+	 */
+	public static final byte BOOLEAN = 1;
+	
+	/**
+	 * The tag of a DynVarByte, and of a byte value.
+	 */
+	public static final byte BYTE = 2;
+	
+	/**
+	 * The tag of a DynVarShort, and of a short value.
+	 */
+	public static final byte SHORT = 3;
+	
+	/**
+	 * The tag of a DynVarInteger, and of an int value.
+	 */
+	public static final byte INTEGER = 4;
+	
+	/**
+	 * The tag of a DynVarLong, and of a long value.
+	 */
+	public static final byte LONG = 5;
+	
+	/**
+	 * The tag of a DynVarFloat, and of a float value.
+	 */
+	public static final byte FLOAT = 6;
+	
+	/**
+	 * The tag of a DynVarDouble, and of a double value.
+	 */
+	public static final byte DOUBLE = 7;
+	
+	/**
+	 * The tag of a DynVarString, and of a String value.
+	 */
+	public static final byte STRING = 8;
+	
+	/**
+	 * The vars type tag of a DynVarTime, its value is written as a long value.
+	 */
+	public static final byte TIME = 9;
+	
+	private static final byte NULL = 0;
+	private static final byte CHARACTER = 10;
+	private static final int CHUNK = 64 << 10;
+	
+	private DynVarBinaryCodec()
+	{
+	}
+	
+	/**
+	 * Returns the vars type tag of a field.
+	 *
+	 * @param field any DynVarField
+	 * @return the vars type tag
+	 */
+	public static byte typeOf(DynVarField field)
+	{
+		//DynVarTime extends DynVarLong, so it is checked first
+		if(field instanceof DynVarTime)
+			return TIME;
+		else if(field instanceof DynVarBoolean)
+			return BOOLEAN;
+		else if(field instanceof DynVarByte)
+			return BYTE;
+		else if(field instanceof DynVarShort)
+			return SHORT;
+		else if(field instanceof DynVarInteger)
+			return INTEGER;
+		else if(field instanceof DynVarLong)
+			return LONG;
+		else if(field instanceof DynVarFloat)
+			return FLOAT;
+		else if(field instanceof DynVarDouble)
+			return DOUBLE;
+		else if(field instanceof DynVarString)
+			return STRING;
+		
+		return FIELD;
+	}
+	
+	/**
+	 * Returns the vars type of a tag.
+	 *
+	 * @param type any vars type tag
+	 * @return the DynVarField class
+	 */
+	public static Class<? extends DynVarField> classOf(byte type)
+	{
+		switch (type)
+		{
+			case BOOLEAN: return DynVarBoolean.class;
+			case BYTE: return DynVarByte.class;
+			case SHORT: return DynVarShort.class;
+			case INTEGER: return DynVarInteger.class;
+			case LONG: return DynVarLong.class;
+			case FLOAT: return DynVarFloat.class;
+			case DOUBLE: return DynVarDouble.class;
+			case STRING: return DynVarString.class;
+			case TIME: return DynVarTime.class;
+			default: return DynVarField.class;
+		}
+	}
+	
+	/**
+	 * Create a new unattached field of the vars type of a tag.
+	 *
+	 * @param type any vars type tag
+	 * @return a new DynVarField
+	 */
+	public static DynVarField newField(byte type)
+	{
+		switch (type)
+		{
+			case BOOLEAN: return new DynVarBoolean();
+			case BYTE: return new DynVarByte();
+			case SHORT: return new DynVarShort();
+			case INTEGER: return new DynVarInteger();
+			case LONG: return new DynVarLong();
+			case FLOAT: return new DynVarFloat();
+			case DOUBLE: return new DynVarDouble();
+			case STRING: return new DynVarString();
+			case TIME: return new DynVarTime();
+			default: return new DynVarField();
+		}
+	}
+	
+	/**
+	 * Write a field as its vars type tag and value.
+	 *
+	 * @param out any DataOutput
+	 * @param field any DynVarField
+	 * @throws IOException if the output fails
+	 */
+	public static void writeField(DataOutput out, DynVarField field) throws IOException
+	{
+		out.writeByte(typeOf(field));
+		writeValue(out, DynVarUnsafe.getValue(field));
+	}
+	
+	/**
+	 * Read a field written by writeField.
+	 *
+	 * @param in any DataInput
+	 * @return a new unattached DynVarField holding the value
+	 * @throws IOException if the input fails
+	 */
+	public static DynVarField readField(DataInput in) throws IOException
+	{
+		DynVarField field = newField(in.readByte());
+		field.set(readValue(in));
+		return field;
+	}
+	
+	/**
+	 * Write a value with its value tag.
+	 *
+	 * @param out any DataOutput
+	 * @param value any Object as the variable value
+	 * @throws IOException if the output fails
+	 */
+	public static void writeValue(DataOutput out, Object value) throws IOException
+	{
+		if(value == null)
+			out.writeByte(NULL);
+		else if(value instanceof Boolean)
+		{
+			out.writeByte(BOOLEAN);
+			out.writeBoolean((Boolean) value);
+		}
+		else if(value instanceof Byte)
+		{
+			out.writeByte(BYTE);
+			out.writeByte((Byte) value);
+		}
+		else if(value instanceof Short)
+		{
+			out.writeByte(SHORT);
+			out.writeShort((Short) value);
+		}
+		else if(value instanceof Integer)
+		{
+			out.writeByte(INTEGER);
+			out.writeInt((Integer) value);
+		}
+		else if(value instanceof Long)
+		{
+			out.writeByte(LONG);
+			out.writeLong((Long) value);
+		}
+		else if(value instanceof Float)
+		{
+			out.writeByte(FLOAT);
+			out.writeFloat((Float) value);
+		}
+		else if(value instanceof Double)
+		{
+			out.writeByte(DOUBLE);
+			out.writeDouble((Double) value);
+		}
+		else if(value instanceof Character)
+		{
+			out.writeByte(CHARACTER);
+			out.writeChar((Character) value);
+		}
+		else
+		{
+			out.writeByte(STRING);
+			writeString(out, value.toString());
+		}
+	}
+	
+	/**
+	 * Read a value written by writeValue.
+	 *
+	 * @param in any DataInput
+	 * @return the value
+	 * @throws IOException if the input fails or the value tag is unknown
+	 */
+	public static Object readValue(DataInput in) throws IOException
+	{
+		byte tag = in.readByte();
+		switch (tag)
+		{
+			case NULL: return null;
+			case BOOLEAN: return in.readBoolean();
+			case BYTE: return in.readByte();
+			case SHORT: return in.readShort();
+			case INTEGER: return in.readInt();
+			case LONG: return in.readLong();
+			case FLOAT: return in.readFloat();
+			case DOUBLE: return in.readDouble();
+			case CHARACTER: return in.readChar();
+			case STRING: return readString(in);
+			default: throw new IOException("Unknown value tag " + tag);
+		}
+	}
+	
+	/**
+	 * Write a String as its UTF-8 length and bytes, unlike writeUTF it is not limited to 64KB.
+	 *
+	 * @param out any DataOutput
+	 * @param s any String
+	 * @throws IOException if the output fails
+	 */
+	public static void writeString(DataOutput out, String s) throws IOException
+	{
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+	
+	/**
+	 * Read a String written by writeString.
+	 *
+	 * @param in any DataInput
+	 * @return the String
+	 * @throws IOException if the input fails
+	 */
+	public static String readString(DataInput in) throws IOException
+	{
+		int length = in.readInt();
+		if(length < 0)
+			throw new IOException("Invalid String length " + length);
+		
+		if(length <= CHUNK)
+		{
+			byte[] bytes = new byte[length];
+			in.readFully(bytes);
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+		
+		//the length may come from an untrusted peer, so a bogus one fails at the end of the input instead of allocating it
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(CHUNK);
+		byte[] chunk = new byte[CHUNK];
+		for (int remaining = length; remaining > 0; )
+		{
+			int read = Math.min(remaining, CHUNK);
+			in.readFully(chunk, 0, read);
+			bytes.write(chunk, 0, read);
+			remaining -= read;
+		}
+		
+		return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+	}
+}
@@ -6,6 +6,7 @@ import com.konloch.disklib.GZipDiskReader;
 import com.konloch.disklib.GZipDiskWriter;
 import com.konloch.dynvarmap.DynVarField;
 import com.konloch.dynvarmap.DynVarMap;
+import com.konloch.dynvarmap.jfr.DynVarEvents;
 import com.konloch.dynvarmap.vars.*;
 import com.konloch.util.FastStringUtils;
 
@@ -20,9 +21,13 @@ import java.io.File;
  */
 public class DynVarSerializer
 {
+	private static final String FORMAT = "text";
+	
 	private final File file;
 	private final boolean gzipMode;
 	private final DynVarMap map;
+	private int parseErrors;
+	private int loaded;
 	
 	/**
 	 * Constructs a new DynVarSerializer instance.
@@ -75,11 +80,15 @@ public class DynVarSerializer
 	 */
 	public boolean load()
 	{
+		Object event = DynVarEvents.beginLoad();
+		
 		try
 		{
 			ArrayList<String> lines = gzipMode ? GZipDiskReader.read(file) : DiskReader.read(file);
 			
 			load(lines);
+			
+			DynVarEvents.commitLoad(event, file, FORMAT, gzipMode, loaded, file.length(), parseErrors);
 			return true;
 		}
 		catch (java.nio.file.NoSuchFileException e)
@@ -101,6 +110,9 @@ public class DynVarSerializer
 	 */
 	public void load(ArrayList<String> lines)
 	{
+		parseErrors = 0;
+		loaded = 0;
+		
 		for (String line : lines)
 		{
 			try
@@ -152,9 +164,12 @@ public class DynVarSerializer
 					else
 						map.put(key, value);
 				}
+				
+				loaded++;
 			}
 			catch (Exception e)
 			{
+				parseErrors++;
 				e.printStackTrace();
 			}
 		}
@@ -168,39 +183,68 @@ public class DynVarSerializer
 	public String saveToString()
 	{
 		StringBuilder sb = new StringBuilder();
-		boolean sent = false;
-		for (String key : map.keySet())
+		
+		//iterate the storage directly so serializing neither expires nor reorders variables
+		map.forEach((key, field) ->
 		{
-			DynVarField field = map.get(key);
-			String toWrite = "";
-			
-			if(sent)
-				toWrite += "\n";
-			else
-				sent = true;
+			if(sb.length() > 0)
+				sb.append('\n');
 			
-			//define type by variable declaration
-			if(field instanceof DynVarBoolean)
-				toWrite += "^" + key + "=" + field.get();
-			else if(field instanceof DynVarFloat)
-				toWrite += ">>" + key + "=" + field.get();
-			else if(field instanceof DynVarDouble)
-				toWrite += ">" + key + "=" + field.get();
-			else if(field instanceof DynVarLong)
-				toWrite += "$$" + key + "=" + field.get();
-			else if(field instanceof DynVarInteger)
-				toWrite += "$" + key + "=" + field.get();
-			else if(field instanceof DynVarString)
-				toWrite += "&" + key + "=" + field.get();
-			else //just write and hope the deserializer can figure it out
-				toWrite = key + "=" + field.get();
-			
-			sb.append(toWrite);
-		}
+			sb.append(serialize(key, (DynVarField) field));
+		});
 		
 		return sb.toString();
 	}
 	
+	/**
+	 * Append a single variable to the end of the file, for example when a DynVarBoundedStorage evicts it.
+	 *
+	 * @param key any String as the variable name
+	 * @param field any DynVarField
+	 */
+	public void append(String key, DynVarField field)
+	{
+		try
+		{
+			String line = (file.exists() && file.length() > 0 ? "\n" : "") + serialize(key, field);
+			
+			if(gzipMode)
+				GZipDiskWriter.append(file, line);
+			else
+				DiskWriter.append(file, line);
+		}
+		catch (Exception e)
+		{
+			e.printStackTrace();
+		}
+	}
+	
+	/**
+	 * Serialize a single variable to its line format.
+	 *
+	 * @param key any String as the variable name
+	 * @param field any DynVarField
+	 * @return the serialized variable
+	 */
+	private String serialize(String key, DynVarField field)
+	{
+		//define type by variable declaration
+		if(field instanceof DynVarBoolean)
+			return "^" + key + "=" + field.get();
+		else if(field instanceof DynVarFloat)
+			return ">>" + key + "=" + field.get();
+		else if(field instanceof DynVarDouble)
+			return ">" + key + "=" + field.get();
+		else if(field instanceof DynVarLong)
+			return "$$" + key + "=" + field.get();
+		else if(field instanceof DynVarInteger)
+			return "$" + key + "=" + field.get();
+		else if(field instanceof DynVarString)
+			return "&" + key + "=" + field.get();
+		else //just write and hope the deserializer can figure it out
+			return key + "=" + field.get();
+	}
+	
 	/**
 	 * Save the DynVarMap instance to disk.
 	 *
@@ -208,6 +252,8 @@ public class DynVarSerializer
 	 */
 	public boolean save()
 	{
+		Object event = DynVarEvents.beginSave();
+		
 		try
 		{
 			String s = saveToString();
@@ -217,6 +263,7 @@ public class DynVarSerializer
 			else
 				DiskWriter.write(file, s);
 			
+			DynVarEvents.commitSave(event, file, FORMAT, gzipMode, map.getSize(), file.length());
 			return true;
 		}
 		catch (Exception e)
@@ -256,4 +303,14 @@ public class DynVarSerializer
 	{
 		return gzipMode;
 	}
+	
+	/**
+	 * Returns how many lines failed to parse during the last load
+	 *
+	 * @return the parse error count of the last load
+	 */
+	public int getParseErrors()
+	{
+		return parseErrors;
+	}
 }
\ No newline at end of file
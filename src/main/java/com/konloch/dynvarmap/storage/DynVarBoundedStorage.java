@@ -0,0 +1,531 @@
+package com.konloch.dynvarmap.storage;
+
+import com.konloch.dynvarmap.DynVarField;
+import com.konloch.dynvarmap.DynVarFootprint;
+import com.konloch.dynvarmap.DynVarStorage;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A DynVarMap storage bounded by a maximum entry count and/or an estimated byte budget.
+ *
+ * Once a bound is exceeded variables are evicted using either LRU or Window TinyLFU. Access-order
+ * bookkeeping is a couple of pointer swaps on an intrusive linked list, so every operation stays O(1)
+ * and no locks are taken. Like the default storage it is not thread-safe.
+ *
+ * Byte weights are estimated with DynVarFootprint when a variable is inserted, and again when the value of a
+ * variable changes if a byte budget is set.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+public class DynVarBoundedStorage extends AbstractMap<String, DynVarField> implements DynVarStorage
+{
+	private static final int WINDOW = 0;
+	private static final int PROBATION = 1;
+	private static final int PROTECTED = 2;
+	
+	private final DynVarEvictionPolicy policy;
+	private final long maximumEntries;
+	private final long maximumBytes;
+	private final long windowEntries;
+	private final long windowBytes;
+	private final long protectedEntries;
+	private final HashMap<String, Node> nodes = new HashMap<>();
+	private final Node[] queues = {new Node(null, null), new Node(null, null), new Node(null, null)};
+	private final long[] queueEntries = new long[3];
+	private final long[] queueBytes = new long[3];
+	private final DynVarFrequencySketch sketch;
+	private final CopyOnWriteArrayList<DynVarEvictionListener> listeners = new CopyOnWriteArrayList<>();
+	private long weight;
+	private long evictions;
+	private EntrySet entrySet;
+	
+	/**
+	 * Constructs a new DynVarBoundedStorage limited by entry count.
+	 *
+	 * @param policy the DynVarEvictionPolicy to use
+	 * @param maximumEntries the maximum amount of variables
+	 */
+	public DynVarBoundedStorage(DynVarEvictionPolicy policy, long maximumEntries)
+	{
+		this(policy, maximumEntries, Long.MAX_VALUE);
+	}
+	
+	/**
+	 * Constructs a new DynVarBoundedStorage limited by entry count and estimated bytes.
+	 *
+	 * @param policy the DynVarEvictionPolicy to use
+	 * @param maximumEntries the maximum amount of variables, or Long.MAX_VALUE for no limit
+	 * @param maximumBytes the maximum estimated bytes of the keys, fields and values, or Long.MAX_VALUE for no limit
+	 */
+	public DynVarBoundedStorage(DynVarEvictionPolicy policy, long maximumEntries, long maximumBytes)
+	{
+		if(maximumEntries <= 0 || maximumBytes <= 0)
+			throw new IllegalArgumentException("maximumEntries and maximumBytes must be greater than 0");
+		
+		this.policy = policy;
+		this.maximumEntries = maximumEntries;
+		this.maximumBytes = maximumBytes;
+		
+		for (Node sentinel : queues)
+			sentinel.previous = sentinel.next = sentinel;
+		
+		if(policy == DynVarEvictionPolicy.TINY_LFU)
+		{
+			//1% admission window, the main space is split 20% probation and 80% protected
+			windowEntries = Math.max(1, maximumEntries / 100);
+			windowBytes = maximumBytes == Long.MAX_VALUE ? Long.MAX_VALUE : Math.max(1, maximumBytes / 100);
+			protectedEntries = (long) ((maximumEntries - windowEntries) * 0.8D);
+			sketch = new DynVarFrequencySketch(maximumEntries == Long.MAX_VALUE ? 4096 : maximumEntries);
+		}
+		else
+		{
+			windowEntries = maximumEntries;
+			windowBytes = maximumBytes;
+			protectedEntries = 0;
+			sketch = null;
+		}
+	}
+	
+	/**
+	 * Register a listener that is called for every evicted variable before it is dropped.
+	 * A DynVarSerializer can persist evicted variables with addEvictionListener(serializer::append).
+	 *
+	 * @param listener any DynVarEvictionListener
+	 * @return this instance for method chaining
+	 */
+	public DynVarBoundedStorage addEvictionListener(DynVarEvictionListener listener)
+	{
+		listeners.add(listener);
+		return this;
+	}
+	
+	/**
+	 * Remove a previously registered eviction listener.
+	 *
+	 * @param listener any DynVarEvictionListener
+	 * @return this instance for method chaining
+	 */
+	public DynVarBoundedStorage removeEvictionListener(DynVarEvictionListener listener)
+	{
+		listeners.remove(listener);
+		return this;
+	}
+	
+	@Override
+	public DynVarField get(Object key)
+	{
+		Node node = nodes.get(key);
+		if(node == null)
+			return null;
+		
+		recordAccess(node);
+		return node.field;
+	}
+	
+	@Override
+	public boolean containsKey(Object key)
+	{
+		return nodes.containsKey(key);
+	}
+	
+	@Override
+	public DynVarField put(String key, DynVarField field)
+	{
+		long entryWeight = DynVarFootprint.estimateEntry(key, field);
+		Node node = nodes.get(key);
+		
+		if(node != null)
+		{
+			DynVarField previous = node.field;
+			queueBytes[node.queue] += entryWeight - node.weight;
+			weight += entryWeight - node.weight;
+			node.field = field;
+			node.weight = entryWeight;
+			recordAccess(node);
+			enforceLimits(null);
+			return previous;
+		}
+		
+		node = new Node(key, field);
+		node.weight = entryWeight;
+		nodes.put(key, node);
+		weight += entryWeight;
+		
+		if(sketch != null)
+			sketch.increment(key);
+		
+		link(node, WINDOW);
+		enforceLimits(node);
+		return null;
+	}
+	
+	/**
+	 * Estimate the weight of a variable again after its value changed, evicting variables if the byte budget is
+	 * now exceeded. The owning DynVarMap calls this for every value change.
+	 *
+	 * @param key any String as the variable name
+	 * @param field the changed DynVarField
+	 */
+	public void update(String key, DynVarField field)
+	{
+		//entry count bounds don't depend on the values
+		if(maximumBytes == Long.MAX_VALUE)
+			return;
+		
+		Node node = nodes.get(key);
+		if(node == null || node.field != field)
+			return;
+		
+		long entryWeight = DynVarFootprint.estimateEntry(key, field);
+		if(entryWeight == node.weight)
+			return;
+		
+		queueBytes[node.queue] += entryWeight - node.weight;
+		weight += entryWeight - node.weight;
+		node.weight = entryWeight;
+		enforceLimits(null);
+	}
+	
+	@Override
+	public DynVarField remove(Object key)
+	{
+		Node node = nodes.remove(key);
+		if(node == null)
+			return null;
+		
+		unlink(node);
+		weight -= node.weight;
+		return node.field;
+	}
+	
+	@Override
+	public int size()
+	{
+		return nodes.size();
+	}
+	
+	@Override
+	public void clear()
+	{
+		nodes.clear();
+		
+		for (int i = 0; i < queues.length; i++)
+		{
+			queues[i].previous = queues[i].next = queues[i];
+			queueEntries[i] = 0;
+			queueBytes[i] = 0;
+		}
+		
+		weight = 0;
+	}
+	
+	@Override
+	public Set<Entry<String, DynVarField>> entrySet()
+	{
+		if(entrySet == null)
+			entrySet = new EntrySet();
+		
+		return entrySet;
+	}
+	
+	private void recordAccess(Node node)
+	{
+		if(sketch == null)
+		{
+			moveToFront(node, WINDOW);
+			return;
+		}
+		
+		sketch.increment(node.key);
+		
+		if(node.queue == PROBATION)
+		{
+			//a second hit while on probation promotes the variable into the protected space
+			moveToFront(node, PROTECTED);
+			
+			while (queueEntries[PROTECTED] > protectedEntries && queues[PROTECTED].previous != queues[PROTECTED])
+				moveToFront(queues[PROTECTED].previous, PROBATION);
+		}
+		else
+			moveToFront(node, node.queue);
+	}
+	
+	private void enforceLimits(Node inserted)
+	{
+		if(sketch == null)
+		{
+			//plain LRU, the least recently used variable is at the back of the queue
+			while (isOverLimit() && queueEntries[WINDOW] > 1)
+				evict(queues[WINDOW].previous);
+			
+			return;
+		}
+		
+		//variables that overflow the admission window become candidates for the main space
+		Node candidate = null;
+		while ((queueEntries[WINDOW] > windowEntries || queueBytes[WINDOW] > windowBytes) && queueEntries[WINDOW] > 1)
+		{
+			candidate = queues[WINDOW].previous;
+			moveToFront(candidate, PROBATION);
+		}
+		
+		while (isOverLimit())
+		{
+			Node victim = queues[PROBATION].previous;
+			if(victim == queues[PROBATION] || victim == candidate)
+				victim = queues[PROTECTED].previous != queues[PROTECTED] ? queues[PROTECTED].previous : null;
+			
+			if(candidate == null || victim == null)
+			{
+				Node evict = victim != null ? victim : candidate != null ? candidate : queues[WINDOW].previous;
+				if(evict == inserted && nodes.size() <= 1)
+					return;
+				
+				evict(evict);
+				
+				if(evict == candidate)
+					candidate = null;
+				
+				continue;
+			}
+			
+			//admit the candidate only if it is used more often than the variable it would replace
+			if(sketch.frequency(candidate.key) > sketch.frequency(victim.key))
+				evict(victim);
+			else
+			{
+				evict(candidate);
+				candidate = null;
+			}
+		}
+	}
+	
+	private boolean isOverLimit()
+	{
+		return nodes.size() > maximumEntries || weight > maximumBytes;
+	}
+	
+	private void evict(Node node)
+	{
+		nodes.remove(node.key);
+		unlink(node);
+		weight -= node.weight;
+		evictions++;
+		
+		for (DynVarEvictionListener listener : listeners)
+		{
+			try
+			{
+				listener.onEviction(node.key, node.field);
+			}
+			catch (Exception e)
+			{
+				e.printStackTrace();
+			}
+		}
+	}
+	
+	private void link(Node node, int queue)
+	{
+		Node sentinel = queues[queue];
+		node.queue = queue;
+		node.previous = sentinel;
+		node.next = sentinel.next;
+		sentinel.next.previous = node;
+		sentinel.next = node;
+		queueEntries[queue]++;
+		queueBytes[queue] += node.weight;
+	}
+	
+	private void unlink(Node node)
+	{
+		node.previous.next = node.next;
+		node.next.previous = node.previous;
+		queueEntries[node.queue]--;
+		queueBytes[node.queue] -= node.weight;
+	}
+	
+	private void moveToFront(Node node, int queue)
+	{
+		unlink(node);
+		link(node, queue);
+	}
+	
+	/**
+	 * Returns the eviction policy.
+	 *
+	 * @return the DynVarEvictionPolicy
+	 */
+	public DynVarEvictionPolicy getPolicy()
+	{
+		return policy;
+	}
+	
+	/**
+	 * Returns the maximum amount of variables.
+	 *
+	 * @return the maximum entry count
+	 */
+	public long getMaximumEntries()
+	{
+		return maximumEntries;
+	}
+	
+	/**
+	 * Returns the maximum estimated bytes.
+	 *
+	 * @return the byte budget
+	 */
+	public long getMaximumBytes()
+	{
+		return maximumBytes;
+	}
+	
+	/**
+	 * Returns the current estimated bytes of the stored keys, fields and values.
+	 *
+	 * @return the estimated weight in bytes
+	 */
+	public long getWeight()
+	{
+		return weight;
+	}
+	
+	/**
+	 * Returns how many variables have been evicted.
+	 *
+	 * @return the eviction count
+	 */
+	public long getEvictions()
+	{
+		return evictions;
+	}
+	
+	@Override
+	public long estimateOverhead()
+	{
+		long overhead = DynVarFootprint.shallowSize(getClass())
+				+ DynVarFootprint.shallowSize(HashMap.class)
+				+ DynVarFootprint.arraySize(tableSize(nodes.size()), DynVarFootprint.isCompressedOops() ? 4 : 8)
+				+ nodes.size() * (DynVarFootprint.shallowSize(Node.class) + hashNodeSize());
+		
+		if(sketch != null)
+			overhead += DynVarFootprint.arraySize(sketch.length(), 8);
+		
+		return overhead;
+	}
+	
+	private static long hashNodeSize()
+	{
+		try
+		{
+			return DynVarFootprint.shallowSize(Class.forName("java.util.HashMap$Node"));
+		}
+		catch (ClassNotFoundException e)
+		{
+			return 32;
+		}
+	}
+	
+	private static int tableSize(int size)
+	{
+		int capacity = 16;
+		while (capacity * 0.75F < size)
+			capacity <<= 1;
+		
+		return capacity;
+	}
+	
+	private static class Node implements Map.Entry<String, DynVarField>
+	{
+		private final String key;
+		private DynVarField field;
+		private long weight;
+		private int queue;
+		private Node previous;
+		private Node next;
+		
+		private Node(String key, DynVarField field)
+		{
+			this.key = key;
+			this.field = field;
+		}
+		
+		@Override
+		public String getKey()
+		{
+			return key;
+		}
+		
+		@Override
+		public DynVarField getValue()
+		{
+			return field;
+		}
+		
+		@Override
+		public DynVarField setValue(DynVarField value)
+		{
+			DynVarField previous = field;
+			field = value;
+			return previous;
+		}
+	}
+	
+	private class EntrySet extends AbstractSet<Entry<String, DynVarField>>
+	{
+		@Override
+		public Iterator<Entry<String, DynVarField>> iterator()
+		{
+			Iterator<Node> iterator = nodes.values().iterator();
+			
+			return new Iterator<Entry<String, DynVarField>>()
+			{
+				private Node current;
+				
+				@Override
+				public boolean hasNext()
+				{
+					return iterator.hasNext();
+				}
+				
+				@Override
+				public Entry<String, DynVarField> next()
+				{
+					return current = iterator.next();
+				}
+				
+				@Override
+				public void remove()
+				{
+					iterator.remove();
+					unlink(current);
+					weight -= current.weight;
+				}
+			};
+		}
+		
+		@Override
+		public int size()
+		{
+			return nodes.size();
+		}
+		
+		@Override
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		public Spliterator<Entry<String, DynVarField>> spliterator()
+		{
+			//the nodes are entries themselves, so the hash table spliterator splits evenly and stays fail-fast
+			return (Spliterator) nodes.values().spliterator();
+		}
+	}
+}
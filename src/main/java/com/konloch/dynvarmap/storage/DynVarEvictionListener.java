@@ -0,0 +1,21 @@
+package com.konloch.dynvarmap.storage;
+
+import com.konloch.dynvarmap.DynVarField;
+
+/**
+ * Called when a DynVarBoundedStorage evicts a variable, before it is dropped.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+@FunctionalInterface
+public interface DynVarEvictionListener
+{
+	/**
+	 * Called when a variable is evicted.
+	 *
+	 * @param key the variable name
+	 * @param field the evicted DynVarField
+	 */
+	void onEviction(String key, DynVarField field);
+}
@@ -0,0 +1,20 @@
+package com.konloch.dynvarmap.storage;
+
+/**
+ * How a DynVarBoundedStorage chooses which variable to evict.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+public enum DynVarEvictionPolicy
+{
+	/**
+	 * Evict the least recently used variable.
+	 */
+	LRU,
+	/**
+	 * Window TinyLFU, new variables enter a small LRU window and only move into the main space if
+	 * they have been accessed more often than the variable they would replace.
+	 */
+	TINY_LFU
+}
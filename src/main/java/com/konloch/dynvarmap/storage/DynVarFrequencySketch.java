@@ -0,0 +1,101 @@
+package com.konloch.dynvarmap.storage;
+
+/**
+ * A count-min sketch of 4-bit counters that estimates how often each key has been accessed.
+ *
+ * Counters are halved once enough accesses have been recorded so the sketch follows recent popularity.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+class DynVarFrequencySketch
+{
+	private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+	private static final long RESET_MASK = 0x7777777777777777L;
+	
+	private final long[] table;
+	private final int tableMask;
+	private final int sampleSize;
+	private int additions;
+	
+	DynVarFrequencySketch(long expectedSize)
+	{
+		int length = 16;
+		while (length < expectedSize && length < (1 << 24))
+			length <<= 1;
+		
+		table = new long[length];
+		tableMask = length - 1;
+		sampleSize = 10 * length;
+	}
+	
+	int frequency(Object key)
+	{
+		int hash = spread(key.hashCode());
+		int frequency = Integer.MAX_VALUE;
+		
+		for (int i = 0; i < 4; i++)
+		{
+			int index = indexOf(hash, i);
+			int offset = counterOffset(hash, i);
+			frequency = Math.min(frequency, (int) ((table[index] >>> offset) & 0xF));
+		}
+		
+		return frequency;
+	}
+	
+	void increment(Object key)
+	{
+		int hash = spread(key.hashCode());
+		boolean added = false;
+		
+		for (int i = 0; i < 4; i++)
+		{
+			int index = indexOf(hash, i);
+			int offset = counterOffset(hash, i);
+			
+			if(((table[index] >>> offset) & 0xF) != 0xF)
+			{
+				table[index] += 1L << offset;
+				added = true;
+			}
+		}
+		
+		if(added && ++additions >= sampleSize)
+			reset();
+	}
+	
+	private void reset()
+	{
+		for (int i = 0; i < table.length; i++)
+			table[i] = (table[i] >>> 1) & RESET_MASK;
+		
+		additions >>>= 1;
+	}
+	
+	private int indexOf(int hash, int i)
+	{
+		long h = (hash + SEEDS[i]) * SEEDS[i];
+		h += h >>> 32;
+		return ((int) h) & tableMask;
+	}
+	
+	private static int counterOffset(int hash, int i)
+	{
+		//each long holds 16 counters, every hash function uses its own quarter of them
+		return (((hash >>> (i << 3)) & 3) + (i << 2)) << 2;
+	}
+	
+	private static int spread(int h)
+	{
+		h ^= h >>> 17;
+		h *= 0xed5eb4ab;
+		h ^= h >>> 13;
+		return h;
+	}
+	
+	int length()
+	{
+		return table.length;
+	}
+}
@@ -0,0 +1,296 @@
+package com.konloch.dynvarmap.storage;
+
+import com.konloch.dynvarmap.DynVarField;
+import com.konloch.dynvarmap.DynVarFootprint;
+import com.konloch.dynvarmap.DynVarMap;
+import com.konloch.dynvarmap.DynVarStorage;
+import com.konloch.dynvarmap.DynVarUnsafe;
+
+import java.lang.reflect.Constructor;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A DynVarMap storage kept in a persistent hash array mapped trie, so snapshot and fork are O(1).
+ *
+ * Each leaf holds the live field and its value as of the last change. Its map reports every value change
+ * to it directly and it path-copies the leaf of the changed variable, so a snapshot is just the current trie: it shares
+ * structure with the live map, never locks and never sees a partial update. A fork starts from the same
+ * trie and copies a variable into a field of its own the first time it is accessed.
+ *
+ * Iteration covers the trie as it was when the iteration started. Like the default storage it is not
+ * thread-safe for writers, but snapshots may be taken and read from any thread.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+public class DynVarPersistentStorage extends AbstractMap<String, DynVarField> implements DynVarStorage
+{
+	private static final ClassValue<Constructor<?>> CONSTRUCTORS = new ClassValue<Constructor<?>>()
+	{
+		@Override
+		protected Constructor<?> computeValue(Class<?> type)
+		{
+			try
+			{
+				Constructor<?> constructor = type.getDeclaredConstructor();
+				constructor.setAccessible(true);
+				return constructor;
+			}
+			catch (NoSuchMethodException e)
+			{
+				throw new IllegalStateException(type.getName() + " needs a no argument constructor to be copied", e);
+			}
+		}
+	};
+	
+	private volatile DynVarTrie trie;
+	private DynVarMap map;
+	private EntrySet entrySet;
+	
+	/**
+	 * Constructs a new empty DynVarPersistentStorage.
+	 */
+	public DynVarPersistentStorage()
+	{
+		this(DynVarTrie.EMPTY);
+	}
+	
+	/**
+	 * Constructs a new DynVarPersistentStorage holding the current values of the supplied fields.
+	 * The fields are not taken over, each is copied the first time it is accessed through this storage.
+	 *
+	 * @param fields any Map of variable names to fields
+	 */
+	public DynVarPersistentStorage(Map<String, DynVarField> fields)
+	{
+		DynVarTrie trie = DynVarTrie.EMPTY;
+		
+		for (Map.Entry<String, DynVarField> entry : fields.entrySet())
+			trie = trie.with(leaf(entry.getKey(), entry.getValue(), null));
+		
+		this.trie = trie;
+	}
+	
+	DynVarPersistentStorage(DynVarTrie trie)
+	{
+		this.trie = trie;
+	}
+	
+	/**
+	 * Bind the storage to the map that uses it, called by the DynVarMap constructor.
+	 * The map reports value changes through update so they are written through to the trie.
+	 *
+	 * @param map the DynVarMap using this storage
+	 */
+	@Override
+	public void bind(DynVarMap map)
+	{
+		if(this.map != null)
+			throw new IllegalStateException("The storage is already used by another DynVarMap");
+		
+		this.map = map;
+	}
+	
+	/**
+	 * Returns a consistent point-in-time view of every variable, in O(1).
+	 *
+	 * @return a DynVarSnapshot sharing structure with this storage
+	 */
+	public DynVarSnapshot snapshot()
+	{
+		return new DynVarSnapshot(trie);
+	}
+	
+	/**
+	 * Returns a new storage starting from the current variables, in O(1). Writes to either storage are not
+	 * visible to the other.
+	 *
+	 * @return a forked DynVarPersistentStorage
+	 */
+	public DynVarPersistentStorage fork()
+	{
+		return new DynVarPersistentStorage(trie);
+	}
+	
+	/**
+	 * Write the value of a changed variable through to the trie, called by the map after every value change.
+	 *
+	 * @param key the variable name
+	 * @param field the DynVarField that changed
+	 */
+	public void update(String key, DynVarField field)
+	{
+		DynVarTrie current = trie;
+		DynVarTrie.Leaf leaf = current.find(key);
+		
+		//only the field currently stored under the key is written through
+		if(leaf != null && leaf.field == field)
+			trie = current.with(leaf.withValue(DynVarUnsafe.getValue(field)));
+	}
+	
+	@Override
+	public DynVarField get(Object key)
+	{
+		if(!(key instanceof String))
+			return null;
+		
+		DynVarTrie.Leaf leaf = trie.find((String) key);
+		if(leaf == null)
+			return null;
+		
+		return leaf.owner == this ? leaf.field : materialize(leaf);
+	}
+	
+	@Override
+	public boolean containsKey(Object key)
+	{
+		return key instanceof String && trie.find((String) key) != null;
+	}
+	
+	@Override
+	public DynVarField put(String key, DynVarField field)
+	{
+		DynVarTrie current = trie;
+		DynVarTrie.Leaf previous = current.find(key);
+		trie = current.with(leaf(key, field, this));
+		return previous == null ? null : detached(previous);
+	}
+	
+	@Override
+	public DynVarField remove(Object key)
+	{
+		if(!(key instanceof String))
+			return null;
+		
+		DynVarTrie current = trie;
+		DynVarTrie.Leaf previous = current.find((String) key);
+		if(previous == null)
+			return null;
+		
+		trie = current.without((String) key);
+		return detached(previous);
+	}
+	
+	@Override
+	public int size()
+	{
+		return trie.size();
+	}
+	
+	@Override
+	public void clear()
+	{
+		trie = DynVarTrie.EMPTY;
+	}
+	
+	@Override
+	public Set<Entry<String, DynVarField>> entrySet()
+	{
+		if(entrySet == null)
+			entrySet = new EntrySet();
+		
+		return entrySet;
+	}
+	
+	@Override
+	public long estimateOverhead()
+	{
+		//a bitmap node is a header, the bitmap and a child array, a leaf holds five references and the hash
+		return DynVarFootprint.shallowSize(getClass())
+				+ trie.nodes() * (long) DynVarFootprint.arraySize(4, DynVarFootprint.isCompressedOops() ? 4 : 8)
+				+ trie.size() * DynVarFootprint.shallowSize(DynVarTrie.Leaf.class);
+	}
+	
+	private static DynVarTrie.Leaf leaf(String key, DynVarField field, DynVarPersistentStorage owner)
+	{
+		return new DynVarTrie.Leaf(key, DynVarTrie.hash(key), field, field == null ? null : DynVarUnsafe.getValue(field), owner);
+	}
+	
+	/**
+	 * Copy a variable owned by the storage this one was forked from into a field of its own.
+	 */
+	private DynVarField materialize(DynVarTrie.Leaf leaf)
+	{
+		DynVarField field = copy(leaf);
+		trie = trie.with(new DynVarTrie.Leaf(leaf.key, leaf.hash, field, leaf.value, this));
+		
+		if(map != null)
+			DynVarUnsafe.attach(map, leaf.key, field);
+		
+		return field;
+	}
+	
+	/**
+	 * Returns the field of a leaf that is being replaced or removed, fields that belong to another storage
+	 * are copied so listeners and ownership of the other map are never touched.
+	 */
+	private DynVarField detached(DynVarTrie.Leaf leaf)
+	{
+		return leaf.owner == this ? leaf.field : copy(leaf);
+	}
+	
+	static DynVarField copy(DynVarTrie.Leaf leaf)
+	{
+		if(leaf.field == null)
+			return null;
+		
+		try
+		{
+			DynVarField field = (DynVarField) CONSTRUCTORS.get(leaf.field.getClass()).newInstance();
+			field.set(leaf.value);
+			return field;
+		}
+		catch (ReflectiveOperationException e)
+		{
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	private class EntrySet extends AbstractSet<Entry<String, DynVarField>>
+	{
+		@Override
+		public Iterator<Entry<String, DynVarField>> iterator()
+		{
+			Iterator<DynVarTrie.Leaf> leaves = trie.iterator();
+			
+			return new Iterator<Entry<String, DynVarField>>()
+			{
+				private String current;
+				
+				@Override
+				public boolean hasNext()
+				{
+					return leaves.hasNext();
+				}
+				
+				@Override
+				public Entry<String, DynVarField> next()
+				{
+					DynVarTrie.Leaf leaf = leaves.next();
+					current = leaf.key;
+					return new SimpleImmutableEntry<>(leaf.key, leaf.owner == DynVarPersistentStorage.this ? leaf.field : materialize(leaf));
+				}
+				
+				@Override
+				public void remove()
+				{
+					if(current == null)
+						throw new IllegalStateException();
+					
+					DynVarPersistentStorage.this.remove(current);
+					current = null;
+				}
+			};
+		}
+		
+		@Override
+		public int size()
+		{
+			return trie.size();
+		}
+	}
+}
@@ -0,0 +1,686 @@
+package com.konloch.dynvarmap.storage;
+
+import com.konloch.dynvarmap.DynVarField;
+import com.konloch.dynvarmap.DynVarFootprint;
+import com.konloch.dynvarmap.DynVarStorage;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * A DynVarMap storage that keeps the variable names in a radix tree, so hierarchical keys such as
+ * player.123.hp share their common prefixes.
+ *
+ * Edge labels are ranges of an existing key rather than copies, lookups cost O(key length) and every
+ * node tracks the size of its subtree, so prefix queries and prefix removal cost O(prefix length)
+ * plus the size of the matching subtree. Variables are iterated in lexicographic order.
+ * Like the default storage it is not thread-safe.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+public class DynVarRadixStorage extends AbstractMap<String, DynVarField> implements DynVarStorage
+{
+	private static final Node[] NO_CHILDREN = new Node[0];
+	
+	private Node root = new Node("", 0, 0);
+	private DynVarField previous;
+	private int modCount;
+	private EntrySet entrySet;
+	
+	@Override
+	public DynVarField get(Object key)
+	{
+		Node node = key instanceof String ? find((String) key) : null;
+		return node == null ? null : node.field;
+	}
+	
+	@Override
+	public boolean containsKey(Object key)
+	{
+		return key instanceof String && find((String) key) != null;
+	}
+	
+	@Override
+	public DynVarField put(String key, DynVarField field)
+	{
+		previous = null;
+		
+		if(insert(root, key, 0, field))
+			modCount++;
+		
+		DynVarField replaced = previous;
+		previous = null;
+		return replaced;
+	}
+	
+	@Override
+	public DynVarField remove(Object key)
+	{
+		if(!(key instanceof String))
+			return null;
+		
+		previous = null;
+		
+		if(!remove(root, (String) key, 0))
+			return null;
+		
+		modCount++;
+		DynVarField removed = previous;
+		previous = null;
+		return removed;
+	}
+	
+	@Override
+	public int size()
+	{
+		return root.count;
+	}
+	
+	@Override
+	public void clear()
+	{
+		root = new Node("", 0, 0);
+		modCount++;
+	}
+	
+	@Override
+	public Set<Entry<String, DynVarField>> entrySet()
+	{
+		if(entrySet == null)
+			entrySet = new EntrySet();
+		
+		return entrySet;
+	}
+	
+	/**
+	 * Returns every key that starts with the supplied prefix, in lexicographic order.
+	 *
+	 * @param prefix any String such as player.123.
+	 * @return the matching keys
+	 */
+	public List<String> keysWithPrefix(String prefix)
+	{
+		List<String> keys = new ArrayList<>(countWithPrefix(prefix));
+		forEachWithPrefix(prefix, (key, field) -> keys.add(key));
+		return keys;
+	}
+	
+	/**
+	 * Pass every variable whose key starts with the supplied prefix to the action, in lexicographic order.
+	 *
+	 * @param prefix any String such as player.123.
+	 * @param action any BiConsumer to process
+	 */
+	public void forEachWithPrefix(String prefix, BiConsumer<String, DynVarField> action)
+	{
+		Node node = findPrefix(prefix);
+		if(node != null)
+			visit(node, action);
+	}
+	
+	/**
+	 * Returns how many keys start with the supplied prefix, in O(prefix length).
+	 *
+	 * @param prefix any String such as player.123.
+	 * @return the amount of matching keys
+	 */
+	public int countWithPrefix(String prefix)
+	{
+		Node node = findPrefix(prefix);
+		return node == null ? 0 : node.count;
+	}
+	
+	/**
+	 * Remove every variable whose key starts with the supplied prefix. The matching subtree is unlinked
+	 * in a single step and then each removed variable is passed to the action.
+	 *
+	 * @param prefix any String such as player.123.
+	 * @param action any BiConsumer to process the removed variables, or null
+	 * @return how many variables were removed
+	 */
+	public int removePrefix(String prefix, BiConsumer<String, DynVarField> action)
+	{
+		Node removed;
+		
+		if(prefix.isEmpty())
+		{
+			removed = root;
+			root = new Node("", 0, 0);
+		}
+		else
+			removed = removeSubtree(root, prefix, 0);
+		
+		if(removed == null || removed.count == 0)
+			return 0;
+		
+		modCount++;
+		
+		if(action != null)
+			visit(removed, action);
+		
+		return removed.count;
+	}
+	
+	@Override
+	public long estimateOverhead()
+	{
+		long overhead = DynVarFootprint.shallowSize(getClass());
+		ArrayDeque<Node> stack = new ArrayDeque<>();
+		stack.push(root);
+		
+		while (!stack.isEmpty())
+		{
+			Node node = stack.pop();
+			overhead += DynVarFootprint.shallowSize(Node.class);
+			
+			if(node.children.length > 0)
+				overhead += DynVarFootprint.arraySize(node.children.length, DynVarFootprint.isCompressedOops() ? 4 : 8);
+			
+			for (Node child : node.children)
+				stack.push(child);
+		}
+		
+		return overhead;
+	}
+	
+	private Node find(String key)
+	{
+		Node node = root;
+		int depth = 0;
+		
+		while (depth < key.length())
+		{
+			int index = indexOf(node, key.charAt(depth));
+			if(index < 0)
+				return null;
+			
+			node = node.children[index];
+			if(!node.matches(key, depth))
+				return null;
+			
+			depth += node.length();
+		}
+		
+		return node.key == null ? null : node;
+	}
+	
+	private Node findPrefix(String prefix)
+	{
+		Node node = root;
+		int depth = 0;
+		
+		while (depth < prefix.length())
+		{
+			int index = indexOf(node, prefix.charAt(depth));
+			if(index < 0)
+				return null;
+			
+			node = node.children[index];
+			int common = node.common(prefix, depth);
+			
+			//the prefix ends inside this label, so the whole subtree matches
+			if(depth + common == prefix.length())
+				return node;
+			
+			if(common < node.length())
+				return null;
+			
+			depth += common;
+		}
+		
+		return node;
+	}
+	
+	private boolean insert(Node node, String key, int depth, DynVarField field)
+	{
+		if(depth == key.length())
+		{
+			boolean added = node.key == null;
+			previous = node.field;
+			node.key = key;
+			node.field = field;
+			
+			if(added)
+				node.count++;
+			
+			return added;
+		}
+		
+		int index = indexOf(node, key.charAt(depth));
+		if(index < 0)
+		{
+			Node leaf = new Node(key, depth, key.length());
+			leaf.key = key;
+			leaf.field = field;
+			leaf.count = 1;
+			
+			Node[] children = new Node[node.children.length + 1];
+			int insertion = -(index + 1);
+			System.arraycopy(node.children, 0, children, 0, insertion);
+			System.arraycopy(node.children, insertion, children, insertion + 1, node.children.length - insertion);
+			children[insertion] = leaf;
+			node.children = children;
+			node.count++;
+			return true;
+		}
+		
+		Node child = node.children[index];
+		int common = child.common(key, depth);
+		
+		//the key diverges inside the label, split the edge at the divergence
+		if(common < child.length())
+		{
+			Node split = new Node(child.source, child.start, child.start + common);
+			child.start += common;
+			split.children = new Node[]{child};
+			split.count = child.count;
+			node.children[index] = split;
+			child = split;
+		}
+		
+		boolean added = insert(child, key, depth + common, field);
+		
+		if(added)
+			node.count++;
+		
+		return added;
+	}
+	
+	private boolean remove(Node node, String key, int depth)
+	{
+		if(depth == key.length())
+		{
+			if(node.key == null)
+				return false;
+			
+			previous = node.field;
+			node.key = null;
+			node.field = null;
+			node.count--;
+			return true;
+		}
+		
+		int index = indexOf(node, key.charAt(depth));
+		if(index < 0)
+			return false;
+		
+		Node child = node.children[index];
+		if(!child.matches(key, depth) || !remove(child, key, depth + child.length()))
+			return false;
+		
+		node.count--;
+		compact(node, index);
+		return true;
+	}
+	
+	private Node removeSubtree(Node node, String prefix, int depth)
+	{
+		int index = indexOf(node, prefix.charAt(depth));
+		if(index < 0)
+			return null;
+		
+		Node child = node.children[index];
+		int common = child.common(prefix, depth);
+		Node removed;
+		
+		if(depth + common == prefix.length())
+		{
+			removed = child;
+			removeChild(node, index);
+		}
+		else if(common < child.length())
+			return null;
+		else
+		{
+			removed = removeSubtree(child, prefix, depth + common);
+			if(removed == null)
+				return null;
+			
+			compact(node, index);
+		}
+		
+		node.count -= removed.count;
+		return removed;
+	}
+	
+	/**
+	 * Drop a child that no longer holds any variables, or merge it with its only child.
+	 */
+	private void compact(Node parent, int index)
+	{
+		Node child = parent.children[index];
+		if(child.key != null)
+			return;
+		
+		if(child.children.length == 0)
+			removeChild(parent, index);
+		else if(child.children.length == 1)
+		{
+			//the grandchild source key passes through the child, so the merged label is still a single range
+			Node grandchild = child.children[0];
+			grandchild.start -= child.length();
+			parent.children[index] = grandchild;
+		}
+	}
+	
+	private static void removeChild(Node parent, int index)
+	{
+		Node[] children = parent.children;
+		if(children.length == 1)
+		{
+			parent.children = NO_CHILDREN;
+			return;
+		}
+		
+		Node[] copy = new Node[children.length - 1];
+		System.arraycopy(children, 0, copy, 0, index);
+		System.arraycopy(children, index + 1, copy, index, children.length - index - 1);
+		parent.children = copy;
+	}
+	
+	private static int indexOf(Node node, char c)
+	{
+		Node[] children = node.children;
+		int low = 0;
+		int high = children.length - 1;
+		
+		while (low <= high)
+		{
+			int middle = (low + high) >>> 1;
+			char first = children[middle].first();
+			
+			if(first < c)
+				low = middle + 1;
+			else if(first > c)
+				high = middle - 1;
+			else
+				return middle;
+		}
+		
+		return -(low + 1);
+	}
+	
+	private static void visit(Node node, BiConsumer<String, DynVarField> action)
+	{
+		if(node.key != null)
+			action.accept(node.key, node.field);
+		
+		for (Node child : node.children)
+			visit(child, action);
+	}
+	
+	private static class Node implements Map.Entry<String, DynVarField>
+	{
+		//the label is source[start, end), source being any key that passes through this node
+		private final String source;
+		private int start;
+		private final int end;
+		private String key;
+		private DynVarField field;
+		private Node[] children = NO_CHILDREN;
+		private int count;
+		
+		private Node(String source, int start, int end)
+		{
+			this.source = source;
+			this.start = start;
+			this.end = end;
+		}
+		
+		private int length()
+		{
+			return end - start;
+		}
+		
+		private char first()
+		{
+			return source.charAt(start);
+		}
+		
+		private boolean matches(String key, int depth)
+		{
+			return key.length() - depth >= length() && key.regionMatches(depth, source, start, length());
+		}
+		
+		private int common(String key, int depth)
+		{
+			int max = Math.min(length(), key.length() - depth);
+			int i = 0;
+			
+			while (i < max && source.charAt(start + i) == key.charAt(depth + i))
+				i++;
+			
+			return i;
+		}
+		
+		@Override
+		public String getKey()
+		{
+			return key;
+		}
+		
+		@Override
+		public DynVarField getValue()
+		{
+			return field;
+		}
+		
+		@Override
+		public DynVarField setValue(DynVarField value)
+		{
+			DynVarField previous = field;
+			field = value;
+			return previous;
+		}
+		
+		@Override
+		public String toString()
+		{
+			return key + "=" + field;
+		}
+	}
+	
+	private class EntrySet extends AbstractSet<Entry<String, DynVarField>>
+	{
+		@Override
+		public Iterator<Entry<String, DynVarField>> iterator()
+		{
+			return new EntryIterator();
+		}
+		
+		@Override
+		public int size()
+		{
+			return root.count;
+		}
+		
+		@Override
+		public Spliterator<Entry<String, DynVarField>> spliterator()
+		{
+			ArrayDeque<Node> frontier = new ArrayDeque<>();
+			frontier.push(root);
+			return new EntrySpliterator(null, frontier, root.count, modCount);
+		}
+	}
+	
+	/**
+	 * Splits by handing the first half of the pending subtrees to the new spliterator, the subtree sizes are
+	 * tracked by the nodes so splits are exact and nothing is copied.
+	 */
+	private class EntrySpliterator implements Spliterator<Entry<String, DynVarField>>
+	{
+		private final ArrayDeque<Node> frontier;
+		private final int expectedModCount;
+		private Node self;
+		private long remaining;
+		
+		private EntrySpliterator(Node self, ArrayDeque<Node> frontier, long remaining, int expectedModCount)
+		{
+			this.self = self;
+			this.frontier = frontier;
+			this.remaining = remaining;
+			this.expectedModCount = expectedModCount;
+		}
+		
+		@Override
+		public boolean tryAdvance(Consumer<? super Entry<String, DynVarField>> action)
+		{
+			if(modCount != expectedModCount)
+				throw new ConcurrentModificationException();
+			
+			if(self != null)
+			{
+				Node node = self;
+				self = null;
+				remaining--;
+				action.accept(node);
+				return true;
+			}
+			
+			while (!frontier.isEmpty())
+			{
+				Node node = frontier.pollFirst();
+				
+				for (int i = node.children.length - 1; i >= 0; i--)
+					frontier.addFirst(node.children[i]);
+				
+				if(node.key != null)
+				{
+					remaining--;
+					action.accept(node);
+					return true;
+				}
+			}
+			
+			return false;
+		}
+		
+		@Override
+		public Spliterator<Entry<String, DynVarField>> trySplit()
+		{
+			if(modCount != expectedModCount)
+				throw new ConcurrentModificationException();
+			
+			//a single pending subtree is opened up, its own variable is kept aside to preserve the order
+			while (frontier.size() == 1 && self == null && frontier.peekFirst().children.length > 0)
+			{
+				Node node = frontier.pollFirst();
+				
+				for (int i = node.children.length - 1; i >= 0; i--)
+					frontier.addFirst(node.children[i]);
+				
+				if(node.key != null)
+					self = node;
+			}
+			
+			long half = remaining / 2;
+			long moved = self != null ? 1 : 0;
+			ArrayDeque<Node> prefix = new ArrayDeque<>();
+			
+			while (frontier.size() > 1 && moved < half)
+			{
+				Node node = frontier.pollFirst();
+				prefix.addLast(node);
+				moved += node.count;
+			}
+			
+			if(moved == 0)
+				return null;
+			
+			Node splitSelf = self;
+			self = null;
+			remaining -= moved;
+			return new EntrySpliterator(splitSelf, prefix, moved, expectedModCount);
+		}
+		
+		@Override
+		public long estimateSize()
+		{
+			return remaining;
+		}
+		
+		@Override
+		public int characteristics()
+		{
+			return ORDERED | DISTINCT | SIZED | SUBSIZED | NONNULL;
+		}
+	}
+	
+	private class EntryIterator implements Iterator<Entry<String, DynVarField>>
+	{
+		private final ArrayDeque<Node> stack = new ArrayDeque<>();
+		private Node next;
+		private Node current;
+		private int expectedModCount = modCount;
+		
+		private EntryIterator()
+		{
+			stack.push(root);
+			advance();
+		}
+		
+		private void advance()
+		{
+			next = null;
+			
+			while (next == null && !stack.isEmpty())
+			{
+				Node node = stack.pop();
+				
+				//push in reverse so the smallest label is visited first
+				for (int i = node.children.length - 1; i >= 0; i--)
+					stack.push(node.children[i]);
+				
+				if(node.key != null)
+					next = node;
+			}
+		}
+		
+		@Override
+		public boolean hasNext()
+		{
+			return next != null;
+		}
+		
+		@Override
+		public Entry<String, DynVarField> next()
+		{
+			if(modCount != expectedModCount)
+				throw new ConcurrentModificationException();
+			
+			if(next == null)
+				throw new NoSuchElementException();
+			
+			current = next;
+			advance();
+			return current;
+		}
+		
+		@Override
+		public void remove()
+		{
+			if(current == null)
+				throw new IllegalStateException();
+			
+			if(modCount != expectedModCount)
+				throw new ConcurrentModificationException();
+			
+			//removal only merges or drops nodes that were already visited, the pending nodes stay intact
+			DynVarRadixStorage.this.remove(current.key);
+			expectedModCount = modCount;
+			current = null;
+		}
+	}
+}
@@ -0,0 +1,120 @@
+package com.konloch.dynvarmap.storage;
+
+import com.konloch.dynvarmap.DynVarChange;
+import com.konloch.dynvarmap.vars.DynVarBoolean;
+
+/**
+ * A DynVarBoolean whose value lives in a DynVarSharedStorage file, so every process mapping the file sees the same
+ * value. Reads and writes go straight to the file and flips are applied atomically.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+public class DynVarSharedBoolean extends DynVarBoolean implements DynVarSharedField
+{
+	private final DynVarSharedSlot slot;
+	
+	DynVarSharedBoolean(DynVarSharedSlot slot)
+	{
+		this.slot = slot;
+		this.value = slot.get() != 0;
+	}
+	
+	/**
+	 * Get the variable value as an Object
+	 *
+	 * @return the variable value as an Object.
+	 */
+	@Override
+	public Boolean get()
+	{
+		value = slot.get() != 0;
+		return super.get();
+	}
+	
+	/**
+	 * Set the value supplied.
+	 *
+	 * @param value any Boolean as the variable value
+	 * @return this instance for method chaining
+	 */
+	@Override
+	public DynVarSharedBoolean set(Object value)
+	{
+		boolean next = DynVarSharedSlot.bool(value);
+		this.value = slot.getAndSet(next ? 1 : 0) != 0;
+		super.set(next);
+		return this;
+	}
+	
+	/**
+	 * Set the value if the current value is the expected value, atomically across every process.
+	 *
+	 * @param expected the expected current value
+	 * @param value the new value
+	 * @return true if the value was set
+	 */
+	public boolean compareAndSet(boolean expected, boolean value)
+	{
+		if(!slot.compareAndSet(expected ? 1 : 0, value ? 1 : 0))
+			return false;
+		
+		this.value = value;
+		changed(DynVarChange.Type.SET, expected);
+		return true;
+	}
+	
+	/**
+	 * Atomically flip the variable value. Do a flip!
+	 *
+	 * @return the variable before the flip.
+	 */
+	@Override
+	public boolean getThenFlip()
+	{
+		for (;;)
+		{
+			boolean old = slot.get() != 0;
+			
+			if(compareAndSet(old, !old))
+				return old;
+		}
+	}
+	
+	/**
+	 * Atomically flip the variable value then return it. Do a flip!
+	 *
+	 * @return the flipped value
+	 */
+	@Override
+	public boolean flipThenGet()
+	{
+		return !getThenFlip();
+	}
+	
+	@Override
+	public String toString()
+	{
+		return String.valueOf(get());
+	}
+	
+	@Override
+	public DynVarSharedSlot slot()
+	{
+		return slot;
+	}
+	
+	@Override
+	protected Object read()
+	{
+		return value = slot.get() != 0;
+	}
+	
+	@Override
+	protected void publish(Object value)
+	{
+		boolean next = DynVarSharedSlot.bool(value);
+		slot.set(next ? 1 : 0);
+		this.value = next;
+	}
+}
@@ -0,0 +1,17 @@
+package com.konloch.dynvarmap.storage;
+
+/**
+ * A field whose value lives in a DynVarSharedStorage file instead of the heap.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+interface DynVarSharedField
+{
+	/**
+	 * Returns the value slot of the field.
+	 *
+	 * @return the DynVarSharedSlot
+	 */
+	DynVarSharedSlot slot();
+}
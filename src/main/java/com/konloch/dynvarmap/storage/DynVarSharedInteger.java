@@ -0,0 +1,201 @@
+package com.konloch.dynvarmap.storage;
+
+import com.konloch.dynvarmap.DynVarChange;
+import com.konloch.dynvarmap.DynVarField;
+import com.konloch.dynvarmap.vars.DynVarInteger;
+
+import java.util.function.LongUnaryOperator;
+
+/**
+ * A DynVarInteger whose value lives in a DynVarSharedStorage file, so every process mapping the file sees the same
+ * value. Reads and writes go straight to the file and arithmetic is applied atomically.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+public class DynVarSharedInteger extends DynVarInteger implements DynVarSharedField
+{
+	private final DynVarSharedSlot slot;
+	
+	DynVarSharedInteger(DynVarSharedSlot slot)
+	{
+		this.slot = slot;
+		this.value = decode(slot.get());
+	}
+	
+	/**
+	 * Get the variable value as an Object
+	 *
+	 * @return the variable value as an Object.
+	 */
+	@Override
+	public Integer get()
+	{
+		value = decode(slot.get());
+		return super.get();
+	}
+	
+	/**
+	 * Set the value supplied.
+	 *
+	 * @param value any Number as the variable value
+	 * @return this instance for method chaining
+	 */
+	@Override
+	public DynVarSharedInteger set(Object value)
+	{
+		int next = DynVarSharedSlot.number(value).intValue();
+		this.value = decode(slot.getAndSet(encode(next)));
+		super.set(next);
+		return this;
+	}
+	
+	/**
+	 * Set the value if the current value is the expected value, atomically across every process.
+	 *
+	 * @param expected the expected current value
+	 * @param value the new value
+	 * @return true if the value was set
+	 */
+	public boolean compareAndSet(int expected, int value)
+	{
+		if(!slot.compareAndSet(encode(expected), encode(value)))
+			return false;
+		
+		published(encode(expected), encode(value));
+		return true;
+	}
+	
+	/**
+	 * Preforms an atomic addition.
+	 *
+	 * @param value the value to add with
+	 * @return this instance for method chaining
+	 */
+	@Override
+	public DynVarSharedInteger add(Object value)
+	{
+		//whole number counters wrap around the same way int addition does
+		if(value instanceof Integer || value instanceof Short || value instanceof Byte)
+		{
+			int delta = ((Number) value).intValue();
+			return arithmetic(old -> (long) ((int) old + delta));
+		}
+		
+		return arithmetic(old -> encode(new DynVarField(decode(old)).add(value).get()));
+	}
+	
+	/**
+	 * Preforms an atomic subtraction.
+	 *
+	 * @param value the value to subtract with
+	 * @return this instance for method chaining
+	 */
+	@Override
+	public DynVarSharedInteger subtract(Object value)
+	{
+		return arithmetic(old -> encode(new DynVarField(decode(old)).subtract(value).get()));
+	}
+	
+	/**
+	 * Preforms an atomic multiplication.
+	 *
+	 * @param value the value to multiply against
+	 * @return this instance for method chaining
+	 */
+	@Override
+	public DynVarSharedInteger multiply(Object value)
+	{
+		return arithmetic(old -> encode(new DynVarField(decode(old)).multiply(value).get()));
+	}
+	
+	/**
+	 * Preforms an atomic division.
+	 *
+	 * @param value the value to divide against
+	 * @return this instance for method chaining
+	 */
+	@Override
+	public DynVarSharedInteger divide(Object value)
+	{
+		return arithmetic(old -> encode(new DynVarField(decode(old)).divide(value).get()));
+	}
+	
+	/**
+	 * Preforms an atomic bitwise xor.
+	 *
+	 * @param value the value to xor with
+	 * @return this instance for method chaining
+	 */
+	@Override
+	public DynVarSharedInteger bitwiseXor(Object value)
+	{
+		int mask = ((Number) value).intValue();
+		return arithmetic(old -> (long) ((int) old ^ mask));
+	}
+	
+	@Override
+	public String toString()
+	{
+		return String.valueOf(get());
+	}
+	
+	@Override
+	public DynVarSharedSlot slot()
+	{
+		return slot;
+	}
+	
+	@Override
+	protected Object read()
+	{
+		return value = decode(slot.get());
+	}
+	
+	@Override
+	protected void publish(Object value)
+	{
+		long bits = encode(value);
+		slot.set(bits);
+		this.value = decode(bits);
+	}
+	
+	private DynVarSharedInteger arithmetic(LongUnaryOperator operator)
+	{
+		for (;;)
+		{
+			long old = slot.get();
+			long next = operator.applyAsLong(old);
+			
+			if(slot.compareAndSet(old, next))
+			{
+				published(old, next);
+				return this;
+			}
+		}
+	}
+	
+	/**
+	 * Update the cached value and notify listeners of a change that was already written to the slot.
+	 */
+	private void published(long old, long next)
+	{
+		value = decode(next);
+		changed(DynVarChange.Type.ARITHMETIC, decode(old));
+	}
+	
+	private static long encode(Object value)
+	{
+		return encode(DynVarSharedSlot.number(value).intValue());
+	}
+	
+	private static long encode(int value)
+	{
+		return value;
+	}
+	
+	private static int decode(long bits)
+	{
+		return (int) bits;
+	}
+}
@@ -0,0 +1,230 @@
+package com.konloch.dynvarmap.storage;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
+/**
+ * Atomic access to a direct or memory-mapped buffer, shared with every process that maps the same file.
+ *
+ * This is the Java 8 implementation, Java 8 has no public atomic operations on buffers so it uses sun.misc.Unsafe
+ * on the address of the buffer. On Java 11+ the multi-release variant of this class is loaded instead, which uses
+ * VarHandles. Offsets of ints and longs have to be aligned to their size.
+ *
+ * Unsafe is looked up reflectively, so the build has no proprietary API warnings, and its methods are called
+ * through constant method handles bound to the instance, which the JIT inlines like direct calls.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+final class DynVarSharedMemory
+{
+	private static final MethodHandle GET_LONG;
+	private static final MethodHandle GET_INT_VOLATILE;
+	private static final MethodHandle PUT_INT_VOLATILE;
+	private static final MethodHandle COMPARE_AND_SWAP_INT;
+	private static final MethodHandle GET_LONG_VOLATILE;
+	private static final MethodHandle PUT_LONG_VOLATILE;
+	private static final MethodHandle COMPARE_AND_SWAP_LONG;
+	private static final MethodHandle GET_AND_ADD_LONG;
+	private static final MethodHandle GET_AND_SET_LONG;
+	private static final MethodHandle GET_BYTE;
+	private static final MethodHandle PUT_BYTE;
+	private static final long ADDRESS;
+	
+	static
+	{
+		try
+		{
+			Class<?> type = Class.forName("sun.misc.Unsafe");
+			Field field = type.getDeclaredField("theUnsafe");
+			field.setAccessible(true);
+			Object unsafe = field.get(null);
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			
+			GET_LONG = lookup.findVirtual(type, "getLong", MethodType.methodType(long.class, Object.class, long.class)).bindTo(unsafe);
+			GET_INT_VOLATILE = lookup.findVirtual(type, "getIntVolatile", MethodType.methodType(int.class, Object.class, long.class)).bindTo(unsafe);
+			PUT_INT_VOLATILE = lookup.findVirtual(type, "putIntVolatile", MethodType.methodType(void.class, Object.class, long.class, int.class)).bindTo(unsafe);
+			COMPARE_AND_SWAP_INT = lookup.findVirtual(type, "compareAndSwapInt", MethodType.methodType(boolean.class, Object.class, long.class, int.class, int.class)).bindTo(unsafe);
+			GET_LONG_VOLATILE = lookup.findVirtual(type, "getLongVolatile", MethodType.methodType(long.class, Object.class, long.class)).bindTo(unsafe);
+			PUT_LONG_VOLATILE = lookup.findVirtual(type, "putLongVolatile", MethodType.methodType(void.class, Object.class, long.class, long.class)).bindTo(unsafe);
+			COMPARE_AND_SWAP_LONG = lookup.findVirtual(type, "compareAndSwapLong", MethodType.methodType(boolean.class, Object.class, long.class, long.class, long.class)).bindTo(unsafe);
+			GET_AND_ADD_LONG = lookup.findVirtual(type, "getAndAddLong", MethodType.methodType(long.class, Object.class, long.class, long.class)).bindTo(unsafe);
+			GET_AND_SET_LONG = lookup.findVirtual(type, "getAndSetLong", MethodType.methodType(long.class, Object.class, long.class, long.class)).bindTo(unsafe);
+			GET_BYTE = lookup.findVirtual(type, "getByte", MethodType.methodType(byte.class, long.class)).bindTo(unsafe);
+			PUT_BYTE = lookup.findVirtual(type, "putByte", MethodType.methodType(void.class, long.class, byte.class)).bindTo(unsafe);
+			
+			ADDRESS = (long) type.getMethod("objectFieldOffset", Field.class).invoke(unsafe, Buffer.class.getDeclaredField("address"));
+		}
+		catch (ReflectiveOperationException e)
+		{
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+	
+	//kept so the mapping is not released while it is in use
+	private final ByteBuffer buffer;
+	private final long base;
+	
+	DynVarSharedMemory(ByteBuffer buffer)
+	{
+		if(!buffer.isDirect())
+			throw new IllegalArgumentException("Shared memory needs a direct or mapped buffer");
+		
+		this.buffer = buffer;
+		
+		try
+		{
+			this.base = (long) GET_LONG.invokeExact((Object) buffer, ADDRESS);
+		}
+		catch (Throwable e)
+		{
+			throw rethrow(e);
+		}
+	}
+	
+	int getIntVolatile(int offset)
+	{
+		try
+		{
+			return (int) GET_INT_VOLATILE.invokeExact((Object) null, base + offset);
+		}
+		catch (Throwable e)
+		{
+			throw rethrow(e);
+		}
+	}
+	
+	void putIntVolatile(int offset, int value)
+	{
+		try
+		{
+			PUT_INT_VOLATILE.invokeExact((Object) null, base + offset, value);
+		}
+		catch (Throwable e)
+		{
+			throw rethrow(e);
+		}
+	}
+	
+	boolean compareAndSetInt(int offset, int expected, int value)
+	{
+		try
+		{
+			return (boolean) COMPARE_AND_SWAP_INT.invokeExact((Object) null, base + offset, expected, value);
+		}
+		catch (Throwable e)
+		{
+			throw rethrow(e);
+		}
+	}
+	
+	long getLongVolatile(int offset)
+	{
+		try
+		{
+			return (long) GET_LONG_VOLATILE.invokeExact((Object) null, base + offset);
+		}
+		catch (Throwable e)
+		{
+			throw rethrow(e);
+		}
+	}
+	
+	void putLongVolatile(int offset, long value)
+	{
+		try
+		{
+			PUT_LONG_VOLATILE.invokeExact((Object) null, base + offset, value);
+		}
+		catch (Throwable e)
+		{
+			throw rethrow(e);
+		}
+	}
+	
+	boolean compareAndSetLong(int offset, long expected, long value)
+	{
+		try
+		{
+			return (boolean) COMPARE_AND_SWAP_LONG.invokeExact((Object) null, base + offset, expected, value);
+		}
+		catch (Throwable e)
+		{
+			throw rethrow(e);
+		}
+	}
+	
+	long getAndAddLong(int offset, long delta)
+	{
+		try
+		{
+			return (long) GET_AND_ADD_LONG.invokeExact((Object) null, base + offset, delta);
+		}
+		catch (Throwable e)
+		{
+			throw rethrow(e);
+		}
+	}
+	
+	long getAndSetLong(int offset, long value)
+	{
+		try
+		{
+			return (long) GET_AND_SET_LONG.invokeExact((Object) null, base + offset, value);
+		}
+		catch (Throwable e)
+		{
+			throw rethrow(e);
+		}
+	}
+	
+	byte getByte(int offset)
+	{
+		try
+		{
+			return (byte) GET_BYTE.invokeExact(base + offset);
+		}
+		catch (Throwable e)
+		{
+			throw rethrow(e);
+		}
+	}
+	
+	void putByte(int offset, byte value)
+	{
+		try
+		{
+			PUT_BYTE.invokeExact(base + offset, value);
+		}
+		catch (Throwable e)
+		{
+			throw rethrow(e);
+		}
+	}
+	
+	/**
+	 * Called while waiting for another process to finish writing a slot.
+	 */
+	static void onSpinWait()
+	{
+		Thread.yield();
+	}
+	
+	/**
+	 * The Unsafe methods throw no checked exceptions, anything else is rethrown as it is.
+	 */
+	private static RuntimeException rethrow(Throwable e)
+	{
+		if(e instanceof RuntimeException)
+			return (RuntimeException) e;
+		
+		if(e instanceof Error)
+			throw (Error) e;
+		
+		return new IllegalStateException(e);
+	}
+}
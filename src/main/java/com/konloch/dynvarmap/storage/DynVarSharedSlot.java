@@ -0,0 +1,90 @@
+package com.konloch.dynvarmap.storage;
+
+/**
+ * The 64-bit value slot of a variable in a DynVarSharedStorage file.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+final class DynVarSharedSlot
+{
+	private final DynVarSharedMemory memory;
+	private final int offset;
+	private final int type;
+	
+	DynVarSharedSlot(DynVarSharedMemory memory, int offset, int type)
+	{
+		this.memory = memory;
+		this.offset = offset;
+		this.type = type;
+	}
+	
+	long get()
+	{
+		return memory.getLongVolatile(offset + DynVarSharedStorage.VALUE);
+	}
+	
+	void set(long bits)
+	{
+		memory.putLongVolatile(offset + DynVarSharedStorage.VALUE, bits);
+	}
+	
+	long getAndSet(long bits)
+	{
+		return memory.getAndSetLong(offset + DynVarSharedStorage.VALUE, bits);
+	}
+	
+	long getAndAdd(long delta)
+	{
+		return memory.getAndAddLong(offset + DynVarSharedStorage.VALUE, delta);
+	}
+	
+	boolean compareAndSet(long expected, long bits)
+	{
+		return memory.compareAndSetLong(offset + DynVarSharedStorage.VALUE, expected, bits);
+	}
+	
+	/**
+	 * Returns true while the variable exists with the type this slot was read as, another process may have
+	 * removed or retyped it since.
+	 *
+	 * @return true if the slot holds a live variable of the same type
+	 */
+	boolean isLive()
+	{
+		return memory.getIntVolatile(offset + DynVarSharedStorage.STATE) == DynVarSharedStorage.READY
+				&& memory.getIntVolatile(offset + DynVarSharedStorage.TYPE) == type;
+	}
+	
+	DynVarSharedMemory getMemory()
+	{
+		return memory;
+	}
+	
+	/**
+	 * Returns the value as a Number, the file only holds the bits of a value so null or another type is rejected.
+	 */
+	static Number number(Object value)
+	{
+		if(!(value instanceof Number))
+			throw new IllegalArgumentException("Shared numeric variables hold a Number, got " + describe(value));
+		
+		return (Number) value;
+	}
+	
+	/**
+	 * Returns the value as a boolean, rejecting null or another type.
+	 */
+	static boolean bool(Object value)
+	{
+		if(!(value instanceof Boolean))
+			throw new IllegalArgumentException("Shared boolean variables hold a Boolean, got " + describe(value));
+		
+		return (Boolean) value;
+	}
+	
+	private static String describe(Object value)
+	{
+		return value == null ? "null" : value.getClass().getSimpleName();
+	}
+}
@@ -0,0 +1,684 @@
+package com.konloch.dynvarmap.storage;
+
+import com.konloch.dynvarmap.DynVarField;
+import com.konloch.dynvarmap.DynVarFootprint;
+import com.konloch.dynvarmap.DynVarMap;
+import com.konloch.dynvarmap.DynVarStorage;
+import com.konloch.dynvarmap.DynVarUnsafe;
+import com.konloch.dynvarmap.vars.DynVarBoolean;
+import com.konloch.dynvarmap.vars.DynVarDouble;
+import com.konloch.dynvarmap.vars.DynVarInteger;
+import com.konloch.dynvarmap.vars.DynVarLong;
+import com.konloch.dynvarmap.vars.DynVarTime;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A storage that keeps every variable value in a memory-mapped file, so DynVarMaps in different JVMs that map
+ * the same file share the same variables, for example counters and flags read by a sidecar or an ops tool.
+ *
+ * The file is a fixed size open addressed hash table of 64 byte slots after a 64 byte header. Each slot holds a
+ * state, the key hash, a 64-bit value, the type and up to 40 bytes of UTF-8 key. Slots are claimed with a
+ * compare-and-set, so any amount of processes can insert, read and write without locks, and values are changed
+ * with atomic operations on the file itself: two processes adding to the same counter never lose an update.
+ *
+ * Only boolean, int, long, double and time variables can be shared. Removed keys keep their slot until they are
+ * stored again, so the capacity limits the amount of distinct keys ever stored. Transactions, the type index and
+ * other bookkeeping of the DynVarMap only see the changes made through that map, and variables created by another
+ * process appear when they are first looked up.
+ *
+ * A process that dies while writing a slot leaves it busy, lookups of that slot wait for the busy timeout and then
+ * throw an IllegalStateException instead of hanging, see setBusyTimeout.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+public class DynVarSharedStorage extends AbstractMap<String, DynVarField> implements DynVarStorage, Closeable
+{
+	//header layout
+	private static final int MAGIC = 0x44564D53;
+	private static final int LAYOUT_VERSION = 1;
+	private static final int HEADER_MAGIC = 0;
+	private static final int HEADER_VERSION = 4;
+	private static final int HEADER_CAPACITY = 8;
+	private static final int HEADER_SLOT_SIZE = 12;
+	private static final int HEADER_KEY_CAPACITY = 16;
+	private static final int HEADER_SIZE = 20;
+	private static final int HEADER = 64;
+	
+	//slot layout
+	static final int STATE = 0;
+	static final int HASH = 4;
+	static final int VALUE = 8;
+	static final int TYPE = 16;
+	static final int KEY_LENGTH = 20;
+	static final int KEY = 24;
+	private static final int SLOT = 64;
+	
+	/**
+	 * The maximum length of a key in UTF-8 bytes.
+	 */
+	public static final int KEY_CAPACITY = SLOT - KEY;
+	
+	//slot states
+	static final int EMPTY = 0;
+	static final int BUSY = 1;
+	static final int READY = 2;
+	static final int REMOVED = 3;
+	
+	//types
+	private static final int BOOLEAN = 1;
+	private static final int INTEGER = 2;
+	private static final int LONG = 3;
+	private static final int DOUBLE = 4;
+	private static final int TIME = 5;
+	
+	private final File file;
+	private final int capacity;
+	private final DynVarSharedMemory memory;
+	private final Map<String, DynVarField> cache = new ConcurrentHashMap<>();
+	private volatile DynVarMap map;
+	private volatile long busyTimeout = TimeUnit.SECONDS.toNanos(5);
+	
+	/**
+	 * Constructs a new DynVarSharedStorage with room for 4096 keys, or opens the existing file.
+	 *
+	 * @param file the file to map
+	 * @throws IOException if the file can't be created, mapped or isn't a shared storage file
+	 */
+	public DynVarSharedStorage(File file) throws IOException
+	{
+		this(file, 4096);
+	}
+	
+	/**
+	 * Constructs a new DynVarSharedStorage, an existing file keeps the capacity it was created with.
+	 *
+	 * @param file the file to map
+	 * @param capacity the maximum amount of keys of a new file, a power of two
+	 * @throws IOException if the file can't be created, mapped or isn't a shared storage file
+	 */
+	public DynVarSharedStorage(File file, int capacity) throws IOException
+	{
+		if(capacity <= 0 || Integer.bitCount(capacity) != 1 || HEADER + (long) capacity * SLOT > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Capacity must be a power of two below 32M, got " + capacity);
+		
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		     FileChannel channel = raf.getChannel();
+		     FileLock ignored = channel.lock())
+		{
+			//only one process creates the header, the others wait on the lock and read it
+			if(channel.size() == 0)
+			{
+				ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER + (long) capacity * SLOT);
+				DynVarSharedMemory memory = new DynVarSharedMemory(buffer);
+				memory.putIntVolatile(HEADER_VERSION, LAYOUT_VERSION);
+				memory.putIntVolatile(HEADER_CAPACITY, capacity);
+				memory.putIntVolatile(HEADER_SLOT_SIZE, SLOT);
+				memory.putIntVolatile(HEADER_KEY_CAPACITY, KEY_CAPACITY);
+				memory.putIntVolatile(HEADER_MAGIC, MAGIC);
+				this.memory = memory;
+			}
+			else
+			{
+				DynVarSharedMemory header = new DynVarSharedMemory(channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER));
+				
+				if(header.getIntVolatile(HEADER_MAGIC) != MAGIC)
+					throw new IOException(file + " is not a shared storage file");
+				
+				if(header.getIntVolatile(HEADER_VERSION) != LAYOUT_VERSION || header.getIntVolatile(HEADER_SLOT_SIZE) != SLOT)
+					throw new IOException(file + " uses an unsupported layout version " + header.getIntVolatile(HEADER_VERSION));
+				
+				capacity = header.getIntVolatile(HEADER_CAPACITY);
+				this.memory = new DynVarSharedMemory(channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER + (long) capacity * SLOT));
+			}
+		}
+		
+		this.file = file;
+		this.capacity = capacity;
+	}
+	
+	/**
+	 * Bind the storage to the map that uses it, called by the DynVarMap constructor.
+	 * Variables created by other processes are attached to the map when they are first looked up.
+	 *
+	 * @param map the DynVarMap using this storage
+	 */
+	@Override
+	public void bind(DynVarMap map)
+	{
+		if(this.map != null)
+			throw new IllegalStateException("The storage is already used by another DynVarMap");
+		
+		this.map = map;
+	}
+	
+	/**
+	 * Write the value of a new field to the file and return a shared field of the same vars type in its place.
+	 *
+	 * @param key any String as the variable name
+	 * @param field the DynVarField about to be stored
+	 * @return the shared DynVarField to store
+	 */
+	@Override
+	public DynVarField adopt(String key, DynVarField field)
+	{
+		if(field instanceof DynVarSharedField && ((DynVarSharedField) field).slot().getMemory() == memory)
+			return field;
+		
+		Object value = DynVarUnsafe.getValue(field);
+		int type = typeOf(field, value);
+		int offset = acquire(key);
+		
+		memory.putIntVolatile(offset + TYPE, type);
+		memory.putLongVolatile(offset + VALUE, encode(type, value));
+		memory.putIntVolatile(offset + STATE, READY);
+		
+		return newField(offset, type);
+	}
+	
+	@Override
+	public DynVarField get(Object key)
+	{
+		if(!(key instanceof String))
+			return null;
+		
+		DynVarField field = cache.get(key);
+		if(field != null)
+		{
+			if(((DynVarSharedField) field).slot().isLive())
+				return field;
+			
+			//removed or retyped by another process
+			cache.remove(key, field);
+		}
+		
+		return materialize((String) key);
+	}
+	
+	@Override
+	public boolean containsKey(Object key)
+	{
+		return get(key) != null;
+	}
+	
+	@Override
+	public DynVarField put(String key, DynVarField field)
+	{
+		//the previous field is the one this process handed out, variables another process created are new to this map
+		return cache.put(key, adopt(key, field));
+	}
+	
+	@Override
+	public DynVarField remove(Object key)
+	{
+		if(!(key instanceof String))
+			return null;
+		
+		DynVarField previous = get(key);
+		if(previous == null)
+			return null;
+		
+		cache.remove(key, previous);
+		int offset = find((String) key);
+		long deadline = 0;
+		
+		for (;;)
+		{
+			int state = memory.getIntVolatile(offset + STATE);
+			
+			if(state == BUSY)
+				deadline = await(offset, deadline);
+			else if(state != READY)
+				return null;
+			else if(memory.compareAndSetInt(offset + STATE, READY, REMOVED))
+			{
+				addSize(-1);
+				return previous;
+			}
+		}
+	}
+	
+	@Override
+	public int size()
+	{
+		return memory.getIntVolatile(HEADER_SIZE);
+	}
+	
+	@Override
+	public void clear()
+	{
+		for (int i = 0; i < capacity; i++)
+		{
+			int offset = HEADER + i * SLOT;
+			
+			if(memory.compareAndSetInt(offset + STATE, READY, REMOVED))
+				addSize(-1);
+		}
+		
+		cache.clear();
+	}
+	
+	@Override
+	public Set<Map.Entry<String, DynVarField>> entrySet()
+	{
+		return new AbstractSet<Map.Entry<String, DynVarField>>()
+		{
+			@Override
+			public Iterator<Map.Entry<String, DynVarField>> iterator()
+			{
+				return new SlotIterator();
+			}
+			
+			@Override
+			public int size()
+			{
+				return DynVarSharedStorage.this.size();
+			}
+		};
+	}
+	
+	/**
+	 * The file itself is off heap, only the cache of fields this process has looked up is counted.
+	 *
+	 * @return the estimated overhead in bytes
+	 */
+	@Override
+	public long estimateOverhead()
+	{
+		int reference = DynVarFootprint.isCompressedOops() ? 4 : 8;
+		
+		//a cache node is a header, the hash and three references
+		return DynVarFootprint.shallowSize(getClass())
+				+ DynVarFootprint.shallowSize(ConcurrentHashMap.class)
+				+ DynVarFootprint.arraySize(Integer.highestOneBit(Math.max(cache.size(), 8) * 2), reference)
+				+ cache.size() * DynVarFootprint.shallowSize(SimpleEntry.class);
+	}
+	
+	/**
+	 * Returns the maximum amount of keys the file can hold.
+	 *
+	 * @return the capacity
+	 */
+	public int getCapacity()
+	{
+		return capacity;
+	}
+	
+	/**
+	 * Set how long a lookup waits for a slot another process is writing, before it assumes the process died and
+	 * throws an IllegalStateException.
+	 *
+	 * @param timeout the busy timeout, 5 seconds by default
+	 * @param unit the TimeUnit of the timeout
+	 * @return this instance for method chaining
+	 */
+	public DynVarSharedStorage setBusyTimeout(long timeout, TimeUnit unit)
+	{
+		if(timeout <= 0)
+			throw new IllegalArgumentException("The busy timeout must be positive");
+		
+		busyTimeout = unit.toNanos(timeout);
+		return this;
+	}
+	
+	/**
+	 * Returns the mapped file.
+	 *
+	 * @return the File
+	 */
+	public File getFile()
+	{
+		return file;
+	}
+	
+	/**
+	 * Forget the fields looked up by this process, the mapping itself is released once the storage is
+	 * garbage collected and the file keeps every variable for the next process to open it.
+	 */
+	@Override
+	public void close()
+	{
+		cache.clear();
+	}
+	
+	/**
+	 * Look up a variable in the file and create a field for it.
+	 */
+	private DynVarField materialize(String key)
+	{
+		int offset = find(key);
+		if(offset < 0)
+			return null;
+		
+		int type = memory.getIntVolatile(offset + TYPE);
+		if(memory.getIntVolatile(offset + STATE) != READY)
+			return null;
+		
+		DynVarField field = newField(offset, type);
+		DynVarField existing = cache.putIfAbsent(key, field);
+		if(existing != null && ((DynVarSharedField) existing).slot().isLive())
+			return existing;
+		
+		cache.put(key, field);
+		
+		DynVarMap map = this.map;
+		if(map != null)
+			DynVarUnsafe.attach(map, key, field);
+		
+		return field;
+	}
+	
+	/**
+	 * Returns the offset of the slot holding the key, live or removed, or -1.
+	 */
+	private int find(String key)
+	{
+		byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+		int hash = hash(key);
+		int index = hash & (capacity - 1);
+		int probes = 0;
+		long deadline = 0;
+		
+		while (probes < capacity)
+		{
+			int offset = HEADER + index * SLOT;
+			int state = memory.getIntVolatile(offset + STATE);
+			
+			if(state == EMPTY)
+				return -1;
+			
+			if(matches(offset, hash, bytes))
+			{
+				//wait for another process to finish writing the variable
+				if(state != BUSY)
+					return offset;
+				
+				deadline = await(offset, deadline);
+				continue;
+			}
+			
+			//a slot that is being claimed has no key yet
+			if(state == BUSY && memory.getIntVolatile(offset + KEY_LENGTH) == 0)
+			{
+				deadline = await(offset, deadline);
+				continue;
+			}
+			
+			index = (index + 1) & (capacity - 1);
+			probes++;
+		}
+		
+		return -1;
+	}
+	
+	/**
+	 * Returns the offset of the slot for the key in the BUSY state, claiming a new slot if the key has none.
+	 * The caller writes the type and value and then releases the slot by setting it READY.
+	 */
+	private int acquire(String key)
+	{
+		byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+		
+		if(bytes.length == 0 || bytes.length > KEY_CAPACITY)
+			throw new IllegalArgumentException("Shared keys must be 1 to " + KEY_CAPACITY + " UTF-8 bytes, got " + key);
+		
+		int hash = hash(key);
+		int index = hash & (capacity - 1);
+		int probes = 0;
+		long deadline = 0;
+		
+		while (probes < capacity)
+		{
+			int offset = HEADER + index * SLOT;
+			int state = memory.getIntVolatile(offset + STATE);
+			
+			if(state == EMPTY)
+			{
+				if(!memory.compareAndSetInt(offset + STATE, EMPTY, BUSY))
+					continue;
+				
+				memory.putIntVolatile(offset + HASH, hash);
+				for (int i = 0; i < bytes.length; i++)
+					memory.putByte(offset + KEY + i, bytes[i]);
+				
+				memory.putIntVolatile(offset + KEY_LENGTH, bytes.length);
+				addSize(1);
+				return offset;
+			}
+			
+			if(state == BUSY)
+			{
+				//wait until the key is written or the slot is released
+				if(memory.getIntVolatile(offset + KEY_LENGTH) == 0 || matches(offset, hash, bytes))
+				{
+					deadline = await(offset, deadline);
+					continue;
+				}
+			}
+			else if(matches(offset, hash, bytes))
+			{
+				if(memory.compareAndSetInt(offset + STATE, state, BUSY))
+				{
+					if(state == REMOVED)
+						addSize(1);
+					
+					return offset;
+				}
+				
+				continue;
+			}
+			
+			index = (index + 1) & (capacity - 1);
+			probes++;
+		}
+		
+		throw new IllegalStateException("The shared storage " + file + " is full, it holds " + capacity + " keys");
+	}
+	
+	/**
+	 * Wait for another process to finish writing a slot, giving up once it stayed busy past the busy timeout.
+	 *
+	 * @return the deadline of the wait, started on the first call with a deadline of 0
+	 */
+	private long await(int offset, long deadline)
+	{
+		long now = System.nanoTime();
+		if(deadline == 0)
+			return now + busyTimeout;
+		
+		if(now - deadline > 0)
+			throw new IllegalStateException("Slot " + (offset - HEADER) / SLOT + " of " + file + " has been busy for over "
+					+ TimeUnit.NANOSECONDS.toMillis(busyTimeout) + "ms, a process may have died while writing it");
+		
+		DynVarSharedMemory.onSpinWait();
+		return deadline;
+	}
+	
+	private boolean matches(int offset, int hash, byte[] bytes)
+	{
+		if(memory.getIntVolatile(offset + HASH) != hash || memory.getIntVolatile(offset + KEY_LENGTH) != bytes.length)
+			return false;
+		
+		for (int i = 0; i < bytes.length; i++)
+			if(memory.getByte(offset + KEY + i) != bytes[i])
+				return false;
+		
+		return true;
+	}
+	
+	private String readKey(int offset)
+	{
+		byte[] bytes = new byte[memory.getIntVolatile(offset + KEY_LENGTH)];
+		
+		for (int i = 0; i < bytes.length; i++)
+			bytes[i] = memory.getByte(offset + KEY + i);
+		
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+	
+	private void addSize(int delta)
+	{
+		for (;;)
+		{
+			int size = memory.getIntVolatile(HEADER_SIZE);
+			
+			if(memory.compareAndSetInt(HEADER_SIZE, size, size + delta))
+				return;
+		}
+	}
+	
+	private DynVarField newField(int offset, int type)
+	{
+		DynVarSharedSlot slot = new DynVarSharedSlot(memory, offset, type);
+		
+		switch (type)
+		{
+			case BOOLEAN:
+				return new DynVarSharedBoolean(slot);
+			case INTEGER:
+				return new DynVarSharedInteger(slot);
+			case LONG:
+				return new DynVarSharedLong(slot);
+			case DOUBLE:
+				return new DynVarSharedDouble(slot);
+			case TIME:
+				return new DynVarSharedTime(slot);
+			default:
+				throw new IllegalStateException("Unknown shared type " + type + " in " + file);
+		}
+	}
+	
+	/**
+	 * String.hashCode is the same on every JVM, spread so the low bits used for the index depend on the whole key.
+	 */
+	private static int hash(String key)
+	{
+		int h = key.hashCode();
+		return h ^ (h >>> 16);
+	}
+	
+	private static int typeOf(DynVarField field, Object value)
+	{
+		if(field instanceof DynVarBoolean)
+			return BOOLEAN;
+		else if(field instanceof DynVarInteger)
+			return INTEGER;
+		else if(field instanceof DynVarTime)
+			return TIME;
+		else if(field instanceof DynVarLong)
+			return LONG;
+		else if(field instanceof DynVarDouble)
+			return DOUBLE;
+		
+		//untyped fields are shared by their value
+		if(field.getClass() == DynVarField.class)
+		{
+			if(value instanceof Boolean)
+				return BOOLEAN;
+			else if(value instanceof Integer)
+				return INTEGER;
+			else if(value instanceof Long)
+				return LONG;
+			else if(value instanceof Double)
+				return DOUBLE;
+		}
+		
+		throw new IllegalArgumentException("Shared storages only hold boolean, int, long, double and time variables, got "
+				+ field.getClass().getSimpleName() + (value == null ? "" : " of " + value.getClass().getSimpleName()));
+	}
+	
+	private static long encode(int type, Object value)
+	{
+		if(value == null)
+			return 0;
+		
+		switch (type)
+		{
+			case BOOLEAN:
+				return (Boolean) value ? 1 : 0;
+			case INTEGER:
+				return ((Number) value).intValue();
+			case DOUBLE:
+				return Double.doubleToRawLongBits(((Number) value).doubleValue());
+			default:
+				return ((Number) value).longValue();
+		}
+	}
+	
+	/**
+	 * Visits every live slot, fields are looked up through the cache so iteration hands out the same instances as get.
+	 */
+	private class SlotIterator implements Iterator<Map.Entry<String, DynVarField>>
+	{
+		private int index;
+		private Map.Entry<String, DynVarField> next;
+		private Map.Entry<String, DynVarField> last;
+		
+		private SlotIterator()
+		{
+			advance();
+		}
+		
+		@Override
+		public boolean hasNext()
+		{
+			return next != null;
+		}
+		
+		@Override
+		public Map.Entry<String, DynVarField> next()
+		{
+			if(next == null)
+				throw new NoSuchElementException();
+			
+			last = next;
+			advance();
+			return last;
+		}
+		
+		@Override
+		public void remove()
+		{
+			if(last == null)
+				throw new IllegalStateException();
+			
+			DynVarSharedStorage.this.remove(last.getKey());
+			last = null;
+		}
+		
+		private void advance()
+		{
+			next = null;
+			
+			while (next == null && index < capacity)
+			{
+				int offset = HEADER + index++ * SLOT;
+				
+				if(memory.getIntVolatile(offset + STATE) != READY)
+					continue;
+				
+				String key = readKey(offset);
+				DynVarField field = get(key);
+				
+				if(field != null)
+					next = new SimpleImmutableEntry<>(key, field);
+			}
+		}
+	}
+}
@@ -0,0 +1,202 @@
+package com.konloch.dynvarmap.storage;
+
+import com.konloch.dynvarmap.DynVarChange;
+import com.konloch.dynvarmap.DynVarField;
+import com.konloch.dynvarmap.vars.DynVarTime;
+
+import java.util.function.LongUnaryOperator;
+
+/**
+ * A DynVarTime whose value lives in a DynVarSharedStorage file, so every process mapping the file sees the same
+ * value. Reads and writes go straight to the file and arithmetic is applied atomically.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+public class DynVarSharedTime extends DynVarTime implements DynVarSharedField
+{
+	private final DynVarSharedSlot slot;
+	
+	DynVarSharedTime(DynVarSharedSlot slot)
+	{
+		this.slot = slot;
+		this.value = decode(slot.get());
+	}
+	
+	/**
+	 * Get the variable value as an Object
+	 *
+	 * @return the variable value as an Object.
+	 */
+	@Override
+	public Long get()
+	{
+		value = decode(slot.get());
+		return super.get();
+	}
+	
+	/**
+	 * Set the value supplied.
+	 *
+	 * @param value any Number as the variable value
+	 * @return this instance for method chaining
+	 */
+	@Override
+	public DynVarSharedTime set(Object value)
+	{
+		long next = DynVarSharedSlot.number(value).longValue();
+		this.value = decode(slot.getAndSet(encode(next)));
+		super.set(next);
+		return this;
+	}
+	
+	/**
+	 * Set the value if the current value is the expected value, atomically across every process.
+	 *
+	 * @param expected the expected current value
+	 * @param value the new value
+	 * @return true if the value was set
+	 */
+	public boolean compareAndSet(long expected, long value)
+	{
+		if(!slot.compareAndSet(encode(expected), encode(value)))
+			return false;
+		
+		published(encode(expected), encode(value));
+		return true;
+	}
+	
+	/**
+	 * Preforms an atomic addition.
+	 *
+	 * @param value the value to add with
+	 * @return this instance for method chaining
+	 */
+	@Override
+	public DynVarSharedTime add(Object value)
+	{
+		//whole number counters use a single atomic add
+		if(value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte)
+		{
+			long delta = ((Number) value).longValue();
+			long bits = slot.getAndAdd(delta);
+			published(bits, bits + delta);
+			return this;
+		}
+		
+		return arithmetic(old -> encode(new DynVarField(decode(old)).add(value).get()));
+	}
+	
+	/**
+	 * Preforms an atomic subtraction.
+	 *
+	 * @param value the value to subtract with
+	 * @return this instance for method chaining
+	 */
+	@Override
+	public DynVarSharedTime subtract(Object value)
+	{
+		return arithmetic(old -> encode(new DynVarField(decode(old)).subtract(value).get()));
+	}
+	
+	/**
+	 * Preforms an atomic multiplication.
+	 *
+	 * @param value the value to multiply against
+	 * @return this instance for method chaining
+	 */
+	@Override
+	public DynVarSharedTime multiply(Object value)
+	{
+		return arithmetic(old -> encode(new DynVarField(decode(old)).multiply(value).get()));
+	}
+	
+	/**
+	 * Preforms an atomic division.
+	 *
+	 * @param value the value to divide against
+	 * @return this instance for method chaining
+	 */
+	@Override
+	public DynVarSharedTime divide(Object value)
+	{
+		return arithmetic(old -> encode(new DynVarField(decode(old)).divide(value).get()));
+	}
+	
+	/**
+	 * Preforms an atomic bitwise xor.
+	 *
+	 * @param value the value to xor with
+	 * @return this instance for method chaining
+	 */
+	@Override
+	public DynVarSharedTime bitwiseXor(Object value)
+	{
+		return arithmetic(old -> old ^ ((Number) value).longValue());
+	}
+	
+	@Override
+	public String toString()
+	{
+		return String.valueOf(get());
+	}
+	
+	@Override
+	public DynVarSharedSlot slot()
+	{
+		return slot;
+	}
+	
+	@Override
+	protected Object read()
+	{
+		return value = decode(slot.get());
+	}
+	
+	@Override
+	protected void publish(Object value)
+	{
+		long bits = encode(value);
+		slot.set(bits);
+		this.value = decode(bits);
+	}
+	
+	private DynVarSharedTime arithmetic(LongUnaryOperator operator)
+	{
+		for (;;)
+		{
+			long old = slot.get();
+			long next = operator.applyAsLong(old);
+			
+			if(slot.compareAndSet(old, next))
+			{
+				published(old, next);
+				return this;
+			}
+		}
+	}
+	
+	/**
+	 * Update the cached value and notify listeners of a change that was already written to the slot.
+	 */
+	private void published(long old, long next)
+	{
+		value = decode(next);
+		changed(DynVarChange.Type.ARITHMETIC, decode(old));
+	}
+	
+	private static long encode(Object value)
+	{
+		return encode(DynVarSharedSlot.number(value).longValue());
+	}
+	
+	private static long encode(long value)
+	{
+		return value;
+	}
+	
+	private static long decode(long bits)
+	{
+		return bits;
+	}
+}
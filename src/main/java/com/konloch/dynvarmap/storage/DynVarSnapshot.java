@@ -0,0 +1,114 @@
+package com.konloch.dynvarmap.storage;
+
+import com.konloch.dynvarmap.DynVarField;
+import com.konloch.dynvarmap.DynVarMap;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * A read-only point-in-time view of the variables of a DynVarMap.
+ *
+ * The snapshot is immutable, it can be read from any thread without locking and is not affected by later
+ * writes to the map it was taken from.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+public class DynVarSnapshot
+{
+	private final DynVarTrie trie;
+	
+	DynVarSnapshot(DynVarTrie trie)
+	{
+		this.trie = trie;
+	}
+	
+	/**
+	 * Returns the value a variable had when the snapshot was taken.
+	 *
+	 * @param key any String as the variable name
+	 * @param <T> the variable value Type
+	 * @return the variable value, or null if the variable did not exist
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T getValue(String key)
+	{
+		DynVarTrie.Leaf leaf = trie.find(key);
+		return leaf == null ? null : (T) leaf.value;
+	}
+	
+	/**
+	 * Returns the vars type a variable had when the snapshot was taken.
+	 *
+	 * @param key any String as the variable name
+	 * @return the DynVarField class, or null if the variable did not exist
+	 */
+	public Class<? extends DynVarField> getType(String key)
+	{
+		DynVarTrie.Leaf leaf = trie.find(key);
+		return leaf == null || leaf.field == null ? null : leaf.field.getClass();
+	}
+	
+	/**
+	 * Check if the variable existed when the snapshot was taken.
+	 *
+	 * @param key any String as the variable name
+	 * @return true if the variable existed
+	 */
+	public boolean containsKey(String key)
+	{
+		return trie.find(key) != null;
+	}
+	
+	/**
+	 * Returns the count of variables in the snapshot.
+	 *
+	 * @return the variable count
+	 */
+	public int getSize()
+	{
+		return trie.size();
+	}
+	
+	/**
+	 * Returns the variable names in the snapshot.
+	 *
+	 * @return a new Set of variable names
+	 */
+	public Set<String> keySet()
+	{
+		Set<String> keys = new LinkedHashSet<>();
+		for (DynVarTrie.Leaf leaf : trie)
+			keys.add(leaf.key);
+		
+		return keys;
+	}
+	
+	/**
+	 * Iterate through the variable names and values in the snapshot.
+	 *
+	 * @param action any BiConsumer to process
+	 * @return this instance for method chaining
+	 */
+	public DynVarSnapshot forEach(BiConsumer<String, Object> action)
+	{
+		for (DynVarTrie.Leaf leaf : trie)
+			action.accept(leaf.key, leaf.value);
+		
+		return this;
+	}
+	
+	/**
+	 * Returns a new DynVarMap starting from the snapshot, in O(1). Variables are copied into fields of
+	 * their own the first time they are accessed, so this is also how a snapshot is serialized:
+	 * new DynVarSerializer(file, snapshot.toMap()).save()
+	 *
+	 * @return a new DynVarMap backed by a DynVarPersistentStorage
+	 */
+	public DynVarMap toMap()
+	{
+		return new DynVarMap(new DynVarPersistentStorage(trie));
+	}
+}
@@ -0,0 +1,421 @@
+package com.konloch.dynvarmap.storage;
+
+import com.konloch.dynvarmap.DynVarField;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable hash array mapped trie of variables. Every update returns a new trie that shares all
+ * untouched nodes with the old one, so only the path to the changed leaf is copied.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+final class DynVarTrie implements Iterable<DynVarTrie.Leaf>
+{
+	static final DynVarTrie EMPTY = new DynVarTrie(new BitmapNode(0, new Object[0]), 0);
+	
+	private static final int BITS = 5;
+	private static final int MASK = (1 << BITS) - 1;
+	
+	private final Node root;
+	private final int size;
+	
+	private DynVarTrie(Node root, int size)
+	{
+		this.root = root;
+		this.size = size;
+	}
+	
+	int size()
+	{
+		return size;
+	}
+	
+	Leaf find(String key)
+	{
+		return root.find(key, hash(key), 0);
+	}
+	
+	/**
+	 * Returns a trie with the supplied leaf, replacing any leaf with the same key.
+	 */
+	DynVarTrie with(Leaf leaf)
+	{
+		boolean[] added = new boolean[1];
+		Object updated = root.with(leaf, 0, added);
+		return new DynVarTrie(asRoot(updated), added[0] ? size + 1 : size);
+	}
+	
+	/**
+	 * Returns a trie without the leaf of the supplied key.
+	 */
+	DynVarTrie without(String key)
+	{
+		Object updated = root.without(key, hash(key), 0);
+		if(updated == root)
+			return this;
+		
+		return new DynVarTrie(asRoot(updated), size - 1);
+	}
+	
+	/**
+	 * Returns how many nodes the trie is made of, used to estimate its overhead.
+	 */
+	int nodes()
+	{
+		int nodes = 0;
+		ArrayDeque<Node> stack = new ArrayDeque<>();
+		stack.push(root);
+		
+		while (!stack.isEmpty())
+		{
+			Node node = stack.pop();
+			nodes++;
+			
+			for (Object child : node.children())
+				if(child instanceof Node)
+					stack.push((Node) child);
+		}
+		
+		return nodes;
+	}
+	
+	@Override
+	public Iterator<Leaf> iterator()
+	{
+		return new LeafIterator(root);
+	}
+	
+	private static Node asRoot(Object node)
+	{
+		if(node == null)
+			return EMPTY.root;
+		
+		if(node instanceof Leaf)
+			return new BitmapNode(bit(((Leaf) node).hash, 0), new Object[]{node});
+		
+		return (Node) node;
+	}
+	
+	static int hash(String key)
+	{
+		int h = key.hashCode();
+		return h ^ (h >>> 16);
+	}
+	
+	private static int bit(int hash, int shift)
+	{
+		return 1 << ((hash >>> shift) & MASK);
+	}
+	
+	private static Object merge(Leaf a, Leaf b, int shift)
+	{
+		//every bit of the hash has been used, the keys really collide
+		if(shift >= 32)
+			return new CollisionNode(a.hash, new Leaf[]{a, b});
+		
+		int bitA = bit(a.hash, shift);
+		int bitB = bit(b.hash, shift);
+		
+		if(bitA == bitB)
+			return new BitmapNode(bitA, new Object[]{merge(a, b, shift + BITS)});
+		
+		return new BitmapNode(bitA | bitB, Integer.compareUnsigned(bitA, bitB) < 0 ? new Object[]{a, b} : new Object[]{b, a});
+	}
+	
+	/**
+	 * A variable stored in the trie, the value is the variable value when the leaf was created.
+	 */
+	static final class Leaf
+	{
+		final String key;
+		final int hash;
+		final DynVarField field;
+		final Object value;
+		final Object owner;
+		
+		Leaf(String key, int hash, DynVarField field, Object value, Object owner)
+		{
+			this.key = key;
+			this.hash = hash;
+			this.field = field;
+			this.value = value;
+			this.owner = owner;
+		}
+		
+		Leaf withValue(Object value)
+		{
+			return new Leaf(key, hash, field, value, owner);
+		}
+	}
+	
+	private interface Node
+	{
+		Leaf find(String key, int hash, int shift);
+		
+		Object with(Leaf leaf, int shift, boolean[] added);
+		
+		Object without(String key, int hash, int shift);
+		
+		Object[] children();
+	}
+	
+	private static final class BitmapNode implements Node
+	{
+		private final int bitmap;
+		private final Object[] children;
+		
+		private BitmapNode(int bitmap, Object[] children)
+		{
+			this.bitmap = bitmap;
+			this.children = children;
+		}
+		
+		@Override
+		public Leaf find(String key, int hash, int shift)
+		{
+			int bit = bit(hash, shift);
+			if((bitmap & bit) == 0)
+				return null;
+			
+			Object child = children[index(bit)];
+			
+			if(child instanceof Leaf)
+			{
+				Leaf leaf = (Leaf) child;
+				return leaf.hash == hash && leaf.key.equals(key) ? leaf : null;
+			}
+			
+			return ((Node) child).find(key, hash, shift + BITS);
+		}
+		
+		@Override
+		public Object with(Leaf leaf, int shift, boolean[] added)
+		{
+			int bit = bit(leaf.hash, shift);
+			int index = index(bit);
+			
+			if((bitmap & bit) == 0)
+			{
+				Object[] copy = new Object[children.length + 1];
+				System.arraycopy(children, 0, copy, 0, index);
+				System.arraycopy(children, index, copy, index + 1, children.length - index);
+				copy[index] = leaf;
+				added[0] = true;
+				return new BitmapNode(bitmap | bit, copy);
+			}
+			
+			Object child = children[index];
+			Object replacement;
+			
+			if(child instanceof Leaf)
+			{
+				Leaf existing = (Leaf) child;
+				
+				if(existing.hash == leaf.hash && existing.key.equals(leaf.key))
+					replacement = leaf;
+				else
+				{
+					replacement = merge(existing, leaf, shift + BITS);
+					added[0] = true;
+				}
+			}
+			else
+				replacement = ((Node) child).with(leaf, shift + BITS, added);
+			
+			Object[] copy = children.clone();
+			copy[index] = replacement;
+			return new BitmapNode(bitmap, copy);
+		}
+		
+		@Override
+		public Object without(String key, int hash, int shift)
+		{
+			int bit = bit(hash, shift);
+			if((bitmap & bit) == 0)
+				return this;
+			
+			int index = index(bit);
+			Object child = children[index];
+			Object replacement;
+			
+			if(child instanceof Leaf)
+			{
+				Leaf leaf = (Leaf) child;
+				if(leaf.hash != hash || !leaf.key.equals(key))
+					return this;
+				
+				replacement = null;
+			}
+			else
+			{
+				replacement = ((Node) child).without(key, hash, shift + BITS);
+				if(replacement == child)
+					return this;
+			}
+			
+			if(replacement != null)
+			{
+				//a single remaining leaf is pulled up so lookups stay short
+				if(children.length == 1 && replacement instanceof Leaf)
+					return replacement;
+				
+				Object[] copy = children.clone();
+				copy[index] = replacement;
+				return new BitmapNode(bitmap, copy);
+			}
+			
+			if(children.length == 1)
+				return null;
+			
+			if(children.length == 2 && children[index ^ 1] instanceof Leaf)
+				return children[index ^ 1];
+			
+			Object[] copy = new Object[children.length - 1];
+			System.arraycopy(children, 0, copy, 0, index);
+			System.arraycopy(children, index + 1, copy, index, children.length - index - 1);
+			return new BitmapNode(bitmap & ~bit, copy);
+		}
+		
+		@Override
+		public Object[] children()
+		{
+			return children;
+		}
+		
+		private int index(int bit)
+		{
+			return Integer.bitCount(bitmap & (bit - 1));
+		}
+	}
+	
+	private static final class CollisionNode implements Node
+	{
+		private final int hash;
+		private final Leaf[] leaves;
+		
+		private CollisionNode(int hash, Leaf[] leaves)
+		{
+			this.hash = hash;
+			this.leaves = leaves;
+		}
+		
+		@Override
+		public Leaf find(String key, int hash, int shift)
+		{
+			for (Leaf leaf : leaves)
+				if(leaf.key.equals(key))
+					return leaf;
+			
+			return null;
+		}
+		
+		@Override
+		public Object with(Leaf leaf, int shift, boolean[] added)
+		{
+			for (int i = 0; i < leaves.length; i++)
+			{
+				if(leaves[i].key.equals(leaf.key))
+				{
+					Leaf[] copy = leaves.clone();
+					copy[i] = leaf;
+					return new CollisionNode(hash, copy);
+				}
+			}
+			
+			Leaf[] copy = new Leaf[leaves.length + 1];
+			System.arraycopy(leaves, 0, copy, 0, leaves.length);
+			copy[leaves.length] = leaf;
+			added[0] = true;
+			return new CollisionNode(hash, copy);
+		}
+		
+		@Override
+		public Object without(String key, int hash, int shift)
+		{
+			for (int i = 0; i < leaves.length; i++)
+			{
+				if(leaves[i].key.equals(key))
+				{
+					if(leaves.length == 2)
+						return leaves[i ^ 1];
+					
+					Leaf[] copy = new Leaf[leaves.length - 1];
+					System.arraycopy(leaves, 0, copy, 0, i);
+					System.arraycopy(leaves, i + 1, copy, i, leaves.length - i - 1);
+					return new CollisionNode(hash, copy);
+				}
+			}
+			
+			return this;
+		}
+		
+		@Override
+		public Object[] children()
+		{
+			return leaves;
+		}
+	}
+	
+	private static final class LeafIterator implements Iterator<Leaf>
+	{
+		private final ArrayDeque<Object[]> arrays = new ArrayDeque<>();
+		private final ArrayDeque<int[]> positions = new ArrayDeque<>();
+		private Leaf next;
+		
+		private LeafIterator(Node root)
+		{
+			arrays.push(root.children());
+			positions.push(new int[1]);
+			advance();
+		}
+		
+		private void advance()
+		{
+			next = null;
+			
+			while (next == null && !arrays.isEmpty())
+			{
+				Object[] array = arrays.peek();
+				int[] position = positions.peek();
+				
+				if(position[0] == array.length)
+				{
+					arrays.pop();
+					positions.pop();
+					continue;
+				}
+				
+				Object child = array[position[0]++];
+				
+				if(child instanceof Leaf)
+					next = (Leaf) child;
+				else
+				{
+					arrays.push(((Node) child).children());
+					positions.push(new int[1]);
+				}
+			}
+		}
+		
+		@Override
+		public boolean hasNext()
+		{
+			return next != null;
+		}
+		
+		@Override
+		public Leaf next()
+		{
+			if(next == null)
+				throw new NoSuchElementException();
+			
+			Leaf leaf = next;
+			advance();
+			return leaf;
+		}
+	}
+}
@@ -0,0 +1,20 @@
+package com.konloch.dynvarmap.time;
+
+/**
+ * A source of the current time in milliseconds, used by DynVarTime and DynVarTimerWheel.
+ *
+ * Clocks can be set globally with DynVarClocks.setDefault or per map with DynVarMap.setClock.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+@FunctionalInterface
+public interface DynVarClock
+{
+	/**
+	 * Returns the current time in milliseconds.
+	 *
+	 * @return the time in milliseconds
+	 */
+	long millis();
+}
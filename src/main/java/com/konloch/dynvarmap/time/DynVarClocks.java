@@ -0,0 +1,69 @@
+package com.konloch.dynvarmap.time;
+
+/**
+ * The built-in DynVarClock implementations and the global default clock.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+public class DynVarClocks
+{
+	/**
+	 * The wall clock, System.currentTimeMillis.
+	 */
+	public static final DynVarClock SYSTEM = System::currentTimeMillis;
+	
+	private static volatile DynVarClock defaultClock = SYSTEM;
+	
+	/**
+	 * Returns the clock used by any DynVarTime that does not belong to a map with its own clock.
+	 *
+	 * @return the global default DynVarClock
+	 */
+	public static DynVarClock getDefault()
+	{
+		return defaultClock;
+	}
+	
+	/**
+	 * Set the clock used by any DynVarTime that does not belong to a map with its own clock.
+	 *
+	 * @param clock any DynVarClock, or null to restore the system clock
+	 */
+	public static void setDefault(DynVarClock clock)
+	{
+		defaultClock = clock == null ? SYSTEM : clock;
+	}
+	
+	/**
+	 * Create a cached clock that is updated by a daemon ticker thread, reading it is a single volatile read.
+	 *
+	 * @param resolutionMillis how often the cached time is updated
+	 * @return a new DynVarCoarseClock
+	 */
+	public static DynVarCoarseClock coarse(long resolutionMillis)
+	{
+		return new DynVarCoarseClock(SYSTEM, resolutionMillis);
+	}
+	
+	/**
+	 * Create a monotonic clock based on System.nanoTime, it starts at the current wall time and never jumps backwards.
+	 *
+	 * @return a new DynVarMonotonicClock
+	 */
+	public static DynVarMonotonicClock monotonic()
+	{
+		return new DynVarMonotonicClock();
+	}
+	
+	/**
+	 * Create a manual clock that only moves when told to, useful for tests and simulations.
+	 *
+	 * @param startMillis the starting time in milliseconds
+	 * @return a new DynVarManualClock
+	 */
+	public static DynVarManualClock manual(long startMillis)
+	{
+		return new DynVarManualClock(startMillis);
+	}
+}
@@ -0,0 +1,83 @@
+package com.konloch.dynvarmap.time;
+
+/**
+ * A DynVarClock that caches the time of another clock, refreshed by a daemon ticker thread.
+ *
+ * Reading the time is a single volatile read, at the cost of being up to one resolution behind.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+public class DynVarCoarseClock implements DynVarClock, AutoCloseable
+{
+	private final DynVarClock source;
+	private final long resolutionMillis;
+	private volatile long now;
+	private volatile Thread thread;
+	
+	/**
+	 * Constructs and starts a new DynVarCoarseClock.
+	 *
+	 * @param source the DynVarClock to cache
+	 * @param resolutionMillis how often the cached time is updated
+	 */
+	public DynVarCoarseClock(DynVarClock source, long resolutionMillis)
+	{
+		if(resolutionMillis <= 0)
+			throw new IllegalArgumentException("resolutionMillis must be greater than 0: " + resolutionMillis);
+		
+		this.source = source;
+		this.resolutionMillis = resolutionMillis;
+		this.now = source.millis();
+		
+		Thread ticker = new Thread(() ->
+		{
+			while (thread == Thread.currentThread())
+			{
+				now = this.source.millis();
+				
+				try
+				{
+					Thread.sleep(this.resolutionMillis);
+				}
+				catch (InterruptedException e)
+				{
+					return;
+				}
+			}
+		}, "DynVarCoarseClock");
+		
+		ticker.setDaemon(true);
+		thread = ticker;
+		ticker.start();
+	}
+	
+	@Override
+	public long millis()
+	{
+		return now;
+	}
+	
+	/**
+	 * Returns how often the cached time is updated.
+	 *
+	 * @return the resolution in milliseconds
+	 */
+	public long getResolutionMillis()
+	{
+		return resolutionMillis;
+	}
+	
+	/**
+	 * Stop the ticker thread, the clock will no longer move.
+	 */
+	@Override
+	public void close()
+	{
+		Thread ticker = thread;
+		thread = null;
+		
+		if(ticker != null)
+			ticker.interrupt();
+	}
+}
@@ -0,0 +1,52 @@
+package com.konloch.dynvarmap.time;
+
+/**
+ * A DynVarClock that only moves when told to, useful for tests and simulations.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+public class DynVarManualClock implements DynVarClock
+{
+	private volatile long now;
+	
+	/**
+	 * Constructs a new DynVarManualClock.
+	 *
+	 * @param startMillis the starting time in milliseconds
+	 */
+	public DynVarManualClock(long startMillis)
+	{
+		this.now = startMillis;
+	}
+	
+	@Override
+	public long millis()
+	{
+		return now;
+	}
+	
+	/**
+	 * Set the current time.
+	 *
+	 * @param millis the time in milliseconds
+	 * @return this instance for method chaining
+	 */
+	public DynVarManualClock set(long millis)
+	{
+		now = millis;
+		return this;
+	}
+	
+	/**
+	 * Move the current time forward.
+	 *
+	 * @param millis how many milliseconds to move forward
+	 * @return this instance for method chaining
+	 */
+	public synchronized DynVarManualClock advance(long millis)
+	{
+		now += millis;
+		return this;
+	}
+}
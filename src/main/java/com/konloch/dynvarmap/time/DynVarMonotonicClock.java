@@ -0,0 +1,29 @@
+package com.konloch.dynvarmap.time;
+
+/**
+ * A DynVarClock based on System.nanoTime, it starts at the wall time it was created at and never
+ * moves backwards, so it is not affected by the system clock being adjusted.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+public class DynVarMonotonicClock implements DynVarClock
+{
+	private final long originMillis;
+	private final long originNanos;
+	
+	/**
+	 * Constructs a new DynVarMonotonicClock starting at the current wall time.
+	 */
+	public DynVarMonotonicClock()
+	{
+		this.originMillis = System.currentTimeMillis();
+		this.originNanos = System.nanoTime();
+	}
+	
+	@Override
+	public long millis()
+	{
+		return originMillis + (System.nanoTime() - originNanos) / 1_000_000L;
+	}
+}
@@ -0,0 +1,155 @@
+package com.konloch.dynvarmap.time;
+
+import com.konloch.dynvarmap.DynVarField;
+import com.konloch.dynvarmap.DynVarMap;
+import com.konloch.dynvarmap.vars.DynVarTime;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * An index of the DynVarTime variables of a DynVarMap ordered by their timestamp.
+ *
+ * The owning map updates the index directly on set, setNow, arithmetic, retypes and removes, the same way
+ * it maintains its type index, so changes to other variables never reach it and no DynVarChange is created.
+ * Finding the expired variables costs O(k log n) for k results instead of scanning the whole map.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+public class DynVarTimeIndex
+{
+	private final TreeSet<Node> ordered = new TreeSet<>();
+	private final Map<String, Node> byKey = new HashMap<>();
+	
+	/**
+	 * Constructs a new DynVarTimeIndex and indexes every DynVarTime already in the map.
+	 *
+	 * @param map any DynVarMap
+	 */
+	public DynVarTimeIndex(DynVarMap map)
+	{
+		map.forEach((key, field) ->
+		{
+			if(field instanceof DynVarTime)
+				update(key, ((DynVarTime) field).getTime());
+		});
+	}
+	
+	/**
+	 * Index the variable stored under a key, called by the owning map after a put, retype or value change.
+	 *
+	 * @param key any String as the variable name
+	 * @param field the DynVarField now stored, variables that are not a DynVarTime are dropped from the index
+	 */
+	public synchronized void index(String key, DynVarField field)
+	{
+		if(field instanceof DynVarTime)
+			update(key, ((DynVarTime) field).getTime());
+		else
+			remove(key);
+	}
+	
+	/**
+	 * Drop a variable from the index, called by the owning map after a remove.
+	 *
+	 * @param key any String as the variable name
+	 */
+	public synchronized void remove(String key)
+	{
+		Node node = byKey.remove(key);
+		if(node != null)
+			ordered.remove(node);
+	}
+	
+	/**
+	 * Drop every variable from the index, called by the owning map after a clear.
+	 */
+	public synchronized void clear()
+	{
+		ordered.clear();
+		byKey.clear();
+	}
+	
+	private void update(String key, long time)
+	{
+		Node node = byKey.get(key);
+		if(node != null)
+		{
+			if(node.time == time)
+				return;
+			
+			ordered.remove(node);
+		}
+		
+		node = new Node(time, key);
+		byKey.put(key, node);
+		ordered.add(node);
+	}
+	
+	/**
+	 * Returns the keys of every DynVarTime with a timestamp before the cutoff, oldest first.
+	 *
+	 * @param cutoff any time in milliseconds
+	 * @return the keys of the matching variables
+	 */
+	public synchronized List<String> before(long cutoff)
+	{
+		List<String> keys = new ArrayList<>();
+		for (Node node : ordered.headSet(new Node(cutoff, null), false))
+			keys.add(node.key);
+		
+		return keys;
+	}
+	
+	/**
+	 * Returns the key of the DynVarTime with the oldest timestamp.
+	 *
+	 * @return the oldest key, or null if the index is empty
+	 */
+	public synchronized String oldest()
+	{
+		return ordered.isEmpty() ? null : ordered.first().key;
+	}
+	
+	/**
+	 * Returns how many DynVarTime variables are indexed.
+	 *
+	 * @return the indexed variable count
+	 */
+	public synchronized int size()
+	{
+		return byKey.size();
+	}
+	
+	private static class Node implements Comparable<Node>
+	{
+		private final long time;
+		private final String key;
+		
+		private Node(long time, String key)
+		{
+			this.time = time;
+			this.key = key;
+		}
+		
+		@Override
+		public int compareTo(Node o)
+		{
+			int c = Long.compare(time, o.time);
+			if(c != 0)
+				return c;
+			
+			//a null key sorts before every other key with the same time
+			if(key == null)
+				return o.key == null ? 0 : -1;
+			if(o.key == null)
+				return 1;
+			
+			return key.compareTo(o.key);
+		}
+	}
+}
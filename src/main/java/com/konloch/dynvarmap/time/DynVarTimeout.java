@@ -0,0 +1,151 @@
+package com.konloch.dynvarmap.time;
+
+import com.konloch.dynvarmap.DynVarChange;
+import com.konloch.dynvarmap.DynVarListener;
+import com.konloch.dynvarmap.vars.DynVarTime;
+
+import java.util.function.Consumer;
+
+/**
+ * A callback scheduled on a DynVarTimerWheel against the deadline of a DynVarTime.
+ *
+ * The deadline follows the DynVarTime, calling set, setNow or any arithmetic on the time
+ * reschedules the timeout automatically.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+public class DynVarTimeout implements DynVarListener
+{
+	private final DynVarTimerWheel wheel;
+	private final DynVarTime time;
+	private final long duration;
+	private final boolean repeating;
+	private final Consumer<DynVarTime> task;
+	
+	//bucket bookkeeping, only touched by the thread advancing the wheel
+	long deadline;
+	DynVarTimeout previous;
+	DynVarTimeout next;
+	int bucket = -1;
+	
+	private volatile boolean cancelled;
+	private volatile boolean expired;
+	volatile boolean queued;
+	
+	DynVarTimeout(DynVarTimerWheel wheel, DynVarTime time, long duration, boolean repeating, Consumer<DynVarTime> task)
+	{
+		this.wheel = wheel;
+		this.time = time;
+		this.duration = duration;
+		this.repeating = repeating;
+		this.task = task;
+	}
+	
+	/**
+	 * Reschedule when the DynVarTime value changes.
+	 *
+	 * @param change the DynVarChange describing what happened
+	 */
+	@Override
+	public void onChange(DynVarChange change)
+	{
+		DynVarChange.Type type = change.getType();
+		if(type == DynVarChange.Type.SET || type == DynVarChange.Type.ARITHMETIC)
+			wheel.reschedule(this);
+	}
+	
+	/**
+	 * Cancel the timeout, it will not fire again.
+	 *
+	 * @return true if the timeout was still pending
+	 */
+	public boolean cancel()
+	{
+		if(cancelled || expired)
+			return false;
+		
+		cancelled = true;
+		time.removeListener(this);
+		wheel.reschedule(this);
+		return true;
+	}
+	
+	/**
+	 * Fire the task, repeating timeouts reset the time to now and stay scheduled.
+	 *
+	 * @param now the time the wheel was advanced to
+	 */
+	void expire(long now)
+	{
+		if(repeating)
+			time.set(now);
+		else
+		{
+			expired = true;
+			time.removeListener(this);
+		}
+		
+		task.accept(time);
+	}
+	
+	/**
+	 * Returns true if the timeout has been cancelled.
+	 *
+	 * @return true if cancelled
+	 */
+	public boolean isCancelled()
+	{
+		return cancelled;
+	}
+	
+	/**
+	 * Returns true if a one-shot timeout has fired.
+	 *
+	 * @return true if expired
+	 */
+	public boolean isExpired()
+	{
+		return expired;
+	}
+	
+	/**
+	 * Returns true if the timeout is repeating.
+	 *
+	 * @return true if repeating
+	 */
+	public boolean isRepeating()
+	{
+		return repeating;
+	}
+	
+	/**
+	 * Returns the DynVarTime the deadline is based on.
+	 *
+	 * @return the DynVarTime
+	 */
+	public DynVarTime getTime()
+	{
+		return time;
+	}
+	
+	/**
+	 * Returns how many milliseconds after the DynVarTime the timeout fires.
+	 *
+	 * @return the duration in milliseconds
+	 */
+	public long getDuration()
+	{
+		return duration;
+	}
+	
+	/**
+	 * Returns the current deadline, matching DynVarTime.hasPassed(duration).
+	 *
+	 * @return the deadline in milliseconds
+	 */
+	public long getDeadline()
+	{
+		return time.getTime() + duration;
+	}
+}
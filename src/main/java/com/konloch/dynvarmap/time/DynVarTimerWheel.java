@@ -0,0 +1,322 @@
+package com.konloch.dynvarmap.time;
+
+import com.konloch.dynvarmap.vars.DynVarTime;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * A hashed timing wheel that fires callbacks once a DynVarTime has passed a duration,
+ * replacing the need to poll hasPassed on every DynVarTime every tick.
+ *
+ * Timeouts are hashed into buckets by their deadline tick, advancing the wheel only visits the buckets
+ * of the elapsed ticks, so expiring a timeout is O(1) amortized and idle timeouts are not touched until
+ * their bucket comes around. Scheduling, cancelling and DynVarTime changes are queued and applied on the
+ * next advance, so they are safe to call from any thread.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+public class DynVarTimerWheel
+{
+	private final DynVarClock clock;
+	private final long tickMillis;
+	private final int mask;
+	private final DynVarTimeout[] buckets;
+	private final ConcurrentLinkedQueue<DynVarTimeout> changes = new ConcurrentLinkedQueue<>();
+	private boolean started;
+	private long currentTick;
+	private int size;
+	private volatile Thread thread;
+	
+	/**
+	 * Constructs a new DynVarTimerWheel with a 10 millisecond tick and 512 buckets.
+	 */
+	public DynVarTimerWheel()
+	{
+		this(10, 512);
+	}
+	
+	/**
+	 * Constructs a new DynVarTimerWheel.
+	 *
+	 * @param tickMillis how many milliseconds each bucket covers
+	 * @param wheelSize how many buckets the wheel has, rounded up to a power of two
+	 */
+	public DynVarTimerWheel(long tickMillis, int wheelSize)
+	{
+		this(null, tickMillis, wheelSize);
+	}
+	
+	/**
+	 * Constructs a new DynVarTimerWheel.
+	 *
+	 * @param clock the DynVarClock used by advance, or null to use the global default clock
+	 * @param tickMillis how many milliseconds each bucket covers
+	 * @param wheelSize how many buckets the wheel has, rounded up to a power of two
+	 */
+	public DynVarTimerWheel(DynVarClock clock, long tickMillis, int wheelSize)
+	{
+		if(tickMillis <= 0)
+			throw new IllegalArgumentException("tickMillis must be greater than 0: " + tickMillis);
+		if(wheelSize <= 0 || wheelSize > (1 << 30))
+			throw new IllegalArgumentException("wheelSize must be between 1 and 2^30: " + wheelSize);
+		
+		int normalized = 1;
+		while (normalized < wheelSize)
+			normalized <<= 1;
+		
+		this.clock = clock;
+		this.tickMillis = tickMillis;
+		this.mask = normalized - 1;
+		this.buckets = new DynVarTimeout[normalized];
+	}
+	
+	/**
+	 * Schedule a one-shot callback for when the DynVarTime has passed the duration.
+	 *
+	 * @param time any DynVarTime
+	 * @param duration how many milliseconds after the DynVarTime the callback fires
+	 * @param task the callback to run
+	 * @return the DynVarTimeout handle
+	 */
+	public DynVarTimeout schedule(DynVarTime time, long duration, Consumer<DynVarTime> task)
+	{
+		return schedule(time, duration, false, task);
+	}
+	
+	/**
+	 * Schedule a repeating callback for every time the DynVarTime has passed the duration,
+	 * the DynVarTime is reset to now each time it fires just like hasPassedReset.
+	 *
+	 * @param time any DynVarTime
+	 * @param duration how many milliseconds after the DynVarTime the callback fires
+	 * @param task the callback to run
+	 * @return the DynVarTimeout handle
+	 */
+	public DynVarTimeout scheduleRepeating(DynVarTime time, long duration, Consumer<DynVarTime> task)
+	{
+		return schedule(time, duration, true, task);
+	}
+	
+	private DynVarTimeout schedule(DynVarTime time, long duration, boolean repeating, Consumer<DynVarTime> task)
+	{
+		DynVarTimeout timeout = new DynVarTimeout(this, time, duration, repeating, task);
+		time.addListener(timeout);
+		reschedule(timeout);
+		return timeout;
+	}
+	
+	/**
+	 * Queue a timeout to be placed into its bucket on the next advance.
+	 *
+	 * @param timeout any DynVarTimeout
+	 */
+	void reschedule(DynVarTimeout timeout)
+	{
+		if(timeout.queued)
+			return;
+		
+		timeout.queued = true;
+		changes.add(timeout);
+	}
+	
+	/**
+	 * Advance the wheel to the current time, firing any timeouts that have expired.
+	 *
+	 * @return how many timeouts fired
+	 */
+	public int advance()
+	{
+		return advance(getClock().millis());
+	}
+	
+	/**
+	 * Advance the wheel to the supplied time, firing any timeouts that have expired.
+	 *
+	 * @param now the current time in milliseconds
+	 * @return how many timeouts fired
+	 */
+	public synchronized int advance(long now)
+	{
+		long target = Math.floorDiv(now, tickMillis);
+		
+		if(!started)
+		{
+			started = true;
+			currentTick = target;
+		}
+		
+		drain();
+		
+		//if more than a full revolution has passed every bucket only needs visiting once
+		long from = target - currentTick >= buckets.length ? target - mask : currentTick;
+		int fired = 0;
+		
+		for (long tick = from; tick <= target; tick++)
+			fired += expire((int) (tick & mask), now);
+		
+		//the target bucket is revisited on the next advance, it can hold timeouts due later in the same tick
+		currentTick = target;
+		return fired;
+	}
+	
+	private int expire(int bucket, long now)
+	{
+		int fired = 0;
+		DynVarTimeout timeout = buckets[bucket];
+		
+		while (timeout != null)
+		{
+			DynVarTimeout next = timeout.next;
+			
+			if(timeout.isCancelled())
+				unlink(timeout);
+			else if(now - timeout.getTime().getTime() > timeout.getDuration())
+			{
+				unlink(timeout);
+				
+				try
+				{
+					timeout.expire(now);
+				}
+				catch (Exception e)
+				{
+					e.printStackTrace();
+				}
+				
+				fired++;
+			}
+			
+			timeout = next;
+		}
+		
+		return fired;
+	}
+	
+	private void drain()
+	{
+		DynVarTimeout timeout;
+		while ((timeout = changes.poll()) != null)
+		{
+			timeout.queued = false;
+			unlink(timeout);
+			
+			if(timeout.isCancelled() || timeout.isExpired())
+				continue;
+			
+			//the first millisecond where hasPassed(duration) is true
+			timeout.deadline = timeout.getDeadline() + 1;
+			long tick = Math.max(Math.floorDiv(timeout.deadline, tickMillis), currentTick);
+			link(timeout, (int) (tick & mask));
+		}
+	}
+	
+	private void link(DynVarTimeout timeout, int bucket)
+	{
+		DynVarTimeout head = buckets[bucket];
+		timeout.bucket = bucket;
+		timeout.previous = null;
+		timeout.next = head;
+		
+		if(head != null)
+			head.previous = timeout;
+		
+		buckets[bucket] = timeout;
+		size++;
+	}
+	
+	private void unlink(DynVarTimeout timeout)
+	{
+		if(timeout.bucket < 0)
+			return;
+		
+		if(timeout.previous != null)
+			timeout.previous.next = timeout.next;
+		else
+			buckets[timeout.bucket] = timeout.next;
+		
+		if(timeout.next != null)
+			timeout.next.previous = timeout.previous;
+		
+		timeout.previous = null;
+		timeout.next = null;
+		timeout.bucket = -1;
+		size--;
+	}
+	
+	/**
+	 * Start a daemon thread that advances the wheel every tick, callbacks will run on that thread.
+	 *
+	 * @return this instance for method chaining
+	 */
+	public synchronized DynVarTimerWheel start()
+	{
+		if(thread != null)
+			return this;
+		
+		Thread ticker = new Thread(() ->
+		{
+			while (thread == Thread.currentThread())
+			{
+				advance();
+				
+				try
+				{
+					Thread.sleep(tickMillis);
+				}
+				catch (InterruptedException e)
+				{
+					return;
+				}
+			}
+		}, "DynVarTimerWheel");
+		
+		ticker.setDaemon(true);
+		thread = ticker;
+		ticker.start();
+		return this;
+	}
+	
+	/**
+	 * Stop the daemon thread started by start.
+	 */
+	public void stop()
+	{
+		Thread ticker = thread;
+		thread = null;
+		
+		if(ticker != null)
+			ticker.interrupt();
+	}
+	
+	/**
+	 * Returns how many timeouts are currently placed on the wheel, not counting queued changes.
+	 *
+	 * @return the scheduled timeout count
+	 */
+	public synchronized int size()
+	{
+		return size;
+	}
+	
+	/**
+	 * Returns the clock used by advance.
+	 *
+	 * @return the wheel DynVarClock, or the global default clock if none was supplied
+	 */
+	public DynVarClock getClock()
+	{
+		return clock == null ? DynVarClocks.getDefault() : clock;
+	}
+	
+	/**
+	 * Returns how many milliseconds each bucket covers.
+	 *
+	 * @return the tick length in milliseconds
+	 */
+	public long getTickMillis()
+	{
+		return tickMillis;
+	}
+}
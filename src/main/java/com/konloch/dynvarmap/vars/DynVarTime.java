@@ -1,5 +1,8 @@
 package com.konloch.dynvarmap.vars;
 
+import com.konloch.dynvarmap.DynVarMap;
+import com.konloch.dynvarmap.time.DynVarClocks;
+
 /**
  * @author Konloch
  * @since 08/27/2020
@@ -149,13 +152,15 @@ public class DynVarTime extends DynVarLong
     }
     
     /**
-     * Returns the current time in milliseconds.
+     * Returns the current time in milliseconds from the clock of the owning map,
+     * or the global default clock if this time is not stored in a map.
      *
      * @return the time in milliseconds.
      */
     public long getNow()
     {
-        return System.currentTimeMillis();
+        DynVarMap map = getMap();
+        return map == null ? DynVarClocks.getDefault().millis() : map.getClock().millis();
     }
     
     /**
@@ -0,0 +1,68 @@
+package com.konloch.dynvarmap;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+
+/**
+ * Defines the classes generated by DynVarMap in its own package.
+ *
+ * This is the Java 11+ implementation, on Java 15+ the classes are defined as hidden classes, which can be
+ * unloaded once unused and whose final fields the JIT trusts as constants. Older JVMs define a regular class
+ * through the package lookup.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+final class DynVarClassDefiner
+{
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+	private static final MethodHandle DEFINE_HIDDEN_CLASS = findDefineHiddenClass();
+	
+	/**
+	 * Define a class in the com.konloch.dynvarmap package.
+	 *
+	 * @param bytes the class file
+	 * @return the defined Class
+	 */
+	static Class<?> define(byte[] bytes)
+	{
+		try
+		{
+			if(DEFINE_HIDDEN_CLASS == null)
+				return LOOKUP.defineClass(bytes);
+			
+			MethodHandles.Lookup hidden = (MethodHandles.Lookup) DEFINE_HIDDEN_CLASS.invoke(LOOKUP, bytes, true);
+			return hidden.lookupClass();
+		}
+		catch (RuntimeException | Error e)
+		{
+			throw e;
+		}
+		catch (Throwable e)
+		{
+			throw new IllegalStateException("Unable to define a generated class", e);
+		}
+	}
+	
+	/**
+	 * Lookup.defineHiddenClass was added in Java 15, this build targets Java 11 so it is looked up reflectively.
+	 */
+	private static MethodHandle findDefineHiddenClass()
+	{
+		try
+		{
+			Class<?> option = Class.forName("java.lang.invoke.MethodHandles$Lookup$ClassOption");
+			MethodHandle define = LOOKUP.findVirtual(MethodHandles.Lookup.class, "defineHiddenClass",
+					MethodType.methodType(MethodHandles.Lookup.class, byte[].class, boolean.class, Array.newInstance(option, 0).getClass()));
+			
+			//no class options, the generated classes are not nestmates and can be unloaded
+			return MethodHandles.insertArguments(define, 3, Array.newInstance(option, 0));
+		}
+		catch (ReflectiveOperationException e)
+		{
+			return null;
+		}
+	}
+}
@@ -0,0 +1,23 @@
+package com.konloch.dynvarmap.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Recorded when a DynVarMap above the map event threshold is cleared.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+@Name("com.konloch.dynvarmap.Clear")
+@Label("DynVarMap Clear")
+@Category({"DynVarMap", "Map"})
+@Description("A DynVarMap clear above the map event threshold")
+class DynVarClearEvent extends Event
+{
+	@Label("Keys")
+	int keys;
+}
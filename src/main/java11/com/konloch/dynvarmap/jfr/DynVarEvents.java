@@ -0,0 +1,221 @@
+package com.konloch.dynvarmap.jfr;
+
+import java.io.File;
+
+/**
+ * Java Flight Recorder hooks for DynVarMap and DynVarSerializer.
+ *
+ * This is the Java 11+ implementation which commits the events found in this package,
+ * each hook is a cheap no-op when the event is not enabled in the current recording.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+public class DynVarEvents
+{
+	private static volatile int mapEventThreshold = 10_000;
+	
+	/**
+	 * Returns true if the running JVM is able to record DynVarMap events.
+	 *
+	 * @return true if JFR events are supported
+	 */
+	public static boolean isSupported()
+	{
+		return true;
+	}
+	
+	/**
+	 * Returns the minimum map size required before clear and resize events are recorded.
+	 *
+	 * @return the minimum map size for map events
+	 */
+	public static int getMapEventThreshold()
+	{
+		return mapEventThreshold;
+	}
+	
+	/**
+	 * Set the minimum map size required before clear and resize events are recorded.
+	 *
+	 * @param threshold any int as the minimum map size
+	 */
+	public static void setMapEventThreshold(int threshold)
+	{
+		mapEventThreshold = threshold;
+	}
+	
+	/**
+	 * Begin timing a serializer load.
+	 *
+	 * @return the event handle, or null if the event is disabled
+	 */
+	public static Object beginLoad()
+	{
+		DynVarLoadEvent event = new DynVarLoadEvent();
+		if(!event.isEnabled())
+			return null;
+		
+		event.begin();
+		return event;
+	}
+	
+	/**
+	 * Commit a serializer load event.
+	 *
+	 * @param event the event handle returned by beginLoad
+	 * @param file the File that was read
+	 * @param format the serialization format
+	 * @param gzip true if the file was GZip compressed
+	 * @param keys how many variables were parsed
+	 * @param bytes how many bytes were read
+	 * @param parseErrors how many lines failed to parse
+	 */
+	public static void commitLoad(Object event, File file, String format, boolean gzip, int keys, long bytes, int parseErrors)
+	{
+		if(event == null)
+			return;
+		
+		DynVarLoadEvent load = (DynVarLoadEvent) event;
+		load.end();
+		
+		if(!load.shouldCommit())
+			return;
+		
+		load.file = file == null ? null : file.getPath();
+		load.format = format;
+		load.compression = gzip ? "gzip" : "none";
+		load.keys = keys;
+		load.bytes = bytes;
+		load.parseErrors = parseErrors;
+		load.commit();
+	}
+	
+	/**
+	 * Begin timing a serializer save.
+	 *
+	 * @return the event handle, or null if the event is disabled
+	 */
+	public static Object beginSave()
+	{
+		DynVarSaveEvent event = new DynVarSaveEvent();
+		if(!event.isEnabled())
+			return null;
+		
+		event.begin();
+		return event;
+	}
+	
+	/**
+	 * Commit a serializer save event.
+	 *
+	 * @param event the event handle returned by beginSave
+	 * @param file the File that was written
+	 * @param format the serialization format
+	 * @param gzip true if the file was GZip compressed
+	 * @param keys how many variables were written
+	 * @param bytes how many bytes were written
+	 */
+	public static void commitSave(Object event, File file, String format, boolean gzip, int keys, long bytes)
+	{
+		if(event == null)
+			return;
+		
+		DynVarSaveEvent save = (DynVarSaveEvent) event;
+		save.end();
+		
+		if(!save.shouldCommit())
+			return;
+		
+		save.file = file == null ? null : file.getPath();
+		save.format = format;
+		save.compression = gzip ? "gzip" : "none";
+		save.keys = keys;
+		save.bytes = bytes;
+		save.commit();
+	}
+	
+	/**
+	 * Begin timing a map clear, only if the map is above the map event threshold.
+	 *
+	 * @param size the current size of the map
+	 * @return the event handle, or null if the event is disabled
+	 */
+	public static Object beginClear(int size)
+	{
+		if(size < mapEventThreshold)
+			return null;
+		
+		DynVarClearEvent event = new DynVarClearEvent();
+		if(!event.isEnabled())
+			return null;
+		
+		event.begin();
+		return event;
+	}
+	
+	/**
+	 * Commit a map clear event.
+	 *
+	 * @param event the event handle returned by beginClear
+	 * @param size how many variables were removed
+	 */
+	public static void commitClear(Object event, int size)
+	{
+		if(event == null)
+			return;
+		
+		DynVarClearEvent clear = (DynVarClearEvent) event;
+		clear.end();
+		
+		if(!clear.shouldCommit())
+			return;
+		
+		clear.keys = size;
+		clear.commit();
+	}
+	
+	/**
+	 * Begin timing a map table resize, only if the map is above the map event threshold.
+	 *
+	 * @param size the current size of the map
+	 * @return the event handle, or null if the event is disabled
+	 */
+	public static Object beginResize(int size)
+	{
+		if(size < mapEventThreshold)
+			return null;
+		
+		DynVarResizeEvent event = new DynVarResizeEvent();
+		if(!event.isEnabled())
+			return null;
+		
+		event.begin();
+		return event;
+	}
+	
+	/**
+	 * Commit a map table resize event.
+	 *
+	 * @param event the event handle returned by beginResize
+	 * @param size the size of the map after the resize
+	 * @param oldCapacity the table capacity before the resize
+	 * @param newCapacity the table capacity after the resize
+	 */
+	public static void commitResize(Object event, int size, int oldCapacity, int newCapacity)
+	{
+		if(event == null)
+			return;
+		
+		DynVarResizeEvent resize = (DynVarResizeEvent) event;
+		resize.end();
+		
+		if(!resize.shouldCommit())
+			return;
+		
+		resize.keys = size;
+		resize.oldCapacity = oldCapacity;
+		resize.newCapacity = newCapacity;
+		resize.commit();
+	}
+}
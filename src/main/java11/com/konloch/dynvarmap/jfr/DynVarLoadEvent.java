@@ -0,0 +1,42 @@
+package com.konloch.dynvarmap.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Recorded when DynVarSerializer loads a map from disk.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+@Name("com.konloch.dynvarmap.Load")
+@Label("DynVarMap Load")
+@Category({"DynVarMap", "Serializer"})
+@Description("A DynVarSerializer load from disk")
+@StackTrace(false)
+class DynVarLoadEvent extends Event
+{
+	@Label("File")
+	String file;
+	
+	@Label("Format")
+	String format;
+	
+	@Label("Compression")
+	String compression;
+	
+	@Label("Keys")
+	int keys;
+	
+	@Label("Bytes")
+	@DataAmount
+	long bytes;
+	
+	@Label("Parse Errors")
+	int parseErrors;
+}
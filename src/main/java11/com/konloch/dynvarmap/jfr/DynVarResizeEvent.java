@@ -0,0 +1,29 @@
+package com.konloch.dynvarmap.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Recorded when the table of a DynVarMap above the map event threshold is resized.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+@Name("com.konloch.dynvarmap.Resize")
+@Label("DynVarMap Resize")
+@Category({"DynVarMap", "Map"})
+@Description("A DynVarMap table resize above the map event threshold")
+class DynVarResizeEvent extends Event
+{
+	@Label("Keys")
+	int keys;
+	
+	@Label("Old Capacity")
+	int oldCapacity;
+	
+	@Label("New Capacity")
+	int newCapacity;
+}
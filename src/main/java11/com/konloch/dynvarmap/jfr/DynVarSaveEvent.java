@@ -0,0 +1,39 @@
+package com.konloch.dynvarmap.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Recorded when DynVarSerializer saves a map to disk.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+@Name("com.konloch.dynvarmap.Save")
+@Label("DynVarMap Save")
+@Category({"DynVarMap", "Serializer"})
+@Description("A DynVarSerializer save to disk")
+@StackTrace(false)
+class DynVarSaveEvent extends Event
+{
+	@Label("File")
+	String file;
+	
+	@Label("Format")
+	String format;
+	
+	@Label("Compression")
+	String compression;
+	
+	@Label("Keys")
+	int keys;
+	
+	@Label("Bytes")
+	@DataAmount
+	long bytes;
+}
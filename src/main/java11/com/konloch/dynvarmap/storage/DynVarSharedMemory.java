@@ -0,0 +1,91 @@
+package com.konloch.dynvarmap.storage;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Atomic access to a direct or memory-mapped buffer, shared with every process that maps the same file.
+ *
+ * This is the Java 11+ implementation which uses byte buffer view VarHandles in native byte order, so the file
+ * layout is the same as the Java 8 build. Plain reads and writes use acquire and release modes, which is all the
+ * slot protocol needs and spares a full fence on every publish. Offsets of ints and longs have to be aligned to
+ * their size.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+final class DynVarSharedMemory
+{
+	private static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+	private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+	
+	private final ByteBuffer buffer;
+	
+	DynVarSharedMemory(ByteBuffer buffer)
+	{
+		if(!buffer.isDirect())
+			throw new IllegalArgumentException("Shared memory needs a direct or mapped buffer");
+		
+		this.buffer = buffer;
+	}
+	
+	int getIntVolatile(int offset)
+	{
+		return (int) INTS.getAcquire(buffer, offset);
+	}
+	
+	void putIntVolatile(int offset, int value)
+	{
+		INTS.setRelease(buffer, offset, value);
+	}
+	
+	boolean compareAndSetInt(int offset, int expected, int value)
+	{
+		return INTS.compareAndSet(buffer, offset, expected, value);
+	}
+	
+	long getLongVolatile(int offset)
+	{
+		return (long) LONGS.getAcquire(buffer, offset);
+	}
+	
+	void putLongVolatile(int offset, long value)
+	{
+		LONGS.setRelease(buffer, offset, value);
+	}
+	
+	boolean compareAndSetLong(int offset, long expected, long value)
+	{
+		return LONGS.compareAndSet(buffer, offset, expected, value);
+	}
+	
+	long getAndAddLong(int offset, long delta)
+	{
+		return (long) LONGS.getAndAdd(buffer, offset, delta);
+	}
+	
+	long getAndSetLong(int offset, long value)
+	{
+		return (long) LONGS.getAndSet(buffer, offset, value);
+	}
+	
+	byte getByte(int offset)
+	{
+		return buffer.get(offset);
+	}
+	
+	void putByte(int offset, byte value)
+	{
+		buffer.put(offset, value);
+	}
+	
+	/**
+	 * Called while waiting for another process to finish writing a slot.
+	 */
+	static void onSpinWait()
+	{
+		Thread.onSpinWait();
+	}
+}
@@ -0,0 +1,114 @@
+package com.konloch.dynvarmap;
+
+import com.konloch.dynvarmap.vars.DynVarInteger;
+import com.konloch.dynvarmap.vars.DynVarLong;
+import com.konloch.dynvarmap.vars.DynVarString;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Konloch
+ * @since 10/18/2026
+ */
+class DynVarBulkTest
+{
+	@Test
+	void putAllMatchesAPutLoop()
+	{
+		String[] keys = {"int", "long", "double", "bool", "string", "int", "existing", "retyped"};
+		Object[] values = {1, 2L, 3.0, true, "four", 5, 6, "seven"};
+		
+		DynVarMap looped = new DynVarMap().put("existing", 0).put("retyped", 0);
+		DynVarMap bulk = new DynVarMap().put("existing", 0).put("retyped", 0);
+		DynVarField existing = bulk.get("existing");
+		
+		for (int i = 0; i < keys.length; i++)
+			looped.put(keys[i], values[i]);
+		
+		bulk.putAll(keys, values);
+		
+		assertEquals(looped.getFields().keySet(), bulk.getFields().keySet());
+		for (String key : keys)
+		{
+			assertEquals(looped.get(key).getClass(), bulk.get(key).getClass(), key);
+			assertEquals(looped.get(key).<Object>get(), bulk.get(key).<Object>get(), key);
+		}
+		
+		assertSame(existing, bulk.get("existing"));
+		assertInstanceOf(DynVarString.class, bulk.get("retyped"));
+	}
+	
+	@Test
+	void putAllFromAMap()
+	{
+		Map<String, Object> values = new LinkedHashMap<>();
+		values.put("a", 1);
+		values.put("b", "two");
+		
+		DynVarMap map = new DynVarMap().putAll(values);
+		assertEquals(1, map.getInt("a"));
+		assertEquals("two", map.getString("b"));
+	}
+	
+	@Test
+	void primitiveBulkOperations()
+	{
+		DynVarMap map = new DynVarMap().put("a", "retype me");
+		String[] keys = {"a", "b", "c"};
+		
+		map.putInts(keys, new int[]{1, 2, 3});
+		assertInstanceOf(DynVarInteger.class, map.get("a"));
+		assertArrayEquals(new int[]{1, 2, 3}, map.getInts(keys, new int[3]));
+		
+		map.addAll(keys, 10);
+		assertArrayEquals(new int[]{11, 12, 13}, map.getInts(keys, new int[3]));
+		
+		map.putLongs(keys, new long[]{Long.MAX_VALUE, 2, 3});
+		assertInstanceOf(DynVarLong.class, map.get("a"));
+		map.addAll(new String[]{"b", "d"}, 5L);
+		assertArrayEquals(new long[]{Long.MAX_VALUE, 7, 3, 5}, map.getLongs(new String[]{"a", "b", "c", "d"}, new long[4]));
+		
+		assertThrows(IllegalArgumentException.class, () -> map.putInts(keys, new int[2]));
+		assertThrows(IllegalArgumentException.class, () -> map.getLongs(keys, new long[2]));
+	}
+	
+	@Test
+	void updatesDoNotGrowTheTable() throws ReflectiveOperationException
+	{
+		DynVarMap map = new DynVarMap();
+		String[] keys = new String[1_000];
+		for (int i = 0; i < keys.length; i++)
+			map.put(keys[i] = "key." + i, i);
+		
+		int capacity = capacity(map);
+		
+		//one missing key among many existing ones only needs room for itself
+		String[] mostlyExisting = keys.clone();
+		mostlyExisting[0] = "missing";
+		map.putInts(mostlyExisting, new int[keys.length]);
+		map.addAll(keys, 1);
+		assertEquals(capacity, capacity(map));
+		
+		//all missing keys grow the table once, to fit them all
+		String[] missing = new String[1_000];
+		for (int i = 0; i < missing.length; i++)
+			missing[i] = "missing." + i;
+		
+		map.putInts(missing, new int[missing.length]);
+		assertEquals(2_001, map.getFields().size());
+		assertTrue(capacity(map) * 0.75F >= 2_001);
+		assertTrue(capacity(map) < 2_001 * 4);
+	}
+	
+	private static int capacity(DynVarMap map) throws ReflectiveOperationException
+	{
+		Field capacity = DynVarMap.class.getDeclaredField("capacity");
+		capacity.setAccessible(true);
+		return capacity.getInt(map);
+	}
+}
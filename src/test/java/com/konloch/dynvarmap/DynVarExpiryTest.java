@@ -0,0 +1,167 @@
+package com.konloch.dynvarmap;
+
+import com.konloch.dynvarmap.time.DynVarClocks;
+import com.konloch.dynvarmap.time.DynVarManualClock;
+import com.konloch.dynvarmap.vars.DynVarInteger;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Konloch
+ * @since 10/18/2026
+ */
+class DynVarExpiryTest
+{
+	@Test
+	void expiredVariablesAreInvisibleAndRemovedOnAccess()
+	{
+		DynVarManualClock clock = DynVarClocks.manual(0);
+		DynVarMap map = new DynVarMap().setClock(clock);
+		map.put("session", "abc", 1_000);
+		
+		assertEquals(1_000, map.getRemainingTTL("session"));
+		clock.advance(999);
+		assertTrue(map.containsKey("session"));
+		
+		clock.advance(1);
+		assertFalse(map.containsKey("session"));
+		assertTrue(map.getFields().isEmpty());
+		assertEquals(-1, map.getRemainingTTL("session"));
+	}
+	
+	@Test
+	void touchRestartsTheTimeToLive()
+	{
+		DynVarManualClock clock = DynVarClocks.manual(0);
+		DynVarMap map = new DynVarMap().setClock(clock);
+		map.put("a", 1, 100);
+		
+		clock.advance(80);
+		assertTrue(map.touch("a"));
+		clock.advance(80);
+		assertTrue(map.containsKey("a"));
+		assertEquals(20, map.getRemainingTTL("a"));
+		
+		map.put("b", 2);
+		assertFalse(map.touch("b"));
+		assertFalse(map.touch("missing"));
+	}
+	
+	@Test
+	void clearingTheTimeToLiveKeepsTheVariable()
+	{
+		DynVarManualClock clock = DynVarClocks.manual(0);
+		DynVarMap map = new DynVarMap().setClock(clock);
+		map.put("a", 1, 100);
+		
+		assertTrue(map.setTTL("a", 0));
+		clock.advance(1_000);
+		assertTrue(map.containsKey("a"));
+		assertEquals(-1, map.getRemainingTTL("a"));
+		assertEquals(0, map.sweepExpired(10));
+		assertFalse(map.setTTL("missing", 10));
+	}
+	
+	@Test
+	void sweepsAreIncremental()
+	{
+		DynVarManualClock clock = DynVarClocks.manual(0);
+		DynVarMap map = new DynVarMap().setClock(clock);
+		for (int i = 0; i < 10; i++)
+			map.put("short." + i, i, 100);
+		for (int i = 0; i < 10; i++)
+			map.put("long." + i, i, 10_000);
+		
+		clock.advance(500);
+		
+		assertEquals(4, map.sweepExpired(4));
+		assertEquals(6, map.sweepExpired(100));
+		assertEquals(10, map.getFields().size());
+		assertEquals(0, map.sweepExpired(100));
+		
+		clock.advance(10_000);
+		assertEquals(10, map.sweepExpired(100));
+		assertTrue(map.isEmpty());
+	}
+	
+	@Test
+	void removedAndReplacedVariablesAreNotSwept()
+	{
+		DynVarManualClock clock = DynVarClocks.manual(0);
+		DynVarMap map = new DynVarMap().setClock(clock);
+		map.put("a", 1, 100);
+		map.put("b", 1, 100);
+		
+		map.remove("a");
+		DynVarUnsafe.putDirect(map, "b", new DynVarInteger().set(2));
+		clock.advance(1_000);
+		
+		assertEquals(0, map.sweepExpired(100));
+		assertEquals(2, map.getInt("b"));
+	}
+	
+	@Test
+	void retypedVariablesKeepTheirTimeToLive()
+	{
+		DynVarManualClock clock = DynVarClocks.manual(0);
+		DynVarMap map = new DynVarMap().setClock(clock);
+		map.put("a", 1, 100);
+		
+		map.put("a", "one");
+		assertEquals(100, map.getRemainingTTL("a"));
+		
+		clock.advance(1_000);
+		assertEquals(1, map.sweepExpired(100));
+	}
+	
+	@Test
+	void clearDropsEveryTimeToLive()
+	{
+		DynVarManualClock clock = DynVarClocks.manual(0);
+		DynVarMap map = new DynVarMap().setClock(clock);
+		map.put("a", 1, 100);
+		map.clear();
+		
+		map.put("a", 1);
+		clock.advance(1_000);
+		assertTrue(map.containsKey("a"));
+	}
+	
+	@Test
+	void scheduledSweepsRemoveInTheBackground() throws Exception
+	{
+		DynVarManualClock clock = DynVarClocks.manual(0);
+		DynVarMap map = new DynVarMap().setClock(clock);
+		map.put("a", 1, 100);
+		clock.advance(1_000);
+		
+		ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+		try
+		{
+			ScheduledFuture<?> sweep = map.scheduleExpirySweep(scheduler, 1, 100);
+			long deadline = System.currentTimeMillis() + 5_000;
+			while (System.currentTimeMillis() < deadline)
+			{
+				synchronized (map)
+				{
+					if(map.getFields().isEmpty())
+						break;
+				}
+				
+				Thread.sleep(1);
+			}
+			
+			sweep.cancel(false);
+			assertTrue(map.getFields().isEmpty());
+		}
+		finally
+		{
+			scheduler.shutdownNow();
+		}
+	}
+}
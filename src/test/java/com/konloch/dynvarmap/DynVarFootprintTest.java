@@ -0,0 +1,85 @@
+package com.konloch.dynvarmap;
+
+import com.konloch.dynvarmap.vars.DynVarInteger;
+import com.konloch.dynvarmap.vars.DynVarString;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Konloch
+ * @since 10/18/2026
+ */
+class DynVarFootprintTest
+{
+	@Test
+	void shallowSizesFollowTheObjectLayout()
+	{
+		//a header, an int and alignment for Integer, a header and a long rounded up for Long
+		assertEquals(16, DynVarFootprint.shallowSize(Integer.class));
+		assertEquals(24, DynVarFootprint.shallowSize(Long.class));
+		assertEquals(0, DynVarFootprint.shallowSize(Object.class) % 8);
+		assertTrue(DynVarFootprint.shallowSize(DynVarField.class) >= DynVarFootprint.shallowSize(Object.class));
+	}
+	
+	@Test
+	void cachedBoxesAndBooleansAreFree()
+	{
+		assertEquals(0, DynVarFootprint.valueSize(null));
+		assertEquals(0, DynVarFootprint.valueSize(true));
+		assertEquals(0, DynVarFootprint.valueSize(127));
+		assertEquals(0, DynVarFootprint.valueSize(-128L));
+		assertEquals(16, DynVarFootprint.valueSize(128));
+	}
+	
+	@Test
+	void stringsIncludeTheirBackingArray()
+	{
+		long empty = DynVarFootprint.stringSize("");
+		
+		assertTrue(DynVarFootprint.stringSize("a much longer variable value") > empty);
+		assertTrue(DynVarFootprint.stringSize("世界世界") >= DynVarFootprint.stringSize("abcd"));
+		assertEquals(DynVarFootprint.arraySize(0, 1), DynVarFootprint.arraySize(0, 8));
+		assertEquals(0, DynVarFootprint.arraySize(13, 1) % 8);
+	}
+	
+	@Test
+	void mapFootprintAddsUpItsParts()
+	{
+		DynVarMap map = new DynVarMap();
+		for (int i = 0; i < 100; i++)
+			map.put("int." + i, 1_000 + i);
+		
+		map.put("name", "DynVarMap");
+		
+		DynVarFootprint footprint = map.estimateFootprint();
+		
+		assertEquals(101, footprint.getEntries());
+		assertEquals(footprint.getTableBytes() + footprint.getEntryBytes() + footprint.getKeyBytes()
+				+ footprint.getFieldBytes() + footprint.getBoxedValueBytes() + footprint.getStringValueBytes()
+				+ footprint.getOtherValueBytes(), footprint.getTotalBytes());
+		assertEquals(100 * DynVarFootprint.shallowSize(Integer.class), footprint.getBoxedValueBytes());
+		assertEquals(DynVarFootprint.stringSize("DynVarMap"), footprint.getStringValueBytes());
+		assertTrue(footprint.getBytesByType().containsKey(DynVarInteger.class));
+		assertTrue(footprint.getBytesByType().containsKey(DynVarString.class));
+	}
+	
+	@Test
+	void footprintGrowsWithTheMap()
+	{
+		DynVarMap map = new DynVarMap();
+		long empty = map.estimateFootprint().getTotalBytes();
+		
+		for (int i = 0; i < 1_000; i++)
+			map.put("key." + i, "value " + i);
+		
+		DynVarFootprint full = map.estimateFootprint();
+		long entry = DynVarFootprint.estimateEntry("key.999", map.get("key.999")) + full.getEntryBytes() / full.getEntries();
+		
+		assertTrue(full.getTotalBytes() > empty + 1_000 * DynVarFootprint.stringSize("value 0"));
+		
+		//removing a variable frees its key, field, value and table entry, the table itself keeps its capacity
+		map.remove("key.999");
+		assertEquals(full.getTotalBytes() - entry, map.estimateFootprint().getTotalBytes());
+	}
+}
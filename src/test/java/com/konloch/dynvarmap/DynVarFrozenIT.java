@@ -0,0 +1,84 @@
+package com.konloch.dynvarmap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs against the packaged jar, on Java 15+ the multi-release DynVarClassDefiner defines the frozen lookups
+ * as hidden classes.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+class DynVarFrozenIT
+{
+	@BeforeEach
+	void setUp()
+	{
+		String version = System.getProperty("java.specification.version");
+		assumeTrue(!version.startsWith("1.") && Integer.parseInt(version) >= 15,
+				"Hidden classes are only defined by the Java 15+ classes of the multi-release jar");
+	}
+	
+	@Test
+	void lookupsAreHiddenClasses() throws ReflectiveOperationException
+	{
+		assertNotNull(DynVarClassDefiner.class.getDeclaredField("DEFINE_HIDDEN_CLASS"));
+		
+		DynVarMap map = new DynVarMap().put("hp", 10).put("name", "Konloch").freeze();
+		Class<?> type = frozen(map).getClass();
+		
+		assertTrue((Boolean) Class.class.getMethod("isHidden").invoke(type));
+		assertEquals(DynVarFrozen.class, type.getSuperclass());
+		assertEquals(10, map.getInt("hp"));
+		assertEquals("Konloch", map.getString("name"));
+	}
+	
+	@Test
+	void everyKeyIsFoundThroughTheGeneratedMethods() throws ReflectiveOperationException
+	{
+		DynVarMap map = new DynVarMap();
+		for (int i = 0; i < DynVarFrozen.MAX_KEYS; i++)
+			map.put("player." + i + ".hp", i);
+		
+		map.freeze();
+		DynVarFrozen frozen = frozen(map);
+		
+		for (int i = 0; i < DynVarFrozen.MAX_KEYS; i++)
+		{
+			String key = "player." + i + ".hp";
+			assertSame(map.getFields().get(key), frozen.find(key));
+			assertEquals(i, map.getInt(key));
+		}
+		
+		assertNull(frozen.find("player." + DynVarFrozen.MAX_KEYS + ".hp"));
+		assertNull(frozen.find("player.0.mp"));
+	}
+	
+	@Test
+	void refreezingDefinesAnotherClass() throws ReflectiveOperationException
+	{
+		DynVarMap map = new DynVarMap().put("hp", 10).freeze();
+		Class<?> first = frozen(map).getClass();
+		
+		//a retyped variable falls through to the table until the next freeze
+		map.put("hp", "full");
+		assertEquals("full", map.getString("hp"));
+		
+		map.freeze();
+		assertNotSame(first, frozen(map).getClass());
+		assertSame(map.getFields().get("hp"), frozen(map).find("hp"));
+	}
+	
+	private static DynVarFrozen frozen(DynVarMap map) throws ReflectiveOperationException
+	{
+		Field frozen = DynVarMap.class.getDeclaredField("frozen");
+		frozen.setAccessible(true);
+		return (DynVarFrozen) frozen.get(map);
+	}
+}
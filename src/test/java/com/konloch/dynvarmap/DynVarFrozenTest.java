@@ -0,0 +1,164 @@
+package com.konloch.dynvarmap;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Konloch
+ * @since 10/18/2026
+ */
+class DynVarFrozenTest
+{
+	/**
+	 * The default FreqInlineSize of HotSpot, hot methods larger than this are not inlined.
+	 */
+	private static final int FREQ_INLINE_SIZE = 325;
+	
+	@Test
+	void everySizeFindsItsKeys()
+	{
+		for (int size : new int[]{1, DynVarFrozen.LEAF_KEYS, DynVarFrozen.LEAF_KEYS + 1, 200, DynVarFrozen.MAX_KEYS})
+		{
+			DynVarMap map = new DynVarMap();
+			for (int i = 0; i < size; i++)
+				map.put("key." + i, i);
+			
+			map.freeze();
+			assertTrue(map.isFrozen());
+			
+			for (int i = 0; i < size; i++)
+				assertEquals(i, map.getInt("key." + i), size + " keys");
+			
+			assertFalse(map.containsKey("key." + size));
+			assertFalse(map.containsKey(""));
+		}
+	}
+	
+	@Test
+	void collidingHashesStayInOneLeaf()
+	{
+		//"Aa" and "BB" share a hash, so every combination of five of them does too
+		List<String> keys = new ArrayList<>();
+		for (int bits = 0; bits < 32; bits++)
+		{
+			StringBuilder key = new StringBuilder();
+			for (int i = 0; i < 5; i++)
+				key.append((bits >> i & 1) == 0 ? "Aa" : "BB");
+			keys.add(key.toString());
+		}
+		
+		assertEquals(1, keys.stream().mapToInt(String::hashCode).distinct().count());
+		
+		Map<String, DynVarField> fields = new LinkedHashMap<>();
+		for (int i = 0; i < 100; i++)
+			fields.put("filler." + i, new DynVarField().set(-i));
+		for (int i = 0; i < keys.size(); i++)
+			fields.put(keys.get(i), new DynVarField().set(i));
+		
+		DynVarFrozen frozen = DynVarFrozen.compile(fields);
+		for (Map.Entry<String, DynVarField> entry : fields.entrySet())
+			assertSame(entry.getValue(), frozen.find(entry.getKey()));
+		
+		assertNull(frozen.find("AaAaAaAaAb"));
+		assertNull(frozen.find("AaAaAaAa"));
+	}
+	
+	@Test
+	void lookupMethodsStayInlineable() throws IOException
+	{
+		for (int size : new int[]{1, 20, 300, DynVarFrozen.MAX_KEYS})
+		{
+			List<String> keys = new ArrayList<>();
+			for (int i = 0; i < size; i++)
+				keys.add("player." + i + ".hp");
+			
+			Map<String, Integer> methods = codeLengths(DynVarFrozen.generate("com/konloch/dynvarmap/DynVarFrozen$Test", keys));
+			assertTrue(methods.containsKey("find"));
+			
+			for (Map.Entry<String, Integer> method : methods.entrySet())
+				if(!method.getKey().equals("<init>"))
+					assertTrue(method.getValue() <= FREQ_INLINE_SIZE, size + " keys, " + method.getKey() + " is " + method.getValue() + " bytes");
+		}
+	}
+	
+	@Test
+	void tooManyKeysAreRejected()
+	{
+		Map<String, DynVarField> fields = new LinkedHashMap<>();
+		for (int i = 0; i <= DynVarFrozen.MAX_KEYS; i++)
+			fields.put("key." + i, new DynVarField());
+		
+		assertThrows(IllegalArgumentException.class, () -> DynVarFrozen.compile(fields));
+	}
+	
+	/**
+	 * Reads the bytecode length of every method of a class file.
+	 */
+	private static Map<String, Integer> codeLengths(byte[] bytes) throws IOException
+	{
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+		in.skipBytes(8);
+		
+		int count = in.readUnsignedShort();
+		String[] utf8 = new String[count];
+		for (int i = 1; i < count; i++)
+		{
+			int tag = in.readUnsignedByte();
+			if(tag == 1)
+				utf8[i] = in.readUTF();
+			else if(tag == 7 || tag == 8)
+				in.skipBytes(2);
+			else
+				in.skipBytes(4);
+		}
+		
+		in.skipBytes(6);
+		in.skipBytes(2 * in.readUnsignedShort());
+		
+		int fields = in.readUnsignedShort();
+		for (int i = 0; i < fields; i++)
+		{
+			in.skipBytes(6);
+			assertEquals(0, in.readUnsignedShort());
+		}
+		
+		Map<String, Integer> lengths = new LinkedHashMap<>();
+		int methods = in.readUnsignedShort();
+		for (int i = 0; i < methods; i++)
+		{
+			in.skipBytes(2);
+			String name = utf8[in.readUnsignedShort()];
+			in.skipBytes(2);
+			
+			int attributes = in.readUnsignedShort();
+			for (int a = 0; a < attributes; a++)
+			{
+				String attribute = utf8[in.readUnsignedShort()];
+				int length = in.readInt();
+				
+				if(attribute.equals("Code"))
+				{
+					in.skipBytes(4);
+					int code = in.readInt();
+					lengths.put(name, code);
+					in.skipBytes(length - 8);
+				}
+				else
+				{
+					in.skipBytes(length);
+				}
+			}
+		}
+		
+		return lengths;
+	}
+}
@@ -0,0 +1,90 @@
+package com.konloch.dynvarmap;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Konloch
+ * @since 10/18/2026
+ */
+class DynVarKeyTableTest
+{
+	@Test
+	void charSequenceLookupsReturnTheStoredKey()
+	{
+		DynVarMap map = new DynVarMap();
+		map.put("player.123.hp", 10);
+		String stored = map.getFields().keySet().iterator().next();
+		
+		StringBuilder builder = new StringBuilder("player.").append(123).append(".hp");
+		assertSame(stored, map.key(builder));
+		assertTrue(map.containsKey(builder));
+		assertEquals(10, map.get(builder).<Integer>get());
+		
+		builder.setLength(0);
+		builder.append("player.124.hp");
+		assertFalse(map.containsKey(builder));
+		assertEquals("player.124.hp", map.key(builder));
+	}
+	
+	@Test
+	void compositeLookupsMatchTheDecimalId()
+	{
+		DynVarMap map = new DynVarMap();
+		map.put("player.123.hp", 1).put("player.-5.hp", 2).put("player." + Long.MIN_VALUE + ".hp", 3).put("7", 4);
+		
+		assertTrue(map.containsKey("player.", 123, ".hp"));
+		assertTrue(map.containsKey("player.", -5, ".hp"));
+		assertTrue(map.containsKey("player.", Long.MIN_VALUE, ".hp"));
+		assertTrue(map.containsKey("", 7, ""));
+		assertFalse(map.containsKey("player.", 12, ".hp"));
+		assertFalse(map.containsKey("player.", 1230, ".hp"));
+		assertEquals(2, map.get("player.", -5, ".hp").<Integer>get());
+		assertSame(map.key("player.123.hp"), map.key("player.", 123, ".hp"));
+	}
+	
+	@Test
+	void theKeyTableFollowsPutsAndRemoves()
+	{
+		DynVarMap map = new DynVarMap();
+		assertFalse(map.containsKey(new StringBuilder("a")));
+		
+		map.put("a", 1);
+		assertTrue(map.containsKey(new StringBuilder("a")));
+		
+		map.remove("a");
+		assertFalse(map.containsKey(new StringBuilder("a")));
+		
+		for (int i = 0; i < 1_000; i++)
+			map.put("key." + i, i);
+		
+		assertTrue(map.containsKey("key.", 999, ""));
+		map.clear();
+		assertFalse(map.containsKey("key.", 999, ""));
+	}
+	
+	@Test
+	void viewsResolveAgainstTheParent()
+	{
+		DynVarMap map = new DynVarMap();
+		map.put("player.123.hp", 10).put("player.123.slot.4", 7).put("hp", 1);
+		DynVarView player = map.view("player.123");
+		
+		StringBuilder hp = new StringBuilder("hp");
+		assertTrue(player.containsKey(hp));
+		assertEquals(10, player.get(hp).<Integer>get());
+		assertEquals("hp", player.key(hp));
+		
+		assertTrue(player.containsKey("slot.", 4, ""));
+		assertFalse(player.containsKey("slot.", 5, ""));
+		assertEquals(7, player.get("slot.", 4, "").<Integer>get());
+		assertEquals("slot.4", player.key("slot.", 4, ""));
+		
+		//keys outside the view are not visible, and missing keys are created inside it
+		assertFalse(player.containsKey(new StringBuilder("player.123.hp")));
+		player.get(new StringBuilder("mp")).set(3);
+		assertEquals(3, map.getInt("player.123.mp"));
+		assertTrue(player.containsKey(new StringBuilder("mp")));
+	}
+}
@@ -0,0 +1,146 @@
+package com.konloch.dynvarmap;
+
+import com.konloch.dynvarmap.vars.DynVarInteger;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Konloch
+ * @since 10/18/2026
+ */
+class DynVarListenerTest
+{
+	@Test
+	void batchedClearDoesNotSwallowAnEmptyKey()
+	{
+		List<Runnable> queued = new ArrayList<>();
+		List<DynVarChange> changes = new ArrayList<>();
+		
+		DynVarMap map = new DynVarMap();
+		map.addListener(changes::add, queued::add);
+		
+		map.put("a", 1);
+		map.clear();
+		map.put("", 5);
+		queued.forEach(Runnable::run);
+		
+		assertEquals(2, changes.size());
+		assertEquals(DynVarChange.Type.CLEAR, changes.get(0).getType());
+		assertNull(changes.get(0).getKey());
+		assertEquals("", changes.get(1).getKey());
+		assertEquals(5, changes.get(1).<Integer>getNewValue());
+	}
+	
+	@Test
+	void batchedChangesCoalescePerKey()
+	{
+		List<Runnable> queued = new ArrayList<>();
+		List<DynVarChange> changes = new ArrayList<>();
+		
+		DynVarMap map = new DynVarMap();
+		map.put("a", 1);
+		map.addListener(changes::add, queued::add);
+		
+		map.getVarInt("a").set(2);
+		map.getVarInt("a").set(3);
+		map.put("", 1);
+		
+		assertEquals(1, queued.size());
+		queued.forEach(Runnable::run);
+		
+		assertEquals(2, changes.size());
+		assertEquals(1, changes.get(0).<Integer>getOldValue());
+		assertEquals(3, changes.get(0).<Integer>getNewValue());
+	}
+	
+	@Test
+	void standaloneFieldListenersFollowTheFieldIntoAMap()
+	{
+		List<DynVarChange> changes = new ArrayList<>();
+		DynVarInteger field = new DynVarInteger();
+		field.addListener(changes::add);
+		
+		field.set(2);
+		assertEquals(1, changes.size());
+		assertNull(changes.get(0).getMap());
+		
+		DynVarMap map = new DynVarMap();
+		DynVarUnsafe.putDirect(map, "a", field);
+		field.set(3);
+		
+		assertSame(map, changes.get(changes.size() - 1).getMap());
+		assertEquals("a", changes.get(changes.size() - 1).getKey());
+		assertEquals(3, changes.get(changes.size() - 1).<Integer>getNewValue());
+	}
+	
+	@Test
+	void removedFieldsKeepTheirListeners()
+	{
+		List<DynVarChange> changes = new ArrayList<>();
+		DynVarMap map = new DynVarMap();
+		DynVarInteger field = map.getVarInt("a", 1);
+		field.addListener(changes::add);
+		
+		map.remove("a");
+		assertEquals(DynVarChange.Type.REMOVE, changes.get(changes.size() - 1).getType());
+		
+		field.set(2);
+		assertNull(changes.get(changes.size() - 1).getMap());
+		assertEquals(2, changes.get(changes.size() - 1).<Integer>getNewValue());
+		
+		field.removeListener(changes::add);
+		int size = changes.size();
+		field.set(3);
+		assertEquals(size + 1, changes.size(), "a different method reference is a different listener");
+	}
+	
+	@Test
+	void clearTellsFieldListenersOnce()
+	{
+		List<DynVarChange> changes = new ArrayList<>();
+		DynVarMap map = new DynVarMap();
+		map.getVarInt("a", 1).addListener(changes::add);
+		
+		map.clear();
+		
+		assertEquals(1, changes.size());
+		assertEquals(DynVarChange.Type.REMOVE, changes.get(0).getType());
+	}
+	
+	@Test
+	void retypedVariablesKeepListenersAndTimeToLive()
+	{
+		List<DynVarChange> changes = new ArrayList<>();
+		DynVarMap map = new DynVarMap();
+		map.getVarInt("a", 1).addListener(changes::add);
+		map.setTTL("a", 60_000);
+		
+		map.getVarLong("a").set(5L);
+		
+		assertTrue(map.getRemainingTTL("a") > 0);
+		assertEquals(DynVarChange.Type.SET, changes.get(changes.size() - 1).getType());
+		assertEquals(5L, changes.get(changes.size() - 1).<Long>getNewValue());
+		assertTrue(changes.stream().anyMatch(change -> change.getType() == DynVarChange.Type.RETYPE));
+	}
+	
+	@Test
+	void replacedVariablesDropTheirTimeToLive()
+	{
+		DynVarMap map = new DynVarMap();
+		map.put("a", 1, 60_000);
+		DynVarUnsafe.putDirect(map, "a", new DynVarInteger());
+		
+		assertEquals(-1, map.getRemainingTTL("a"));
+	}
+	
+	@Test
+	void fieldsCarryNoListenerOrExpiryState()
+	{
+		//value, owner and key only, listeners and time-to-live live in side tables
+		assertEquals(DynVarFootprint.isCompressedOops() ? 24 : 40, DynVarFootprint.shallowSize(DynVarField.class));
+	}
+}
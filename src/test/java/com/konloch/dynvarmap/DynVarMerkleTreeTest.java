@@ -0,0 +1,124 @@
+package com.konloch.dynvarmap;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Konloch
+ * @since 10/18/2026
+ */
+class DynVarMerkleTreeTest
+{
+	@Test
+	void rootHashIgnoresInsertionOrder()
+	{
+		DynVarMap forward = new DynVarMap().enableMerkleTree();
+		DynVarMap backward = new DynVarMap();
+		
+		for (int i = 0; i < 1_000; i++)
+			forward.put("key." + i, i);
+		
+		for (int i = 999; i >= 0; i--)
+			backward.put("key." + i, i);
+		
+		//a tree built from an existing map matches one maintained from the start
+		assertEquals(forward.getRootHash(), backward.getRootHash());
+		assertTrue(forward.diff(backward).isEmpty());
+	}
+	
+	@Test
+	void rootHashFollowsEveryKindOfChange()
+	{
+		DynVarMap map = new DynVarMap().enableMerkleTree().put("hp", 10).put("name", "Konloch");
+		long initial = map.getRootHash();
+		
+		map.getVarInt("hp").add(1);
+		assertNotEquals(initial, map.getRootHash());
+		map.getVarInt("hp").subtract(1);
+		assertEquals(initial, map.getRootHash());
+		
+		map.put("hp", "10");
+		assertNotEquals(initial, map.getRootHash(), "a retype with an equal looking value still differs");
+		map.put("hp", 10);
+		assertEquals(initial, map.getRootHash());
+		
+		map.put("mp", 5);
+		map.remove("mp");
+		assertEquals(initial, map.getRootHash());
+		
+		map.transaction(tx -> tx.set("hp", 11));
+		assertEquals(new DynVarMap().put("hp", 11).put("name", "Konloch").getRootHash(), map.getRootHash());
+		
+		map.clear();
+		assertEquals(new DynVarMap().getRootHash(), map.getRootHash());
+	}
+	
+	@Test
+	void diffMatchesAFullComparison()
+	{
+		Random random = new Random(44);
+		DynVarMap left = new DynVarMap();
+		DynVarMap right = new DynVarMap();
+		
+		for (int i = 0; i < 5_000; i++)
+		{
+			left.put("key." + i, i);
+			right.put("key." + i, i);
+		}
+		
+		left.enableMerkleTree();
+		right.enableMerkleTree();
+		Set<String> expected = new HashSet<>();
+		
+		for (int i = 0; i < 100; i++)
+		{
+			String key = "key." + random.nextInt(6_000);
+			switch (random.nextInt(3))
+			{
+				case 0:
+					right.put(key, -1);
+					break;
+				case 1:
+					right.remove(key);
+					break;
+				default:
+					right.put(key, "changed");
+			}
+		}
+		
+		for (int i = 0; i < 6_000; i++)
+		{
+			String key = "key." + i;
+			if(left.containsKey(key) != right.containsKey(key)
+					|| (left.containsKey(key) && !left.get(key).equals(right.get(key))))
+				expected.add(key);
+		}
+		
+		assertEquals(expected, left.diff(right));
+		assertEquals(expected, right.diff(left));
+	}
+	
+	@Test
+	void treesOfDifferentSizesCompare()
+	{
+		DynVarMap small = new DynVarMap().put("key.1", 1);
+		DynVarMap large = new DynVarMap();
+		for (int i = 0; i < 50_000; i++)
+			large.put("key." + i, i);
+		
+		Set<String> diff = small.diff(large);
+		assertEquals(49_999, diff.size());
+		assertFalse(diff.contains("key.1"));
+		
+		large.removePrefix("key.");
+		large.put("key.1", 1);
+		assertEquals(Collections.emptySet(), small.diff(large));
+		assertEquals(small.getRootHash(), large.getRootHash());
+	}
+}
@@ -0,0 +1,102 @@
+package com.konloch.dynvarmap;
+
+import com.konloch.dynvarmap.storage.DynVarRadixStorage;
+import com.konloch.dynvarmap.vars.DynVarDouble;
+import com.konloch.dynvarmap.vars.DynVarInteger;
+import com.konloch.dynvarmap.vars.DynVarLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Konloch
+ * @since 10/18/2026
+ */
+class DynVarStatsTest
+{
+	private static final int THRESHOLD = DynVarStats.getParallelThreshold();
+	
+	@AfterEach
+	void restoreThreshold()
+	{
+		DynVarStats.setParallelThreshold(THRESHOLD);
+	}
+	
+	@Test
+	void aggregatesMixedNumericTypes()
+	{
+		DynVarMap map = new DynVarMap().put("a", 1).put("b", 5L).put("c", 2.5).put("d", "not a number");
+		
+		DynVarStats stats = map.stats(DynVarField.class);
+		assertEquals(3, stats.getCount());
+		assertEquals(6, stats.getLongSum());
+		assertEquals(8.5, stats.getSum());
+		assertEquals(1, stats.getMin());
+		assertEquals(5, stats.getMax());
+		assertEquals(8.5 / 3, stats.getAverage(), 1e-9);
+		
+		assertEquals(1, map.count(DynVarInteger.class, null));
+		assertEquals(0, new DynVarMap().average(DynVarLong.class, null));
+		assertEquals(Double.POSITIVE_INFINITY, new DynVarMap().min(DynVarLong.class, null));
+	}
+	
+	@Test
+	void parallelAndSerialResultsAgree()
+	{
+		for (DynVarMap map : new DynVarMap[]{fill(new DynVarMap()), fill(new DynVarMap().enableTypeIndex()), fill(new DynVarMap(new DynVarRadixStorage()))})
+		{
+			DynVarStats.setParallelThreshold(Integer.MAX_VALUE);
+			DynVarStats serial = map.stats(DynVarLong.class, "player.1");
+			DynVarStats serialFiltered = map.stats(DynVarField.class, key -> key.endsWith(".hp"));
+			long[] serialHistogram = map.histogram(DynVarDouble.class, null, 0, 100, 10);
+			
+			DynVarStats.setParallelThreshold(1);
+			assertEquals(serial.toString(), map.stats(DynVarLong.class, "player.1").toString());
+			assertEquals(serialFiltered.toString(), map.stats(DynVarField.class, key -> key.endsWith(".hp")).toString());
+			assertArrayEquals(serialHistogram, map.histogram(DynVarDouble.class, null, 0, 100, 10));
+		}
+	}
+	
+	@Test
+	void largeScansAreGatheredOnThePool()
+	{
+		DynVarMap map = fill(new DynVarMap());
+		Set<Thread> threads = ConcurrentHashMap.newKeySet();
+		DynVarStats.setParallelThreshold(1_000);
+		
+		DynVarStats stats = map.stats(DynVarLong.class, key ->
+		{
+			threads.add(Thread.currentThread());
+			return true;
+		});
+		
+		assertEquals(20_000, stats.getCount());
+		assertTrue(threads.stream().anyMatch(thread -> thread instanceof ForkJoinWorkerThread), threads.toString());
+	}
+	
+	@Test
+	void histogramBucketsAndBounds()
+	{
+		DynVarMap map = new DynVarMap().put("a", -5).put("b", 0).put("c", 4.9).put("d", 5).put("e", 50);
+		assertArrayEquals(new long[]{3, 2}, map.histogram(DynVarField.class, null, 0, 10, 2));
+		assertThrows(IllegalArgumentException.class, () -> map.histogram(DynVarField.class, null, 1, 1, 2));
+		assertThrows(IllegalArgumentException.class, () -> map.histogram(DynVarField.class, null, 0, 1, 0));
+	}
+	
+	private static DynVarMap fill(DynVarMap map)
+	{
+		for (int i = 0; i < 10_000; i++)
+		{
+			map.getVarLong("player." + i + ".hp").set((long) i);
+			map.getVarLong("player." + i + ".gold").set((long) i * 3);
+			map.put("player." + i + ".speed", (i % 100) + 0.5);
+		}
+		
+		return map;
+	}
+}
@@ -0,0 +1,128 @@
+package com.konloch.dynvarmap;
+
+import com.konloch.dynvarmap.storage.DynVarBoundedStorage;
+import com.konloch.dynvarmap.storage.DynVarEvictionPolicy;
+import com.konloch.dynvarmap.storage.DynVarPersistentStorage;
+import com.konloch.dynvarmap.storage.DynVarRadixStorage;
+import org.junit.jupiter.api.Test;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Konloch
+ * @since 10/18/2026
+ */
+class DynVarStreamTest
+{
+	private static final int SIZE = 5_000;
+	
+	@Test
+	void parallelStreamsSeeEveryVariableOnce()
+	{
+		for (DynVarMap map : maps())
+		{
+			String name = map.getFields().getClass().getSimpleName();
+			
+			List<String> keys = map.keys().parallel().collect(Collectors.toList());
+			assertEquals(SIZE, keys.size(), name);
+			assertEquals(SIZE, new TreeSet<>(keys).size(), name);
+			
+			long sum = map.fields().parallel().mapToLong(field -> field.<Integer>get()).sum();
+			assertEquals((long) SIZE * (SIZE - 1) / 2, sum, name);
+			
+			//lookups in a bounded storage record the access and it is not thread-safe, so those are checked sequentially
+			Stream<Map.Entry<String, DynVarField>> entries = map.entries();
+			if(!(map.getFields() instanceof DynVarBoundedStorage))
+				entries = entries.parallel();
+			
+			assertEquals(SIZE, entries.filter(entry -> map.get(entry.getKey()) == entry.getValue()).count(), name);
+		}
+	}
+	
+	@Test
+	void radixAndBoundedSpliteratorsAreSizedAndSplit()
+	{
+		for (Map<String, DynVarField> storage : new Map[]{new DynVarRadixStorage(), new DynVarBoundedStorage(DynVarEvictionPolicy.LRU, SIZE)})
+		{
+			fill(new DynVarMap(storage));
+			String name = storage.getClass().getSimpleName();
+			
+			Spliterator<Map.Entry<String, DynVarField>> spliterator = storage.entrySet().spliterator();
+			assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED), name);
+			assertEquals(SIZE, spliterator.estimateSize(), name);
+			
+			Spliterator<Map.Entry<String, DynVarField>> prefix = spliterator.trySplit();
+			assertNotNull(prefix, name);
+			assertTrue(prefix.estimateSize() > 0 && spliterator.estimateSize() > 0, name);
+			
+			long[] visited = new long[1];
+			prefix.forEachRemaining(entry -> visited[0]++);
+			spliterator.forEachRemaining(entry -> visited[0]++);
+			assertEquals(SIZE, visited[0], name);
+		}
+	}
+	
+	@Test
+	void entriesAreImmutable()
+	{
+		DynVarMap map = new DynVarMap().put("a", 1);
+		Map.Entry<String, DynVarField> entry = map.entries().findFirst().get();
+		assertThrows(UnsupportedOperationException.class, () -> entry.setValue(new DynVarField()));
+	}
+	
+	@Test
+	void structuralChangesFailFastAndValueChangesDoNot()
+	{
+		for (DynVarMap map : maps())
+		{
+			String name = map.getFields().getClass().getSimpleName();
+			
+			map.fields().forEach(field -> field.add(1));
+			assertEquals(1, map.getInt("key.0"), name);
+			
+			//the persistent storage streams the root it started with, so only the mutable storages fail fast
+			if(map.getFields() instanceof DynVarPersistentStorage)
+				assertEquals(SIZE, map.keys().peek(key -> map.put(key + ".copy", 0)).count(), name);
+			else
+				assertThrows(ConcurrentModificationException.class, () -> map.keys().forEach(key -> map.put(key + ".copy", 0)), name);
+		}
+	}
+	
+	@Test
+	void viewStreamsAreRelative()
+	{
+		DynVarMap map = fill(new DynVarMap()).put("other.1", 1);
+		DynVarView view = map.view("key");
+		
+		assertEquals(SIZE, view.keys().parallel().count());
+		assertTrue(view.keys().allMatch(key -> !key.startsWith("key.") && map.containsKey("key." + key)));
+		
+		Iterator<Map.Entry<String, DynVarField>> entries = view.entries().iterator();
+		Map.Entry<String, DynVarField> first = entries.next();
+		assertSame(view.get(first.getKey()), first.getValue());
+	}
+	
+	private static DynVarMap[] maps()
+	{
+		return new DynVarMap[]{fill(new DynVarMap()), fill(new DynVarMap(new DynVarRadixStorage())),
+				fill(new DynVarMap(new DynVarBoundedStorage(DynVarEvictionPolicy.LRU, SIZE * 4))),
+				fill(new DynVarMap(new DynVarPersistentStorage()))};
+	}
+	
+	private static DynVarMap fill(DynVarMap map)
+	{
+		for (int i = 0; i < SIZE; i++)
+			map.put("key." + i, i);
+		
+		return map;
+	}
+}
@@ -0,0 +1,104 @@
+package com.konloch.dynvarmap;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Konloch
+ * @since 10/18/2026
+ */
+class DynVarSymbolsTest
+{
+	@Test
+	void internIsStableAndRoundTrips()
+	{
+		int hp = DynVarSymbols.intern("symbols.test.hp");
+		int mp = DynVarSymbols.intern("symbols.test.mp");
+		
+		assertNotEquals(hp, mp);
+		assertEquals(hp, DynVarSymbols.intern(new String("symbols.test.hp")));
+		assertEquals(hp, DynVarSymbols.find("symbols.test.hp"));
+		assertEquals(-1, DynVarSymbols.find("symbols.test.never-interned"));
+		assertEquals("symbols.test.mp", DynVarSymbols.name(mp));
+		assertThrows(IllegalArgumentException.class, () -> DynVarSymbols.name(DynVarSymbols.size()));
+	}
+	
+	@Test
+	void mapsShareOneInstanceOfEachName()
+	{
+		DynVarMap first = new DynVarMap().enableSymbols();
+		DynVarMap second = new DynVarMap().enableSymbols();
+		
+		first.put(new StringBuilder("symbols.shared.").append("hp").toString(), 1);
+		second.put(new StringBuilder("symbols.shared.").append("hp").toString(), 2);
+		
+		assertSame(only(first), only(second));
+		assertSame(DynVarSymbols.canonical("symbols.shared.hp"), only(first));
+	}
+	
+	@Test
+	void symbolLookupsAgreeWithNameLookups()
+	{
+		DynVarMap map = new DynVarMap();
+		for (int i = 0; i < 1_000; i++)
+			map.put("symbols.index." + i, i);
+		
+		//enabling late indexes the existing keys, then the index grows with later puts
+		map.enableSymbols();
+		for (int i = 1_000; i < 2_000; i++)
+			map.put("symbols.index." + i, i);
+		
+		for (int i = 0; i < 2_000; i++)
+		{
+			int symbol = map.symbol("symbols.index." + i);
+			assertSame(map.get("symbols.index." + i), map.find(symbol));
+			assertTrue(map.containsKey(symbol));
+		}
+	}
+	
+	@Test
+	void indexFollowsRetypesRemovesAndClears()
+	{
+		DynVarMap map = new DynVarMap().enableSymbols();
+		int hp = map.symbol("symbols.follow.hp");
+		int name = map.symbol("symbols.follow.name");
+		
+		map.put("symbols.follow.hp", 10);
+		map.put("symbols.follow.hp", "full");
+		assertEquals("full", map.find(hp).<String>get());
+		
+		assertNotNull(map.remove(hp));
+		assertNull(map.find(hp));
+		assertFalse(map.containsKey("symbols.follow.hp"));
+		
+		map.get(name).set("Konloch");
+		assertEquals("Konloch", map.getString("symbols.follow.name"));
+		
+		map.clear();
+		assertNull(map.find(name));
+	}
+	
+	@Test
+	void viewsLookUpSymbolsRelativeToTheirPrefix()
+	{
+		DynVarMap map = new DynVarMap();
+		DynVarView player = map.view("symbols.player");
+		player.enableSymbols();
+		
+		assertTrue(map.isSymbolic());
+		player.put("hp", 5);
+		assertEquals(5, player.find(map.symbol("hp")).<Integer>get());
+		assertNull(player.find(map.symbol("symbols.player.hp")));
+	}
+	
+	private static String only(DynVarMap map)
+	{
+		Iterator<String> keys = map.getFields().keySet().iterator();
+		String key = keys.next();
+		assertFalse(keys.hasNext());
+		return key;
+	}
+}
@@ -0,0 +1,179 @@
+package com.konloch.dynvarmap;
+
+import com.konloch.dynvarmap.schema.PlayerVarsSchema;
+import com.konloch.dynvarmap.storage.DynVarSharedStorage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Konloch
+ * @since 10/18/2026
+ */
+class DynVarTransactionTest
+{
+	@TempDir
+	File directory;
+	
+	@Test
+	void writesArePublishedTogether()
+	{
+		DynVarMap map = new DynVarMap();
+		map.getVarLong("a.gold").set(15L);
+		map.getVarLong("b.gold").set(0L);
+		List<DynVarChange> changes = new ArrayList<>();
+		map.addListener(changes::add);
+		
+		map.transaction(tx ->
+		{
+			if(tx.getLong("a.gold") >= 10)
+			{
+				tx.subtract("a.gold", 10L);
+				tx.add("b.gold", 10L);
+			}
+		});
+		
+		assertEquals(5L, map.getLong("a.gold"));
+		assertEquals(10L, map.getLong("b.gold"));
+		assertEquals(2, changes.size());
+		assertTrue(changes.stream().allMatch(change -> change.getType() == DynVarChange.Type.ARITHMETIC));
+	}
+	
+	@Test
+	void bodiesSeeTheirOwnWritesAndAbortDiscardsThem()
+	{
+		DynVarMap map = new DynVarMap().put("hp", 10);
+		
+		int seen = map.transactionThenGet(tx ->
+		{
+			tx.set("hp", 1);
+			tx.add("hp", 2);
+			return tx.getInt("hp");
+		});
+		
+		assertEquals(3, seen);
+		assertEquals(3, map.getInt("hp"));
+		
+		assertNull(map.transactionThenGet(tx ->
+		{
+			tx.set("hp", 99);
+			tx.abort();
+			return 1;
+		}));
+		
+		assertEquals(3, map.getInt("hp"));
+		assertThrows(IllegalArgumentException.class, () -> map.transaction(tx -> tx.set("missing", 1)));
+	}
+	
+	@Test
+	void conflictingWritesRunTheBodyAgain()
+	{
+		DynVarMap map = new DynVarMap().put("hp", 10);
+		AtomicInteger runs = new AtomicInteger();
+		
+		map.transaction(tx ->
+		{
+			int hp = tx.getInt("hp");
+			
+			//a write outside of the transaction between the read and the commit forces a retry
+			if(runs.getAndIncrement() == 0)
+				map.getVarInt("hp").set(20);
+			
+			tx.set("hp", hp + 1);
+		});
+		
+		assertEquals(2, runs.get());
+		assertEquals(21, map.getInt("hp"));
+	}
+	
+	@Test
+	void writesOutsideOfTransactionsDontAdvanceTheClock()
+	{
+		DynVarMap map = new DynVarMap().put("hp", 10);
+		long before = map.transactionThenGet(DynVarTransaction::getReadVersion);
+		
+		for (int i = 0; i < 1_000; i++)
+			map.getVarInt("hp").set(i);
+		
+		assertEquals(before, (long) map.transactionThenGet(DynVarTransaction::getReadVersion));
+		
+		//the touched stripe is newer than the clock, the first attempt retries and advances it
+		AtomicInteger runs = new AtomicInteger();
+		map.transaction(tx ->
+		{
+			runs.incrementAndGet();
+			tx.add("hp", 1);
+		});
+		
+		assertEquals(2, runs.get());
+		assertEquals(1_000, map.getInt("hp"));
+	}
+	
+	@Test
+	void sharedStorageSeesCommittedWrites() throws IOException
+	{
+		try (DynVarSharedStorage storage = new DynVarSharedStorage(new File(directory, "shared.dvm")))
+		{
+			DynVarMap map = new DynVarMap(storage);
+			map.getVarLong("c").set(5L);
+			map.getVarInt("i").set(1);
+			map.getVarDouble("d").set(0.5);
+			map.getVarBoolean("b").set(false);
+			
+			map.transaction(tx ->
+			{
+				tx.set("c", 42L);
+				tx.add("i", tx.getInt("i"));
+				tx.add("d", 1.0);
+				tx.set("b", true);
+			});
+			
+			assertEquals(42L, map.getLong("c"));
+			assertEquals(2, map.getInt("i"));
+			assertEquals(1.5, map.getDouble("d"));
+			assertTrue(map.getBoolean("b"));
+			
+			//a second map over the same file only sees what reached the file
+			try (DynVarSharedStorage other = new DynVarSharedStorage(new File(directory, "shared.dvm")))
+			{
+				DynVarMap reader = new DynVarMap(other);
+				assertEquals(42L, reader.getLong("c"));
+				assertEquals(2, reader.getInt("i"));
+				
+				//and transactions read the file, not the value cached by the first map
+				reader.getVarLong("c").set(7L);
+				assertEquals(7L, map.<Long>transactionThenGet(tx -> tx.getLong("c")));
+			}
+		}
+	}
+	
+	@Test
+	void schemaStorageSeesCommittedWrites()
+	{
+		PlayerVarsSchema player = new PlayerVarsSchema();
+		DynVarMap map = player.asMap();
+		
+		map.transaction(tx ->
+		{
+			tx.subtract("player.hp", 10);
+			tx.set("player.gold", 42L);
+			tx.set("player.name", "Konloch2");
+		});
+		
+		assertEquals(90, player.hp);
+		assertEquals(42L, player.gold);
+		assertEquals("Konloch2", player.name);
+		assertEquals(90, map.getInt("player.hp"));
+		
+		//direct field writes are what the next transaction reads
+		player.hp = 50;
+		assertEquals(50, map.<Integer>transactionThenGet(tx -> tx.getInt("player.hp")));
+	}
+}
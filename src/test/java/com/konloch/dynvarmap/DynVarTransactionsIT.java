@@ -0,0 +1,149 @@
+package com.konloch.dynvarmap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs against the packaged jar, on Java 11+ the multi-release DynVarTransactions keeps its lock words in a
+ * plain long array accessed through a VarHandle.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+class DynVarTransactionsIT
+{
+	private static final int THREADS = 4;
+	private static final int ACCOUNTS = 8;
+	private static final int TRANSFERS = 5_000;
+	
+	@BeforeEach
+	void setUp()
+	{
+		String version = System.getProperty("java.specification.version");
+		assumeTrue(!version.startsWith("1.") && Integer.parseInt(version) >= 11,
+				"The VarHandle locks are only loaded from the Java 11+ classes of the multi-release jar");
+	}
+	
+	@Test
+	void theVersionedClassIsLoaded() throws ReflectiveOperationException
+	{
+		assertEquals(long[].class, DynVarTransactions.class.getDeclaredField("locks").getType());
+		assertEquals("java.lang.invoke.VarHandle", DynVarTransactions.class.getDeclaredField("LOCKS").getType().getName());
+	}
+	
+	@Test
+	void concurrentTransfersKeepTheTotal() throws Exception
+	{
+		DynVarMap map = new DynVarMap();
+		for (int i = 0; i < ACCOUNTS; i++)
+			map.getVarLong("account." + i).set(1_000L);
+		map.getVarLong("transfers").set(0L);
+		
+		AtomicBoolean running = new AtomicBoolean(true);
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS + 1);
+		
+		try
+		{
+			List<Future<?>> writers = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++)
+			{
+				int seed = t;
+				writers.add(pool.submit(() ->
+				{
+					start.await();
+					for (int i = 0; i < TRANSFERS; i++)
+					{
+						String from = "account." + ((seed + i) % ACCOUNTS);
+						String to = "account." + ((seed + i * 3 + 1) % ACCOUNTS);
+						
+						map.transaction(tx ->
+						{
+							tx.subtract(from, 1L);
+							tx.add(to, 1L);
+							tx.add("transfers", 1L);
+						});
+					}
+					return null;
+				}));
+			}
+			
+			//read-only transactions see a consistent snapshot while the writers publish
+			Future<Long> reader = pool.submit(() ->
+			{
+				start.await();
+				long snapshots = 0;
+				while (running.get())
+				{
+					long total = map.<Long>transactionThenGet(tx ->
+					{
+						long sum = 0;
+						for (int i = 0; i < ACCOUNTS; i++)
+							sum += tx.getLong("account." + i);
+						return sum;
+					});
+					
+					assertEquals(ACCOUNTS * 1_000L, total);
+					snapshots++;
+				}
+				return snapshots;
+			});
+			
+			start.countDown();
+			for (Future<?> writer : writers)
+				writer.get(60, TimeUnit.SECONDS);
+			
+			running.set(false);
+			assertTrue(reader.get(60, TimeUnit.SECONDS) > 0);
+		}
+		finally
+		{
+			pool.shutdownNow();
+		}
+		
+		long total = 0;
+		for (int i = 0; i < ACCOUNTS; i++)
+			total += map.getLong("account." + i);
+		
+		assertEquals(ACCOUNTS * 1_000L, total);
+		assertEquals((long) THREADS * TRANSFERS, map.getLong("transfers"));
+	}
+	
+	@Test
+	void writesOutsideATransactionStillForceARetry() throws Exception
+	{
+		DynVarMap map = new DynVarMap();
+		map.getVarLong("hp").set(0L);
+		map.getVarLong("copy").set(0L);
+		
+		Thread writer = new Thread(() ->
+		{
+			for (long i = 1; i <= 20_000; i++)
+				map.getVarLong("hp").set(i);
+		});
+		
+		writer.start();
+		while (writer.isAlive())
+		{
+			//every committed copy matches an hp value that was current when the transaction read it
+			map.transaction(tx -> tx.set("copy", tx.getLong("hp")));
+			assertTrue(map.getLong("copy") <= map.getLong("hp"));
+		}
+		
+		writer.join();
+		map.transaction(tx -> tx.set("copy", tx.getLong("hp")));
+		assertEquals(20_000L, map.getLong("copy"));
+	}
+}
@@ -0,0 +1,83 @@
+package com.konloch.dynvarmap;
+
+import com.konloch.dynvarmap.vars.DynVarInteger;
+import com.konloch.dynvarmap.vars.DynVarLong;
+import com.konloch.dynvarmap.vars.DynVarTime;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Konloch
+ * @since 10/18/2026
+ */
+class DynVarTypeIndexTest
+{
+	@Test
+	void indexedAndScannedResultsAgree()
+	{
+		DynVarMap scanned = fill(new DynVarMap());
+		DynVarMap indexed = fill(new DynVarMap().enableTypeIndex());
+		
+		assertTrue(indexed.isTypeIndexed());
+		assertFalse(scanned.isTypeIndexed());
+		
+		for (Class<? extends DynVarField> type : Arrays.asList(DynVarInteger.class, DynVarLong.class, DynVarTime.class, DynVarField.class))
+		{
+			assertEquals(scanned.countOfType(type), indexed.countOfType(type), type.getSimpleName());
+			assertEquals(keys(scanned, type), keys(indexed, type), type.getSimpleName());
+		}
+	}
+	
+	@Test
+	void subclassesAreIncluded()
+	{
+		DynVarMap map = fill(new DynVarMap().enableTypeIndex());
+		
+		assertEquals(1, map.countOfType(DynVarTime.class));
+		assertEquals(3, map.countOfType(DynVarLong.class));
+		assertEquals(map.getFields().size(), map.countOfType(DynVarField.class));
+	}
+	
+	@Test
+	void indexFollowsRetypesRemovesAndClears()
+	{
+		DynVarMap map = fill(new DynVarMap()).enableTypeIndex();
+		
+		map.put("int.0", "now a string");
+		map.remove("int.1");
+		assertEquals(Collections.singletonList("int.2"), keys(map, DynVarInteger.class));
+		
+		map.clear();
+		assertEquals(0, map.countOfType(DynVarField.class));
+		
+		map.put("int.9", 9);
+		assertEquals(Collections.singletonList("int.9"), keys(map, DynVarInteger.class));
+	}
+	
+	private static DynVarMap fill(DynVarMap map)
+	{
+		for (int i = 0; i < 3; i++)
+			map.put("int." + i, i);
+		
+		map.getVarLong("long.0").set(1L);
+		map.getVarLong("long.1").set(2L);
+		map.getVarTime("time.0", 100);
+		map.put("name", "DynVarMap");
+		map.put("enabled", true);
+		return map;
+	}
+	
+	private static List<String> keys(DynVarMap map, Class<? extends DynVarField> type)
+	{
+		List<String> keys = new ArrayList<>();
+		map.forEachOfType(type, (key, field) -> keys.add(key));
+		return new ArrayList<>(new TreeSet<>(keys));
+	}
+}
@@ -0,0 +1,131 @@
+package com.konloch.dynvarmap;
+
+import com.konloch.dynvarmap.storage.DynVarBoundedStorage;
+import com.konloch.dynvarmap.storage.DynVarEvictionPolicy;
+import com.konloch.dynvarmap.vars.DynVarInteger;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Konloch
+ * @since 10/18/2026
+ */
+class DynVarViewTest
+{
+	@Test
+	void readsAndWritesGoThroughToTheParent()
+	{
+		DynVarMap map = new DynVarMap();
+		DynVarView player = map.view("player.123.");
+		
+		player.getVarInt("hp").set(10);
+		player.getVarInt("hp").add(5);
+		map.put("player.123.name", "Konloch");
+		map.put("player.1234.hp", 1);
+		
+		assertEquals("player.123", player.getPrefix());
+		assertEquals(15, map.getInt("player.123.hp"));
+		assertEquals("Konloch", player.getString("name"));
+		assertEquals("player.123.hp", player.resolve("hp"));
+		assertEquals(new TreeSet<>(Arrays.asList("hp", "name")), new TreeSet<>(player.keySet()));
+		assertEquals(2, player.getSize());
+	}
+	
+	@Test
+	void cachedFieldsFollowRemovesAndRetypesInTheParent()
+	{
+		DynVarMap map = new DynVarMap();
+		DynVarView player = map.view("player");
+		DynVarInteger hp = player.getVarInt("hp", 10);
+		
+		map.remove("player.hp");
+		assertFalse(player.containsKey("hp"));
+		
+		map.put("player.hp", "full");
+		assertEquals("full", player.getString("hp"));
+		assertNotSame(hp, player.get("hp"));
+	}
+	
+	@Test
+	void missesAndRemovedKeysAreNotCached() throws ReflectiveOperationException
+	{
+		DynVarMap map = new DynVarMap();
+		DynVarView view = map.view("cache");
+		
+		for (int i = 0; i < 10_000; i++)
+			assertFalse(view.containsKey("missing." + i));
+		
+		assertEquals(0, slots(view).size());
+		
+		view.put("a", 1);
+		view.getInt("a");
+		assertEquals(1, slots(view).size());
+		
+		view.remove("a");
+		assertEquals(0, slots(view).size());
+		
+		view.put("b", 1);
+		map.remove("cache.b");
+		assertFalse(view.containsKey("b"));
+		assertEquals(0, slots(view).size());
+	}
+	
+	@Test
+	void theCacheIsBounded() throws ReflectiveOperationException
+	{
+		DynVarMap map = new DynVarMap();
+		DynVarView view = map.view("cache");
+		
+		for (int i = 0; i < DynVarView.MAX_SLOTS * 4; i++)
+			view.put("key." + i, i);
+		
+		assertEquals(DynVarView.MAX_SLOTS, slots(view).size());
+		assertEquals(DynVarView.MAX_SLOTS * 4, view.getSize());
+		assertEquals(7, view.getInt("key.7"));
+	}
+	
+	@Test
+	void boundedParentsStillSeeEveryRead()
+	{
+		DynVarBoundedStorage storage = new DynVarBoundedStorage(DynVarEvictionPolicy.LRU, 2);
+		DynVarMap map = new DynVarMap(storage);
+		DynVarView view = map.view("v");
+		
+		view.put("a", 1).put("b", 2);
+		view.getInt("a");
+		view.put("c", 3);
+		
+		assertTrue(view.containsKey("a"));
+		assertFalse(view.containsKey("b"));
+	}
+	
+	@Test
+	void nestedViewsAndClear()
+	{
+		DynVarMap map = new DynVarMap();
+		DynVarView player = map.view("player");
+		DynVarView inventory = player.view("inventory");
+		
+		inventory.put("gold", 50);
+		assertEquals(50, map.getInt("player.inventory.gold"));
+		
+		map.put("other", 1);
+		player.clear();
+		assertEquals(1, map.getFields().size());
+		assertFalse(inventory.containsKey("gold"));
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static Map<String, ?> slots(DynVarView view) throws ReflectiveOperationException
+	{
+		Field slots = DynVarView.class.getDeclaredField("slots");
+		slots.setAccessible(true);
+		return (Map<String, ?>) slots.get(view);
+	}
+}
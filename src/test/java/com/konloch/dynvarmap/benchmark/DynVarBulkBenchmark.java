@@ -0,0 +1,124 @@
+package com.konloch.dynvarmap.benchmark;
+
+import com.konloch.dynvarmap.DynVarMap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The bulk operations of DynVarMap against the equivalent loops of single calls, over 1,000 keys per operation.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DynVarBulkBenchmark
+{
+	private static final int KEYS = 1_000;
+	
+	private DynVarMap map;
+	private String[] keys;
+	private int[] ints;
+	private Object[] objects;
+	
+	@Setup
+	public void setup()
+	{
+		map = new DynVarMap();
+		keys = new String[KEYS];
+		ints = new int[KEYS];
+		objects = new Object[KEYS];
+		
+		for (int i = 0; i < KEYS; i++)
+		{
+			keys[i] = "player." + i + ".hp";
+			ints[i] = i;
+			objects[i] = i;
+			map.put(keys[i], i);
+		}
+	}
+	
+	@Benchmark
+	public DynVarMap putLoop()
+	{
+		for (int i = 0; i < KEYS; i++)
+			map.put(keys[i], objects[i]);
+		
+		return map;
+	}
+	
+	@Benchmark
+	public DynVarMap putAll()
+	{
+		return map.putAll(keys, objects);
+	}
+	
+	@Benchmark
+	public DynVarMap setIntLoop()
+	{
+		for (int i = 0; i < KEYS; i++)
+			map.getVarInt(keys[i]).set(ints[i]);
+		
+		return map;
+	}
+	
+	@Benchmark
+	public DynVarMap putInts()
+	{
+		return map.putInts(keys, ints);
+	}
+	
+	@Benchmark
+	public int[] getIntLoop()
+	{
+		for (int i = 0; i < KEYS; i++)
+			ints[i] = map.getInt(keys[i]);
+		
+		return ints;
+	}
+	
+	@Benchmark
+	public int[] getInts()
+	{
+		return map.getInts(keys, ints);
+	}
+	
+	@Benchmark
+	public DynVarMap addLoop()
+	{
+		for (int i = 0; i < KEYS; i++)
+			map.getVarInt(keys[i]).add(1);
+		
+		return map;
+	}
+	
+	@Benchmark
+	public DynVarMap addAll()
+	{
+		return map.addAll(keys, 1);
+	}
+	
+	/**
+	 * Filling an empty map, where the bulk path grows the table once instead of doubling repeatedly.
+	 */
+	@Benchmark
+	public DynVarMap fillLoop()
+	{
+		DynVarMap fresh = new DynVarMap();
+		for (int i = 0; i < KEYS; i++)
+			fresh.getVarInt(keys[i]).set(ints[i]);
+		
+		return fresh;
+	}
+	
+	@Benchmark
+	public DynVarMap fillPutInts()
+	{
+		return new DynVarMap().putInts(keys, ints);
+	}
+}
@@ -0,0 +1,71 @@
+package com.konloch.dynvarmap.benchmark;
+
+import com.konloch.dynvarmap.DynVarMap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looking up a variable in a frozen map against the table, with a constant key the JIT can fold the frozen
+ * lookup to a field load as long as every generated method is small enough to inline.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DynVarFrozenBenchmark
+{
+	@Param({"16", "256", "2048"})
+	public int keys;
+	
+	private DynVarMap frozen;
+	private DynVarMap table;
+	private String[] names;
+	private int next;
+	
+	@Setup
+	public void setup()
+	{
+		frozen = new DynVarMap();
+		table = new DynVarMap();
+		names = new String[keys];
+		
+		for (int i = 0; i < keys; i++)
+		{
+			names[i] = "key." + i;
+			frozen.put(names[i], i);
+			table.put(names[i], i);
+		}
+		
+		frozen.freeze();
+	}
+	
+	@Benchmark
+	public int frozenConstant()
+	{
+		return frozen.getInt("key.7");
+	}
+	
+	@Benchmark
+	public int tableConstant()
+	{
+		return table.getInt("key.7");
+	}
+	
+	@Benchmark
+	public int frozenVaried()
+	{
+		return frozen.getInt(names[next++ & (keys - 1)]);
+	}
+	
+	@Benchmark
+	public int tableVaried()
+	{
+		return table.getInt(names[next++ & (keys - 1)]);
+	}
+}
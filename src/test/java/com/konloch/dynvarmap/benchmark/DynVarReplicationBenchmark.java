@@ -0,0 +1,108 @@
+package com.konloch.dynvarmap.benchmark;
+
+import com.konloch.dynvarmap.DynVarMap;
+import com.konloch.dynvarmap.replication.DynVarFollower;
+import com.konloch.dynvarmap.replication.DynVarQueueSink;
+import com.konloch.dynvarmap.replication.DynVarReplicator;
+import com.konloch.dynvarmap.replication.DynVarStreamSink;
+import com.konloch.dynvarmap.vars.DynVarInteger;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost replication adds to a counter increment on the leader, with a queue follower applying the
+ * mutations on another thread and with a stream sink encoding them to a discarding stream.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DynVarReplicationBenchmark
+{
+	@Param({"none", "queue", "stream"})
+	public String sink;
+	
+	private DynVarReplicator replicator;
+	private DynVarStreamSink stream;
+	private Thread follower;
+	private DynVarInteger counter;
+	
+	@Setup
+	public void setup()
+	{
+		DynVarMap map = new DynVarMap();
+		counter = map.getVarInt("requests");
+		
+		if(sink.equals("none"))
+			return;
+		
+		replicator = new DynVarReplicator(map);
+		
+		if(sink.equals("queue"))
+		{
+			DynVarQueueSink queue = new DynVarQueueSink();
+			replicator.addSink(queue);
+			
+			follower = new Thread(() ->
+			{
+				try
+				{
+					new DynVarFollower(new DynVarMap()).follow(queue);
+				}
+				catch (InterruptedException ignored)
+				{
+				}
+			});
+			
+			follower.setDaemon(true);
+			follower.start();
+		}
+		else
+		{
+			stream = new DynVarStreamSink(new OutputStream()
+			{
+				@Override
+				public void write(int b)
+				{
+				}
+				
+				@Override
+				public void write(byte[] b, int off, int len)
+				{
+				}
+			});
+			
+			replicator.addSink(stream);
+		}
+	}
+	
+	@TearDown
+	public void tearDown() throws IOException, InterruptedException
+	{
+		if(replicator != null)
+			replicator.close();
+		
+		if(follower != null)
+		{
+			follower.interrupt();
+			follower.join();
+		}
+		
+		if(stream != null)
+			stream.close();
+	}
+	
+	@Benchmark
+	public DynVarInteger add()
+	{
+		return counter.add(1);
+	}
+}
@@ -0,0 +1,82 @@
+package com.konloch.dynvarmap.benchmark;
+
+import com.konloch.dynvarmap.DynVarMap;
+import com.konloch.dynvarmap.net.DynVarClient;
+import com.konloch.dynvarmap.net.DynVarServer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remote reads over loopback, one request at a time and pipelined in batches of 100, with requests executed on
+ * the selector thread or handed to a single thread executor owning the map.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DynVarServerBenchmark
+{
+	private static final int BATCH = 100;
+	
+	@Param({"selector", "executor"})
+	public String execution;
+	
+	private ExecutorService owner;
+	private DynVarServer server;
+	private DynVarClient client;
+	
+	@Setup
+	public void setup() throws IOException
+	{
+		DynVarMap map = new DynVarMap();
+		for (int player = 0; player < 1_000; player++)
+			map.put("player." + player + ".hp", player);
+		
+		if(execution.equals("executor"))
+		{
+			owner = Executors.newSingleThreadExecutor();
+			server = new DynVarServer(map, 0, owner).start();
+		}
+		else
+			server = new DynVarServer(map, 0).start();
+		
+		client = new DynVarClient(server.getPort());
+	}
+	
+	@TearDown
+	public void tearDown() throws IOException
+	{
+		client.close();
+		server.close();
+		
+		if(owner != null)
+			owner.shutdown();
+	}
+	
+	@Benchmark
+	public Object get()
+	{
+		return client.get("player.123.hp");
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public Object pipelined()
+	{
+		CompletableFuture<?>[] futures = new CompletableFuture[BATCH];
+		for (int i = 0; i < BATCH; i++)
+			futures[i] = client.getAsync("player." + i + ".hp");
+		
+		return CompletableFuture.allOf(futures).join();
+	}
+}
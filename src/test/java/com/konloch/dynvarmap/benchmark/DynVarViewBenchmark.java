@@ -0,0 +1,61 @@
+package com.konloch.dynvarmap.benchmark;
+
+import com.konloch.dynvarmap.DynVarMap;
+import com.konloch.dynvarmap.DynVarView;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading a namespaced variable through a DynVarView against concatenating the full key on every access.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DynVarViewBenchmark
+{
+	private DynVarMap map;
+	private DynVarView view;
+	private String prefix;
+	private String key;
+	private int missing;
+	
+	@Setup
+	public void setup()
+	{
+		map = new DynVarMap();
+		for (int player = 0; player < 10_000; player++)
+			map.put("player." + player + ".hp", player);
+		
+		prefix = "player.1234.";
+		key = "hp";
+		view = map.view("player.1234");
+	}
+	
+	@Benchmark
+	public int concatenated()
+	{
+		return map.getInt(prefix + key);
+	}
+	
+	@Benchmark
+	public int view()
+	{
+		return view.getInt(key);
+	}
+	
+	/**
+	 * Probing keys that do not exist, the view must not cache the misses.
+	 */
+	@Benchmark
+	public boolean viewMiss()
+	{
+		return view.containsKey("missing." + (missing++ & 0xFFFF));
+	}
+}
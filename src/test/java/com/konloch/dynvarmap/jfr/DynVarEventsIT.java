@@ -0,0 +1,125 @@
+package com.konloch.dynvarmap.jfr;
+
+import com.konloch.dynvarmap.DynVarMap;
+import com.konloch.dynvarmap.serializer.DynVarSerializer;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs against the packaged jar, on Java 11+ the multi-release DynVarEvents commits real JFR events.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+class DynVarEventsIT
+{
+	@TempDir
+	Path temp;
+	
+	private int threshold;
+	
+	@BeforeEach
+	void setUp()
+	{
+		assumeTrue(DynVarEvents.isSupported(), "JFR events need the Java 11+ classes of the multi-release jar");
+		threshold = DynVarEvents.getMapEventThreshold();
+	}
+	
+	@AfterEach
+	void tearDown()
+	{
+		DynVarEvents.setMapEventThreshold(threshold);
+	}
+	
+	@Test
+	void serializerCommitsLoadAndSaveEvents() throws Exception
+	{
+		File file = temp.resolve("vars.ini").toFile();
+		DynVarMap map = new DynVarMap();
+		map.put("a", 1).put("b", "two");
+		
+		List<RecordedEvent> events = record(() ->
+		{
+			new DynVarSerializer(file, map).save();
+			//the event counts the keys read from the file, not the keys the map already held
+			new DynVarSerializer(file, new DynVarMap().put("existing", 0)).load();
+		}, "com.konloch.dynvarmap.Save", "com.konloch.dynvarmap.Load");
+		
+		RecordedEvent save = find(events, "com.konloch.dynvarmap.Save");
+		assertEquals(2, save.getInt("keys"));
+		assertEquals(file.length(), save.getLong("bytes"));
+		
+		RecordedEvent load = find(events, "com.konloch.dynvarmap.Load");
+		assertEquals(2, load.getInt("keys"));
+		assertEquals(0, load.getInt("parseErrors"));
+	}
+	
+	@Test
+	void clearAndResizeEventsRespectTheThreshold() throws Exception
+	{
+		DynVarEvents.setMapEventThreshold(64);
+		
+		List<RecordedEvent> events = record(() ->
+		{
+			DynVarMap small = new DynVarMap();
+			for (int i = 0; i < 16; i++)
+				small.put("k" + i, i);
+			small.clear();
+			
+			DynVarMap large = new DynVarMap();
+			for (int i = 0; i < 200; i++)
+				large.put("k" + i, i);
+			large.clear();
+		}, "com.konloch.dynvarmap.Clear", "com.konloch.dynvarmap.Resize");
+		
+		List<RecordedEvent> clears = events.stream()
+				.filter(event -> event.getEventType().getName().equals("com.konloch.dynvarmap.Clear"))
+				.collect(Collectors.toList());
+		
+		assertEquals(1, clears.size());
+		assertEquals(200, clears.get(0).getInt("keys"));
+		
+		RecordedEvent resize = find(events, "com.konloch.dynvarmap.Resize");
+		assertTrue(resize.getInt("newCapacity") > resize.getInt("oldCapacity"));
+		assertTrue(resize.getInt("keys") >= 64);
+	}
+	
+	private List<RecordedEvent> record(Runnable body, String... names) throws Exception
+	{
+		Path dump = temp.resolve("events.jfr");
+		
+		try (Recording recording = new Recording())
+		{
+			for (String name : names)
+				recording.enable(name);
+			
+			recording.start();
+			body.run();
+			recording.stop();
+			recording.dump(dump);
+		}
+		
+		return RecordingFile.readAllEvents(dump);
+	}
+	
+	private static RecordedEvent find(List<RecordedEvent> events, String name)
+	{
+		return events.stream()
+				.filter(event -> event.getEventType().getName().equals(name))
+				.findFirst()
+				.orElseThrow(() -> new AssertionError("No " + name + " event was recorded"));
+	}
+}
@@ -0,0 +1,197 @@
+package com.konloch.dynvarmap.net;
+
+import com.konloch.dynvarmap.DynVarMap;
+import com.konloch.dynvarmap.serializer.DynVarBinaryCodec;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Konloch
+ * @since 10/18/2026
+ */
+class DynVarServerTest
+{
+	@Test
+	void requestsRoundTrip() throws IOException
+	{
+		DynVarMap map = new DynVarMap().put("player.1.hp", 10).put("player.1.name", "Konloch").put("motd", "hi");
+		
+		try (DynVarServer server = new DynVarServer(map, 0).start();
+		     DynVarClient client = new DynVarClient(server.getPort()))
+		{
+			assertEquals(10, client.<Integer>get("player.1.hp"));
+			assertNull(client.get("missing"));
+			
+			client.set("player.1.hp", 15);
+			client.set("created", 5L);
+			assertEquals(20, client.<Integer>add("player.1.hp", 5));
+			assertNull(client.add("missing", 1));
+			assertEquals(20, map.getInt("player.1.hp"));
+			assertEquals(5L, map.getLong("created"));
+			
+			assertArrayEquals(new Object[]{20, null, "hi"}, client.getAll("player.1.hp", "missing", "motd"));
+			assertEquals(2, client.scan("player.1.").size());
+			
+			Map<String, Object> dump = client.dump();
+			assertEquals(4, dump.size());
+			
+			//the cached dump is encoded again once the map changes
+			map.put("motd", "bye");
+			assertEquals("bye", client.dump().get("motd"));
+		}
+	}
+	
+	@Test
+	void closeRemovesTheDumpListener() throws Exception
+	{
+		DynVarMap map = new DynVarMap().put("a", 1);
+		Method observed = DynVarMap.class.getDeclaredMethod("isObserved");
+		observed.setAccessible(true);
+		
+		DynVarServer server = new DynVarServer(map, 0).start();
+		try (DynVarClient client = new DynVarClient(server.getPort()))
+		{
+			client.dump();
+			assertTrue((Boolean) observed.invoke(map));
+		}
+		
+		server.close();
+		assertFalse((Boolean) observed.invoke(map));
+	}
+	
+	@Test
+	void requestsRunOnTheSuppliedExecutor() throws Exception
+	{
+		DynVarMap map = new DynVarMap().put("hp", 1);
+		ExecutorService owner = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "owner"));
+		AtomicReference<String> changedOn = new AtomicReference<>();
+		map.addListener(change -> changedOn.set(Thread.currentThread().getName()));
+		
+		try (DynVarServer server = new DynVarServer(map, 0, owner).start();
+		     DynVarClient client = new DynVarClient(server.getPort()))
+		{
+			//pipelined requests of one connection still run in order
+			for (int i = 0; i < 1_000; i++)
+				client.addAsync("hp", 1);
+			
+			assertEquals(1_002, client.<Integer>add("hp", 1));
+			assertEquals("owner", changedOn.get());
+		}
+		finally
+		{
+			owner.shutdown();
+		}
+	}
+	
+	@Test
+	void slowReadersAreNotBufferedWithoutLimit() throws Exception
+	{
+		char[] large = new char[64 << 10];
+		Arrays.fill(large, 'x');
+		DynVarMap map = new DynVarMap().put("large", new String(large));
+		int maxPending = 128 << 10;
+		int requests = 400;
+		
+		try (DynVarServer server = new DynVarServer(map, 0).setMaxPending(maxPending).start();
+		     Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort()))
+		{
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			for (int id = 0; id < requests; id++)
+			{
+				out.writeInt(DynVarProtocol.HEADER + 4 + 5);
+				out.writeInt(id);
+				out.writeByte(DynVarProtocol.GET);
+				DynVarBinaryCodec.writeString(out, "large");
+			}
+			
+			out.flush();
+			
+			//without reading, the responses fill the socket buffers and the server stops reading requests
+			long pending = -1;
+			for (int i = 0; i < 50; i++)
+			{
+				Thread.sleep(100);
+				long now = pendingBytes(server);
+				if(now == pending && now > 0)
+					break;
+				
+				pending = now;
+			}
+			
+			assertTrue(pendingBytes(server) <= maxPending + large.length * 3L, String.valueOf(pendingBytes(server)));
+			
+			//every request is still answered, in order
+			DataInputStream in = new DataInputStream(socket.getInputStream());
+			for (int id = 0; id < requests; id++)
+			{
+				int length = in.readInt();
+				assertEquals(id, in.readInt());
+				assertEquals(DynVarProtocol.OK, in.readByte());
+				in.readFully(new byte[length - DynVarProtocol.HEADER]);
+			}
+		}
+	}
+	
+	@Test
+	void bogusStringLengthsOnlyCloseThatConnection() throws Exception
+	{
+		DynVarMap map = new DynVarMap().put("hp", 10);
+		
+		try (DynVarServer server = new DynVarServer(map, 0).start();
+		     Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort()))
+		{
+			//a few bytes claiming a String of almost 2 GB
+			DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+			out.writeInt(DynVarProtocol.HEADER + 4);
+			out.writeInt(1);
+			out.writeByte(DynVarProtocol.GET);
+			out.writeInt(Integer.MAX_VALUE);
+			out.flush();
+			
+			assertEquals(-1, socket.getInputStream().read());
+			
+			try (DynVarClient client = new DynVarClient(server.getPort()))
+			{
+				assertEquals(10, client.<Integer>get("hp"));
+			}
+		}
+	}
+	
+	private static long pendingBytes(DynVarServer server) throws ReflectiveOperationException
+	{
+		Field selectorField = DynVarServer.class.getDeclaredField("selector");
+		selectorField.setAccessible(true);
+		Selector selector = (Selector) selectorField.get(server);
+		
+		long pending = 0;
+		for (SelectionKey key : selector.keys().toArray(new SelectionKey[0]))
+		{
+			Object connection = key.attachment();
+			if(connection == null)
+				continue;
+			
+			Field bytes = connection.getClass().getDeclaredField("pendingBytes");
+			bytes.setAccessible(true);
+			pending += bytes.getLong(connection);
+		}
+		
+		return pending;
+	}
+}
@@ -0,0 +1,175 @@
+package com.konloch.dynvarmap.replication;
+
+import com.konloch.dynvarmap.DynVarChange;
+import com.konloch.dynvarmap.DynVarMap;
+import com.konloch.dynvarmap.serializer.DynVarBinaryCodec;
+import com.konloch.dynvarmap.vars.DynVarTime;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Konloch
+ * @since 10/18/2026
+ */
+class DynVarReplicationTest
+{
+	@Test
+	void queueFollowerConverges() throws InterruptedException
+	{
+		DynVarMap leader = new DynVarMap().put("before", 1);
+		DynVarReplicator replicator = new DynVarReplicator(leader);
+		DynVarQueueSink sink = new DynVarQueueSink();
+		replicator.addSink(sink);
+		
+		change(leader);
+		
+		DynVarFollower follower = new DynVarFollower(new DynVarMap());
+		drain(sink, follower);
+		
+		assertEquals(replicator.getSequence(), follower.getSequence());
+		assertTrue(leader.diff(follower.getMap()).isEmpty(), leader.diff(follower.getMap()).toString());
+		assertInstanceOf(DynVarTime.class, follower.getMap().get("time"));
+		
+		leader.clear();
+		drain(sink, follower);
+		assertTrue(follower.getMap().isEmpty());
+	}
+	
+	@Test
+	void streamFollowerConverges() throws IOException
+	{
+		DynVarMap leader = new DynVarMap();
+		DynVarReplicator replicator = new DynVarReplicator(leader);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		
+		try (DynVarStreamSink sink = new DynVarStreamSink(bytes))
+		{
+			replicator.addSink(sink);
+			change(leader);
+		}
+		
+		DynVarFollower follower = new DynVarFollower(new DynVarMap());
+		follower.follow(new ByteArrayInputStream(bytes.toByteArray()));
+		
+		assertEquals(replicator.getSequence(), follower.getSequence());
+		assertTrue(leader.diff(follower.getMap()).isEmpty());
+	}
+	
+	@Test
+	void socketFollowerConverges() throws Exception
+	{
+		DynVarMap leader = new DynVarMap();
+		DynVarReplicator replicator = new DynVarReplicator(leader);
+		DynVarFollower follower = new DynVarFollower(new DynVarMap());
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		
+		try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress()))
+		{
+			Thread thread = new Thread(() ->
+			{
+				try (Socket socket = server.accept())
+				{
+					follower.follow(socket.getInputStream());
+				}
+				catch (Throwable t)
+				{
+					failure.set(t);
+				}
+			});
+			
+			thread.start();
+			
+			try (DynVarSocketSink sink = new DynVarSocketSink(server.getLocalPort()))
+			{
+				replicator.addSink(sink);
+				change(leader);
+			}
+			
+			thread.join(10_000);
+		}
+		
+		assertNull(failure.get());
+		assertEquals(replicator.getSequence(), follower.getSequence());
+		assertTrue(leader.diff(follower.getMap()).isEmpty());
+	}
+	
+	@Test
+	void followersSkipDuplicatesAndRejectGaps()
+	{
+		DynVarFollower follower = new DynVarFollower(new DynVarMap());
+		
+		assertTrue(follower.apply(new DynVarMutation(1, DynVarChange.Type.SET, "hp", DynVarBinaryCodec.INTEGER, 10)));
+		assertFalse(follower.apply(new DynVarMutation(1, DynVarChange.Type.SET, "hp", DynVarBinaryCodec.INTEGER, 20)));
+		assertEquals(10, follower.getMap().getInt("hp"));
+		assertThrows(IllegalStateException.class, () -> follower.apply(new DynVarMutation(3, DynVarChange.Type.REMOVE, "hp", DynVarBinaryCodec.INTEGER, null)));
+		assertEquals(1, follower.getSequence());
+	}
+	
+	@Test
+	void retainedMutationsCatchUpAFollower() throws InterruptedException
+	{
+		DynVarMap leader = new DynVarMap();
+		DynVarReplicator replicator = new DynVarReplicator(leader).setRetention(100);
+		DynVarQueueSink first = new DynVarQueueSink();
+		replicator.addSink(first);
+		
+		DynVarFollower follower = new DynVarFollower(new DynVarMap());
+		leader.put("hp", 1);
+		drain(first, follower);
+		replicator.removeSink(first);
+		
+		//the follower reconnects after missing a few mutations
+		for (int i = 0; i < 50; i++)
+			leader.getVarInt("hp").add(1);
+		
+		DynVarQueueSink second = new DynVarQueueSink();
+		assertTrue(replicator.addSink(second, follower.getSequence()));
+		assertEquals(50, second.getPending());
+		drain(second, follower);
+		assertEquals(51, follower.getMap().getInt("hp"));
+		
+		//a follower further behind than the retention is given a checkpoint instead
+		DynVarQueueSink late = new DynVarQueueSink();
+		for (int i = 0; i < 200; i++)
+			leader.getVarInt("hp").add(1);
+		
+		assertFalse(replicator.addSink(late, follower.getSequence()));
+		assertInstanceOf(DynVarCheckpoint.class, late.take());
+		replicator.close();
+	}
+	
+	private static void change(DynVarMap leader)
+	{
+		for (int i = 0; i < 1_000; i++)
+			leader.put("key." + i, i);
+		
+		leader.getVarInt("key.1").add(5);
+		leader.put("key.2", "retyped");
+		leader.remove("key.3");
+		leader.getVarLong("long").set(Long.MAX_VALUE);
+		leader.getVarDouble("double").set(0.25);
+		leader.getVarBoolean("bool").set(true);
+		leader.getVarTime("time", 12_345);
+	}
+	
+	private static void drain(DynVarQueueSink sink, DynVarFollower follower) throws InterruptedException
+	{
+		while (sink.getPending() > 0)
+		{
+			Object frame = sink.take();
+			if(frame instanceof DynVarCheckpoint)
+				follower.restore((DynVarCheckpoint) frame);
+			else
+				follower.apply((DynVarMutation) frame);
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package com.konloch.dynvarmap.schema;
+
+import com.konloch.dynvarmap.DynVarMap;
+import com.konloch.dynvarmap.DynVarUnsafe;
+import com.konloch.dynvarmap.vars.DynVarInteger;
+import com.konloch.dynvarmap.vars.DynVarLong;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Konloch
+ * @since 10/18/2026
+ */
+class DynVarSchemaStorageTest
+{
+	@Test
+	void directFieldWritesAreVisibleToStats()
+	{
+		PlayerVarsSchema player = new PlayerVarsSchema();
+		DynVarMap map = player.asMap();
+		assertEquals(100, map.stats(DynVarInteger.class, "player.").getLongSum());
+		
+		player.hp = 5;
+		player.gold = 7;
+		
+		assertEquals(5, map.stats(DynVarInteger.class, "player.").getLongSum());
+		assertEquals(7, map.stats(DynVarLong.class).getLongSum());
+		assertEquals(5, DynVarUnsafe.getValue(map.get("player.hp")));
+	}
+	
+	@Test
+	void directFieldWritesAreVisibleToTheHashTree()
+	{
+		PlayerVarsSchema player = new PlayerVarsSchema();
+		PlayerVarsSchema other = new PlayerVarsSchema();
+		
+		//both trees exist before the fields are written behind their backs
+		long root = player.asMap().getRootHash();
+		assertEquals(root, other.asMap().getRootHash());
+		
+		player.hp = 5;
+		player.name = "Konloch2";
+		
+		assertNotEquals(root, player.asMap().getRootHash());
+		assertEquals(new HashSet<>(Arrays.asList("player.hp", "player.name")), player.asMap().diff(other.asMap()));
+		
+		other.setHp(5).setName("Konloch2");
+		assertEquals(player.asMap().getRootHash(), other.asMap().getRootHash());
+		assertTrue(player.asMap().diff(other.asMap()).isEmpty());
+	}
+	
+	@Test
+	void transactionsSurviveARefresh()
+	{
+		PlayerVarsSchema player = new PlayerVarsSchema();
+		DynVarMap map = player.asMap();
+		
+		map.transaction(tx ->
+		{
+			tx.add("player.hp", 5);
+			tx.set("player.alive", false);
+		});
+		
+		//reading through the map refreshes from the generated fields, which the commit already wrote
+		assertEquals(105, map.getInt("player.hp"));
+		assertFalse(map.getBoolean("player.alive"));
+		assertEquals(105, player.hp);
+		assertFalse(player.alive);
+		
+		//and transactions read what was written directly to the fields
+		player.hp = 1;
+		assertEquals(1, map.<Integer>transactionThenGet(tx -> tx.getInt("player.hp")));
+		
+		map.transaction(tx -> tx.set("player.hp", tx.getInt("player.hp") * 3));
+		assertEquals(3, player.hp);
+		assertEquals(3, map.getInt("player.hp"));
+	}
+}
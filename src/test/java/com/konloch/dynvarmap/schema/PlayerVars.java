@@ -0,0 +1,27 @@
+package com.konloch.dynvarmap.schema;
+
+/**
+ * The schema the tests generate PlayerVarsSchema from, one variable of every supported type.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+@DynVarSchema(prefix = "player.")
+public interface PlayerVars
+{
+	@DynVarDefault("100")
+	int getHp();
+	
+	long getGold();
+	
+	@DynVarDefault("1.5")
+	double getSpeed();
+	
+	float getScale();
+	
+	@DynVarDefault("true")
+	boolean isAlive();
+	
+	@DynVarDefault("Konloch")
+	String getName();
+}
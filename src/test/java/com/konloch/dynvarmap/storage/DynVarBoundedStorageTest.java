@@ -0,0 +1,167 @@
+package com.konloch.dynvarmap.storage;
+
+import com.konloch.dynvarmap.DynVarChange;
+import com.konloch.dynvarmap.DynVarField;
+import com.konloch.dynvarmap.DynVarMap;
+import com.konloch.dynvarmap.DynVarUnsafe;
+import com.konloch.dynvarmap.vars.DynVarString;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Konloch
+ * @since 10/18/2026
+ */
+class DynVarBoundedStorageTest
+{
+	@Test
+	void lruEvictsTheLeastRecentlyUsed()
+	{
+		DynVarBoundedStorage storage = new DynVarBoundedStorage(DynVarEvictionPolicy.LRU, 3);
+		DynVarMap map = new DynVarMap(storage);
+		
+		map.put("a", 1).put("b", 2).put("c", 3);
+		map.getInt("a");
+		map.put("d", 4);
+		
+		assertEquals(3, storage.size());
+		assertTrue(map.containsKey("a"));
+		assertFalse(map.containsKey("b"));
+		assertEquals(1, storage.getEvictions());
+	}
+	
+	@Test
+	void evictionsNotifyBothListenerKinds()
+	{
+		List<String> evicted = new ArrayList<>();
+		List<DynVarChange> removed = new ArrayList<>();
+		
+		DynVarBoundedStorage storage = new DynVarBoundedStorage(DynVarEvictionPolicy.LRU, 2);
+		storage.addEvictionListener((key, field) -> evicted.add(key + "=" + field.get()));
+		DynVarMap map = new DynVarMap(storage);
+		map.addListener(removed::add);
+		
+		map.put("a", 1).put("b", 2).put("c", 3);
+		
+		assertEquals(1, evicted.size());
+		assertEquals("a=1", evicted.get(0));
+		assertTrue(removed.stream().anyMatch(change -> change.getType() == DynVarChange.Type.REMOVE && "a".equals(change.getKey())));
+	}
+	
+	@Test
+	void evictedFieldsLeaveTheMap()
+	{
+		DynVarBoundedStorage storage = new DynVarBoundedStorage(DynVarEvictionPolicy.LRU, 1);
+		DynVarMap map = new DynVarMap(storage);
+		
+		DynVarField first = map.getVarInt("a", 1);
+		map.put("b", 2);
+		
+		assertNull(first.getMap());
+		assertNull(first.getKey());
+	}
+	
+	@Test
+	void tinyLfuKeepsFrequentlyUsedVariables()
+	{
+		DynVarBoundedStorage storage = new DynVarBoundedStorage(DynVarEvictionPolicy.TINY_LFU, 100);
+		DynVarMap map = new DynVarMap(storage);
+		
+		for (int i = 0; i < 50; i++)
+			map.put("hot." + i, i);
+		
+		for (int round = 0; round < 20; round++)
+			for (int i = 0; i < 50; i++)
+				map.getInt("hot." + i);
+		
+		//a scan of one-hit keys should not flush the frequently used ones
+		for (int i = 0; i < 1_000; i++)
+			map.put("scan." + i, i);
+		
+		int kept = 0;
+		for (int i = 0; i < 50; i++)
+			if(storage.containsKey("hot." + i))
+				kept++;
+		
+		assertTrue(storage.size() <= 100);
+		assertTrue(kept >= 45, "only " + kept + " hot keys survived the scan");
+	}
+	
+	@Test
+	void byteLimitBoundsTheWeight()
+	{
+		DynVarBoundedStorage storage = new DynVarBoundedStorage(DynVarEvictionPolicy.LRU, Long.MAX_VALUE, 4_096);
+		DynVarMap map = new DynVarMap(storage);
+		
+		for (int i = 0; i < 1_000; i++)
+			map.put("key." + i, "some value " + i);
+		
+		assertTrue(storage.getWeight() <= 4_096);
+		assertTrue(storage.size() < 1_000);
+		assertTrue(storage.getEvictions() > 0);
+	}
+	
+	@Test
+	void valueChangesAreWeighedAgain()
+	{
+		DynVarBoundedStorage storage = new DynVarBoundedStorage(DynVarEvictionPolicy.LRU, Long.MAX_VALUE, 4_096);
+		DynVarMap map = new DynVarMap(storage);
+		map.put("a", "small").put("b", "small");
+		long before = storage.getWeight();
+		
+		//growing a value past the budget evicts the least recently used variable
+		map.getVarString("a").set(repeat('x', 8_192));
+		
+		assertTrue(storage.getWeight() > before);
+		assertFalse(map.containsKey("b"));
+		assertEquals(1, storage.getEvictions());
+		
+		map.getVarString("a").set("small");
+		assertTrue(storage.getWeight() <= 4_096);
+	}
+	
+	@Test
+	void fieldsEvictedWhileStoredNeverJoinTheMap()
+	{
+		List<DynVarChange> changes = new ArrayList<>();
+		DynVarBoundedStorage storage = new DynVarBoundedStorage(DynVarEvictionPolicy.TINY_LFU, 100, 4_096);
+		DynVarMap map = new DynVarMap(storage);
+		map.addListener(changes::add);
+		
+		//a is promoted into the protected space, b waits on probation and c sits in the admission window
+		DynVarField a = map.getVarInt("a", 1);
+		map.put("b", 2);
+		map.getInt("a");
+		map.put("c", 3);
+		changes.clear();
+		
+		//replacing a with a field too heavy to keep evicts b and then the replacement itself
+		DynVarField heavy = new DynVarString().set(repeat('x', 8_192));
+		DynVarUnsafe.putDirect(map, "a", heavy);
+		
+		assertFalse(map.containsKey("a"));
+		assertNull(heavy.getMap());
+		assertNull(a.getMap());
+		assertTrue(changes.stream().noneMatch(change -> change.getType() != DynVarChange.Type.REMOVE));
+		assertTrue(changes.stream().anyMatch(change -> "a".equals(change.getKey()) && change.getPreviousField() == a));
+	}
+	
+	@Test
+	void rejectsNonPositiveLimits()
+	{
+		assertThrows(IllegalArgumentException.class, () -> new DynVarBoundedStorage(DynVarEvictionPolicy.LRU, 0));
+		assertThrows(IllegalArgumentException.class, () -> new DynVarBoundedStorage(DynVarEvictionPolicy.LRU, 1, 0));
+	}
+	
+	private static String repeat(char c, int count)
+	{
+		char[] chars = new char[count];
+		Arrays.fill(chars, c);
+		return new String(chars);
+	}
+}
@@ -0,0 +1,174 @@
+package com.konloch.dynvarmap.storage;
+
+import com.konloch.dynvarmap.DynVarMap;
+import com.konloch.dynvarmap.DynVarView;
+import com.konloch.dynvarmap.vars.DynVarInteger;
+import com.konloch.dynvarmap.vars.DynVarString;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Konloch
+ * @since 10/18/2026
+ */
+class DynVarPersistentStorageTest
+{
+	@Test
+	void behavesLikeAHashMap()
+	{
+		Random random = new Random(42);
+		DynVarMap map = new DynVarMap(new DynVarPersistentStorage());
+		Map<String, Integer> expected = new HashMap<>();
+		
+		for (int i = 0; i < 20_000; i++)
+		{
+			String key = "key." + random.nextInt(2_000);
+			if(random.nextInt(5) == 0)
+			{
+				expected.remove(key);
+				map.remove(key);
+			}
+			else
+			{
+				expected.put(key, i);
+				map.put(key, i);
+			}
+		}
+		
+		assertEquals(expected.size(), map.getSize());
+		expected.forEach((key, value) -> assertEquals(value, map.getInt(key), key));
+		
+		DynVarSnapshot snapshot = map.snapshot();
+		assertEquals(expected.keySet(), snapshot.keySet());
+		expected.forEach((key, value) -> assertEquals(value, snapshot.<Integer>getValue(key), key));
+	}
+	
+	@Test
+	void snapshotsDoNotSeeLaterWrites()
+	{
+		DynVarMap map = new DynVarMap(new DynVarPersistentStorage()).put("hp", 10).put("name", "Konloch");
+		DynVarSnapshot snapshot = map.snapshot();
+		
+		map.getVarInt("hp").add(5);
+		map.put("name", 1);
+		map.remove("hp");
+		map.put("mp", 3);
+		
+		assertEquals(10, snapshot.<Integer>getValue("hp"));
+		assertEquals("Konloch", snapshot.<String>getValue("name"));
+		assertEquals(DynVarString.class, snapshot.getType("name"));
+		assertFalse(snapshot.containsKey("mp"));
+		assertEquals(2, snapshot.getSize());
+		
+		DynVarMap restored = snapshot.toMap();
+		assertEquals(10, restored.getInt("hp"));
+		restored.getVarInt("hp").set(0);
+		assertEquals(10, snapshot.<Integer>getValue("hp"));
+	}
+	
+	@Test
+	void valueChangesAreWrittenThroughWithoutAListener() throws ReflectiveOperationException
+	{
+		DynVarMap map = new DynVarMap(new DynVarPersistentStorage()).put("hp", 10).put("gold", 1);
+		map.getVarInt("hp").add(5);
+		map.set("gold", 2);
+		map.transaction(tx -> tx.add("gold", 3));
+		
+		assertEquals(15, map.snapshot().<Integer>getValue("hp"));
+		assertEquals(5, map.snapshot().<Integer>getValue("gold"));
+		
+		//nothing registered a listener, so changes don't allocate events
+		Field listeners = DynVarMap.class.getDeclaredField("listeners");
+		listeners.setAccessible(true);
+		assertNull(listeners.get(map));
+	}
+	
+	@Test
+	void forksAreIsolatedBothWays()
+	{
+		DynVarMap map = new DynVarMap(new DynVarPersistentStorage()).put("hp", 10).put("gold", 1);
+		DynVarMap fork = map.fork();
+		
+		fork.getVarInt("hp").set(1);
+		fork.remove("gold");
+		map.getVarInt("gold").add(9);
+		map.put("new", 1);
+		
+		assertEquals(10, map.getInt("hp"));
+		assertEquals(10, map.getInt("gold"));
+		assertEquals(1, fork.getInt("hp"));
+		assertFalse(fork.containsKey("gold"));
+		assertFalse(fork.containsKey("new"));
+		assertNotSame(map.get("hp"), fork.get("hp"));
+		assertInstanceOf(DynVarInteger.class, fork.get("hp"));
+	}
+	
+	@Test
+	void defaultStoragesAreCopied()
+	{
+		DynVarMap map = new DynVarMap().put("hp", 10);
+		DynVarSnapshot snapshot = map.snapshot();
+		DynVarMap fork = map.fork();
+		
+		map.getVarInt("hp").set(0);
+		fork.getVarInt("hp").add(1);
+		
+		assertEquals(10, snapshot.<Integer>getValue("hp"));
+		assertEquals(11, fork.getInt("hp"));
+		assertEquals(0, map.getInt("hp"));
+	}
+	
+	@Test
+	void viewsForkTheirParent()
+	{
+		DynVarMap map = new DynVarMap(new DynVarPersistentStorage()).put("player.1.hp", 10);
+		DynVarView view = map.view("player.1");
+		DynVarView fork = view.fork();
+		
+		fork.getVarInt("hp").set(0);
+		assertEquals(10, view.getInt("hp"));
+		assertEquals(0, fork.getInt("hp"));
+		assertEquals(10, view.snapshot().<Integer>getValue("player.1.hp"));
+	}
+	
+	@Test
+	void readersNeverSeeAPartialUpdate() throws InterruptedException
+	{
+		DynVarMap map = new DynVarMap(new DynVarPersistentStorage());
+		map.put("a", 0).put("b", 0);
+		
+		AtomicBoolean running = new AtomicBoolean(true);
+		AtomicReference<String> failure = new AtomicReference<>();
+		Thread reader = new Thread(() ->
+		{
+			while (running.get())
+			{
+				//the writer keeps a <= b <= a + 1, every snapshot must agree
+				DynVarSnapshot snapshot = map.snapshot();
+				int a = snapshot.<Integer>getValue("a");
+				int b = snapshot.<Integer>getValue("b");
+				if(b < a || b > a + 1)
+					failure.compareAndSet(null, a + " " + b);
+			}
+		});
+		
+		reader.start();
+		for (int i = 1; i <= 100_000; i++)
+		{
+			map.getVarInt("b").set(i);
+			map.getVarInt("a").set(i);
+		}
+		
+		running.set(false);
+		reader.join();
+		assertNull(failure.get());
+	}
+}
@@ -0,0 +1,116 @@
+package com.konloch.dynvarmap.storage;
+
+import com.konloch.dynvarmap.DynVarChange;
+import com.konloch.dynvarmap.DynVarField;
+import com.konloch.dynvarmap.DynVarMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Konloch
+ * @since 10/18/2026
+ */
+class DynVarRadixStorageTest
+{
+	@Test
+	void behavesLikeASortedMap()
+	{
+		Random random = new Random(35);
+		DynVarRadixStorage storage = new DynVarRadixStorage();
+		TreeMap<String, DynVarField> expected = new TreeMap<>();
+		
+		for (int i = 0; i < 5_000; i++)
+		{
+			String key = "player." + random.nextInt(50) + "." + (random.nextBoolean() ? "hp" : "hpMax");
+			if(random.nextInt(4) == 0)
+				assertSame(expected.remove(key), storage.remove(key), key);
+			else
+			{
+				DynVarField field = new DynVarField(i);
+				assertSame(expected.put(key, field), storage.put(key, field), key);
+			}
+		}
+		
+		assertEquals(expected.size(), storage.size());
+		assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(storage.keySet()));
+		
+		for (String key : expected.keySet())
+			assertSame(expected.get(key), storage.get(key));
+	}
+	
+	@Test
+	void prefixQueriesOnlySeeTheSubtree()
+	{
+		DynVarMap map = new DynVarMap(new DynVarRadixStorage());
+		map.put("player.1.hp", 10).put("player.1.mp", 5).put("player.12.hp", 7).put("player", 0).put("npc.1.hp", 3);
+		
+		assertEquals(Arrays.asList("player.1.hp", "player.1.mp"), map.keysWithPrefix("player.1."));
+		assertEquals(3, map.countWithPrefix("player.1"));
+		assertEquals(4, map.countWithPrefix("player"));
+		assertEquals(0, map.countWithPrefix("monster"));
+		assertEquals(5, map.countWithPrefix(""));
+		
+		List<String> visited = new ArrayList<>();
+		map.forEachWithPrefix("npc.", (key, field) -> visited.add(key + "=" + field.get()));
+		assertEquals(Arrays.asList("npc.1.hp=3"), visited);
+	}
+	
+	@Test
+	void removePrefixDetachesAndNotifies()
+	{
+		DynVarMap map = new DynVarMap(new DynVarRadixStorage());
+		map.put("player.1.hp", 10).put("player.1.mp", 5).put("player.12.hp", 7);
+		DynVarField hp = map.get("player.1.hp");
+		
+		List<DynVarChange> changes = new ArrayList<>();
+		map.addListener(changes::add);
+		
+		assertEquals(2, map.removePrefix("player.1."));
+		assertEquals(Arrays.asList("player.12.hp"), map.keysWithPrefix(""));
+		assertNull(hp.getMap());
+		assertEquals(2, changes.stream().filter(change -> change.getType() == DynVarChange.Type.REMOVE).count());
+		
+		assertEquals(0, map.removePrefix("missing."));
+		assertEquals(1, map.removePrefix(""));
+		assertTrue(map.isEmpty());
+	}
+	
+	@Test
+	void iteratorRemoveAndSplitting()
+	{
+		DynVarRadixStorage storage = new DynVarRadixStorage();
+		Map<String, DynVarField> expected = new TreeMap<>();
+		for (int i = 0; i < 1_000; i++)
+		{
+			DynVarField field = new DynVarField(i);
+			storage.put("key." + i, field);
+			expected.put("key." + i, field);
+		}
+		
+		List<String> parallel = StreamSupport.stream(storage.entrySet().spliterator(), true)
+				.map(Map.Entry::getKey)
+				.sorted()
+				.collect(Collectors.toList());
+		assertEquals(new ArrayList<>(expected.keySet()), parallel);
+		
+		Iterator<Map.Entry<String, DynVarField>> iterator = storage.entrySet().iterator();
+		while (iterator.hasNext())
+			if(iterator.next().getKey().endsWith("0"))
+				iterator.remove();
+		
+		assertEquals(900, storage.size());
+		assertNull(storage.get("key.10"));
+		assertNotNull(storage.get("key.11"));
+	}
+}
@@ -0,0 +1,134 @@
+package com.konloch.dynvarmap.storage;
+
+import com.konloch.dynvarmap.DynVarMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs against the packaged jar, on Java 11+ the multi-release DynVarSharedMemory accesses the mapped file
+ * through byte buffer view VarHandles instead of Unsafe.
+ *
+ * @author Konloch
+ * @since 10/18/2026
+ */
+class DynVarSharedMemoryIT
+{
+	private static final int THREADS = 4;
+	private static final int ADDS = 20_000;
+	
+	@TempDir
+	File directory;
+	
+	@BeforeEach
+	void setUp()
+	{
+		String version = System.getProperty("java.specification.version");
+		assumeTrue(!version.startsWith("1.") && Integer.parseInt(version) >= 11,
+				"The VarHandle memory is only loaded from the Java 11+ classes of the multi-release jar");
+	}
+	
+	@Test
+	void theVersionedClassIsLoaded() throws ReflectiveOperationException
+	{
+		assertEquals("java.lang.invoke.VarHandle", DynVarSharedMemory.class.getDeclaredField("LONGS").getType().getName());
+		assertThrows(IllegalArgumentException.class, () -> new DynVarSharedMemory(ByteBuffer.allocate(64)));
+	}
+	
+	@Test
+	void theLayoutIsNativeOrder()
+	{
+		ByteBuffer buffer = ByteBuffer.allocateDirect(64).order(ByteOrder.nativeOrder());
+		DynVarSharedMemory memory = new DynVarSharedMemory(buffer);
+		
+		memory.putIntVolatile(4, 0x01020304);
+		memory.putLongVolatile(8, 0x0102030405060708L);
+		assertEquals(0x01020304, buffer.getInt(4));
+		assertEquals(0x0102030405060708L, buffer.getLong(8));
+		
+		buffer.putLong(16, 41L);
+		assertEquals(41L, memory.getLongVolatile(16));
+		assertEquals(41L, memory.getAndAddLong(16, 1));
+		assertEquals(42L, memory.getAndSetLong(16, 7));
+		assertTrue(memory.compareAndSetLong(16, 7, 8));
+		assertFalse(memory.compareAndSetLong(16, 7, 9));
+		assertTrue(memory.compareAndSetInt(4, 0x01020304, 5));
+		assertEquals(8L, buffer.getLong(16));
+		assertEquals(5, buffer.getInt(4));
+		
+		memory.putByte(32, (byte) 3);
+		assertEquals(3, buffer.get(32));
+	}
+	
+	@Test
+	void concurrentAddsThroughTwoMappingsAreNotLost() throws Exception
+	{
+		File file = new File(directory, "shared.dvm");
+		
+		try (DynVarSharedStorage first = new DynVarSharedStorage(file);
+		     DynVarSharedStorage second = new DynVarSharedStorage(file))
+		{
+			DynVarMap a = new DynVarMap(first);
+			DynVarMap b = new DynVarMap(second);
+			a.getVarLong("counter").set(0L);
+			a.getVarLong("cas").set(0L);
+			
+			CountDownLatch start = new CountDownLatch(1);
+			ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+			
+			try
+			{
+				List<Future<?>> futures = new ArrayList<>();
+				for (int t = 0; t < THREADS; t++)
+				{
+					DynVarMap map = t % 2 == 0 ? a : b;
+					futures.add(pool.submit(() ->
+					{
+						start.await();
+						DynVarSharedLong counter = (DynVarSharedLong) map.getVarLong("counter");
+						DynVarSharedLong cas = (DynVarSharedLong) map.getVarLong("cas");
+						
+						for (int i = 0; i < ADDS; i++)
+						{
+							counter.add(1L);
+							
+							long current;
+							do
+							{
+								current = cas.get();
+							}
+							while (!cas.compareAndSet(current, current + 1));
+						}
+						return null;
+					}));
+				}
+				
+				start.countDown();
+				for (Future<?> future : futures)
+					future.get(60, TimeUnit.SECONDS);
+			}
+			finally
+			{
+				pool.shutdownNow();
+			}
+			
+			assertEquals((long) THREADS * ADDS, a.getLong("counter"));
+			assertEquals((long) THREADS * ADDS, b.getLong("counter"));
+			assertEquals((long) THREADS * ADDS, b.getLong("cas"));
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package com.konloch.dynvarmap.storage;
+
+import com.konloch.dynvarmap.DynVarMap;
+import com.konloch.dynvarmap.DynVarUnsafe;
+import com.konloch.dynvarmap.vars.DynVarLong;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Konloch
+ * @since 10/18/2026
+ */
+class DynVarSharedStorageTest
+{
+	@TempDir
+	File directory;
+	
+	@Test
+	void readsSeeWritesFromAnotherMapOverTheSameFile() throws IOException
+	{
+		File file = new File(directory, "shared.dvm");
+		try (DynVarSharedStorage writerStorage = new DynVarSharedStorage(file);
+		     DynVarSharedStorage readerStorage = new DynVarSharedStorage(file))
+		{
+			DynVarMap writer = new DynVarMap(writerStorage);
+			writer.getVarLong("a").set(1L);
+			writer.getVarLong("b").set(2L);
+			DynVarMap reader = new DynVarMap(readerStorage);
+			
+			//the reader caches its fields before the writer changes them
+			assertEquals(3L, reader.stats(DynVarLong.class).getLongSum());
+			long footprint = reader.estimateFootprint().getTotalBytes();
+			
+			writer.getVarLong("a").set(10L);
+			writer.getVarLong("b").set(20L);
+			
+			assertEquals(30L, reader.stats(DynVarLong.class).getLongSum());
+			assertEquals(20L, DynVarUnsafe.getValue(reader.get("b")));
+			assertEquals(footprint, reader.estimateFootprint().getTotalBytes());
+			assertEquals(writer.getRootHash(), reader.getRootHash());
+			assertTrue(writer.diff(reader).isEmpty());
+		}
+	}
+	
+	@Test
+	void slotsLeftBusyByADeadProcessTimeOut() throws Exception
+	{
+		File file = new File(directory, "shared.dvm");
+		try (DynVarSharedStorage crashed = new DynVarSharedStorage(file);
+		     DynVarSharedStorage storage = new DynVarSharedStorage(file).setBusyTimeout(50, TimeUnit.MILLISECONDS))
+		{
+			DynVarMap map = new DynVarMap(crashed).put("hp", 10).put("mp", 5);
+			
+			//a process that died between claiming the slot and releasing it
+			DynVarSharedSlot slot = ((DynVarSharedField) map.get("hp")).slot();
+			Field offset = DynVarSharedSlot.class.getDeclaredField("offset");
+			offset.setAccessible(true);
+			slot.getMemory().putIntVolatile(offset.getInt(slot) + DynVarSharedStorage.STATE, DynVarSharedStorage.BUSY);
+			
+			DynVarMap other = new DynVarMap(storage);
+			assertThrows(IllegalStateException.class, () -> other.get("hp"));
+			assertThrows(IllegalStateException.class, () -> other.put("hp", 1));
+			assertEquals(5, other.getInt("mp"));
+		}
+	}
+	
+	@Test
+	void nullAndNonNumericValuesAreRejected() throws IOException
+	{
+		try (DynVarSharedStorage storage = new DynVarSharedStorage(new File(directory, "shared.dvm")))
+		{
+			DynVarMap map = new DynVarMap(storage);
+			DynVarLong gold = map.getVarLong("gold");
+			gold.set(5L);
+			
+			assertThrows(IllegalArgumentException.class, () -> gold.set(null));
+			assertThrows(IllegalArgumentException.class, () -> gold.set("five"));
+			assertThrows(IllegalArgumentException.class, () -> map.getVarInt("hp").set(null));
+			assertThrows(IllegalArgumentException.class, () -> map.getVarDouble("speed").set(null));
+			assertThrows(IllegalArgumentException.class, () -> map.getVarBoolean("alive").set(null));
+			assertThrows(IllegalArgumentException.class, () -> map.transaction(tx -> tx.set("gold", null)));
+			
+			assertEquals(5L, map.getLong("gold"));
+		}
+	}
+}
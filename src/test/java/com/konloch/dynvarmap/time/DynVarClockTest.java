@@ -0,0 +1,103 @@
+package com.konloch.dynvarmap.time;
+
+import com.konloch.dynvarmap.DynVarMap;
+import com.konloch.dynvarmap.vars.DynVarTime;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Konloch
+ * @since 10/18/2026
+ */
+class DynVarClockTest
+{
+	@Test
+	void mapClockDrivesItsTimes()
+	{
+		DynVarManualClock clock = DynVarClocks.manual(1_000);
+		DynVarMap map = new DynVarMap().setClock(clock);
+		
+		DynVarTime time = map.getVarTime("started");
+		assertEquals(1_000, time.getTime());
+		assertFalse(time.hasPassed(500));
+		
+		clock.advance(501);
+		assertTrue(time.hasPassed(500));
+		assertTrue(time.hasPassedReset(500));
+		assertEquals(1_501, time.getTime());
+		assertFalse(time.hasPassed(500));
+	}
+	
+	@Test
+	void standaloneTimesUseTheDefaultClock()
+	{
+		DynVarClock previous = DynVarClocks.getDefault();
+		try
+		{
+			DynVarClocks.setDefault(DynVarClocks.manual(42));
+			
+			DynVarTime time = new DynVarTime();
+			time.setNow();
+			assertEquals(42, time.getTime());
+			
+			time.setNow(2);
+			assertEquals(40, time.getTime());
+			
+			DynVarClocks.setDefault(null);
+			assertSame(DynVarClocks.SYSTEM, DynVarClocks.getDefault());
+		}
+		finally
+		{
+			DynVarClocks.setDefault(previous);
+		}
+	}
+	
+	@Test
+	void settingNoClockFallsBackToTheDefault()
+	{
+		DynVarMap map = new DynVarMap().setClock(DynVarClocks.manual(7));
+		assertEquals(7, map.getClock().millis());
+		
+		map.setClock(null);
+		assertSame(DynVarClocks.getDefault(), map.getClock());
+	}
+	
+	@Test
+	void monotonicClockNeverGoesBackwards()
+	{
+		DynVarMonotonicClock clock = DynVarClocks.monotonic();
+		long wall = System.currentTimeMillis();
+		long last = clock.millis();
+		
+		assertTrue(Math.abs(last - wall) < 1_000);
+		
+		for (int i = 0; i < 10_000; i++)
+		{
+			long now = clock.millis();
+			assertTrue(now >= last);
+			last = now;
+		}
+	}
+	
+	@Test
+	void coarseClockOnlyMovesOnItsTicks() throws InterruptedException
+	{
+		DynVarManualClock source = DynVarClocks.manual(100);
+		
+		try (DynVarCoarseClock clock = new DynVarCoarseClock(source, 5))
+		{
+			assertEquals(100, clock.millis());
+			assertEquals(5, clock.getResolutionMillis());
+			
+			source.set(200);
+			long deadline = System.currentTimeMillis() + 5_000;
+			while (clock.millis() != 200 && System.currentTimeMillis() < deadline)
+				Thread.sleep(5);
+			
+			assertEquals(200, clock.millis());
+		}
+		
+		assertThrows(IllegalArgumentException.class, () -> DynVarClocks.coarse(0));
+	}
+}
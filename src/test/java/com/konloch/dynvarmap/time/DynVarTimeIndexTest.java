@@ -0,0 +1,141 @@
+package com.konloch.dynvarmap.time;
+
+import com.konloch.dynvarmap.DynVarMap;
+import com.konloch.dynvarmap.DynVarUnsafe;
+import com.konloch.dynvarmap.vars.DynVarLong;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Konloch
+ * @since 10/18/2026
+ */
+class DynVarTimeIndexTest
+{
+	@Test
+	void indexedAndScannedQueriesAgree()
+	{
+		DynVarManualClock clock = DynVarClocks.manual(10_000);
+		DynVarMap scanned = new DynVarMap().setClock(clock);
+		DynVarMap indexed = new DynVarMap().setClock(clock).enableTimeIndex();
+		
+		for (DynVarMap map : Arrays.asList(scanned, indexed))
+		{
+			map.getVarTime("a", 1_000);
+			map.getVarTime("b", 5_000);
+			map.getVarTime("c", 9_000);
+			map.put("not.a.time", 1);
+		}
+		
+		assertTrue(indexed.isTimeIndexed());
+		assertEquals(Arrays.asList("a", "b"), indexed.expiredSince(4_000));
+		assertEquals(scanned.expiredSince(4_000), indexed.expiredSince(4_000));
+		
+		//the scan returns the oldest first whatever order the variables were added in
+		DynVarMap reversed = new DynVarMap().setClock(clock);
+		reversed.getVarTime("c", 9_000);
+		reversed.getVarTime("b", 5_000);
+		reversed.getVarTime("a", 1_000);
+		assertEquals(Arrays.asList("a", "b", "c"), reversed.expiredSince(0));
+	}
+	
+	@Test
+	void valueChangesMoveTheVariable()
+	{
+		DynVarManualClock clock = DynVarClocks.manual(10_000);
+		DynVarMap map = new DynVarMap().setClock(clock);
+		map.getVarTime("a", 1_000);
+		map.getVarTime("b", 2_000);
+		map.enableTimeIndex();
+		
+		map.getVarTime("a").setNow();
+		assertEquals(Collections.singletonList("b"), map.expiredSince(1_000));
+		
+		map.getVarTime("b").add(9_500L);
+		assertEquals(Collections.emptyList(), map.expiredSince(1_000));
+		
+		map.transaction(tx -> tx.set("b", 0L));
+		assertEquals(Collections.singletonList("b"), map.expiredSince(1_000));
+	}
+	
+	@Test
+	void structuralChangesKeepTheIndexInSync()
+	{
+		DynVarManualClock clock = DynVarClocks.manual(10_000);
+		DynVarMap map = new DynVarMap().setClock(clock).enableTimeIndex();
+		map.getVarTime("a", 1_000);
+		map.getVarTime("b", 1_000);
+		map.getVarTime("c", 1_000);
+		
+		map.remove("a");
+		//a DynVarLong is not a DynVarTime, retyping drops it from the index
+		DynVarUnsafe.putDirect(map, "b", new DynVarLong().set(0L));
+		assertEquals(Collections.singletonList("c"), map.expiredSince(0));
+		
+		map.clear();
+		assertEquals(Collections.emptyList(), map.expiredSince(0));
+		
+		map.getVarTime("d", 1_000);
+		assertEquals(Collections.singletonList("d"), map.expiredSince(0));
+	}
+	
+	@Test
+	void pollExpiredResetsOnlyTheExpired()
+	{
+		DynVarManualClock clock = DynVarClocks.manual(10_000);
+		DynVarMap map = new DynVarMap().setClock(clock).enableTimeIndex();
+		map.getVarTime("old", 1_000);
+		map.getVarTime("new", 9_900);
+		
+		List<String> polled = new ArrayList<>();
+		assertEquals(1, map.pollExpired(500, (key, time) -> polled.add(key)));
+		assertEquals(Collections.singletonList("old"), polled);
+		assertEquals(10_000, map.getVarTime("old").getTime());
+		assertEquals(0, map.pollExpired(500, (key, time) -> polled.add(key)));
+	}
+	
+	@Test
+	void pollExpiredSkipsVariablesRemovedWhilePolling()
+	{
+		DynVarManualClock clock = DynVarClocks.manual(10_000);
+		DynVarMap map = new DynVarMap().setClock(clock);
+		map.getVarTime("a", 1_000);
+		map.getVarTime("b", 2_000);
+		map.getVarTime("c", 3_000);
+		
+		//the first expired variable removes and retypes the others before they are reached
+		List<String> polled = new ArrayList<>();
+		assertEquals(1, map.pollExpired(500, (key, time) ->
+		{
+			polled.add(key);
+			map.remove("b");
+			DynVarUnsafe.putDirect(map, "c", new DynVarLong().set(0L));
+		}));
+		assertEquals(Collections.singletonList("a"), polled);
+	}
+	
+	@Test
+	void equalTimesAreKeptApart()
+	{
+		DynVarMap map = new DynVarMap();
+		DynVarTimeIndex index = new DynVarTimeIndex(map);
+		
+		map.getVarTime("b", 100);
+		map.getVarTime("a", 100);
+		index.index("b", map.getVarTime("b"));
+		index.index("a", map.getVarTime("a"));
+		
+		assertEquals(2, index.size());
+		assertEquals("a", index.oldest());
+		assertEquals(Arrays.asList("a", "b"), index.before(101));
+		
+		index.index("a", map.get("missing"));
+		assertEquals(1, index.size());
+	}
+}
@@ -0,0 +1,156 @@
+package com.konloch.dynvarmap.time;
+
+import com.konloch.dynvarmap.DynVarMap;
+import com.konloch.dynvarmap.vars.DynVarTime;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Konloch
+ * @since 10/18/2026
+ */
+class DynVarTimerWheelTest
+{
+	@Test
+	void firesOnceTheDurationHasPassed()
+	{
+		DynVarTimerWheel wheel = new DynVarTimerWheel(10, 8);
+		DynVarTime time = time(1_000);
+		AtomicInteger fired = new AtomicInteger();
+		
+		DynVarTimeout timeout = wheel.schedule(time, 100, t -> fired.incrementAndGet());
+		
+		assertEquals(0, wheel.advance(1_000));
+		assertEquals(0, wheel.advance(1_100), "hasPassed is strict, the duration itself has not passed yet");
+		assertEquals(1, wheel.advance(1_101));
+		assertEquals(0, wheel.advance(5_000));
+		
+		assertEquals(1, fired.get());
+		assertTrue(timeout.isExpired());
+		assertEquals(0, wheel.size());
+	}
+	
+	@Test
+	void changingTheTimeReschedules()
+	{
+		DynVarTimerWheel wheel = new DynVarTimerWheel(10, 8);
+		DynVarTime time = time(1_000);
+		AtomicInteger fired = new AtomicInteger();
+		
+		wheel.schedule(time, 100, t -> fired.incrementAndGet());
+		wheel.advance(1_000);
+		
+		time.set(1_500L);
+		assertEquals(0, wheel.advance(1_101));
+		assertEquals(1, wheel.advance(1_601));
+		assertEquals(1, fired.get());
+	}
+	
+	@Test
+	void timesStoredInAMapStillReschedule()
+	{
+		DynVarMap map = new DynVarMap();
+		DynVarTime time = map.getVarTime("deadline");
+		time.set(1_000L);
+		
+		DynVarTimerWheel wheel = new DynVarTimerWheel(10, 8);
+		AtomicInteger fired = new AtomicInteger();
+		wheel.schedule(time, 100, t -> fired.incrementAndGet());
+		wheel.advance(1_000);
+		
+		map.getVarTime("deadline").set(2_000L);
+		assertEquals(0, wheel.advance(1_500));
+		assertEquals(1, wheel.advance(2_101));
+	}
+	
+	@Test
+	void cancelledTimeoutsNeverFire()
+	{
+		DynVarTimerWheel wheel = new DynVarTimerWheel(10, 8);
+		DynVarTime time = time(0);
+		AtomicInteger fired = new AtomicInteger();
+		
+		DynVarTimeout timeout = wheel.schedule(time, 50, t -> fired.incrementAndGet());
+		wheel.advance(0);
+		
+		assertTrue(timeout.cancel());
+		assertFalse(timeout.cancel());
+		assertEquals(0, wheel.advance(1_000));
+		assertEquals(0, fired.get());
+		assertEquals(0, wheel.size());
+		
+		//a cancelled timeout no longer follows the time
+		time.set(500L);
+		assertEquals(0, wheel.advance(2_000));
+	}
+	
+	@Test
+	void repeatingTimeoutsResetTheTime()
+	{
+		DynVarTimerWheel wheel = new DynVarTimerWheel(10, 8);
+		DynVarTime time = time(0);
+		List<Long> fired = new ArrayList<>();
+		
+		wheel.scheduleRepeating(time, 100, t -> fired.add(t.getTime()));
+		wheel.advance(0);
+		
+		assertEquals(1, wheel.advance(101));
+		assertEquals(0, wheel.advance(150));
+		assertEquals(1, wheel.advance(202));
+		
+		assertEquals(2, fired.size());
+		assertEquals(101L, fired.get(0));
+		assertEquals(202L, fired.get(1));
+	}
+	
+	@Test
+	void deadlinesBeyondOneRevolutionWaitTheirTurn()
+	{
+		//8 buckets of 10ms cover 80ms, a 1 second timeout passes its bucket many times before firing
+		DynVarTimerWheel wheel = new DynVarTimerWheel(10, 8);
+		DynVarTime time = time(0);
+		AtomicInteger fired = new AtomicInteger();
+		
+		wheel.schedule(time, 1_000, t -> fired.incrementAndGet());
+		
+		for (long now = 0; now <= 1_000; now += 10)
+			assertEquals(0, wheel.advance(now));
+		
+		assertEquals(1, wheel.advance(1_010));
+		assertEquals(1, fired.get());
+	}
+	
+	@Test
+	void largeGapsVisitEveryBucketOnce()
+	{
+		DynVarTimerWheel wheel = new DynVarTimerWheel(10, 8);
+		AtomicInteger fired = new AtomicInteger();
+		
+		for (int i = 0; i < 100; i++)
+			wheel.schedule(time(0), i * 7, t -> fired.incrementAndGet());
+		
+		assertEquals(0, wheel.advance(0));
+		assertEquals(100, wheel.advance(100_000));
+		assertEquals(0, wheel.size());
+	}
+	
+	@Test
+	void rejectsInvalidSizes()
+	{
+		assertThrows(IllegalArgumentException.class, () -> new DynVarTimerWheel(0, 8));
+		assertThrows(IllegalArgumentException.class, () -> new DynVarTimerWheel(10, 0));
+		assertEquals(10, new DynVarTimerWheel(10, 5).getTickMillis());
+	}
+	
+	private static DynVarTime time(long millis)
+	{
+		DynVarTime time = new DynVarTime();
+		time.set(millis);
+		return time;
+	}
+}